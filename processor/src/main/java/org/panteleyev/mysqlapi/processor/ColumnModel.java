@@ -0,0 +1,128 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.processor;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.panteleyev.mysqlapi.processor.DataTypes.BAD_FIELD_TYPE;
+import static org.panteleyev.mysqlapi.processor.DataTypes.ENUM_STORAGE_ENUM;
+import static org.panteleyev.mysqlapi.processor.DataTypes.ENUM_STORAGE_ORDINAL;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_BIG_DECIMAL;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_BOOL;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_BOOLEAN;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_BYTE_ARRAY;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_DATE;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_ENUM;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_INT;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_INTEGER;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_LOCAL_DATE;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_LONG;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_LONG_PRIM;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_STRING;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_UUID;
+
+/**
+ * Column of the table class.
+ *
+ * @param name          column name
+ * @param fieldName     name of the field
+ * @param typeName      type name as defined in {@link DataTypes}
+ * @param javaType      source representation of the field type
+ * @param privateField  if field is private
+ * @param primaryKey    if column is primary key
+ * @param autoIncrement if primary key is auto-incremented
+ * @param nullable      if column is nullable
+ * @param length        column length
+ * @param precision     numeric precision
+ * @param scale         numeric scale
+ * @param json          if column contains JSON
+ * @param uuidBinary    if UUID is stored as binary
+ * @param uuidSwapTime  if time parts of binary UUID are swapped
+ * @param enumStorage   enum storage name
+ * @param enumConstants enum constant names in declaration order, empty for other types
+ * @param unique        if column is unique
+ * @param foreignKey    foreign key constraint or null
+ * @param index         index name or null
+ * @param uniqueIndex   if index is unique
+ */
+record ColumnModel(String name, String fieldName, String typeName, String javaType, boolean privateField,
+                   boolean primaryKey, boolean autoIncrement, boolean nullable, int length, int precision,
+                   int scale, boolean json, boolean uuidBinary, boolean uuidSwapTime, String enumStorage, List<String> enumConstants,
+                   boolean unique, String foreignKey, String index, boolean uniqueIndex)
+{
+    private static final List<String> SUPPORTED_TYPES = List.of(TYPE_BIG_DECIMAL, TYPE_DATE, TYPE_LOCAL_DATE,
+        TYPE_LONG, TYPE_INTEGER, TYPE_BOOLEAN, TYPE_STRING, TYPE_UUID, TYPE_LONG_PRIM, TYPE_INT, TYPE_BOOL,
+        TYPE_BYTE_ARRAY, TYPE_ENUM);
+
+    static boolean isSupported(String typeName) {
+        return SUPPORTED_TYPES.contains(typeName);
+    }
+
+    boolean isPrimitive() {
+        return typeName.equals(TYPE_INT) || typeName.equals(TYPE_LONG_PRIM) || typeName.equals(TYPE_BOOL);
+    }
+
+    boolean isOrdinalEnum() {
+        return typeName.equals(TYPE_ENUM) && enumStorage.equals(ENUM_STORAGE_ORDINAL);
+    }
+
+    boolean isBinaryUuid() {
+        return typeName.equals(TYPE_UUID) && uuidBinary;
+    }
+
+    // Binary UUID is converted on the client side thus columns are used as is
+
+    String getSelectColumnString() {
+        return name;
+    }
+
+    String getInsertColumnPattern() {
+        return "?";
+    }
+
+    String getWhereColumnString() {
+        return name;
+    }
+
+    String getColumnString() {
+        var b = new StringBuilder(name).append(" ");
+
+        switch (typeName) {
+            case TYPE_STRING -> b.append(json ? "JSON" : "VARCHAR(" + length + ")");
+            case TYPE_ENUM -> {
+                if (isOrdinalEnum()) {
+                    b.append("TINYINT");
+                } else if (enumStorage.equals(ENUM_STORAGE_ENUM)) {
+                    b.append(enumConstants.stream()
+                        .map(c -> "'" + c + "'")
+                        .collect(Collectors.joining(",", "ENUM(", ")")));
+                } else {
+                    b.append("VARCHAR(").append(length).append(")");
+                }
+            }
+            case TYPE_BOOL, TYPE_BOOLEAN -> b.append("BOOLEAN");
+            case TYPE_INTEGER, TYPE_INT -> b.append("INTEGER");
+            case TYPE_LONG, TYPE_LONG_PRIM, TYPE_DATE, TYPE_LOCAL_DATE -> b.append("BIGINT");
+            case TYPE_BIG_DECIMAL -> b.append("DECIMAL(").append(precision).append(",").append(scale).append(")");
+            case TYPE_BYTE_ARRAY -> b.append("VARBINARY(").append(length).append(")");
+            case TYPE_UUID -> b.append(uuidBinary ? "BINARY(16)" : "VARCHAR(36)");
+            default -> throw new IllegalStateException(BAD_FIELD_TYPE + typeName);
+        }
+
+        if (primaryKey) {
+            b.append(" PRIMARY KEY");
+        }
+
+        if (!nullable) {
+            b.append(" NOT NULL");
+        }
+
+        if (unique) {
+            b.append(" UNIQUE");
+        }
+
+        return b.toString();
+    }
+}
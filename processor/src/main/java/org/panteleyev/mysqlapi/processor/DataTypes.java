@@ -0,0 +1,44 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.processor;
+
+/**
+ * Type names and annotations of <code>java-api-for-mysql</code>. Processor does not depend on the library thus
+ * they are referenced by name.
+ */
+interface DataTypes {
+    String TYPE_BIG_DECIMAL = "java.math.BigDecimal";
+    String TYPE_DATE        = "java.util.Date";
+    String TYPE_LOCAL_DATE  = "java.time.LocalDate";
+    String TYPE_LONG        = "java.lang.Long";
+    String TYPE_INTEGER     = "java.lang.Integer";
+    String TYPE_BOOLEAN     = "java.lang.Boolean";
+    String TYPE_STRING      = "java.lang.String";
+    String TYPE_UUID        = "java.util.UUID";
+    String TYPE_LONG_PRIM   = "long";
+    String TYPE_INT         = "int";
+    String TYPE_BOOL        = "boolean";
+    String TYPE_BYTE_ARRAY  = "byte[]";
+
+    String TYPE_ENUM        = "*** enum ***";
+
+    String ENUM_STORAGE_NAME    = "NAME";
+    String ENUM_STORAGE_ORDINAL = "ORDINAL";
+    String ENUM_STORAGE_ENUM    = "ENUM";
+
+    String ANNOTATIONS_PACKAGE = "org.panteleyev.mysqlapi.annotations.";
+    String TABLE               = ANNOTATIONS_PACKAGE + "Table";
+    String COLUMN              = ANNOTATIONS_PACKAGE + "Column";
+    String PRIMARY_KEY         = ANNOTATIONS_PACKAGE + "PrimaryKey";
+    String FOREIGN_KEY         = ANNOTATIONS_PACKAGE + "ForeignKey";
+    String INDEX               = ANNOTATIONS_PACKAGE + "Index";
+    String RECORD_BUILDER      = ANNOTATIONS_PACKAGE + "RecordBuilder";
+    String FETCH_PROFILE       = ANNOTATIONS_PACKAGE + "FetchProfile";
+    String FETCH_PROFILES      = ANNOTATIONS_PACKAGE + "FetchProfiles";
+
+    String TABLE_MAPPING       = "org.panteleyev.mysqlapi.TableMapping";
+
+    String BAD_FIELD_TYPE      = "Unsupported field type: ";
+}
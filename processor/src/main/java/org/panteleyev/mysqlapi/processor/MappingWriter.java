@@ -0,0 +1,524 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TABLE_MAPPING;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_BIG_DECIMAL;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_BOOL;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_BOOLEAN;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_BYTE_ARRAY;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_DATE;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_ENUM;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_INT;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_INTEGER;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_LOCAL_DATE;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_LONG;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_LONG_PRIM;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_STRING;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_UUID;
+
+/**
+ * Writes source of the generated mapping. Column values are read and written exactly the same way
+ * <code>MySqlClient</code> does at runtime. Private fields are accessed via variable handles resolved once by name,
+ * other fields and record components are accessed directly.
+ */
+class MappingWriter {
+    private static final Map<String, String> BOXED_TYPES = Map.of(
+        TYPE_INT, TYPE_INTEGER,
+        TYPE_LONG_PRIM, TYPE_LONG,
+        TYPE_BOOL, TYPE_BOOLEAN
+    );
+
+    private final TableModel model;
+    private final StringBuilder out = new StringBuilder();
+
+    MappingWriter(TableModel model) {
+        this.model = model;
+    }
+
+    void write(Writer writer) throws IOException {
+        var cls = model.className();
+        var primaryKey = model.primaryKey();
+
+        line(0, "// Generated by " + TableMappingProcessor.class.getName() + ". Do not edit.");
+        if (!model.packageName().isEmpty()) {
+            line(0, "package " + model.packageName() + ";");
+        }
+        line(0, "");
+        line(0, "public final class " + model.mappingName() + " implements " + TABLE_MAPPING + "<" + cls + "> {");
+        line(1, "private static final String NO_PRIMARY_KEY = "
+            + literal("No primary key defined for " + cls) + ";");
+        line(1, "private static final java.util.List<String> CREATE_TABLE_SQL = java.util.List.of(");
+        line(2, model.getCreateTableSql().stream().map(MappingWriter::literal)
+            .collect(Collectors.joining(",\n" + indent(2))));
+        line(1, ");");
+        line(1, "private static final java.util.List<String> COLUMN_NAMES = java.util.List.of("
+            + model.columns().stream().map(c -> literal(c.name())).collect(Collectors.joining(", ")) + ");");
+        writeFetchProfiles();
+        writeHandles();
+
+        line(1, "public " + model.mappingName() + "() {");
+        line(1, "}");
+
+        method("Class<" + cls + "> getTableClass()", "return " + cls + ".class;");
+        method("String getTableName()", "return " + literal(model.tableName()) + ";");
+        method("String getPrimaryKeyColumn()",
+            "return " + primaryKey.map(pk -> literal(pk.name())).orElse("null") + ";");
+        method("Class<?> getPrimaryKeyType()",
+            "return " + primaryKey.map(pk -> pk.javaType() + ".class").orElse("null") + ";");
+        method("boolean isAutoIncrement()",
+            "return " + primaryKey.map(ColumnModel::autoIncrement).orElse(false) + ";");
+        method("String getSelectAllSql()", "return " + literal(model.getSelectAllSql()) + ";");
+        method("String getSelectByIdSql()", returnOrThrow(model.getSelectByIdSql().orElse(null)));
+        method("String getInsertSql()", "return " + literal(model.getInsertSql()) + ";");
+        method("String getUpdateSql()", returnOrThrow(model.getUpdateSql().orElse(null)));
+        method("String getDeleteSql()", returnOrThrow(model.getDeleteSql().orElse(null)));
+        method("java.util.List<String> getCreateTableSql()", "return CREATE_TABLE_SQL;");
+        method("java.util.List<String> getColumnNames()", "return COLUMN_NAMES;");
+        method("java.util.Map<String, java.util.List<String>> getFetchProfiles()", "return FETCH_PROFILES;");
+
+        writeBinaryColumns();
+        writeMap();
+        writeColumnReader();
+        writeBinder("bindInsert", model.columns());
+        writeBinder("bindUpdate", model.getUpdateColumns());
+        writeColumnBinder();
+
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public void bindPrimaryKey(Object key, java.sql.PreparedStatement st, int index)"
+            + " throws java.sql.SQLException {");
+        if (primaryKey.isPresent()) {
+            var pk = primaryKey.get();
+            var boxed = BOXED_TYPES.get(pk.typeName());
+            writeSetter(2, pk, boxed != null ? boxed : pk.typeName(), "(" + (boxed != null ? boxed : pk.javaType())
+                + ") key", "index", 0);
+        } else {
+            line(2, "throw new IllegalStateException(NO_PRIMARY_KEY);");
+        }
+        line(1, "}");
+
+        method("Object getPrimaryKey(" + cls + " record)", primaryKey.isPresent() ?
+            "return " + getValue(primaryKey.get()) + ";" : "throw new IllegalStateException(NO_PRIMARY_KEY);");
+
+        if (model.columns().stream().anyMatch(ColumnModel::isBinaryUuid)) {
+            writeUuidConverters();
+        }
+        writeEnumDecoders();
+
+        line(0, "}");
+        writer.write(out.toString());
+    }
+
+    private void writeFetchProfiles() {
+        var profiles = model.profiles();
+        if (profiles.isEmpty()) {
+            line(1, "private static final java.util.Map<String, java.util.List<String>> FETCH_PROFILES ="
+                + " java.util.Map.of();");
+            return;
+        }
+
+        line(1, "private static final java.util.Map<String, java.util.List<String>> FETCH_PROFILES ="
+            + " java.util.Map.ofEntries(");
+        line(2, profiles.entrySet().stream()
+            .map(e -> "java.util.Map.entry(" + literal(e.getKey()) + ", java.util.List.of("
+                + e.getValue().stream().map(MappingWriter::literal).collect(Collectors.joining(", ")) + "))")
+            .collect(Collectors.joining(",\n" + indent(2))));
+        line(1, ");");
+    }
+
+    private void writeHandles() {
+        // Constants of enums stored as ordinals, values() copies the array on each call
+        var columns = model.columns();
+        for (int i = 0; i < columns.size(); i++) {
+            var column = columns.get(i);
+            if (column.isOrdinalEnum()) {
+                line(1, "private static final " + column.javaType() + "[] " + enumValues(i + 1) + " = "
+                    + column.javaType() + ".values();");
+            }
+        }
+
+        var handles = model.columns().stream()
+            .filter(this::useHandle)
+            .toList();
+        if (handles.isEmpty()) {
+            return;
+        }
+
+        var cls = model.className();
+        for (var column : handles) {
+            line(1, "private static final java.lang.invoke.VarHandle " + handle(column) + ";");
+        }
+        line(0, "");
+        line(1, "static {");
+        line(2, "try {");
+        line(3, "var lookup = java.lang.invoke.MethodHandles.privateLookupIn(" + cls + ".class,");
+        line(4, "java.lang.invoke.MethodHandles.lookup());");
+        for (var column : handles) {
+            line(3, handle(column) + " = lookup.findVarHandle(" + cls + ".class, "
+                + literal(column.fieldName()) + ", " + column.javaType() + ".class);");
+        }
+        line(2, "} catch (ReflectiveOperationException ex) {");
+        line(3, "throw new ExceptionInInitializerError(ex);");
+        line(2, "}");
+        line(1, "}");
+        line(0, "");
+    }
+
+    private void writeBinaryColumns() {
+        var binary = model.columns().stream()
+            .filter(c -> c.typeName().equals(TYPE_BYTE_ARRAY) || c.isBinaryUuid())
+            .map(c -> literal(c.name()))
+            .toList();
+        if (binary.isEmpty()) {
+            method("boolean isBinaryColumn(String column)", "return false;");
+            return;
+        }
+
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public boolean isBinaryColumn(String column) {");
+        line(2, "return switch (column) {");
+        line(3, "case " + String.join(", ", binary) + " -> true;");
+        line(3, "default -> false;");
+        line(2, "};");
+        line(1, "}");
+    }
+
+    private void writeMap() {
+        var cls = model.className();
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public " + cls + " map(java.sql.ResultSet set) throws java.sql.SQLException {");
+
+        if (model.kind() == TableModel.Kind.FIELDS) {
+            line(2, "var record = new " + cls + "();");
+            var columns = model.columns();
+            for (int i = 0; i < columns.size(); i++) {
+                var column = columns.get(i);
+                var variable = "v" + (i + 1);
+                writeReader(2, column, column.javaType(), i + 1, Integer.toString(i + 1), variable);
+                if (useHandle(column)) {
+                    line(2, handle(column) + ".set(record, " + variable + ");");
+                } else {
+                    line(2, "record." + column.fieldName() + " = " + variable + ";");
+                }
+            }
+            line(2, "return record;");
+        } else {
+            var parameters = model.parameters();
+            for (int i = 0; i < parameters.size(); i++) {
+                var parameter = parameters.get(i);
+                var index = model.getColumnIndex(parameter.column());
+                writeReader(2, model.columns().get(index - 1), parameter.javaType(), index, Integer.toString(index),
+                    "v" + (i + 1));
+            }
+            var arguments = new StringBuilder();
+            for (int i = 1; i <= parameters.size(); i++) {
+                arguments.append(i == 1 ? "" : ", ").append("v").append(i);
+            }
+            line(2, "return new " + cls + "(" + arguments + ");");
+        }
+        line(1, "}");
+    }
+
+    private void writeBinder(String name, List<ColumnModel> columns) {
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public void " + name + "(" + model.className() + " record, java.sql.PreparedStatement st)"
+            + " throws java.sql.SQLException {");
+        for (int i = 0; i < columns.size(); i++) {
+            var column = columns.get(i);
+            writeSetter(2, column, column.typeName(), getValue(column), Integer.toString(i + 1), i + 1);
+        }
+        line(1, "}");
+    }
+
+    /**
+     * Writes reader of the single column value at the given position of the result set.
+     */
+    private void writeColumnReader() {
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public Object readColumn(String column, java.sql.ResultSet set, int index)"
+            + " throws java.sql.SQLException {");
+        line(2, "switch (column) {");
+        var columns = model.columns();
+        for (int i = 0; i < columns.size(); i++) {
+            var column = columns.get(i);
+            var variable = "v" + (i + 1);
+            line(3, "case " + literal(column.name()) + " -> {");
+            writeReader(4, column, column.javaType(), i + 1, "index", variable);
+            line(4, "return " + variable + ";");
+            line(3, "}");
+        }
+        writeUnknownColumn();
+        line(2, "}");
+        line(1, "}");
+    }
+
+    /**
+     * Writes setter of the single column value, value is cast to the boxed field type.
+     */
+    private void writeColumnBinder() {
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public void bindColumn(String column, Object value, java.sql.PreparedStatement st, int index)"
+            + " throws java.sql.SQLException {");
+        line(2, "switch (column) {");
+        var columns = model.columns();
+        for (int i = 0; i < columns.size(); i++) {
+            var column = columns.get(i);
+            var boxed = BOXED_TYPES.get(column.typeName());
+            line(3, "case " + literal(column.name()) + " -> {");
+            writeSetter(4, column, boxed != null ? boxed : column.typeName(),
+                "(" + (boxed != null ? boxed : column.javaType()) + ") value", "index", i + 1);
+            line(3, "}");
+        }
+        writeUnknownColumn();
+        line(2, "}");
+        line(1, "}");
+    }
+
+    private void writeUnknownColumn() {
+        line(3, "default -> throw new IllegalArgumentException(\"Unknown column \" + column + "
+            + literal(" of " + model.className()) + ");");
+    }
+
+    private void writeReader(int level, ColumnModel column, String javaType, int number, String index,
+                             String variable)
+    {
+        var declaration = javaType + " " + variable + " = ";
+        if (column.isOrdinalEnum()) {
+            line(level, "var o" + number + " = set.getInt(" + index + ");");
+            line(level, declaration + "set.wasNull() ? null : " + enumDecoder(number) + "(o" + number + ");");
+            return;
+        }
+
+        var typeName = column.typeName();
+        switch (typeName) {
+            case TYPE_INT -> line(level, declaration + "set.getInt(" + index + ");");
+            case TYPE_LONG_PRIM -> line(level, declaration + "set.getLong(" + index + ");");
+            case TYPE_BOOL -> line(level, declaration + "set.getBoolean(" + index + ");");
+            case TYPE_STRING, TYPE_INTEGER, TYPE_LONG, TYPE_BOOLEAN ->
+                line(level, declaration + "(" + javaType + ") set.getObject(" + index + ");");
+            case TYPE_BIG_DECIMAL -> line(level, declaration + "set.getBigDecimal(" + index + ");");
+            case TYPE_BYTE_ARRAY -> line(level, declaration + "set.getBytes(" + index + ");");
+            case TYPE_DATE -> line(level, declaration + "set.getObject(" + index + ") == null ? null : "
+                + "new java.util.Date(set.getLong(" + index + "));");
+            case TYPE_LOCAL_DATE -> line(level, declaration + "set.getObject(" + index + ") == null ? null : "
+                + "java.time.LocalDate.ofEpochDay(set.getLong(" + index + "));");
+            case TYPE_UUID -> {
+                if (column.isBinaryUuid()) {
+                    line(level, "var b" + number + " = set.getBytes(" + index + ");");
+                    line(level, declaration + "b" + number + " == null ? null : uuidFromBytes(b" + number + ", "
+                        + column.uuidSwapTime() + ");");
+                    return;
+                }
+                line(level, "var s" + number + " = set.getString(" + index + ");");
+                line(level, declaration + "s" + number + " == null ? null : java.util.UUID.fromString(s" + number
+                    + ");");
+            }
+            case TYPE_ENUM -> {
+                line(level, "var s" + number + " = set.getString(" + index + ");");
+                line(level, declaration + "s" + number + " == null ? null : " + enumDecoder(number) + "(s" + number
+                    + ");");
+            }
+            default -> throw new IllegalStateException(DataTypes.BAD_FIELD_TYPE + typeName);
+        }
+    }
+
+    private void writeSetter(int level, ColumnModel column, String typeName, String value, String index,
+                             int number)
+    {
+        var ordinalEnum = column.isOrdinalEnum();
+        switch (typeName) {
+            case TYPE_INT -> line(level, "st.setInt(" + index + ", " + value + ");");
+            case TYPE_LONG_PRIM -> line(level, "st.setLong(" + index + ", " + value + ");");
+            case TYPE_BOOL -> line(level, "st.setBoolean(" + index + ", " + value + ");");
+            default -> {
+                var variable = "p" + number;
+                String sqlType;
+                String setter;
+                switch (typeName) {
+                    case TYPE_STRING -> {
+                        sqlType = "VARCHAR";
+                        setter = "setString(" + index + ", " + variable + ")";
+                    }
+                    case TYPE_UUID -> {
+                        sqlType = column.isBinaryUuid() ? "BINARY" : "VARCHAR";
+                        setter = column.isBinaryUuid() ?
+                            "setBytes(" + index + ", uuidToBytes(" + variable + ", " + column.uuidSwapTime() + "))"
+                            : "setString(" + index + ", " + variable + ".toString())";
+                    }
+                    case TYPE_ENUM -> {
+                        sqlType = ordinalEnum ? "TINYINT" : "VARCHAR";
+                        setter = ordinalEnum ? "setInt(" + index + ", " + variable + ".ordinal())"
+                            : "setString(" + index + ", " + variable + ".name())";
+                    }
+                    case TYPE_BOOLEAN -> {
+                        sqlType = "BOOLEAN";
+                        setter = "setBoolean(" + index + ", " + variable + ")";
+                    }
+                    case TYPE_INTEGER -> {
+                        sqlType = "INTEGER";
+                        setter = "setInt(" + index + ", " + variable + ")";
+                    }
+                    case TYPE_LONG -> {
+                        sqlType = "INTEGER";
+                        setter = "setLong(" + index + ", " + variable + ")";
+                    }
+                    case TYPE_DATE -> {
+                        sqlType = "INTEGER";
+                        setter = "setLong(" + index + ", " + variable + ".getTime())";
+                    }
+                    case TYPE_LOCAL_DATE -> {
+                        sqlType = "INTEGER";
+                        setter = "setLong(" + index + ", " + variable + ".toEpochDay())";
+                    }
+                    case TYPE_BIG_DECIMAL -> {
+                        sqlType = "DECIMAL";
+                        setter = "setBigDecimal(" + index + ", " + variable + ")";
+                    }
+                    case TYPE_BYTE_ARRAY -> {
+                        sqlType = "VARBINARY";
+                        setter = "setBytes(" + index + ", " + variable + ")";
+                    }
+                    default -> throw new IllegalStateException(DataTypes.BAD_FIELD_TYPE + typeName);
+                }
+                line(level, "var " + variable + " = " + value + ";");
+                line(level, "if (" + variable + " == null) {");
+                line(level + 1, "st.setNull(" + index + ", java.sql.Types." + sqlType + ");");
+                line(level, "} else {");
+                line(level + 1, "st." + setter + ";");
+                line(level, "}");
+            }
+        }
+    }
+
+    /**
+     * Writes the same conversion as <code>UUID_TO_BIN(uuid, swap)</code> and <code>BIN_TO_UUID(bytes, swap)</code>
+     * do on the server.
+     */
+    private void writeUuidConverters() {
+        line(0, "");
+        line(1, "private static byte[] uuidToBytes(java.util.UUID uuid, boolean swap) {");
+        line(2, "var msb = uuid.getMostSignificantBits();");
+        line(2, "if (swap) {");
+        line(3, "msb = (msb << 48) | ((msb >>> 16 & 0xFFFFL) << 32) | (msb >>> 32);");
+        line(2, "}");
+        line(2, "return java.nio.ByteBuffer.allocate(16).putLong(msb)"
+            + ".putLong(uuid.getLeastSignificantBits()).array();");
+        line(1, "}");
+        line(0, "");
+        line(1, "private static java.util.UUID uuidFromBytes(byte[] bytes, boolean swap) {");
+        line(2, "if (bytes.length != 16) {");
+        line(3, "throw new IllegalArgumentException(\"Binary UUID must be 16 bytes long\");");
+        line(2, "}");
+        line(2, "var buffer = java.nio.ByteBuffer.wrap(bytes);");
+        line(2, "var msb = buffer.getLong();");
+        line(2, "if (swap) {");
+        line(3, "msb = (msb << 32) | ((msb >>> 32 & 0xFFFFL) << 16) | (msb >>> 48);");
+        line(2, "}");
+        line(2, "return new java.util.UUID(msb, buffer.getLong());");
+        line(1, "}");
+    }
+
+    /**
+     * Writes conversion of the column value to the enum constant for each enum column. Names are matched by string
+     * switch, ordinals are checked against the constant table. Unknown values are rejected with the same exception
+     * as <code>MySqlClient</code> throws at runtime.
+     */
+    private void writeEnumDecoders() {
+        var columns = model.columns();
+        for (int i = 0; i < columns.size(); i++) {
+            var column = columns.get(i);
+            if (!column.typeName().equals(TYPE_ENUM)) {
+                continue;
+            }
+
+            var type = column.javaType();
+            var decoder = enumDecoder(i + 1);
+            line(0, "");
+            if (column.isOrdinalEnum()) {
+                var values = enumValues(i + 1);
+                line(1, "private static " + type + " " + decoder + "(int ordinal) {");
+                line(2, "if (ordinal < 0 || ordinal >= " + values + ".length) {");
+                line(3, "throw new IllegalArgumentException(" + literal("No enum constant " + type + " with ordinal ")
+                    + " + ordinal);");
+                line(2, "}");
+                line(2, "return " + values + "[ordinal];");
+            } else {
+                line(1, "private static " + type + " " + decoder + "(String name) {");
+                line(2, "return switch (name) {");
+                for (var constant : column.enumConstants()) {
+                    line(3, "case " + literal(constant) + " -> " + type + "." + constant + ";");
+                }
+                line(3, "default -> throw new IllegalArgumentException(" + literal("No enum constant " + type + ".")
+                    + " + name);");
+                line(2, "};");
+            }
+            line(1, "}");
+        }
+    }
+
+    private String getValue(ColumnModel column) {
+        if (model.kind() == TableModel.Kind.RECORD) {
+            return "record." + column.fieldName() + "()";
+        } else if (useHandle(column)) {
+            return "(" + column.javaType() + ") " + handle(column) + ".get(record)";
+        } else {
+            return "record." + column.fieldName();
+        }
+    }
+
+    private boolean useHandle(ColumnModel column) {
+        return column.privateField() && model.kind() != TableModel.Kind.RECORD;
+    }
+
+    private static String enumValues(int index) {
+        return "ENUM_VALUES_" + index;
+    }
+
+    private static String enumDecoder(int index) {
+        return "enum" + index;
+    }
+
+    private static String handle(ColumnModel column) {
+        return "HANDLE_" + column.fieldName();
+    }
+
+    private void method(String signature, String body) {
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public " + signature + " {");
+        line(2, body);
+        line(1, "}");
+    }
+
+    private static String returnOrThrow(String sql) {
+        return sql == null ? "throw new IllegalStateException(NO_PRIMARY_KEY);" : "return " + literal(sql) + ";";
+    }
+
+    private void line(int level, String text) {
+        if (!text.isEmpty()) {
+            out.append(indent(level)).append(text);
+        }
+        out.append("\n");
+    }
+
+    private static String indent(int level) {
+        return "    ".repeat(level);
+    }
+
+    private static String literal(String value) {
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+}
@@ -0,0 +1,15 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.processor;
+
+/**
+ * Parameter of the constructor used for deserialization.
+ *
+ * @param column   column name
+ * @param typeName type name as defined in {@link DataTypes}
+ * @param javaType source representation of the parameter type
+ */
+record ParameterModel(String column, String typeName, String javaType) {
+}
@@ -0,0 +1,410 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import static org.panteleyev.mysqlapi.processor.DataTypes.BAD_FIELD_TYPE;
+import static org.panteleyev.mysqlapi.processor.DataTypes.COLUMN;
+import static org.panteleyev.mysqlapi.processor.DataTypes.ENUM_STORAGE_ORDINAL;
+import static org.panteleyev.mysqlapi.processor.DataTypes.FETCH_PROFILE;
+import static org.panteleyev.mysqlapi.processor.DataTypes.FETCH_PROFILES;
+import static org.panteleyev.mysqlapi.processor.DataTypes.FOREIGN_KEY;
+import static org.panteleyev.mysqlapi.processor.DataTypes.INDEX;
+import static org.panteleyev.mysqlapi.processor.DataTypes.PRIMARY_KEY;
+import static org.panteleyev.mysqlapi.processor.DataTypes.RECORD_BUILDER;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TABLE;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TABLE_MAPPING;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_BOOL;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_BYTE_ARRAY;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_ENUM;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_INT;
+import static org.panteleyev.mysqlapi.processor.DataTypes.TYPE_LONG_PRIM;
+
+/**
+ * Generates <code>TableMapping</code> implementation for each class annotated with <code>@Table</code> and
+ * registers generated classes in <code>META-INF/services</code>.
+ */
+@SupportedAnnotationTypes(TABLE)
+public class TableMappingProcessor extends AbstractProcessor {
+    static final String MAPPING_SUFFIX = "_TableMapping";
+
+    private static final String SERVICE_FILE = "META-INF/services/" + TABLE_MAPPING;
+    private static final int MAX_ORDINAL_CONSTANTS = Byte.MAX_VALUE + 1;
+
+    private static final class ProcessingException extends Exception {
+        private final Element element;
+
+        ProcessingException(String message, Element element) {
+            super(message);
+            this.element = element;
+        }
+    }
+
+    private final Set<String> mappings = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!mappings.isEmpty()) {
+                writeServiceFile();
+            }
+            return false;
+        }
+
+        var tableAnnotation = processingEnv.getElementUtils().getTypeElement(TABLE);
+        if (tableAnnotation == null) {
+            return false;
+        }
+
+        for (var element : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(tableAnnotation))) {
+            if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.RECORD
+                || element.getModifiers().contains(Modifier.ABSTRACT))
+            {
+                continue;
+            }
+
+            try {
+                var model = buildModel(element);
+                var sourceName = model.packageName().isEmpty() ?
+                    model.mappingName() : model.packageName() + "." + model.mappingName();
+                var file = processingEnv.getFiler().createSourceFile(sourceName, element);
+                try (var writer = file.openWriter()) {
+                    new MappingWriter(model).write(writer);
+                }
+                mappings.add(sourceName);
+            } catch (ProcessingException ex) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, ex.getMessage(), ex.element);
+            } catch (IOException ex) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, ex.toString(), element);
+            }
+        }
+
+        return false;
+    }
+
+    private TableModel buildModel(TypeElement type) throws ProcessingException {
+        if (type.getModifiers().contains(Modifier.PRIVATE)
+            || type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)
+            && type.getKind() != ElementKind.RECORD)
+        {
+            throw new ProcessingException("Table class must be top level or static nested non-private class", type);
+        }
+
+        // @Table is inherited
+        var tableName = processingEnv.getElementUtils().getAllAnnotationMirrors(type).stream()
+            .filter(a -> isAnnotation(a, TABLE))
+            .findFirst()
+            .map(a -> (String) getValues(a).get("value"))
+            .orElseThrow();
+
+        var columns = new ArrayList<ColumnModel>();
+        for (var field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+
+            var column = findAnnotation(field, COLUMN);
+            if (column.isPresent()) {
+                columns.add(buildColumn(field, getValues(column.get())));
+            }
+        }
+
+        if (columns.isEmpty()) {
+            throw new ProcessingException("Class " + type.getQualifiedName() + " has no column annotations", type);
+        }
+
+        var packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        var className = type.getQualifiedName().toString();
+        var flatName = packageName.isEmpty() ? className : className.substring(packageName.length() + 1);
+        var mappingName = flatName.replace('.', '_') + MAPPING_SUFFIX;
+
+        var builder = findRecordBuilder(type);
+        TableModel.Kind kind;
+        var parameters = new ArrayList<ParameterModel>();
+
+        if (type.getKind() == ElementKind.RECORD) {
+            kind = TableModel.Kind.RECORD;
+            for (var component : type.getRecordComponents()) {
+                var column = findAnnotation(component, COLUMN);
+                if (column.isEmpty()) {
+                    throw new ProcessingException("All record components must be annotated with @Column",
+                        component);
+                }
+                parameters.add(new ParameterModel((String) getValues(column.get()).get("value"),
+                    getTypeName(component.asType()), getJavaType(component.asType())));
+            }
+        } else if (builder.isPresent()) {
+            kind = TableModel.Kind.CONSTRUCTOR;
+            for (var parameter : builder.get().getParameters()) {
+                var column = findAnnotation(parameter, COLUMN);
+                if (column.isEmpty()) {
+                    throw new ProcessingException("All constructor parameters must be annotated with @Column",
+                        parameter);
+                }
+                var name = (String) getValues(column.get()).get("value");
+                if (columns.stream().noneMatch(c -> c.name().equals(name))) {
+                    throw new ProcessingException("Class has no column " + name, parameter);
+                }
+                var typeName = getTypeName(parameter.asType());
+                if (!ColumnModel.isSupported(typeName)) {
+                    throw new ProcessingException(BAD_FIELD_TYPE + typeName, parameter);
+                }
+                parameters.add(new ParameterModel(name, typeName, getJavaType(parameter.asType())));
+            }
+        } else {
+            kind = TableModel.Kind.FIELDS;
+            var hasConstructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+            if (!hasConstructor) {
+                throw new ProcessingException("Table class must have non-private no-arg constructor", type);
+            }
+            for (var field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (field.getModifiers().contains(Modifier.FINAL) && findAnnotation(field, COLUMN).isPresent()) {
+                    throw new ProcessingException("Final fields require @RecordBuilder constructor", field);
+                }
+            }
+        }
+
+        return new TableModel(packageName, className, mappingName, tableName, kind, columns, parameters,
+            buildFetchProfiles(type, columns));
+    }
+
+    /**
+     * Returns fetch profiles declared by <code>@FetchProfile</code> annotations, repeated annotations are wrapped
+     * into <code>@FetchProfiles</code> container.
+     */
+    private Map<String, List<String>> buildFetchProfiles(TypeElement type, List<ColumnModel> columns)
+        throws ProcessingException
+    {
+        var annotations = new ArrayList<AnnotationMirror>();
+        findAnnotation(type, FETCH_PROFILE).ifPresent(annotations::add);
+        var container = findAnnotation(type, FETCH_PROFILES);
+        if (container.isPresent()) {
+            for (var value : (List<?>) getValues(container.get()).get("value")) {
+                annotations.add((AnnotationMirror) ((AnnotationValue) value).getValue());
+            }
+        }
+
+        var result = new LinkedHashMap<String, List<String>>();
+        for (var annotation : annotations) {
+            var values = getValues(annotation);
+            var name = (String) values.get("value");
+            var profileColumns = new ArrayList<String>();
+            for (var value : (List<?>) values.get("columns")) {
+                var column = (String) ((AnnotationValue) value).getValue();
+                if (columns.stream().noneMatch(c -> c.name().equals(column))) {
+                    throw new ProcessingException("Fetch profile " + name + " refers to unknown column " + column,
+                        type);
+                }
+                profileColumns.add(column);
+            }
+            if (result.put(name, profileColumns) != null) {
+                throw new ProcessingException("Fetch profile " + name + " is already defined", type);
+            }
+        }
+        return result;
+    }
+
+    private ColumnModel buildColumn(VariableElement field, Map<String, Object> column) throws ProcessingException {
+        var typeName = getTypeName(field.asType());
+        if (!ColumnModel.isSupported(typeName)) {
+            throw new ProcessingException(BAD_FIELD_TYPE + typeName, field);
+        }
+
+        var primaryKey = findAnnotation(field, PRIMARY_KEY).map(this::getValues);
+
+        var foreignKey = findAnnotation(field, FOREIGN_KEY).map(this::getValues);
+        String foreignKeyString = null;
+        if (foreignKey.isPresent()) {
+            foreignKeyString = buildForeignKey((String) column.get("value"), foreignKey.get(), field);
+        }
+
+        var index = findAnnotation(field, INDEX).map(this::getValues);
+
+        var enumStorage = ((VariableElement) column.get("enumStorage")).getSimpleName().toString();
+        var enumConstants = getEnumConstants(field.asType());
+        if (enumStorage.equals(ENUM_STORAGE_ORDINAL) && enumConstants.size() > MAX_ORDINAL_CONSTANTS) {
+            throw new ProcessingException("Enum has too many constants for " + ENUM_STORAGE_ORDINAL + " storage",
+                field);
+        }
+
+        return new ColumnModel(
+            (String) column.get("value"),
+            field.getSimpleName().toString(),
+            typeName,
+            getJavaType(field.asType()),
+            field.getModifiers().contains(Modifier.PRIVATE),
+            primaryKey.isPresent(),
+            primaryKey.map(pk -> (Boolean) pk.get("isAutoIncrement")).orElse(false),
+            (Boolean) column.get("nullable"),
+            (Integer) column.get("length"),
+            (Integer) column.get("precision"),
+            (Integer) column.get("scale"),
+            (Boolean) column.get("isJson"),
+            (Boolean) column.get("storeUuidAsBinary"),
+            (Boolean) column.get("swapUuidTime"),
+            enumStorage,
+            enumConstants,
+            (Boolean) column.get("unique"),
+            foreignKeyString,
+            index.map(i -> (String) i.get("value")).orElse(null),
+            index.map(i -> (Boolean) i.get("unique")).orElse(false)
+        );
+    }
+
+    private String buildForeignKey(String columnName, Map<String, Object> key, Element field)
+        throws ProcessingException
+    {
+        var parentType = (DeclaredType) key.get("table");
+        var parentTable = findAnnotation(parentType.asElement(), TABLE)
+            .orElseThrow(() -> new ProcessingException("Foreign key references not annotated table", field));
+
+        var fk = new StringBuilder("FOREIGN KEY (")
+            .append(columnName)
+            .append(") REFERENCES ")
+            .append(getValues(parentTable).get("value"))
+            .append("(")
+            .append(key.get("column"))
+            .append(")");
+
+        var onUpdate = ((VariableElement) key.get("onUpdate")).getSimpleName().toString();
+        if (!onUpdate.equals("NONE")) {
+            fk.append(" ON UPDATE ").append(onUpdate.replace('_', ' '));
+        }
+
+        var onDelete = ((VariableElement) key.get("onDelete")).getSimpleName().toString();
+        if (!onDelete.equals("NONE")) {
+            fk.append(" ON DELETE ").append(onDelete.replace('_', ' '));
+        }
+
+        return fk.toString();
+    }
+
+    private Optional<ExecutableElement> findRecordBuilder(TypeElement type) {
+        return ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+            .filter(c -> c.getModifiers().contains(Modifier.PUBLIC))
+            .filter(c -> findAnnotation(c, RECORD_BUILDER).isPresent())
+            .findFirst();
+    }
+
+    private String getTypeName(TypeMirror type) {
+        return switch (type.getKind()) {
+            case INT -> TYPE_INT;
+            case LONG -> TYPE_LONG_PRIM;
+            case BOOLEAN -> TYPE_BOOL;
+            case ARRAY -> type.toString().equals(TYPE_BYTE_ARRAY) ? TYPE_BYTE_ARRAY : type.toString();
+            case DECLARED -> {
+                var element = (TypeElement) ((DeclaredType) type).asElement();
+                yield element.getKind() == ElementKind.ENUM ? TYPE_ENUM : element.getQualifiedName().toString();
+            }
+            default -> type.toString();
+        };
+    }
+
+    private List<String> getEnumConstants(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return List.of();
+        }
+        return ((DeclaredType) type).asElement().getEnclosedElements().stream()
+            .filter(e -> e.getKind() == ElementKind.ENUM_CONSTANT)
+            .map(e -> e.getSimpleName().toString())
+            .toList();
+    }
+
+    private String getJavaType(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED ?
+            ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString() : type.toString();
+    }
+
+    private static Optional<? extends AnnotationMirror> findAnnotation(Element element, String annotation) {
+        return element.getAnnotationMirrors().stream()
+            .filter(a -> isAnnotation(a, annotation))
+            .findFirst();
+    }
+
+    private static boolean isAnnotation(AnnotationMirror mirror, String annotation) {
+        return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotation);
+    }
+
+    private Map<String, Object> getValues(AnnotationMirror annotation) {
+        var result = new HashMap<String, Object>();
+        processingEnv.getElementUtils().getElementValuesWithDefaults(annotation)
+            .forEach((k, v) -> result.put(k.getSimpleName().toString(), v.getValue()));
+        return result;
+    }
+
+    /**
+     * Writes service file merging it with the existing one, if any. This keeps mappings generated by
+     * previous incremental builds.
+     */
+    private void writeServiceFile() {
+        var filer = processingEnv.getFiler();
+        var all = new TreeSet<>(mappings);
+
+        try {
+            var existing = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (var reader = new BufferedReader(
+                new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8)))
+            {
+                reader.lines()
+                    .map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .forEach(all::add);
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            // No service file yet
+        }
+
+        try {
+            var file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (var mapping : all) {
+                    writer.write(mapping);
+                    writer.write("\n");
+                }
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Unable to write " + SERVICE_FILE + ": " + ex);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.processor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Table class and SQL statements built from its annotations. Statements must be identical to those built by
+ * <code>MySqlClient</code> at runtime.
+ *
+ * @param packageName package of the table class
+ * @param className   canonical name of the table class
+ * @param mappingName simple name of the generated mapping class
+ * @param tableName   table name
+ * @param kind        deserialization kind
+ * @param columns     columns in the order of field declaration
+ * @param parameters  constructor parameters, empty for {@link Kind#FIELDS}
+ * @param profiles    columns of the fetch profiles by profile name in the order of declaration
+ */
+record TableModel(String packageName, String className, String mappingName, String tableName, Kind kind,
+                  List<ColumnModel> columns, List<ParameterModel> parameters, Map<String, List<String>> profiles)
+{
+    enum Kind {
+        /**
+         * No-arg constructor and field assignment.
+         */
+        FIELDS,
+        /**
+         * Constructor annotated with <code>@RecordBuilder</code>.
+         */
+        CONSTRUCTOR,
+        /**
+         * Canonical constructor of the Java record.
+         */
+        RECORD
+    }
+
+    Optional<ColumnModel> primaryKey() {
+        return columns.stream().filter(ColumnModel::primaryKey).findFirst();
+    }
+
+    /**
+     * Returns position of the column in the select list.
+     */
+    int getColumnIndex(String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).name().equals(name)) {
+                return i + 1;
+            }
+        }
+        throw new IllegalStateException("Class " + className + " has no column " + name);
+    }
+
+    /**
+     * Returns columns in the order of update statement parameters: all columns except primary key followed by
+     * primary key.
+     */
+    List<ColumnModel> getUpdateColumns() {
+        var result = new ArrayList<ColumnModel>();
+        columns.stream().filter(c -> !c.primaryKey()).forEach(result::add);
+        primaryKey().ifPresent(result::add);
+        return result;
+    }
+
+    String getSelectAllSql() {
+        return "SELECT " + columns.stream().map(ColumnModel::getSelectColumnString).collect(Collectors.joining(","))
+            + " FROM " + tableName;
+    }
+
+    Optional<String> getSelectByIdSql() {
+        return primaryKey().map(pk -> getSelectAllSql() + " WHERE " + pk.getWhereColumnString() + "=?");
+    }
+
+    String getInsertSql() {
+        return "INSERT INTO " + tableName + " ("
+            + columns.stream().map(ColumnModel::name).collect(Collectors.joining(","))
+            + ") VALUES ("
+            + columns.stream().map(ColumnModel::getInsertColumnPattern).collect(Collectors.joining(","))
+            + ")";
+    }
+
+    Optional<String> getUpdateSql() {
+        return primaryKey().map(pk -> "update " + tableName + " set "
+            + columns.stream()
+            .filter(c -> !c.primaryKey())
+            .map(c -> c.name() + "=" + c.getInsertColumnPattern())
+            .collect(Collectors.joining(", "))
+            + " WHERE " + pk.getWhereColumnString() + "=?");
+    }
+
+    Optional<String> getDeleteSql() {
+        return primaryKey().map(pk -> "DELETE FROM " + tableName + " WHERE " + pk.getWhereColumnString() + "=?");
+    }
+
+    List<String> getCreateTableSql() {
+        var b = new StringBuilder("CREATE TABLE IF NOT EXISTS ")
+            .append(tableName)
+            .append(" (")
+            .append(columns.stream().map(ColumnModel::getColumnString).collect(Collectors.joining(",")));
+
+        var constraints = columns.stream()
+            .map(ColumnModel::foreignKey)
+            .filter(fk -> fk != null)
+            .toList();
+        if (!constraints.isEmpty()) {
+            b.append(",").append(String.join(",", constraints));
+        }
+        b.append(")");
+
+        var result = new ArrayList<String>();
+        result.add(b.toString());
+
+        for (var column : columns) {
+            if (column.index() != null) {
+                result.add("CREATE " + (column.uniqueIndex() ? "UNIQUE " : "") + "INDEX " + column.index()
+                    + " ON " + tableName + " (" + column.name() + ")");
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,522 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.processor;
+
+import org.panteleyev.mysqlapi.MySqlClient;
+import org.panteleyev.mysqlapi.TableMapping;
+import org.panteleyev.mysqlapi.TableRecord;
+import org.panteleyev.mysqlapi.annotations.Column;
+import org.panteleyev.mysqlapi.annotations.EnumStorage;
+import org.panteleyev.mysqlapi.annotations.FetchProfile;
+import org.panteleyev.mysqlapi.annotations.PrimaryKey;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import javax.sql.DataSource;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Compiles sample table classes with the processor and verifies that generated mappings behave exactly as
+ * {@link MySqlClient} does by reflection.
+ */
+@Test
+public class TestTableMappingProcessor {
+    private static final String MODEL_PACKAGE = "org.panteleyev.mysqlapi.processor.model.";
+    private static final Random RANDOM = new Random(System.currentTimeMillis());
+
+    private static final List<String> TABLES = List.of(
+        "FieldTable",
+        "ParentTable",
+        "PackagePrivateTable",
+        "PackagePrivateTable$Nested",
+        "BuilderTable",
+        "RecordTable",
+        "NoPrimaryKeyTable"
+    );
+
+    private URLClassLoader loader;
+
+    @BeforeClass
+    public void compileModel() throws Exception {
+        var sourceDir = Path.of(getClass().getResource("/model").toURI());
+        List<Path> sources;
+        try (var files = Files.walk(sourceDir)) {
+            sources = files.filter(f -> f.toString().endsWith(".java")).toList();
+        }
+
+        var outputDir = Files.createTempDirectory("processor");
+        var diagnostics = compile(outputDir, sources.stream()
+            .map(Path::toFile)
+            .map(f -> ToolProvider.getSystemJavaCompiler().getStandardFileManager(null, null, null)
+                .getJavaFileObjects(f).iterator().next())
+            .collect(Collectors.toList()));
+        assertTrue(errors(diagnostics).isEmpty(), errors(diagnostics).toString());
+
+        loader = new URLClassLoader(new java.net.URL[]{outputDir.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    @DataProvider(name = "tables")
+    public Object[][] tables() {
+        return TABLES.stream().map(t -> new Object[]{t}).toArray(Object[][]::new);
+    }
+
+    @Test
+    public void testServiceFile() throws Exception {
+        var found = new HashSet<Class<?>>();
+        for (var mapping : ServiceLoader.load(TableMapping.class, loader)) {
+            found.add(mapping.getTableClass());
+        }
+
+        var expected = new HashSet<Class<?>>();
+        for (var table : TABLES) {
+            expected.add(loader.loadClass(MODEL_PACKAGE + table));
+        }
+        assertEquals(found, expected);
+    }
+
+    @Test(dataProvider = "tables")
+    public void testCreateTable(String table) throws Exception {
+        var clazz = loadTable(table);
+        var mapping = getMapping(clazz);
+
+        var conn = mock(Connection.class);
+        var st = mock(Statement.class);
+        when(conn.createStatement()).thenReturn(st);
+        new MySqlClient().createTables(conn, List.of(clazz));
+
+        var executed = mockingDetails(st).getInvocations().stream()
+            .filter(inv -> inv.getMethod().getName().equals("executeUpdate"))
+            .map(inv -> (String) inv.getArgument(0))
+            .toList();
+
+        var expected = new ArrayList<String>();
+        expected.add("DROP TABLE IF EXISTS " + mapping.getTableName());
+        expected.addAll(mapping.getCreateTableSql());
+
+        assertEquals(executed.subList(0, 2), expected.subList(0, 2));
+        // Indexes are created in no particular order
+        assertEquals(Set.copyOf(executed), Set.copyOf(expected));
+        assertEquals(executed.size(), expected.size());
+    }
+
+    @Test(dataProvider = "tables")
+    public void testSelectAndInsert(String table) throws Exception {
+        var clazz = loadTable(table);
+        var mapping = getMapping(clazz);
+
+        for (var nulls : new boolean[]{false, true}) {
+            var values = buildRow(clazz, nulls);
+
+            var conn = mock(Connection.class);
+            var ps = mock(PreparedStatement.class);
+            when(conn.prepareStatement(anyString())).thenReturn(ps);
+            var resultSet = buildResultSet(values);
+            when(ps.executeQuery()).thenReturn(resultSet);
+
+            var client = new MySqlClient();
+            var expected = client.getAll(conn, clazz).get(0);
+            verify(conn).prepareStatement(mapping.getSelectAllSql());
+
+            var actual = mapping.map(buildResultSet(values));
+            assertEquals(bindInsert(client, actual), bindInsert(client, expected));
+
+            var mapped = mock(PreparedStatement.class);
+            mapping.bindInsert(expected, mapped);
+            assertEquals(describeSetters(mapped), bindInsert(client, expected));
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Test(dataProvider = "tables")
+    public void testPrimaryKey(String table) throws Exception {
+        var clazz = loadTable(table);
+        var mapping = getMapping(clazz);
+
+        if (mapping.getPrimaryKeyColumn() == null) {
+            expectThrows(IllegalStateException.class, mapping::getSelectByIdSql);
+            expectThrows(IllegalStateException.class, mapping::getUpdateSql);
+            expectThrows(IllegalStateException.class, mapping::getDeleteSql);
+            return;
+        }
+
+        var record = mapping.map(buildResultSet(buildRow(clazz, false)));
+        var key = mapping.getPrimaryKey(record);
+        assertEquals(key, record.getPrimaryKey());
+
+        var conn = mock(Connection.class);
+        var ps = mock(PreparedStatement.class);
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(mock(ResultSet.class));
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(conn);
+        var client = new MySqlClient(dataSource);
+
+        // Select by id
+        client.get(key, clazz);
+        verify(conn).prepareStatement(mapping.getSelectByIdSql());
+        var bound = mock(PreparedStatement.class);
+        mapping.bindPrimaryKey(key, bound, 1);
+        assertEquals(describeSetters(bound), describeSetters(ps));
+
+        // Update
+        var updateConn = mock(Connection.class);
+        var updatePs = mock(PreparedStatement.class);
+        when(updateConn.prepareStatement(anyString())).thenReturn(updatePs);
+        client.update(updateConn, record);
+        verify(updateConn).prepareStatement(mapping.getUpdateSql());
+        var updated = mock(PreparedStatement.class);
+        mapping.bindUpdate(record, updated);
+        assertEquals(describeSetters(updated), describeSetters(updatePs));
+
+        // Delete
+        var deletePs = mock(PreparedStatement.class);
+        when(conn.prepareStatement(mapping.getDeleteSql())).thenReturn(deletePs);
+        client.delete(key, (Class) clazz);
+        verify(conn).prepareStatement(mapping.getDeleteSql());
+        assertEquals(describeSetters(deletePs), describeSetters(bound));
+
+        assertEquals(mapping.getPrimaryKeyType(), findPrimaryKey(clazz).getType());
+        assertEquals(mapping.isAutoIncrement(), findPrimaryKey(clazz).getAnnotation(PrimaryKey.class)
+            .isAutoIncrement());
+    }
+
+    @Test(dataProvider = "tables")
+    public void testBindColumn(String table) throws Exception {
+        var clazz = loadTable(table);
+        var mapping = getMapping(clazz);
+        var values = buildRow(clazz, false);
+        var record = mapping.map(buildResultSet(values));
+
+        var columns = new ArrayList<String>();
+        for (var field : clazz.getDeclaredFields()) {
+            var column = field.getAnnotation(Column.class);
+            if (column == null) {
+                continue;
+            }
+            columns.add(column.value());
+            field.setAccessible(true);
+            var value = field.get(record);
+
+            var conn = mock(Connection.class);
+            var ps = mock(PreparedStatement.class);
+            when(conn.prepareStatement(anyString())).thenReturn(ps);
+            when(ps.executeQuery()).thenReturn(mock(ResultSet.class));
+            new MySqlClient().query(clazz).equalTo(column.value(), value).list(conn);
+
+            var bound = mock(PreparedStatement.class);
+            mapping.bindColumn(column.value(), value, bound, 1);
+            assertEquals(describeSetters(bound), describeSetters(ps), column.value());
+        }
+        assertEquals(mapping.getColumnNames(), columns);
+        expectThrows(IllegalArgumentException.class,
+            () -> mapping.bindColumn("unknown", 1, mock(PreparedStatement.class), 1));
+    }
+
+    @Test(dataProvider = "tables")
+    public void testBinaryColumns(String table) throws Exception {
+        var clazz = loadTable(table);
+        var mapping = getMapping(clazz);
+
+        for (var field : clazz.getDeclaredFields()) {
+            var column = field.getAnnotation(Column.class);
+            if (column != null) {
+                assertEquals(mapping.isBinaryColumn(column.value()), field.getType() == byte[].class
+                    || (field.getType() == UUID.class && column.storeUuidAsBinary()), column.value());
+            }
+        }
+        assertFalse(mapping.isBinaryColumn("unknown"));
+    }
+
+    @Test(dataProvider = "tables")
+    public void testFetchProfiles(String table) throws Exception {
+        var clazz = loadTable(table);
+        var mapping = getMapping(clazz);
+
+        var expected = Arrays.stream(clazz.getAnnotationsByType(FetchProfile.class))
+            .collect(Collectors.toMap(FetchProfile::value, p -> List.of(p.columns())));
+        assertEquals(mapping.getFetchProfiles(), expected);
+    }
+
+    @Test(dataProvider = "tables")
+    public void testReadColumn(String table) throws Exception {
+        var clazz = loadTable(table);
+        var mapping = getMapping(clazz);
+
+        for (var nulls : new boolean[]{false, true}) {
+            var values = buildRow(clazz, nulls);
+            var record = mapping.map(buildResultSet(values));
+
+            var columns = mapping.getColumnNames();
+            for (var field : clazz.getDeclaredFields()) {
+                var column = field.getAnnotation(Column.class);
+                if (column == null) {
+                    continue;
+                }
+                field.setAccessible(true);
+                var index = columns.indexOf(column.value()) + 1;
+                assertEquals(mapping.readColumn(column.value(), buildResultSet(values), index), field.get(record),
+                    column.value());
+            }
+        }
+        expectThrows(IllegalArgumentException.class,
+            () -> mapping.readColumn("unknown", mock(ResultSet.class), 1));
+    }
+
+    @Test
+    public void testUnknownProfileColumn() throws Exception {
+        var errors = compileSource("ProfileTable", """
+            package test;
+
+            @org.panteleyev.mysqlapi.annotations.Table("profile_table")
+            @org.panteleyev.mysqlapi.annotations.FetchProfile(value = "short", columns = {"name"})
+            public class ProfileTable implements org.panteleyev.mysqlapi.TableRecord<Integer> {
+                @org.panteleyev.mysqlapi.annotations.Column("id")
+                private int id;
+            }
+            """);
+        assertEquals(errors, List.of("Fetch profile short refers to unknown column name"));
+    }
+
+    @Test
+    public void testUnknownEnumValue() throws Exception {
+        var clazz = loadTable("FieldTable");
+        var mapping = getMapping(clazz);
+        var columns = Arrays.stream(clazz.getDeclaredFields())
+            .filter(f -> f.isAnnotationPresent(Column.class))
+            .map(f -> f.getAnnotation(Column.class).value())
+            .toList();
+
+        var values = buildRow(clazz, false);
+        values[columns.indexOf("g")] = "UNKNOWN";
+        var thrown = expectThrows(IllegalArgumentException.class, () -> mapping.map(buildResultSet(values)));
+        assertEquals(thrown.getMessage(), "No enum constant " + MODEL_PACKAGE + "EnumType.UNKNOWN");
+
+        for (var ordinal : new int[]{-1, loader.loadClass(MODEL_PACKAGE + "EnumType").getEnumConstants().length}) {
+            var row = buildRow(clazz, false);
+            row[columns.indexOf("o")] = ordinal;
+            thrown = expectThrows(IllegalArgumentException.class, () -> mapping.map(buildResultSet(row)));
+            assertEquals(thrown.getMessage(), "No enum constant " + MODEL_PACKAGE + "EnumType with ordinal "
+                + ordinal);
+        }
+    }
+
+    @Test
+    public void testFinalFieldWithoutBuilder() throws Exception {
+        var errors = compileSource("FinalTable", """
+            package test;
+
+            @org.panteleyev.mysqlapi.annotations.Table("final_table")
+            public class FinalTable implements org.panteleyev.mysqlapi.TableRecord<Integer> {
+                @org.panteleyev.mysqlapi.annotations.Column("id")
+                private final int id = 0;
+            }
+            """);
+        assertEquals(errors, List.of("Final fields require @RecordBuilder constructor"));
+    }
+
+    @Test
+    public void testUnsupportedType() throws Exception {
+        var errors = compileSource("DoubleTable", """
+            package test;
+
+            @org.panteleyev.mysqlapi.annotations.Table("double_table")
+            public class DoubleTable implements org.panteleyev.mysqlapi.TableRecord<Integer> {
+                @org.panteleyev.mysqlapi.annotations.Column("value")
+                private double value;
+            }
+            """);
+        assertEquals(errors, List.of("Unsupported field type: double"));
+    }
+
+    private List<String> compileSource(String name, String source) throws Exception {
+        var file = new SimpleJavaFileObject(URI.create("string:///test/" + name + ".java"),
+            JavaFileObject.Kind.SOURCE)
+        {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        return errors(compile(Files.createTempDirectory("processor"), List.of(file)));
+    }
+
+    private static List<Diagnostic<? extends JavaFileObject>> compile(Path outputDir,
+                                                                     List<? extends JavaFileObject> sources)
+    {
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        var fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8);
+        var options = List.of("-d", outputDir.toString(), "-classpath", System.getProperty("java.class.path"));
+        var task = compiler.getTask(null, fileManager, diagnostics, options, null, sources);
+        task.setProcessors(List.of(new TableMappingProcessor()));
+        task.call();
+        return diagnostics.getDiagnostics();
+    }
+
+    private static List<String> errors(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        return diagnostics.stream()
+            .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+            .map(d -> d.getMessage(null))
+            .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Class<TableRecord> loadTable(String table) throws ClassNotFoundException {
+        return (Class<TableRecord>) loader.loadClass(MODEL_PACKAGE + table);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TableMapping<TableRecord> getMapping(Class<TableRecord> clazz) throws Exception {
+        var mappingClass = loader.loadClass(clazz.getName().replace('$', '_')
+            + TableMappingProcessor.MAPPING_SUFFIX);
+        var mapping = (TableMapping<TableRecord>) mappingClass.getConstructor().newInstance();
+        assertNotNull(mapping);
+        assertEquals(mapping.getTableClass(), clazz);
+        return mapping;
+    }
+
+    private static java.lang.reflect.Field findPrimaryKey(Class<?> clazz) {
+        return Arrays.stream(clazz.getDeclaredFields())
+            .filter(f -> f.isAnnotationPresent(PrimaryKey.class))
+            .findFirst()
+            .orElseThrow();
+    }
+
+    /**
+     * Builds row values the same way MySQL driver returns them.
+     */
+    private static Object[] buildRow(Class<?> clazz, boolean nulls) {
+        var fields = Arrays.stream(clazz.getDeclaredFields())
+            .filter(f -> f.isAnnotationPresent(Column.class))
+            .toList();
+
+        var values = new Object[fields.size()];
+        for (int i = 0; i < values.length; i++) {
+            var field = fields.get(i);
+            var type = field.getType();
+            if (nulls && !type.isPrimitive() && !field.isAnnotationPresent(PrimaryKey.class)) {
+                continue;
+            }
+
+            if (type == int.class || type == Integer.class) {
+                values[i] = RANDOM.nextInt();
+            } else if (type == long.class || type == Long.class || type == java.util.Date.class) {
+                values[i] = RANDOM.nextLong();
+            } else if (type == java.time.LocalDate.class) {
+                values[i] = (long) RANDOM.nextInt(100_000);
+            } else if (type == boolean.class || type == Boolean.class) {
+                values[i] = RANDOM.nextBoolean();
+            } else if (type == String.class) {
+                values[i] = UUID.randomUUID().toString();
+            } else if (type == BigDecimal.class) {
+                values[i] = BigDecimal.valueOf(RANDOM.nextLong(), 4);
+            } else if (type == UUID.class && field.getAnnotation(Column.class).storeUuidAsBinary()) {
+                var bytes = new byte[16];
+                RANDOM.nextBytes(bytes);
+                values[i] = bytes;
+            } else if (type == UUID.class) {
+                values[i] = UUID.randomUUID().toString();
+            } else if (type == byte[].class) {
+                var bytes = new byte[16];
+                RANDOM.nextBytes(bytes);
+                values[i] = bytes;
+            } else if (type.isEnum()) {
+                var constants = type.getEnumConstants();
+                var constant = (Enum<?>) constants[RANDOM.nextInt(constants.length)];
+                values[i] = field.getAnnotation(Column.class).enumStorage() == EnumStorage.ORDINAL ?
+                    (Object) constant.ordinal() : constant.name();
+            } else {
+                throw new IllegalArgumentException(type.getName());
+            }
+        }
+        return values;
+    }
+
+    private static ResultSet buildResultSet(Object[] values) throws Exception {
+        var rs = mock(ResultSet.class);
+        // Index of the last read column
+        var last = new int[1];
+        when(rs.next()).thenReturn(true, false);
+        when(rs.wasNull()).then(inv -> values[last[0] - 1] == null);
+        when(rs.getObject(anyInt())).then(inv -> value(values, last, inv.getArgument(0)));
+        when(rs.getString(anyInt())).then(inv -> {
+            var value = value(values, last, inv.getArgument(0));
+            return value == null ? null : value.toString();
+        });
+        when(rs.getInt(anyInt())).then(inv -> {
+            var value = value(values, last, inv.getArgument(0));
+            return value == null ? 0 : ((Number) value).intValue();
+        });
+        when(rs.getLong(anyInt())).then(inv -> {
+            var value = value(values, last, inv.getArgument(0));
+            return value == null ? 0L : ((Number) value).longValue();
+        });
+        when(rs.getBoolean(anyInt())).then(inv -> {
+            var value = value(values, last, inv.getArgument(0));
+            return value != null && (Boolean) value;
+        });
+        when(rs.getBigDecimal(anyInt())).then(inv -> value(values, last, inv.getArgument(0)));
+        when(rs.getBytes(anyInt())).then(inv -> {
+            // Driver returns raw bytes of character columns
+            var value = value(values, last, inv.getArgument(0));
+            return value instanceof String str ? str.getBytes(StandardCharsets.UTF_8) : value;
+        });
+        return rs;
+    }
+
+    private static Object value(Object[] values, int[] last, int index) {
+        last[0] = index;
+        return values[index - 1];
+    }
+
+    private static List<String> bindInsert(MySqlClient client, TableRecord record) throws Exception {
+        var conn = mock(Connection.class);
+        var ps = mock(PreparedStatement.class);
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        client.insert(conn, record);
+        return describeSetters(ps);
+    }
+
+    private static List<String> describeSetters(Object mock) {
+        return mockingDetails(mock).getInvocations().stream()
+            .filter(inv -> inv.getMethod().getName().startsWith("set"))
+            .map(inv -> inv.getMethod().getName() + Arrays.deepToString(inv.getArguments()))
+            .toList();
+    }
+}
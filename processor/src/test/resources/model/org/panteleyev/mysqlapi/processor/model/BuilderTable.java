@@ -0,0 +1,39 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.processor.model;
+
+import org.panteleyev.mysqlapi.TableRecord;
+import org.panteleyev.mysqlapi.annotations.Column;
+import org.panteleyev.mysqlapi.annotations.PrimaryKey;
+import org.panteleyev.mysqlapi.annotations.RecordBuilder;
+import org.panteleyev.mysqlapi.annotations.Table;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Table("builder_table")
+public class BuilderTable implements TableRecord<Integer> {
+    @PrimaryKey
+    @Column("id")
+    private final int id;
+    @Column("name")
+    private final String name;
+    @Column("amount")
+    private final BigDecimal amount;
+    @Column("date")
+    final LocalDate date;
+    @Column("type")
+    private final EnumType type;
+
+    @RecordBuilder
+    public BuilderTable(@Column("type") EnumType type, @Column("id") int id, @Column("amount") BigDecimal amount,
+                        @Column("name") String name, @Column("date") LocalDate date)
+    {
+        this.id = id;
+        this.name = name;
+        this.amount = amount;
+        this.date = date;
+        this.type = type;
+    }
+}
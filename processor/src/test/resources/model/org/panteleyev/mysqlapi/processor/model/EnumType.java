@@ -0,0 +1,9 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.processor.model;
+
+public enum EnumType {
+    A, B, C
+}
@@ -0,0 +1,75 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.processor.model;
+
+import org.panteleyev.mysqlapi.TableRecord;
+import org.panteleyev.mysqlapi.annotations.Column;
+import org.panteleyev.mysqlapi.annotations.EnumStorage;
+import org.panteleyev.mysqlapi.annotations.FetchProfile;
+import org.panteleyev.mysqlapi.annotations.ForeignKey;
+import org.panteleyev.mysqlapi.annotations.Index;
+import org.panteleyev.mysqlapi.annotations.PrimaryKey;
+import org.panteleyev.mysqlapi.annotations.ReferenceOption;
+import org.panteleyev.mysqlapi.annotations.Table;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.UUID;
+
+@Table("field_table")
+@FetchProfile(value = "short", columns = {"a", "b"})
+@FetchProfile(value = "enums", columns = {"g", "o", "p"})
+public class FieldTable implements TableRecord<Integer> {
+    private static final int CONSTANT = 1;
+
+    @PrimaryKey
+    @Column("id")
+    private Integer id;
+    @Column(value = "a", length = 100, unique = true)
+    @Index(value = "a_index", unique = true)
+    private String a;
+    @Column("b")
+    private Integer b;
+    @Column(value = "c", nullable = false)
+    private Boolean c;
+    @Column("d")
+    @Index("d_index")
+    private Date d;
+    @Column("e")
+    private Long e;
+    @Column(value = "f", precision = 20, scale = 4)
+    private BigDecimal f;
+    @Column(value = "g", length = 10)
+    private EnumType g;
+    @Column("h")
+    private LocalDate h;
+    @Column("i")
+    private UUID i;
+    @Column(value = "j", storeUuidAsBinary = true)
+    private UUID j;
+    @Column(value = "k", length = 32)
+    private byte[] k;
+    @Column("l")
+    private int l;
+    @Column("m")
+    private long m;
+    @Column("n")
+    private boolean n;
+    @Column(value = "o", enumStorage = EnumStorage.ORDINAL)
+    private EnumType o;
+    @Column(value = "p", enumStorage = EnumStorage.ENUM)
+    private EnumType p;
+    @Column(value = "q", storeUuidAsBinary = true, swapUuidTime = true)
+    private UUID q;
+    @Column("parent")
+    @ForeignKey(table = ParentTable.class, column = "name",
+        onDelete = ReferenceOption.SET_NULL, onUpdate = ReferenceOption.CASCADE)
+    private String parent;
+
+    private String notColumn;
+
+    public FieldTable() {
+    }
+}
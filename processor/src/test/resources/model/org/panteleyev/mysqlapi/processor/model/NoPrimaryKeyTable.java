@@ -0,0 +1,18 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.processor.model;
+
+import org.panteleyev.mysqlapi.TableRecord;
+import org.panteleyev.mysqlapi.annotations.Column;
+import org.panteleyev.mysqlapi.annotations.Table;
+
+@Table("no_primary_key_table")
+public class NoPrimaryKeyTable implements TableRecord<Object> {
+    @Column("value")
+    private String value;
+
+    public NoPrimaryKeyTable() {
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.processor.model;
+
+import org.panteleyev.mysqlapi.TableRecord;
+import org.panteleyev.mysqlapi.annotations.Column;
+import org.panteleyev.mysqlapi.annotations.PrimaryKey;
+import org.panteleyev.mysqlapi.annotations.Table;
+import java.util.UUID;
+
+@Table("package_private_table")
+public class PackagePrivateTable implements TableRecord<Long> {
+    @PrimaryKey
+    @Column("id")
+    long id;
+    @Column("name")
+    String name;
+    @Column("uuid")
+    UUID uuid;
+    @Column("parent")
+    private Integer parent;
+
+    PackagePrivateTable() {
+    }
+
+    /**
+     * Static nested table class.
+     */
+    @Table("nested_table")
+    public static class Nested implements TableRecord<Integer> {
+        @PrimaryKey
+        @Column("id")
+        int id;
+        @Column("value")
+        int value;
+
+        public Nested() {
+        }
+    }
+}
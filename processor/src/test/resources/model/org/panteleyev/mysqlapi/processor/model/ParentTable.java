@@ -0,0 +1,23 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.processor.model;
+
+import org.panteleyev.mysqlapi.TableRecord;
+import org.panteleyev.mysqlapi.annotations.Column;
+import org.panteleyev.mysqlapi.annotations.PrimaryKey;
+import org.panteleyev.mysqlapi.annotations.Table;
+
+@Table("parent_table")
+public class ParentTable implements TableRecord<String> {
+    @PrimaryKey(isAutoIncrement = false)
+    @Column(value = "name", length = 64, nullable = false)
+    private String name;
+
+    @Column(value = "data", isJson = true)
+    private String data;
+
+    public ParentTable() {
+    }
+}
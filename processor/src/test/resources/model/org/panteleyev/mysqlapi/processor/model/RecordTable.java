@@ -0,0 +1,31 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.processor.model;
+
+import org.panteleyev.mysqlapi.TableRecord;
+import org.panteleyev.mysqlapi.annotations.Column;
+import org.panteleyev.mysqlapi.annotations.EnumStorage;
+import org.panteleyev.mysqlapi.annotations.FetchProfile;
+import org.panteleyev.mysqlapi.annotations.PrimaryKey;
+import org.panteleyev.mysqlapi.annotations.Table;
+import java.util.Date;
+import java.util.UUID;
+
+@Table("record_table")
+@FetchProfile(value = "flags", columns = {"flag"})
+public record RecordTable(
+    @PrimaryKey
+    @Column(value = "uuid", storeUuidAsBinary = true)
+    UUID uuid,
+    @Column("value")
+    long value,
+    @Column("created")
+    Date created,
+    @Column("flag")
+    Boolean flag,
+    @Column(value = "kind", enumStorage = EnumStorage.ORDINAL)
+    EnumType kind
+) implements TableRecord<UUID> {
+}
@@ -0,0 +1,551 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Calendar;
+
+/**
+ * In-memory prepared statement for benchmarks. Parameters are stored in arrays, primitive values are stored
+ * without boxing. Execution of the statement does nothing.
+ */
+class ArrayPreparedStatement implements PreparedStatement {
+    private final Object[] values;
+    private final long[] primitives;
+
+    private int batchSize;
+    private boolean closed;
+
+    ArrayPreparedStatement(int parameterCount) {
+        values = new Object[parameterCount + 1];
+        primitives = new long[parameterCount + 1];
+    }
+
+    Object getValue(int parameterIndex) {
+        return values[parameterIndex];
+    }
+
+    long getPrimitive(int parameterIndex) {
+        return primitives[parameterIndex];
+    }
+
+@Override
+    public void addBatch() {
+        batchSize++;
+    }
+
+    @Override
+    public void addBatch(String sql) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void cancel() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clearBatch() {
+        batchSize = 0;
+    }
+
+    @Override
+    public void clearParameters() {
+        Arrays.fill(values, null);
+        Arrays.fill(primitives, 0);
+    }
+
+    @Override
+    public void clearWarnings() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    public void closeOnCompletion() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean execute() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean execute(String sql, int[] x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean execute(String sql, String[] x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean execute(String sql, int x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean execute(String sql) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int[] executeBatch() {
+        var result = new int[batchSize];
+        Arrays.fill(result, 1);
+        batchSize = 0;
+        return result;
+    }
+
+    @Override
+    public ResultSet executeQuery() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int executeUpdate() {
+        return 1;
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int executeUpdate(String sql, int x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int executeUpdate(String sql) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Connection getConnection() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getFetchDirection() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getFetchSize() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getMaxFieldSize() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getMaxRows() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean getMoreResults() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean getMoreResults(int parameterIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getQueryTimeout() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ResultSet getResultSet() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getResultSetConcurrency() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getResultSetHoldability() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getResultSetType() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getUpdateCount() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SQLWarning getWarnings() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public boolean isPoolable() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) {
+        values[parameterIndex] = x;
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) {
+        primitives[parameterIndex] = x ? 1 : 0;
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) {
+        values[parameterIndex] = x;
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader x, int length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setCursorName(String sql) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setFetchDirection(int parameterIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setFetchSize(int parameterIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) {
+        primitives[parameterIndex] = x;
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) {
+        primitives[parameterIndex] = x;
+    }
+
+    @Override
+    public void setMaxFieldSize(int parameterIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setMaxRows(int parameterIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) {
+        values[parameterIndex] = null;
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) {
+        values[parameterIndex] = x;
+    }
+
+    @Override
+    public void setPoolable(boolean value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setQueryTimeout(int parameterIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) {
+        values[parameterIndex] = x;
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) {
+        return iface.cast(this);
+    }}
@@ -0,0 +1,1027 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Statement;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory forward-only result set for benchmarks. Values are stored the same way MySQL driver returns them from
+ * {@link ResultSet#getObject(int)}. Column label lookup mimics Connector/J: case insensitive search with a cache
+ * in front of it.
+ */
+class ArrayResultSet implements ResultSet {
+    private final Map<String, Integer> labels = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Integer> labelCache = new HashMap<>();
+    private final Object[][] rows;
+
+    private int row = -1;
+    private boolean wasNull;
+    private boolean closed;
+
+    ArrayResultSet(String[] labels, Object[][] rows) {
+        for (int i = 0; i < labels.length; i++) {
+            this.labels.put(labels[i], i + 1);
+        }
+        this.rows = rows;
+    }
+
+    private Object value(int index) {
+        var value = rows[row][index - 1];
+        wasNull = value == null;
+        return value;
+    }
+
+    @Override
+    public boolean next() {
+        return ++row < rows.length;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    @Override
+    public boolean wasNull() {
+        return wasNull;
+    }
+
+    @Override
+    public String getString(int index) {
+        var value = value(index);
+        return value == null ? null : value.toString();
+    }
+
+    @Override
+    public boolean getBoolean(int index) {
+        var value = value(index);
+        return value != null && (Boolean) value;
+    }
+
+    @Override
+    public byte getByte(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public short getShort(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getInt(int index) {
+        var value = value(index);
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    @Override
+    public long getLong(int index) {
+        var value = value(index);
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    @Override
+    public float getFloat(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public double getDouble(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int columnIndex, int x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public byte[] getBytes(int index) {
+        // Driver returns raw bytes of character columns
+        var value = value(index);
+        return value instanceof String str ? str.getBytes(StandardCharsets.UTF_8) : (byte[]) value;
+    }
+
+    @Override
+    public Date getDate(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Time getTime(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Timestamp getTimestamp(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public InputStream getAsciiStream(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public InputStream getUnicodeStream(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public InputStream getBinaryStream(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getString(String label) throws SQLException {
+        return getString(findColumn(label));
+    }
+
+    @Override
+    public boolean getBoolean(String label) throws SQLException {
+        return getBoolean(findColumn(label));
+    }
+
+    @Override
+    public byte getByte(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public short getShort(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getInt(String label) throws SQLException {
+        return getInt(findColumn(label));
+    }
+
+    @Override
+    public long getLong(String label) throws SQLException {
+        return getLong(findColumn(label));
+    }
+
+    @Override
+    public float getFloat(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public double getDouble(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String columnLabel, int x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public byte[] getBytes(String label) throws SQLException {
+        return getBytes(findColumn(label));
+    }
+
+    @Override
+    public Date getDate(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Time getTime(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Timestamp getTimestamp(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public InputStream getAsciiStream(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public InputStream getUnicodeStream(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public InputStream getBinaryStream(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SQLWarning getWarnings() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clearWarnings() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getCursorName() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object getObject(int index) {
+        return value(index);
+    }
+
+    @Override
+    public Object getObject(String label) throws SQLException {
+        return getObject(findColumn(label));
+    }
+
+    @Override
+    public int findColumn(String label) throws SQLException {
+        var index = labelCache.get(label);
+        if (index == null) {
+            index = labels.get(label);
+            if (index == null) {
+                throw new SQLException("Column not found: " + label);
+            }
+            labelCache.put(label, index);
+        }
+        return index;
+    }
+
+    @Override
+    public Reader getCharacterStream(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Reader getCharacterStream(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int index) {
+        return (BigDecimal) value(index);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String label) throws SQLException {
+        return getBigDecimal(findColumn(label));
+    }
+
+    @Override
+    public boolean isBeforeFirst() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isAfterLast() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isFirst() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isLast() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void beforeFirst() {
+        row = -1;
+    }
+
+    @Override
+    public void afterLast() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean first() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean last() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getRow() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean absolute(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean relative(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean previous() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setFetchDirection(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getFetchDirection() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setFetchSize(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getFetchSize() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getType() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getConcurrency() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean rowUpdated() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean rowInserted() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean rowDeleted() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateNull(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBoolean(int columnIndex, boolean x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateByte(int columnIndex, byte x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateShort(int columnIndex, short x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateInt(int columnIndex, int x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateLong(int columnIndex, long x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateFloat(int columnIndex, float x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateDouble(int columnIndex, double x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBigDecimal(int columnIndex, BigDecimal x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateString(int columnIndex, String x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBytes(int columnIndex, byte[] x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateDate(int columnIndex, Date x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateTime(int columnIndex, Time x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateTimestamp(int columnIndex, Timestamp x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream x, int length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream x, int length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader x, int length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateObject(int columnIndex, Object x, int length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateObject(int columnIndex, Object x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateNull(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBoolean(String columnLabel, boolean x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateByte(String columnLabel, byte x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateShort(String columnLabel, short x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateInt(String columnLabel, int x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateLong(String columnLabel, long x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateFloat(String columnLabel, float x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateDouble(String columnLabel, double x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBigDecimal(String columnLabel, BigDecimal x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateString(String columnLabel, String x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBytes(String columnLabel, byte[] x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateDate(String columnLabel, Date x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateTime(String columnLabel, Time x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateTimestamp(String columnLabel, Timestamp x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream x, int length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream x, int length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader x, int length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateObject(String columnLabel, Object x, int length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateObject(String columnLabel, Object x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void insertRow() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateRow() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deleteRow() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void refreshRow() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void cancelRowUpdates() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void moveToInsertRow() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void moveToCurrentRow() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Statement getStatement() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object getObject(int columnIndex, Map<String, Class<?>> x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Ref getRef(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Blob getBlob(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Clob getClob(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Array getArray(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object getObject(String columnLabel, Map<String, Class<?>> x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Ref getRef(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Blob getBlob(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Clob getClob(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Array getArray(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Date getDate(int columnIndex, Calendar x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Date getDate(String columnLabel, Calendar x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Time getTime(int columnIndex, Calendar x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Time getTime(String columnLabel, Calendar x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Timestamp getTimestamp(int columnIndex, Calendar x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Timestamp getTimestamp(String columnLabel, Calendar x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public URL getURL(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public URL getURL(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateRef(int columnIndex, Ref x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateRef(String columnLabel, Ref x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, Blob x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, Blob x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Clob x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Clob x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateArray(int columnIndex, Array x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateArray(String columnLabel, Array x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public RowId getRowId(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public RowId getRowId(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateRowId(int columnIndex, RowId x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateRowId(String columnLabel, RowId x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public int getHoldability() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public void updateNString(int columnIndex, String x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateNString(String columnLabel, String x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, NClob x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, NClob x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public NClob getNClob(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public NClob getNClob(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SQLXML getSQLXML(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public SQLXML getSQLXML(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateSQLXML(int columnIndex, SQLXML x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateSQLXML(String columnLabel, SQLXML x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getNString(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String getNString(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Reader getNCharacterStream(int columnIndex) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Reader getNCharacterStream(String columnLabel) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateNCharacterStream(int columnIndex, Reader x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateNCharacterStream(String columnLabel, Reader x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, InputStream x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, InputStream x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Reader x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Reader x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, Reader x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, Reader x, long length) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateNCharacterStream(int columnIndex, Reader x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateNCharacterStream(String columnLabel, Reader x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateAsciiStream(int columnIndex, InputStream x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBinaryStream(int columnIndex, InputStream x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateCharacterStream(int columnIndex, Reader x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateAsciiStream(String columnLabel, InputStream x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBinaryStream(String columnLabel, InputStream x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateCharacterStream(String columnLabel, Reader x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBlob(int columnIndex, InputStream x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateBlob(String columnLabel, InputStream x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateClob(int columnIndex, Reader x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateClob(String columnLabel, Reader x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateNClob(int columnIndex, Reader x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void updateNClob(String columnLabel, Reader x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T getObject(int columnIndex, Class<T> x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T getObject(String columnLabel, Class<T> x) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return false;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.panteleyev.mysqlapi.model.RecordWithAllTypes;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures per record cost of {@link MySqlClient#insert(Connection, int, List)} against a statement that only
+ * stores parameters, i.e. time spent in the library itself.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchInsertBenchmark {
+    private static final int RECORDS = 10_000;
+    private static final int BATCH_SIZE = 100;
+
+    private ArrayPreparedStatement st;
+    private Connection conn;
+    private List<RecordWithAllTypes> records;
+
+    private MySqlClient reflectiveClient;
+    private MySqlClient compiledClient;
+
+    @Setup
+    public void setup() {
+        st = new ArrayPreparedStatement(BenchmarkData.ALL_TYPES_LABELS.length);
+        conn = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "prepareStatement" -> st;
+                case "isClosed" -> false;
+                default -> null;
+            });
+
+        var random = new Random(1);
+        records = new ArrayList<>(RECORDS);
+        for (int i = 0; i < RECORDS; i++) {
+            records.add(RecordWithAllTypes.newRecord(i + 1, random));
+        }
+
+        reflectiveClient = new MySqlClient();
+        compiledClient = new MySqlClient();
+        compiledClient.setCompiled(true);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void insertReflective(Blackhole bh) {
+        reflectiveClient.insert(conn, BATCH_SIZE, records);
+        bh.consume(st.getValue(2));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS)
+    public void insertCompiled(Blackhole bh) {
+        compiledClient.insert(conn, BATCH_SIZE, records);
+        bh.consume(st.getValue(2));
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.model.EnumType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Result set contents used by benchmarks.
+ */
+final class BenchmarkData {
+    static final String[] ALL_TYPES_LABELS = {
+        "primary_key", "a_field", "b_field", "c_field", "d_field", "e_field", "f_field", "g_field", "h_field"
+    };
+
+    static final String[] PRIMITIVES_LABELS = {"id", "a", "b", "c"};
+
+    private static final Random RANDOM = new Random(1);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds rows of {@link org.panteleyev.mysqlapi.model.RecordWithAllTypes} in the select list order.
+     *
+     * @param count number of rows
+     * @return result set
+     */
+    static ArrayResultSet allTypes(int count) {
+        var rows = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            rows[i] = new Object[]{
+                i + 1,
+                UUID.randomUUID().toString(),
+                RANDOM.nextInt(),
+                RANDOM.nextBoolean(),
+                System.currentTimeMillis(),
+                RANDOM.nextLong(),
+                BigDecimal.valueOf(RANDOM.nextInt(), 6),
+                EnumType.values()[RANDOM.nextInt(EnumType.values().length)].name(),
+                LocalDate.now().toEpochDay()
+            };
+        }
+        return new ArrayResultSet(ALL_TYPES_LABELS, rows);
+    }
+
+    /**
+     * Builds rows of {@link org.panteleyev.mysqlapi.model.RecordWithPrimitives} and
+     * {@link org.panteleyev.mysqlapi.model.ImmutableRecordWithPrimitives} in the select list order.
+     *
+     * @param count number of rows
+     * @return result set
+     */
+    static ArrayResultSet primitives(int count) {
+        var rows = new Object[count][];
+        for (int i = 0; i < count; i++) {
+            rows[i] = new Object[]{i + 1, RANDOM.nextInt(), RANDOM.nextBoolean(), RANDOM.nextLong()};
+        }
+        return new ArrayResultSet(PRIMITIVES_LABELS, rows);
+    }
+}
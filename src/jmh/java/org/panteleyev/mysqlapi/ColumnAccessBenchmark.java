@@ -0,0 +1,83 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.panteleyev.mysqlapi.model.RecordWithAllTypes;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import static org.panteleyev.mysqlapi.BenchmarkData.ALL_TYPES_LABELS;
+
+/**
+ * Compares reading columns by label with reading them by position in the select list.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnAccessBenchmark {
+    private static final int ROWS = 1000;
+
+    private ArrayResultSet set;
+    private RowMapper<RecordWithAllTypes> mapper;
+
+    @Setup
+    public void setup() {
+        set = BenchmarkData.allTypes(ROWS);
+        mapper = new MySqlClient().getRowMapper(RecordWithAllTypes.class);
+    }
+
+    @Benchmark
+    public void readByLabel(Blackhole bh) throws SQLException {
+        set.beforeFirst();
+        while (set.next()) {
+            bh.consume(set.getInt(ALL_TYPES_LABELS[0]));
+            bh.consume(set.getString(ALL_TYPES_LABELS[1]));
+            bh.consume(set.getInt(ALL_TYPES_LABELS[2]));
+            bh.consume(set.getBoolean(ALL_TYPES_LABELS[3]));
+            bh.consume(set.getLong(ALL_TYPES_LABELS[4]));
+            bh.consume(set.getLong(ALL_TYPES_LABELS[5]));
+            bh.consume(set.getBigDecimal(ALL_TYPES_LABELS[6]));
+            bh.consume(set.getString(ALL_TYPES_LABELS[7]));
+            bh.consume(set.getLong(ALL_TYPES_LABELS[8]));
+        }
+    }
+
+    @Benchmark
+    public void readByIndex(Blackhole bh) throws SQLException {
+        set.beforeFirst();
+        while (set.next()) {
+            bh.consume(set.getInt(1));
+            bh.consume(set.getString(2));
+            bh.consume(set.getInt(3));
+            bh.consume(set.getBoolean(4));
+            bh.consume(set.getLong(5));
+            bh.consume(set.getLong(6));
+            bh.consume(set.getBigDecimal(7));
+            bh.consume(set.getString(8));
+            bh.consume(set.getLong(9));
+        }
+    }
+
+    @Benchmark
+    public void mapRows(Blackhole bh) throws SQLException {
+        set.beforeFirst();
+        while (set.next()) {
+            bh.consume(mapper.map(set));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.panteleyev.mysqlapi.model.RecordWithAllTypes;
+import java.lang.invoke.MethodHandle;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reflective, method handle and compiled modes of mapping and binding
+ * {@link RecordWithAllTypes}. Method handle mode invokes the same handle trees that compiled mode stores in
+ * a generated class directly from the benchmark fields.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingModeBenchmark {
+    private static final int ROWS = 1000;
+
+    private ArrayResultSet set;
+    private ArrayPreparedStatement st;
+    private RecordWithAllTypes[] records;
+
+    private MySqlClient reflectiveClient;
+    private MySqlClient compiledClient;
+
+    private RowMapper<RecordWithAllTypes> reflectiveMapper;
+    private RowMapper<RecordWithAllTypes> compiledMapper;
+    private MethodHandle mapperHandle;
+    private MethodHandle binderHandle;
+
+    @Setup
+    public void setup() {
+        set = BenchmarkData.allTypes(ROWS);
+        st = new ArrayPreparedStatement(BenchmarkData.ALL_TYPES_LABELS.length);
+
+        var random = new Random(1);
+        records = new RecordWithAllTypes[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            records[i] = RecordWithAllTypes.newRecord(i + 1, random);
+        }
+
+        reflectiveClient = new MySqlClient();
+        reflectiveMapper = reflectiveClient.getRowMapper(RecordWithAllTypes.class);
+
+        compiledClient = new MySqlClient();
+        compiledClient.setCompiled(true);
+        compiledMapper = compiledClient.getRowMapper(RecordWithAllTypes.class);
+
+        mapperHandle = reflectiveClient.buildMapperHandle(RecordWithAllTypes.class);
+        binderHandle = reflectiveClient.buildBinderHandle(RecordWithAllTypes.class,
+            MySqlClient.getColumnNames(RecordWithAllTypes.class));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void mapReflective(Blackhole bh) throws Exception {
+        set.beforeFirst();
+        while (set.next()) {
+            bh.consume(reflectiveMapper.map(set));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void mapMethodHandle(Blackhole bh) throws Throwable {
+        set.beforeFirst();
+        while (set.next()) {
+            bh.consume((TableRecord) mapperHandle.invokeExact((ResultSet) set));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void mapCompiled(Blackhole bh) throws Exception {
+        set.beforeFirst();
+        while (set.next()) {
+            bh.consume(compiledMapper.map(set));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void bindReflective(Blackhole bh) {
+        for (var record : records) {
+            reflectiveClient.setData(record, st, false);
+        }
+        bh.consume(st.getValue(2));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void bindMethodHandle(Blackhole bh) throws Throwable {
+        for (var record : records) {
+            binderHandle.invokeExact((TableRecord) record, (PreparedStatement) st);
+        }
+        bh.consume(st.getValue(2));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void bindCompiled(Blackhole bh) {
+        for (var record : records) {
+            compiledClient.setData(record, st, false);
+        }
+        bh.consume(st.getValue(2));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.panteleyev.mysqlapi.model.ImmutableRecordWithPrimitives;
+import org.panteleyev.mysqlapi.model.RecordWithPrimitives;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maps records with primitive columns. Run with <code>-prof gc</code>: <code>gc.alloc.rate.norm</code> must be
+ * equal to the size of the record instance (32 bytes with compressed oops) since scores are per row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrimitiveMappingBenchmark {
+    private static final int ROWS = 1000;
+
+    private ArrayResultSet set;
+    private RowMapper<RecordWithPrimitives> fieldMapper;
+    private RowMapper<ImmutableRecordWithPrimitives> constructorMapper;
+
+    @Setup
+    public void setup() {
+        set = BenchmarkData.primitives(ROWS);
+
+        var client = new MySqlClient();
+        fieldMapper = client.getRowMapper(RecordWithPrimitives.class);
+        constructorMapper = client.getRowMapper(ImmutableRecordWithPrimitives.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void fieldAssignment(Blackhole bh) throws SQLException {
+        set.beforeFirst();
+        while (set.next()) {
+            bh.consume(fieldMapper.map(set));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void constructor(Blackhole bh) throws SQLException {
+        set.beforeFirst();
+        while (set.next()) {
+            bh.consume(constructorMapper.map(set));
+        }
+    }
+}
@@ -179,9 +179,8 @@ record Book(
  <tr>
  <td>{@link java.util.UUID}</td>
  <td>BINARY(16) or VARCHAR(36) depending on {@link Column#storeUuidAsBinary()}</td>
- <td>The following conversion functions are used between string and binary representation:
- <code>BIN_TO_UUID()</code> and <code>UUID_TO_BIN()</code>
- </td>
+ <td>Binary UUID is converted on the client side with the same byte layout as <code>UUID_TO_BIN()</code>,
+ time parts are swapped if {@link Column#swapUuidTime()} is set</td>
  </tr>
  </table>
 
@@ -231,4 +230,6 @@ open module org.panteleyev.mysqlapi {
 
     exports org.panteleyev.mysqlapi;
     exports org.panteleyev.mysqlapi.annotations;
+
+    uses org.panteleyev.mysqlapi.TableMapping;
 }
@@ -0,0 +1,226 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * <p>Asynchronous view of {@link MySqlClient} returned by {@link MySqlClient#async(int)}.</p>
+ * <p>Each operation calls the corresponding blocking method of the client on a separate thread and returns
+ * {@link CompletableFuture}. Virtual thread is started per operation when the runtime supports them, otherwise
+ * operations are executed by a fixed pool of daemon threads. Number of operations executed at the same time is
+ * limited, the rest wait for their turn without blocking the calling thread.</p>
+ * <p>Futures complete exceptionally with the exception thrown by the client.</p>
+ */
+@SuppressWarnings("rawtypes")
+public final class AsyncMySqlClient implements AutoCloseable {
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final MySqlClient client;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final ExecutorService executor;
+    private final boolean virtual;
+
+    AsyncMySqlClient(MySqlClient client, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("Maximum number of operations in flight must be >= 1");
+        }
+
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+        inFlight = new Semaphore(maxInFlight, true);
+
+        var virtualExecutor = newVirtualThreadExecutor();
+        virtual = virtualExecutor != null;
+        executor = virtual ? virtualExecutor : Executors.newFixedThreadPool(maxInFlight, r -> {
+            var thread = new Thread(r, "mysqlapi-async-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Returns virtual thread per task executor if runtime supports it.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            // Java 21 API, called via reflection because library is built for earlier versions
+            var method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns synchronous client executing the operations.
+     *
+     * @return client
+     */
+    public MySqlClient getClient() {
+        return client;
+    }
+
+    /**
+     * Returns maximum number of operations executed at the same time.
+     *
+     * @return maximum number of operations in flight
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Returns true if operations are executed by virtual threads.
+     *
+     * @return true if virtual threads are used
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Retrieves record from the database using record primary key.
+     *
+     * @param id    record id
+     * @param clazz record class
+     * @param <K>   primary key type
+     * @param <T>   type of the record
+     * @return future of the record
+     * @see MySqlClient#get(Object, Class)
+     */
+    public <K, T extends TableRecord<K>> CompletableFuture<Optional<T>> get(K id, Class<? extends T> clazz) {
+        return submit(() -> client.get(id, clazz));
+    }
+
+    /**
+     * Retrieves all records of the specified type.
+     *
+     * @param clazz record class
+     * @param <T>   type of the record
+     * @return future of the list of records
+     * @see MySqlClient#getAll(Class)
+     */
+    public <T extends TableRecord> CompletableFuture<List<T>> getAll(Class<T> clazz) {
+        return submit(() -> client.getAll(clazz));
+    }
+
+    /**
+     * Retrieves all records of the specified type and fills the map.
+     *
+     * @param clazz  record class
+     * @param result map to fill
+     * @param <K>    primary key type
+     * @param <T>    type of the record
+     * @return future completed when map is filled
+     * @see MySqlClient#getAll(Class, Map)
+     */
+    public <K, T extends TableRecord<K>> CompletableFuture<Void> getAll(Class<T> clazz, Map<K, T> result) {
+        return run(() -> client.getAll(clazz, result));
+    }
+
+    /**
+     * Inserts new record with predefined id into the database.
+     *
+     * @param record record
+     * @return future completed when record is inserted
+     * @see MySqlClient#insert(TableRecord)
+     */
+    public CompletableFuture<Void> insert(TableRecord record) {
+        return run(() -> client.insert(record));
+    }
+
+    /**
+     * Inserts multiple records with predefined id using batch insert.
+     *
+     * @param size    size of the batch
+     * @param records list of records
+     * @param <T>     type of records
+     * @return future completed when records are inserted
+     * @see MySqlClient#insert(int, List)
+     */
+    public <T extends TableRecord> CompletableFuture<Void> insert(int size, List<T> records) {
+        return run(() -> client.insert(size, records));
+    }
+
+    /**
+     * Updates record in the database.
+     *
+     * @param record record
+     * @return future completed when record is updated
+     * @see MySqlClient#update(TableRecord)
+     */
+    public CompletableFuture<Void> update(TableRecord record) {
+        return run(() -> client.update(record));
+    }
+
+    /**
+     * Deletes record from the database.
+     *
+     * @param record record to delete
+     * @return future completed when record is deleted
+     * @see MySqlClient#delete(TableRecord)
+     */
+    public CompletableFuture<Void> delete(TableRecord record) {
+        return run(() -> client.delete(record));
+    }
+
+    /**
+     * Deletes record from the database.
+     *
+     * @param id    id of the record
+     * @param clazz record type
+     * @param <K>   primary key type
+     * @return future completed when record is deleted
+     * @see MySqlClient#delete(Object, Class)
+     */
+    public <K> CompletableFuture<Void> delete(K id, Class<? extends TableRecord<K>> clazz) {
+        return run(() -> client.delete(id, clazz));
+    }
+
+    /**
+     * Stops accepting new operations. Operations already submitted are completed.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private CompletableFuture<Void> run(Runnable operation) {
+        return submit(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Executes operation when number of operations in flight drops below the limit.
+     */
+    <R> CompletableFuture<R> submit(Supplier<R> operation) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(ex);
+            }
+            try {
+                return operation.get();
+            } finally {
+                inFlight.release();
+            }
+        }, executor);
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Row mapper and statement binder generated at runtime for a single table class.</p>
+ * <p>Method handle trees built for the class are stored in <code>static final</code> fields of a hidden class.
+ * JIT treats such fields as constants and inlines the whole tree into the calling method thus the resulting code
+ * is equivalent to the hand written one.</p>
+ *
+ * @param <T> type of the record
+ */
+@SuppressWarnings("rawtypes")
+interface CompiledMapper<T extends TableRecord> extends RowMapper<T> {
+    /**
+     * Sets all column values of the record as parameters of the statement built by
+     * {@link MySqlClient#getInsertSQL(TableRecord)}.
+     */
+    void bindInsert(TableRecord<?> record, PreparedStatement st) throws SQLException;
+
+    /**
+     * Sets all column values of the record as parameters of the statement built by
+     * {@link MySqlClient#getUpdateSQL(TableRecord)}.
+     */
+    void bindUpdate(TableRecord<?> record, PreparedStatement st) throws SQLException;
+
+    /**
+     * Defines hidden class implementing this interface.
+     *
+     * @param mapper       row mapper of type <code>(ResultSet)TableRecord</code>
+     * @param insertBinder insert binder of type <code>(TableRecord,PreparedStatement)void</code>
+     * @param updateBinder update binder of type <code>(TableRecord,PreparedStatement)void</code>
+     * @param <T>          type of the record
+     * @return compiled mapper
+     */
+    static <T extends TableRecord> CompiledMapper<T> compile(MethodHandle mapper, MethodHandle insertBinder,
+                                                             MethodHandle updateBinder)
+    {
+        try {
+            var lookup = MethodHandles.lookup()
+                .defineHiddenClassWithClassData(ClassWriter.BYTES, List.of(mapper, insertBinder, updateBinder), true);
+            //noinspection unchecked
+            return (CompiledMapper<T>) lookup.findConstructor(lookup.lookupClass(),
+                MethodType.methodType(void.class)).invoke();
+        } catch (Throwable ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Writes the class file of the hidden class. The class does not depend on a table class thus it is built once.
+     */
+    final class ClassWriter {
+        private static final String THIS_CLASS = "org/panteleyev/mysqlapi/CompiledMapper$Generated";
+        private static final String MH = "java/lang/invoke/MethodHandle";
+        private static final String MH_DESCRIPTOR = "L" + MH + ";";
+        private static final String MAP_DESCRIPTOR = "(Ljava/sql/ResultSet;)Lorg/panteleyev/mysqlapi/TableRecord;";
+        private static final String BIND_DESCRIPTOR =
+            "(Lorg/panteleyev/mysqlapi/TableRecord;Ljava/sql/PreparedStatement;)V";
+        private static final String[] FIELDS = {"MAPPER", "INSERT_BINDER", "UPDATE_BINDER"};
+
+        private static final int ACC_PRIVATE_STATIC_FINAL = 0x001A;
+        private static final int ACC_PUBLIC = 0x0001;
+        private static final int ACC_FINAL_SUPER = 0x0030;
+        private static final int ACC_STATIC = 0x0008;
+
+        private static final byte[] BYTES = new ClassWriter().write();
+
+        private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+        private final DataOutputStream poolOut = new DataOutputStream(pool);
+        private final Map<String, Integer> poolIndex = new HashMap<>();
+        private int poolSize = 1;
+
+        private ClassWriter() {
+        }
+
+        private byte[] write() {
+            try {
+                var body = new ByteArrayOutputStream();
+                var out = new DataOutputStream(body);
+
+                out.writeShort(ACC_FINAL_SUPER);
+                out.writeShort(classRef(THIS_CLASS));
+                out.writeShort(classRef("java/lang/Object"));
+                out.writeShort(1);
+                out.writeShort(classRef("org/panteleyev/mysqlapi/CompiledMapper"));
+
+                out.writeShort(FIELDS.length);
+                for (var field : FIELDS) {
+                    out.writeShort(ACC_PRIVATE_STATIC_FINAL);
+                    out.writeShort(utf8(field));
+                    out.writeShort(utf8(MH_DESCRIPTOR));
+                    out.writeShort(0);
+                }
+
+                out.writeShort(5);
+                writeConstructor(out);
+                writeStaticInitializer(out);
+                writeInvoker(out, "map", MAP_DESCRIPTOR, FIELDS[0], 1, 0xB0);
+                writeInvoker(out, "bindInsert", BIND_DESCRIPTOR, FIELDS[1], 2, 0xB1);
+                writeInvoker(out, "bindUpdate", BIND_DESCRIPTOR, FIELDS[2], 2, 0xB1);
+                out.writeShort(0);
+
+                var result = new ByteArrayOutputStream();
+                var header = new DataOutputStream(result);
+                header.writeInt(0xCAFEBABE);
+                header.writeShort(0);
+                header.writeShort(60);
+                header.writeShort(poolSize);
+                pool.writeTo(result);
+                body.writeTo(result);
+                return result.toByteArray();
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+
+        private void writeConstructor(DataOutputStream out) throws IOException {
+            var code = new ByteArrayOutputStream();
+            var c = new DataOutputStream(code);
+            c.writeByte(0x2A);                                                      // aload_0
+            c.writeByte(0xB7);                                                      // invokespecial
+            c.writeShort(methodRef("java/lang/Object", "<init>", "()V", false));
+            c.writeByte(0xB1);                                                      // return
+            writeMethod(out, ACC_PUBLIC, "<init>", "()V", 1, 1, code.toByteArray());
+        }
+
+        private void writeStaticInitializer(DataOutputStream out) throws IOException {
+            var code = new ByteArrayOutputStream();
+            var c = new DataOutputStream(code);
+            // List<MethodHandle> data = MethodHandles.classData(MethodHandles.lookup(), "_", List.class)
+            c.writeByte(0xB8);                                                      // invokestatic
+            c.writeShort(methodRef("java/lang/invoke/MethodHandles", "lookup",
+                "()Ljava/lang/invoke/MethodHandles$Lookup;", false));
+            c.writeByte(0x13);                                                      // ldc_w
+            c.writeShort(string("_"));
+            c.writeByte(0x13);                                                      // ldc_w
+            c.writeShort(classRef("java/util/List"));
+            c.writeByte(0xB8);                                                      // invokestatic
+            c.writeShort(methodRef("java/lang/invoke/MethodHandles", "classData",
+                "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/Class;)Ljava/lang/Object;",
+                false));
+            c.writeByte(0xC0);                                                      // checkcast
+            c.writeShort(classRef("java/util/List"));
+            c.writeByte(0x4B);                                                      // astore_0
+
+            for (int i = 0; i < FIELDS.length; i++) {
+                c.writeByte(0x2A);                                                  // aload_0
+                c.writeByte(0x03 + i);                                              // iconst_<i>
+                c.writeByte(0xB9);                                                  // invokeinterface
+                c.writeShort(methodRef("java/util/List", "get", "(I)Ljava/lang/Object;", true));
+                c.writeByte(2);
+                c.writeByte(0);
+                c.writeByte(0xC0);                                                  // checkcast
+                c.writeShort(classRef(MH));
+                c.writeByte(0xB3);                                                  // putstatic
+                c.writeShort(fieldRef(FIELDS[i]));
+            }
+            c.writeByte(0xB1);                                                      // return
+            writeMethod(out, ACC_STATIC, "<clinit>", "()V", 3, 1, code.toByteArray());
+        }
+
+        /**
+         * Writes method that passes all its arguments to <code>invokeExact</code> of the method handle constant.
+         */
+        private void writeInvoker(DataOutputStream out, String name, String descriptor, String field, int args,
+                                  int returnOpcode) throws IOException
+        {
+            var code = new ByteArrayOutputStream();
+            var c = new DataOutputStream(code);
+            c.writeByte(0xB2);                                                      // getstatic
+            c.writeShort(fieldRef(field));
+            for (int i = 1; i <= args; i++) {
+                c.writeByte(0x2A + i);                                              // aload_<i>
+            }
+            c.writeByte(0xB6);                                                      // invokevirtual
+            c.writeShort(methodRef(MH, "invokeExact", descriptor, false));
+            c.writeByte(returnOpcode);
+            writeMethod(out, ACC_PUBLIC, name, descriptor, args + 1, args + 1, code.toByteArray());
+        }
+
+        private void writeMethod(DataOutputStream out, int access, String name, String descriptor, int maxStack,
+                                 int maxLocals, byte[] code) throws IOException
+        {
+            out.writeShort(access);
+            out.writeShort(utf8(name));
+            out.writeShort(utf8(descriptor));
+            out.writeShort(1);
+            out.writeShort(utf8("Code"));
+            out.writeInt(12 + code.length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(code.length);
+            out.write(code);
+            out.writeShort(0);                                                      // exception table
+            out.writeShort(0);                                                      // attributes
+        }
+
+        private int utf8(String value) {
+            return entry("U" + value, out -> {
+                out.writeByte(1);
+                out.writeUTF(value);
+            });
+        }
+
+        private int classRef(String name) {
+            var nameIndex = utf8(name);
+            return entry("C" + name, out -> {
+                out.writeByte(7);
+                out.writeShort(nameIndex);
+            });
+        }
+
+        private int string(String value) {
+            var valueIndex = utf8(value);
+            return entry("S" + value, out -> {
+                out.writeByte(8);
+                out.writeShort(valueIndex);
+            });
+        }
+
+        private int nameAndType(String name, String descriptor) {
+            var nameIndex = utf8(name);
+            var descriptorIndex = utf8(descriptor);
+            return entry("N" + name + ":" + descriptor, out -> {
+                out.writeByte(12);
+                out.writeShort(nameIndex);
+                out.writeShort(descriptorIndex);
+            });
+        }
+
+        private int fieldRef(String name) {
+            var classIndex = classRef(THIS_CLASS);
+            var nameAndTypeIndex = nameAndType(name, MH_DESCRIPTOR);
+            return entry("F" + name, out -> {
+                out.writeByte(9);
+                out.writeShort(classIndex);
+                out.writeShort(nameAndTypeIndex);
+            });
+        }
+
+        private int methodRef(String owner, String name, String descriptor, boolean isInterface) {
+            var classIndex = classRef(owner);
+            var nameAndTypeIndex = nameAndType(name, descriptor);
+            return entry("M" + owner + "." + name + descriptor, out -> {
+                out.writeByte(isInterface ? 11 : 10);
+                out.writeShort(classIndex);
+                out.writeShort(nameAndTypeIndex);
+            });
+        }
+
+        private interface EntryWriter {
+            void write(DataOutputStream out) throws IOException;
+        }
+
+        private int entry(String key, EntryWriter writer) {
+            var index = poolIndex.get(key);
+            if (index == null) {
+                try {
+                    writer.write(poolOut);
+                } catch (IOException ex) {
+                    throw new RuntimeException(ex);
+                }
+                index = poolSize++;
+                poolIndex.put(key, index);
+            }
+            return index;
+        }
+    }
+}
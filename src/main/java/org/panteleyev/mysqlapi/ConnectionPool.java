@@ -0,0 +1,649 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+/**
+ * <p>Connection pool built by {@link DataSourceBuilder} when maximum pool size is set.</p>
+ * <p>Idle connections are kept in a lock-free stack, the most recently returned connection is taken first. Number of
+ * connections in use is limited by a semaphore. Thread that holds a permit while all connections are being created
+ * or replaced parks until one is added to the pool. Threads wait without holding monitors thus virtual threads are
+ * not pinned. Connection that stayed idle for a while is validated before it is returned by
+ * {@link #getConnection()}. Connections idle longer than idle timeout are closed by a background thread as long as
+ * pool holds more than minimum number of connections.</p>
+ * <p>Closing the connection returns it to the pool. Auto-commit, read-only, isolation level and catalog changed by
+ * the application are restored, uncommitted transaction is rolled back.</p>
+ */
+public final class ConnectionPool implements DataSource, AutoCloseable {
+    // Connections used within this period are not validated
+    private static final long VALIDATION_BYPASS_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+    private static final long MAX_HOUSEKEEPING_PERIOD_MILLIS = TimeUnit.SECONDS.toMillis(30);
+    private static final long MIN_HOUSEKEEPING_PERIOD_MILLIS = 100;
+
+    private static final int IDLE = 0;
+    private static final int IN_USE = 1;
+    private static final int REMOVED = 2;
+
+    /**
+     * Physical connection.
+     */
+    private static final class Entry {
+        private final Connection physical;
+        private final AtomicInteger state = new AtomicInteger(IN_USE);
+
+        private final boolean autoCommit;
+        private final boolean readOnly;
+        private final int isolation;
+        private final String catalog;
+
+        // Physical connection or its statement cache
+        private volatile Connection connection;
+        private volatile long lastUsed;
+        private volatile boolean dirty;
+        private volatile boolean broken;
+
+        Entry(Connection physical) throws SQLException {
+            this.physical = physical;
+            this.connection = physical;
+            autoCommit = physical.getAutoCommit();
+            readOnly = physical.isReadOnly();
+            isolation = physical.getTransactionIsolation();
+            catalog = physical.getCatalog();
+            lastUsed = System.nanoTime();
+        }
+
+        void reset() throws SQLException {
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+            }
+            if (dirty) {
+                if (physical.getAutoCommit() != autoCommit) {
+                    physical.setAutoCommit(autoCommit);
+                }
+                if (physical.isReadOnly() != readOnly) {
+                    physical.setReadOnly(readOnly);
+                }
+                if (physical.getTransactionIsolation() != isolation) {
+                    physical.setTransactionIsolation(isolation);
+                }
+                if (catalog != null && !catalog.equals(physical.getCatalog())) {
+                    physical.setCatalog(catalog);
+                }
+                dirty = false;
+            }
+            physical.clearWarnings();
+        }
+    }
+
+    /**
+     * Connection handed out to the application.
+     */
+    static final class Handle implements InvocationHandler {
+        private final ConnectionPool pool;
+        private final Entry entry;
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        private Handle(ConnectionPool pool, Entry entry) {
+            this.pool = pool;
+            this.entry = entry;
+        }
+
+        /**
+         * Returns connection the calls are delegated to, null if handle is closed.
+         */
+        Connection delegate() {
+            return closed.get() ? null : entry.connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            var name = method.getName();
+            var parameterCount = method.getParameterCount();
+            if (parameterCount == 0) {
+                switch (name) {
+                    case "close" -> {
+                        if (closed.compareAndSet(false, true)) {
+                            pool.release(entry);
+                        }
+                        return null;
+                    }
+                    case "isClosed" -> {
+                        return closed.get() || entry.physical.isClosed();
+                    }
+                    case "hashCode" -> {
+                        return System.identityHashCode(proxy);
+                    }
+                }
+            } else if (parameterCount == 1 && name.equals("equals")) {
+                return proxy == args[0];
+            }
+
+            if (closed.get()) {
+                throw new SQLNonTransientConnectionException("Connection is closed", "08003");
+            }
+            if (name.startsWith("set")) {
+                entry.dirty = true;
+            }
+
+            try {
+                return method.invoke(entry.connection, args);
+            } catch (InvocationTargetException ex) {
+                var cause = ex.getCause();
+                if (cause instanceof SQLException sqlException && isConnectionError(sqlException)) {
+                    entry.broken = true;
+                }
+                throw cause;
+            }
+        }
+    }
+
+    private final DataSource dataSource;
+    private final int minSize;
+    private final int maxSize;
+    private final long idleTimeoutNanos;
+    private final long connectionTimeoutNanos;
+
+    private final ConcurrentLinkedDeque<Entry> idle = new ConcurrentLinkedDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger totalCount = new AtomicInteger();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    // Signalled when connection is added to the idle stack or pool size decreases
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private final AtomicInteger waitingCount = new AtomicInteger();
+
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder destroyedCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private ScheduledExecutorService housekeeper;
+
+    ConnectionPool(DataSource dataSource, int minSize, int maxSize, Duration idleTimeout, Duration connectionTimeout) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Maximum pool size must be >= 1");
+        }
+        if (minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Minimum pool size must be between 0 and maximum pool size");
+        }
+        if (idleTimeout.isNegative() || connectionTimeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout must not be negative");
+        }
+
+        this.dataSource = dataSource;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.connectionTimeoutNanos = connectionTimeout.toNanos();
+        permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Starts background thread that evicts idle connections and keeps minimum number of connections.
+     */
+    void start() {
+        if (minSize == 0 && idleTimeoutNanos == 0) {
+            return;
+        }
+
+        var period = idleTimeoutNanos == 0 ? MAX_HOUSEKEEPING_PERIOD_MILLIS :
+            Math.max(MIN_HOUSEKEEPING_PERIOD_MILLIS,
+                Math.min(MAX_HOUSEKEEPING_PERIOD_MILLIS, TimeUnit.NANOSECONDS.toMillis(idleTimeoutNanos) / 2));
+
+        housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            var thread = new Thread(r, "mysqlapi-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::maintain, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns connection from the pool. Waits for connection returned by other thread if all connections are in use.
+     *
+     * @return connection
+     * @throws SQLTransientConnectionException if no connection became available within connection timeout
+     * @throws SQLException                    in case of SQL error
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        checkOpen();
+
+        var start = System.nanoTime();
+        if (!permits.tryAcquire()) {
+            try {
+                if (!permits.tryAcquire(connectionTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    throw timeout();
+                }
+            } catch (InterruptedException ex) {
+                throw interrupted(ex);
+            }
+        }
+
+        try {
+            var entry = borrow(start + connectionTimeoutNanos);
+            var wait = System.nanoTime() - start;
+            totalWaitNanos.add(wait);
+            maxWaitNanos.accumulateAndGet(wait, Math::max);
+            borrowCount.increment();
+            activeCount.incrementAndGet();
+            return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new Handle(this, entry));
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Not supported, credentials are set by {@link DataSourceBuilder}.
+     *
+     * @throws SQLFeatureNotSupportedException always
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections use credentials of the data source");
+    }
+
+    private Entry borrow(long deadline) throws SQLException {
+        while (true) {
+            checkOpen();
+
+            var entry = idle.pollFirst();
+            if (entry != null) {
+                if (!entry.state.compareAndSet(IDLE, IN_USE)) {
+                    // Removed by housekeeper
+                    continue;
+                }
+                idleCount.decrementAndGet();
+                if (System.nanoTime() - entry.lastUsed > VALIDATION_BYPASS_NANOS && !isValid(entry)) {
+                    destroy(entry);
+                    continue;
+                }
+                return entry;
+            }
+
+            var total = totalCount.get();
+            if (total < maxSize) {
+                if (totalCount.compareAndSet(total, total + 1)) {
+                    return create(IN_USE);
+                }
+            } else {
+                // Connection is being created or removed by housekeeper
+                await(deadline);
+            }
+        }
+    }
+
+    private void await(long deadline) throws SQLException {
+        waitingCount.incrementAndGet();
+        lock.lock();
+        try {
+            // Checked under lock, signal cannot be missed
+            if (!idle.isEmpty() || totalCount.get() < maxSize || closed.get()) {
+                return;
+            }
+            var remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw timeout();
+            }
+            available.awaitNanos(remaining);
+        } catch (InterruptedException ex) {
+            throw interrupted(ex);
+        } finally {
+            lock.unlock();
+            waitingCount.decrementAndGet();
+        }
+    }
+
+    private void signalAvailable() {
+        // Waiter registers itself before it checks the pool under lock
+        if (waitingCount.get() == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private SQLTransientConnectionException timeout() {
+        timeoutCount.increment();
+        return new SQLTransientConnectionException("Connection is not available, request timed out after "
+            + TimeUnit.NANOSECONDS.toMillis(connectionTimeoutNanos) + " ms", "08001");
+    }
+
+    private static SQLTransientConnectionException interrupted(InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        return new SQLTransientConnectionException("Interrupted while waiting for connection", "08001", ex);
+    }
+
+    private void release(Entry entry) {
+        activeCount.decrementAndGet();
+        try {
+            if (entry.broken || closed.get()) {
+                destroy(entry);
+                return;
+            }
+
+            try {
+                entry.reset();
+            } catch (SQLException ex) {
+                destroy(entry);
+                return;
+            }
+
+            entry.lastUsed = System.nanoTime();
+            entry.state.set(IDLE);
+            idleCount.incrementAndGet();
+            idle.offerFirst(entry);
+            signalAvailable();
+
+            // Pool may have been closed concurrently
+            if (closed.get()) {
+                closeIdle();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Entry create(int state) throws SQLException {
+        try {
+            var entry = new Entry(dataSource.getConnection());
+            entry.state.set(state);
+            createdCount.increment();
+            return entry;
+        } catch (SQLException | RuntimeException ex) {
+            totalCount.decrementAndGet();
+            signalAvailable();
+            throw ex;
+        }
+    }
+
+    private void destroy(Entry entry) {
+        entry.state.set(REMOVED);
+        totalCount.decrementAndGet();
+        destroyedCount.increment();
+        signalAvailable();
+        try {
+            entry.connection.close();
+        } catch (SQLException ex) {
+            // Connection is discarded anyway
+        }
+    }
+
+    private static boolean isValid(Entry entry) {
+        try {
+            return entry.physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private static boolean isConnectionError(SQLException ex) {
+        var state = ex.getSQLState();
+        return ex instanceof SQLNonTransientConnectionException || (state != null && state.startsWith("08"));
+    }
+
+    /**
+     * Closes connections idle longer than idle timeout, then opens new connections up to the minimum pool size.
+     */
+    void maintain() {
+        if (closed.get()) {
+            return;
+        }
+
+        if (idleTimeoutNanos > 0) {
+            var now = System.nanoTime();
+            // Oldest connections are at the tail
+            var iterator = idle.descendingIterator();
+            while (iterator.hasNext() && totalCount.get() > minSize) {
+                var entry = iterator.next();
+                if (now - entry.lastUsed > idleTimeoutNanos && entry.state.compareAndSet(IDLE, REMOVED)) {
+                    iterator.remove();
+                    idleCount.decrementAndGet();
+                    destroy(entry);
+                }
+            }
+        }
+
+        while (!closed.get()) {
+            var total = totalCount.get();
+            if (total >= minSize) {
+                break;
+            }
+            if (!totalCount.compareAndSet(total, total + 1)) {
+                continue;
+            }
+            try {
+                var entry = create(IDLE);
+                idleCount.incrementAndGet();
+                idle.offerLast(entry);
+                signalAvailable();
+            } catch (SQLException | RuntimeException ex) {
+                // Database is not available, retry on the next run
+                break;
+            }
+        }
+    }
+
+    /**
+     * Closes idle connections and stops background thread. Connections in use are closed when returned to the pool.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        if (housekeeper != null) {
+            housekeeper.shutdownNow();
+        }
+        closeIdle();
+        signalAvailable();
+    }
+
+    private void closeIdle() {
+        Entry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            if (entry.state.compareAndSet(IDLE, REMOVED)) {
+                idleCount.decrementAndGet();
+                destroy(entry);
+            }
+        }
+    }
+
+    private void checkOpen() throws SQLException {
+        if (closed.get()) {
+            throw new SQLNonTransientConnectionException("Connection pool is closed", "08003");
+        }
+    }
+
+    /**
+     * Attaches statement cache to the physical connection so that cached statements survive returning connection
+     * to the pool.
+     *
+     * @return true if connection is a pooled one
+     */
+    static boolean cacheStatements(Connection connection, int capacity, LongAdder hits, LongAdder misses) {
+        if (!Proxy.isProxyClass(connection.getClass())
+            || !(Proxy.getInvocationHandler(connection) instanceof Handle handle))
+        {
+            return false;
+        }
+
+        var entry = handle.entry;
+        if (entry.connection == entry.physical) {
+            entry.connection = StatementCache.wrap(entry.physical, capacity, hits, misses);
+        }
+        return true;
+    }
+
+    /**
+     * Returns maximum number of open physical connections.
+     *
+     * @return maximum pool size
+     */
+    public int getMaxPoolSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns number of connections in use.
+     *
+     * @return number of active connections
+     */
+    public int getActiveConnections() {
+        return activeCount.get();
+    }
+
+    /**
+     * Returns number of idle connections.
+     *
+     * @return number of idle connections
+     */
+    public int getIdleConnections() {
+        return idleCount.get();
+    }
+
+    /**
+     * Returns number of open physical connections.
+     *
+     * @return number of connections
+     */
+    public int getTotalConnections() {
+        return totalCount.get();
+    }
+
+    /**
+     * Returns approximate number of threads waiting for connection.
+     *
+     * @return number of waiting threads
+     */
+    public int getWaitingThreads() {
+        return permits.getQueueLength() + waitingCount.get();
+    }
+
+    /**
+     * Returns number of connections handed out by the pool.
+     *
+     * @return number of connections handed out
+     */
+    public long getBorrowCount() {
+        return borrowCount.sum();
+    }
+
+    /**
+     * Returns number of physical connections opened by the pool.
+     *
+     * @return number of opened connections
+     */
+    public long getCreatedConnections() {
+        return createdCount.sum();
+    }
+
+    /**
+     * Returns number of physical connections closed by the pool because they were idle, invalid or broken.
+     *
+     * @return number of closed connections
+     */
+    public long getDestroyedConnections() {
+        return destroyedCount.sum();
+    }
+
+    /**
+     * Returns number of connection requests that timed out.
+     *
+     * @return number of timeouts
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.sum();
+    }
+
+    /**
+     * Returns total time spent in {@link #getConnection()} by successful requests.
+     *
+     * @return total wait time
+     */
+    public Duration getTotalWaitTime() {
+        return Duration.ofNanos(totalWaitNanos.sum());
+    }
+
+    /**
+     * Returns maximum time spent in {@link #getConnection()} by a successful request.
+     *
+     * @return maximum wait time
+     */
+    public Duration getMaxWaitTime() {
+        return Duration.ofNanos(maxWaitNanos.get());
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return dataSource.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        dataSource.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        dataSource.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return dataSource.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return dataSource.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : dataSource.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || dataSource.isWrapperFor(iface);
+    }
+}
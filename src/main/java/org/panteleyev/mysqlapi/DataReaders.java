@@ -10,79 +10,48 @@ import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.Date;
 import java.util.UUID;
-import java.util.function.BiFunction;
 
 interface DataReaders {
-    BiFunction<ResultSet, String, Object> OBJECT_READER = (ResultSet rs, String name) -> {
-        try {
-            return rs.getObject(name);
-        } catch (SQLException ex) {
-            throw new RuntimeException(ex);
-        }
-    };
+    /**
+     * Reads column value by its position in the select list.
+     *
+     * @param <T> type of the value
+     */
+    @FunctionalInterface
+    interface ColumnReader<T> {
+        T read(ResultSet rs, int index) throws SQLException;
+    }
 
-    BiFunction<ResultSet, String, Boolean> BOOL_READER = (ResultSet rs, String name) -> {
-        try {
-            return rs.getBoolean(name);
-        } catch (SQLException ex) {
-            throw new RuntimeException(ex);
-        }
-    };
+    ColumnReader<Object> OBJECT_READER = ResultSet::getObject;
 
-    BiFunction<ResultSet, String, BigDecimal> BIG_DECIMAL_READER = (ResultSet rs, String name) -> {
-        try {
-            return rs.getBigDecimal(name);
-        } catch (SQLException ex) {
-            throw new RuntimeException(ex);
-        }
-    };
+    ColumnReader<Boolean> BOOL_READER = ResultSet::getBoolean;
 
-    BiFunction<ResultSet, String, Integer> INT_READER = (ResultSet rs, String name) -> {
-        try {
-            return rs.getInt(name);
-        } catch (SQLException ex) {
-            throw new RuntimeException(ex);
-        }
-    };
+    ColumnReader<BigDecimal> BIG_DECIMAL_READER = ResultSet::getBigDecimal;
 
-    BiFunction<ResultSet, String, Long> LONG_READER = (ResultSet rs, String name) -> {
-        try {
-            return rs.getLong(name);
-        } catch (SQLException ex) {
-            throw new RuntimeException(ex);
-        }
-    };
+    ColumnReader<Integer> INT_READER = ResultSet::getInt;
 
-    BiFunction<ResultSet, String, Date> DATE_READER = (ResultSet rs, String name) -> {
-        try {
-            return rs.getObject(name) == null ? null : new Date(rs.getLong(name));
-        } catch (SQLException ex) {
-            throw new RuntimeException(ex);
-        }
-    };
+    ColumnReader<Long> LONG_READER = ResultSet::getLong;
+
+    ColumnReader<Date> DATE_READER = (ResultSet rs, int index) ->
+        rs.getObject(index) == null ? null : new Date(rs.getLong(index));
+
+    ColumnReader<LocalDate> LOCAL_DATE_READER = (ResultSet rs, int index) ->
+        rs.getObject(index) == null ? null : LocalDate.ofEpochDay(rs.getLong(index));
+
+    ColumnReader<byte[]> BYTE_ARRAY_READER = ResultSet::getBytes;
 
-    BiFunction<ResultSet, String, LocalDate> LOCAL_DATE_READER = (ResultSet rs, String name) -> {
-        try {
-            return rs.getObject(name) == null ? null : LocalDate.ofEpochDay(rs.getLong(name));
-        } catch (SQLException ex) {
-            throw new RuntimeException(ex);
-        }
+    ColumnReader<UUID> UUID_STRING_READER = (ResultSet rs, int index) -> {
+        var uuid = rs.getString(index);
+        return uuid == null ? null : UUID.fromString(uuid);
     };
 
-    BiFunction<ResultSet, String, byte[]> BYTE_ARRAY_READER = (ResultSet rs, String name) -> {
-        try {
-            return rs.getBytes(name);
-        } catch (SQLException ex) {
-            throw new RuntimeException(ex);
-        }
+    ColumnReader<UUID> UUID_BINARY_READER = (ResultSet rs, int index) -> {
+        var bytes = rs.getBytes(index);
+        return bytes == null ? null : UuidCodec.fromBytes(bytes, false);
     };
 
-    BiFunction<ResultSet, String, UUID> UUID_STRING_READER = (ResultSet rs, String name) -> {
-        try {
-            var uuid = rs.getString(name);
-            return uuid == null ? null : UUID.fromString(uuid);
-        } catch (SQLException ex) {
-            throw new RuntimeException(ex);
-        }
+    ColumnReader<UUID> UUID_SWAPPED_READER = (ResultSet rs, int index) -> {
+        var bytes = rs.getBytes(index);
+        return bytes == null ? null : UuidCodec.fromBytes(bytes, true);
     };
 }
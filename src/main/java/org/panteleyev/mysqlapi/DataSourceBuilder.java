@@ -5,6 +5,7 @@
 package org.panteleyev.mysqlapi;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 import java.util.TimeZone;
 
 /**
@@ -20,13 +21,30 @@ public class DataSourceBuilder {
     private String serverTimeZone = TimeZone.getDefault().getID();
     private boolean useSsl = false;
     private boolean allowPublicKeyRetrieval = true;
+    private boolean allowLoadLocalInfile = false;
+    private boolean useCursorFetch = false;
+    private int minPoolSize = 0;
+    private int maxPoolSize = 0;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Duration connectionTimeout = Duration.ofSeconds(30);
 
     /**
-     * Builds datasource.
+     * Builds datasource. If maximum pool size is set then returned datasource is {@link ConnectionPool}.
      *
      * @return datasource instance
      */
     public DataSource build() {
+        var ds = buildDataSource();
+        if (maxPoolSize == 0) {
+            return ds;
+        }
+
+        var pool = new ConnectionPool(ds, minPoolSize, maxPoolSize, idleTimeout, connectionTimeout);
+        pool.start();
+        return pool;
+    }
+
+    private DataSource buildDataSource() {
         try {
             // Using reflection to avoid hard dependency on MySQL connector jar. At least until it becomes a module.
             var dsClass = Class.forName("com.mysql.cj.jdbc.MysqlDataSource");
@@ -41,6 +59,8 @@ public class DataSourceBuilder {
             dsClass.getDeclaredMethod("setUseSSL", boolean.class).invoke(ds, useSsl);
             dsClass.getDeclaredMethod("setAllowPublicKeyRetrieval", boolean.class).invoke(ds, allowPublicKeyRetrieval);
             dsClass.getDeclaredMethod("setServerTimezone", String.class).invoke(ds, serverTimeZone);
+            dsClass.getDeclaredMethod("setAllowLoadLocalInfile", boolean.class).invoke(ds, allowLoadLocalInfile);
+            dsClass.getDeclaredMethod("setUseCursorFetch", boolean.class).invoke(ds, useCursorFetch);
             return ds;
         } catch (Exception ex) {
             throw new RuntimeException(ex);
@@ -135,6 +155,30 @@ public class DataSourceBuilder {
         return this;
     }
 
+    /**
+     * Sets allowLoadLocalInfile option required by {@link MySqlClient#bulkLoad(java.sql.Connection, Class,
+     * java.util.stream.Stream)}. Default value is {@code false}.
+     *
+     * @param allowLoadLocalInfile allowLoadLocalInfile option value
+     * @return {@code this}
+     */
+    public DataSourceBuilder allowLoadLocalInfile(boolean allowLoadLocalInfile) {
+        this.allowLoadLocalInfile = allowLoadLocalInfile;
+        return this;
+    }
+
+    /**
+     * Sets useCursorFetch option required by positive fetch size of {@link MySqlClient#stream(java.sql.Connection,
+     * Class)}. Default value is {@code false}.
+     *
+     * @param useCursorFetch useCursorFetch option value
+     * @return {@code this}
+     */
+    public DataSourceBuilder useCursorFetch(boolean useCursorFetch) {
+        this.useCursorFetch = useCursorFetch;
+        return this;
+    }
+
     /**
      * Sets useSSL option. Default value is {@code false}.
      *
@@ -145,4 +189,49 @@ public class DataSourceBuilder {
         this.useSsl = useSsl;
         return this;
     }
+
+    /**
+     * Sets minimum number of connections kept open by the pool. Default value is 0.
+     *
+     * @param minPoolSize minimum pool size
+     * @return {@code this}
+     */
+    public DataSourceBuilder minPoolSize(int minPoolSize) {
+        this.minPoolSize = minPoolSize;
+        return this;
+    }
+
+    /**
+     * Sets maximum number of connections opened by the pool. Default value is 0 which means connections are not
+     * pooled.
+     *
+     * @param maxPoolSize maximum pool size
+     * @return {@code this}
+     */
+    public DataSourceBuilder maxPoolSize(int maxPoolSize) {
+        this.maxPoolSize = maxPoolSize;
+        return this;
+    }
+
+    /**
+     * Sets time after which idle pooled connection is closed. Zero disables eviction. Default value is 10 minutes.
+     *
+     * @param idleTimeout idle timeout
+     * @return {@code this}
+     */
+    public DataSourceBuilder idleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+        return this;
+    }
+
+    /**
+     * Sets maximum time to wait for pooled connection. Default value is 30 seconds.
+     *
+     * @param connectionTimeout connection timeout
+     * @return {@code this}
+     */
+    public DataSourceBuilder connectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+        return this;
+    }
 }
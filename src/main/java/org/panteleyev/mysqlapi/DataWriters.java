@@ -0,0 +1,113 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.UUID;
+
+interface DataWriters {
+    /**
+     * Sets statement parameter with the specified index.
+     *
+     * @param <T> type of the value
+     */
+    @FunctionalInterface
+    interface ColumnWriter<T> {
+        void write(PreparedStatement st, int index, T value) throws SQLException;
+    }
+
+    ColumnWriter<String> STRING_WRITER = (PreparedStatement st, int index, String value) -> {
+        if (value == null) {
+            st.setNull(index, Types.VARCHAR);
+        } else {
+            st.setString(index, value);
+        }
+    };
+
+    ColumnWriter<UUID> UUID_STRING_WRITER = (PreparedStatement st, int index, UUID value) -> {
+        if (value == null) {
+            st.setNull(index, Types.VARCHAR);
+        } else {
+            st.setString(index, value.toString());
+        }
+    };
+
+    ColumnWriter<UUID> UUID_BINARY_WRITER = (PreparedStatement st, int index, UUID value) -> {
+        if (value == null) {
+            st.setNull(index, Types.BINARY);
+        } else {
+            st.setBytes(index, UuidCodec.toBytes(value, false));
+        }
+    };
+
+    ColumnWriter<UUID> UUID_SWAPPED_WRITER = (PreparedStatement st, int index, UUID value) -> {
+        if (value == null) {
+            st.setNull(index, Types.BINARY);
+        } else {
+            st.setBytes(index, UuidCodec.toBytes(value, true));
+        }
+    };
+
+    ColumnWriter<Boolean> BOOLEAN_WRITER = (PreparedStatement st, int index, Boolean value) -> {
+        if (value == null) {
+            st.setNull(index, Types.BOOLEAN);
+        } else {
+            st.setBoolean(index, value);
+        }
+    };
+
+    ColumnWriter<Integer> INTEGER_WRITER = (PreparedStatement st, int index, Integer value) -> {
+        if (value == null) {
+            st.setNull(index, Types.INTEGER);
+        } else {
+            st.setInt(index, value);
+        }
+    };
+
+    ColumnWriter<Long> LONG_WRITER = (PreparedStatement st, int index, Long value) -> {
+        if (value == null) {
+            st.setNull(index, Types.INTEGER);
+        } else {
+            st.setLong(index, value);
+        }
+    };
+
+    ColumnWriter<Date> DATE_WRITER = (PreparedStatement st, int index, Date value) -> {
+        if (value == null) {
+            st.setNull(index, Types.INTEGER);
+        } else {
+            st.setLong(index, value.getTime());
+        }
+    };
+
+    ColumnWriter<LocalDate> LOCAL_DATE_WRITER = (PreparedStatement st, int index, LocalDate value) -> {
+        if (value == null) {
+            st.setNull(index, Types.INTEGER);
+        } else {
+            st.setLong(index, value.toEpochDay());
+        }
+    };
+
+    ColumnWriter<BigDecimal> BIG_DECIMAL_WRITER = (PreparedStatement st, int index, BigDecimal value) -> {
+        if (value == null) {
+            st.setNull(index, Types.DECIMAL);
+        } else {
+            st.setBigDecimal(index, value);
+        }
+    };
+
+    ColumnWriter<byte[]> BYTE_ARRAY_WRITER = (PreparedStatement st, int index, byte[] value) -> {
+        if (value == null) {
+            st.setNull(index, Types.VARBINARY);
+        } else {
+            st.setBytes(index, value);
+        }
+    };
+}
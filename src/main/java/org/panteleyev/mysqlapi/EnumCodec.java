@@ -0,0 +1,214 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.DataReaders.ColumnReader;
+import org.panteleyev.mysqlapi.DataWriters.ColumnWriter;
+import org.panteleyev.mysqlapi.annotations.Column;
+import org.panteleyev.mysqlapi.annotations.EnumStorage;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * <p>Converts enum constants to and from column values. Codec is built once per enum type and holds tables of
+ * constants, names and their bytes.</p>
+ * <p>Columns of {@link EnumStorage#NAME} and {@link EnumStorage#ENUM} storage are read as raw bytes and decoded
+ * without creating a string. This is only done when all constant names are ASCII thus have the same bytes in any
+ * connection character set.</p>
+ *
+ * @param <E> enum type
+ */
+final class EnumCodec<E extends Enum<E>> {
+    private static final int MAX_ORDINAL_CONSTANTS = Byte.MAX_VALUE + 1;
+
+    private static final ClassValue<EnumCodec<?>> CODECS = new ClassValue<>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected EnumCodec<?> computeValue(Class<?> type) {
+            return new EnumCodec(type);
+        }
+    };
+
+    private final Class<E> type;
+    private final E[] constants;
+    private final Map<String, E> names;
+    private final boolean ascii;
+
+    // Open addressing table of name bytes, slot contains ordinal + 1
+    private final byte[][] nameBytes;
+    private final int[] slots;
+    private final int mask;
+
+    private final ColumnReader<E> nameReader;
+    private final ColumnReader<E> ordinalReader;
+    private final ColumnWriter<E> nameWriter;
+    private final ColumnWriter<E> ordinalWriter;
+
+    /**
+     * Returns codec of the enum type.
+     *
+     * @param type enum type
+     * @param <E>  enum type
+     * @return codec
+     */
+    @SuppressWarnings("unchecked")
+    static <E extends Enum<E>> EnumCodec<E> of(Class<?> type) {
+        if (!type.isEnum()) {
+            throw new IllegalArgumentException("Not an enum: " + type.getName());
+        }
+        return (EnumCodec<E>) CODECS.get(type);
+    }
+
+    private EnumCodec(Class<E> type) {
+        this.type = type;
+        constants = type.getEnumConstants();
+
+        names = new HashMap<>(constants.length * 2);
+        nameBytes = new byte[constants.length][];
+        var allAscii = true;
+        for (var constant : constants) {
+            names.put(constant.name(), constant);
+            var bytes = constant.name().getBytes(StandardCharsets.UTF_8);
+            nameBytes[constant.ordinal()] = bytes;
+            allAscii &= bytes.length == constant.name().length();
+        }
+        ascii = allAscii;
+
+        var size = Integer.highestOneBit(Math.max(constants.length, 1) * 2) << 1;
+        slots = new int[size];
+        mask = size - 1;
+        for (var constant : constants) {
+            var slot = hash(nameBytes[constant.ordinal()]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = constant.ordinal() + 1;
+        }
+
+        nameReader = ascii ?
+            (ResultSet set, int index) -> decode(set.getBytes(index)) :
+            (ResultSet set, int index) -> decode(set.getString(index));
+
+        ordinalReader = (ResultSet set, int index) -> {
+            var ordinal = set.getInt(index);
+            return set.wasNull() ? null : fromOrdinal(ordinal);
+        };
+
+        nameWriter = (PreparedStatement st, int index, E value) -> {
+            if (value == null) {
+                st.setNull(index, Types.VARCHAR);
+            } else {
+                st.setString(index, value.name());
+            }
+        };
+
+        ordinalWriter = (PreparedStatement st, int index, E value) -> {
+            if (value == null) {
+                st.setNull(index, Types.TINYINT);
+            } else {
+                st.setInt(index, value.ordinal());
+            }
+        };
+    }
+
+    /**
+     * Returns constant with the specified name.
+     *
+     * @param name constant name
+     * @return constant or null if name is null
+     * @throws IllegalArgumentException if there is no such constant
+     */
+    E decode(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        var constant = names.get(name);
+        if (constant == null) {
+            throw noConstant(name);
+        }
+        return constant;
+    }
+
+    /**
+     * Returns constant with the specified name encoded as UTF-8 or ASCII.
+     *
+     * @param bytes constant name bytes
+     * @return constant or null if bytes are null
+     * @throws IllegalArgumentException if there is no such constant
+     */
+    E decode(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+
+        var slot = hash(bytes) & mask;
+        int ordinal;
+        while ((ordinal = slots[slot]) != 0) {
+            if (Arrays.equals(nameBytes[ordinal - 1], bytes)) {
+                return constants[ordinal - 1];
+            }
+            slot = (slot + 1) & mask;
+        }
+        throw noConstant(new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    E fromOrdinal(int ordinal) {
+        if (ordinal < 0 || ordinal >= constants.length) {
+            throw new IllegalArgumentException("No enum constant " + type.getCanonicalName() + " with ordinal "
+                + ordinal);
+        }
+        return constants[ordinal];
+    }
+
+    ColumnReader<E> getReader(Column column) {
+        return getStorage(column) == EnumStorage.ORDINAL ? ordinalReader : nameReader;
+    }
+
+    ColumnWriter<E> getWriter(Column column) {
+        return getStorage(column) == EnumStorage.ORDINAL ? ordinalWriter : nameWriter;
+    }
+
+    /**
+     * Returns SQL type of the column.
+     */
+    String getColumnType(Column column) {
+        return switch (getStorage(column)) {
+            case NAME -> "VARCHAR(" + column.length() + ")";
+            case ORDINAL -> {
+                if (constants.length > MAX_ORDINAL_CONSTANTS) {
+                    throw new IllegalStateException("Enum " + type.getName() + " has too many constants for "
+                        + EnumStorage.ORDINAL + " storage");
+                }
+                yield "TINYINT";
+            }
+            case ENUM -> Arrays.stream(constants)
+                .map(c -> "'" + c.name() + "'")
+                .collect(Collectors.joining(",", "ENUM(", ")"));
+        };
+    }
+
+    private static EnumStorage getStorage(Column column) {
+        return column == null ? EnumStorage.NAME : column.enumStorage();
+    }
+
+    private IllegalArgumentException noConstant(String name) {
+        return new IllegalArgumentException("No enum constant " + type.getCanonicalName() + "." + name);
+    }
+
+    private static int hash(byte[] bytes) {
+        int h = 0;
+        for (var b : bytes) {
+            h = 31 * h + b;
+        }
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * <p>Stream of records in the text format of <code>LOAD DATA</code> statement with default options: fields are
+ * terminated by tab, lines by new line, special characters are escaped by backslash, NULL is written as
+ * <code>\N</code>. Text is encoded as UTF-8, binary values are written as hex strings and must be converted by
+ * <code>UNHEX()</code> in the statement.</p>
+ * <p>Records are converted lazily while the driver reads the stream. Column values are taken from the same binders
+ * that set insert statement parameters, binder is given a statement that only captures parameter values.</p>
+ *
+ * @param <T> type of records
+ */
+final class LocalInfileStream<T> extends InputStream {
+    /**
+     * Binds record as insert statement parameters.
+     */
+    @FunctionalInterface
+    interface RecordBinder<T> {
+        void bind(T record, PreparedStatement st);
+    }
+
+    private static final byte[] NULL = {'\\', 'N'};
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    // Records are converted until buffer contains at least this number of bytes
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final Iterator<? extends T> records;
+    private final RecordBinder<? super T> binder;
+    private final Object[] values;
+    private final PreparedStatement capture;
+
+    private byte[] buffer = new byte[CHUNK_SIZE * 2];
+    private int position;
+    private int limit;
+
+    private long count;
+    private RuntimeException failure;
+
+    LocalInfileStream(Iterator<? extends T> records, int columnCount, RecordBinder<? super T> binder) {
+        this.records = records;
+        this.binder = binder;
+        this.values = new Object[columnCount];
+        capture = (PreparedStatement) Proxy.newProxyInstance(LocalInfileStream.class.getClassLoader(),
+            new Class<?>[]{PreparedStatement.class}, new Capture());
+    }
+
+    /**
+     * Collects values of setXxx(index, value) calls, setNull(...) gives null value.
+     */
+    private final class Capture implements InvocationHandler {
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws SQLException {
+            var name = method.getName();
+            if (args != null && args.length >= 2 && name.startsWith("set")
+                && method.getParameterTypes()[0] == int.class)
+            {
+                var index = (Integer) args[0];
+                if (index < 1 || index > values.length) {
+                    throw new SQLException("Parameter index out of range: " + index);
+                }
+                values[index - 1] = name.equals("setNull") ? null : args[1];
+                return null;
+            }
+            throw new UnsupportedOperationException(name);
+        }
+    }
+
+    /**
+     * Returns number of records written to the stream.
+     */
+    long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns exception thrown while records were converted, null if there was none.
+     */
+    RuntimeException getFailure() {
+        return failure;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        var n = Math.min(len, limit - position);
+        System.arraycopy(buffer, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    /**
+     * Converts the next records if buffer is empty.
+     *
+     * @return false if there are no more records
+     */
+    private boolean fill() throws IOException {
+        if (position < limit) {
+            return true;
+        }
+        if (failure != null) {
+            throw new IOException(failure);
+        }
+
+        position = 0;
+        limit = 0;
+        try {
+            while (limit < CHUNK_SIZE && records.hasNext()) {
+                Arrays.fill(values, null);
+                binder.bind(records.next(), capture);
+                writeRow();
+                count++;
+            }
+            return limit > 0;
+        } catch (RuntimeException ex) {
+            failure = ex;
+            throw new IOException(ex);
+        }
+    }
+
+    private void writeRow() {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                append((byte) '\t');
+            }
+            var value = values[i];
+            if (value == null) {
+                append(NULL);
+            } else if (value instanceof byte[] bytes) {
+                appendHex(bytes);
+            } else if (value instanceof Boolean b) {
+                append((byte) (b ? '1' : '0'));
+            } else if (value instanceof BigDecimal decimal) {
+                appendEscaped(decimal.toPlainString().getBytes(StandardCharsets.US_ASCII));
+            } else {
+                appendEscaped(value.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        append((byte) '\n');
+    }
+
+    private void appendEscaped(byte[] bytes) {
+        ensureCapacity(2 * bytes.length);
+        for (var b : bytes) {
+            switch (b) {
+                case '\\' -> {
+                    buffer[limit++] = '\\';
+                    buffer[limit++] = '\\';
+                }
+                case '\t' -> {
+                    buffer[limit++] = '\\';
+                    buffer[limit++] = 't';
+                }
+                case '\n' -> {
+                    buffer[limit++] = '\\';
+                    buffer[limit++] = 'n';
+                }
+                case 0 -> {
+                    buffer[limit++] = '\\';
+                    buffer[limit++] = '0';
+                }
+                default -> buffer[limit++] = b;
+            }
+        }
+    }
+
+    private void appendHex(byte[] bytes) {
+        ensureCapacity(2 * bytes.length);
+        for (var b : bytes) {
+            buffer[limit++] = HEX_DIGITS[(b >> 4) & 0x0F];
+            buffer[limit++] = HEX_DIGITS[b & 0x0F];
+        }
+    }
+
+    private void append(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, limit, bytes.length);
+        limit += bytes.length;
+    }
+
+    private void append(byte b) {
+        ensureCapacity(1);
+        buffer[limit++] = b;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (limit + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, limit + extra));
+        }
+    }
+}
@@ -4,35 +4,51 @@
  */
 package org.panteleyev.mysqlapi;
 
+import org.panteleyev.mysqlapi.DataWriters.ColumnWriter;
+import org.panteleyev.mysqlapi.TableMetadata.FetchProfileMetadata;
+import org.panteleyev.mysqlapi.TableMetadata.InsertMode;
 import org.panteleyev.mysqlapi.annotations.Column;
-import org.panteleyev.mysqlapi.annotations.ForeignKey;
-import org.panteleyev.mysqlapi.annotations.Index;
-import org.panteleyev.mysqlapi.annotations.PrimaryKey;
+import org.panteleyev.mysqlapi.annotations.FetchProfile;
 import org.panteleyev.mysqlapi.annotations.RecordBuilder;
-import org.panteleyev.mysqlapi.annotations.Table;
 import javax.sql.DataSource;
+import java.io.InputStream;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.invoke.VarHandle;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Field;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import static org.panteleyev.mysqlapi.DataTypes.AUTO_INCREMENT_TYPES;
-import static org.panteleyev.mysqlapi.DataTypes.CLASS_NOT_ANNOTATED;
-import static org.panteleyev.mysqlapi.DataTypes.TYPE_ENUM;
 import static org.panteleyev.mysqlapi.DataTypes.TYPE_INT;
 import static org.panteleyev.mysqlapi.DataTypes.TYPE_INTEGER;
 import static org.panteleyev.mysqlapi.DataTypes.TYPE_LONG;
@@ -46,28 +62,71 @@ public class MySqlClient {
     static record ParameterHandle(String name, Class<?>type) {
     }
 
-    static record ConstructorHandle(MethodHandle handle, List<ParameterHandle>parameters) {
+    /**
+     * Constructor used for deserialization.
+     *
+     * @param handle     constructor handle
+     * @param parameters constructor parameters
+     * @param invoker    constructor with column readers folded into its arguments, exact type is
+     *                   <code>(ResultSet)TableRecord</code>
+     */
+    static record ConstructorHandle(MethodHandle handle, List<ParameterHandle>parameters, MethodHandle invoker) {
     }
 
-    static record PrimaryKeyHandle(Field field, VarHandle handle, boolean autoIncrement) {
+    /**
+     * Key of the mapper that reads subset of columns.
+     *
+     * @param clazz   table class
+     * @param profile fetch profile name or projection record class
+     */
+    private record ProfileKey(Class<?> clazz, Object profile) {
     }
 
-    private static final String NOT_ANNOTATED = "Class is not properly annotated";
-
     private final Map<Class<? extends TableRecord>, Number> primaryKeys = new ConcurrentHashMap<>();
 
-    private final Map<Class<? extends TableRecord>, String> selectAllSql = new ConcurrentHashMap<>();
-    private final Map<Class<? extends TableRecord>, String> selectByIdSql = new ConcurrentHashMap<>();
-    private final Map<Class<? extends TableRecord>, String> insertSql = new ConcurrentHashMap<>();
-    private final Map<Class<? extends TableRecord>, String> updateSql = new ConcurrentHashMap<>();
-    private final Map<Class<? extends TableRecord>, String> deleteSql = new ConcurrentHashMap<>();
-
-    private static final Map<Class<? extends TableRecord>, PrimaryKeyHandle> PRIMARY_KEY_HANDLE_MAP
-        = new ConcurrentHashMap<>();
     private static final Map<Class<? extends TableRecord>, ConstructorHandle> CONSTRUCTOR_MAP = new ConcurrentHashMap<>();
-    private static final Map<Class<? extends TableRecord>, Map<String, VarHandle>> COLUMN_MAP = new ConcurrentHashMap<>();
+    private static final Map<Class<? extends TableRecord>, RowMapper<?>> ROW_MAPPER_MAP = new ConcurrentHashMap<>();
+    private static final Map<Class<? extends TableRecord>, Optional<CompiledMapper<?>>> COMPILED_MAPPER_MAP
+        = new ConcurrentHashMap<>();
+    private static final Map<Class<? extends TableRecord>, StatementBinder> STATEMENT_BINDER_MAP
+        = new ConcurrentHashMap<>();
+    private static final Map<ProfileKey, RowMapper<?>> PROFILE_ROW_MAPPER_MAP = new ConcurrentHashMap<>();
+    // Projection invokers, exact type is (ResultSet)Object
+    private static final Map<ProfileKey, MethodHandle> PROJECTION_MAPPER_MAP = new ConcurrentHashMap<>();
+
+    /**
+     * Mappings generated at compile time, loaded by {@link ServiceLoader} on first use.
+     */
+    private static final class TableMappings {
+        static final Map<Class<?>, TableMapping<?>> MAP =
+            loadTableMappings(ServiceLoader.load(TableMapping.class).iterator());
+    }
+
+    private static final System.Logger LOGGER = System.getLogger(MySqlClient.class.getName());
+
+    private static final int DEFAULT_MAX_IN_FLIGHT = 64;
+    private static final int DEFAULT_MAX_INSERT_PACKET_SIZE = 1024 * 1024;
+    // Connector/J streams result set row by row with this fetch size
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    // Maximum number of values in the IN list of a single statement
+    static final int MAX_IN_LIST_SIZE = 1024;
+    // Minimum number of keys selected using temporary table instead of IN lists
+    static final int TEMPORARY_TABLE_THRESHOLD = 16 * MAX_IN_LIST_SIZE;
+    private static final int DEFAULT_TRANSACTION_RETRIES = 3;
+    // Deadlock found when trying to get lock; try restarting transaction
+    static final int ER_LOCK_DEADLOCK = 1213;
+    private static final String SQL_STATE_SERIALIZATION_FAILURE = "40001";
 
     private DataSource datasource;
+    private volatile boolean compiled;
+    private volatile int statementCacheSize;
+    private volatile boolean multiRowInsert;
+    private volatile int maxInsertPacketSize = DEFAULT_MAX_INSERT_PACKET_SIZE;
+    private volatile int fetchSize = STREAMING_FETCH_SIZE;
+    private volatile int transactionRetries = DEFAULT_TRANSACTION_RETRIES;
+
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
 
     private final MySqlProxy proxy = new MySqlProxy();
 
@@ -104,18 +163,323 @@ public class MySqlClient {
     public void setDataSource(DataSource ds) {
         this.datasource = ds;
         primaryKeys.clear();
-        insertSql.clear();
-        deleteSql.clear();
     }
 
     /**
-     * Returns connection for the current data source.
+     * Enables or disables compiled mode. In compiled mode records are mapped and bound to statements by classes
+     * generated at runtime for each table class. Table classes that cannot be compiled, for example classes with
+     * final fields and without {@link RecordBuilder} constructor, are still processed via reflection.
+     *
+     * @param compiled true to enable compiled mode
+     */
+    public void setCompiled(boolean compiled) {
+        this.compiled = compiled;
+    }
+
+    /**
+     * Returns true if compiled mode is enabled, see {@link #setCompiled(boolean)}.
+     *
+     * @return true if compiled mode is enabled
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * <p>Enables or disables multi-row insert. In this mode batch insert methods send
+     * <code>INSERT INTO table (...) VALUES (...),(...),...</code> statements instead of a batch of single row
+     * statements. Size of the batch limits number of rows per statement, estimated size of the statement is limited
+     * by {@link #setMaxInsertPacketSize(int)}.</p>
+     * <p>Statements are prepared for a limited set of row counts, so that they can be reused by the statement
+     * cache.</p>
+     *
+     * @param multiRowInsert true to enable multi-row insert
+     */
+    public void setMultiRowInsert(boolean multiRowInsert) {
+        this.multiRowInsert = multiRowInsert;
+    }
+
+    /**
+     * Returns true if multi-row insert is enabled, see {@link #setMultiRowInsert(boolean)}.
+     *
+     * @return true if multi-row insert is enabled
+     */
+    public boolean isMultiRowInsert() {
+        return multiRowInsert;
+    }
+
+    /**
+     * Sets maximum estimated size of the multi-row insert statement in bytes. Value must be safely below
+     * <code>max_allowed_packet</code> server variable. Default value is 1 MiB.
+     *
+     * @param maxInsertPacketSize maximum statement size
+     */
+    public void setMaxInsertPacketSize(int maxInsertPacketSize) {
+        if (maxInsertPacketSize < 1) {
+            throw new IllegalArgumentException("Maximum insert packet size must be >= 1");
+        }
+        this.maxInsertPacketSize = maxInsertPacketSize;
+    }
+
+    /**
+     * Returns maximum estimated size of the multi-row insert statement, see {@link #setMaxInsertPacketSize(int)}.
+     *
+     * @return maximum statement size in bytes
+     */
+    public int getMaxInsertPacketSize() {
+        return maxInsertPacketSize;
+    }
+
+    /**
+     * <p>Sets fetch size of the result sets returned by {@link #stream(Connection, Class)}. Default value
+     * {@link Integer#MIN_VALUE} makes MySQL Connector/J stream rows one by one. Positive value requires
+     * <code>useCursorFetch</code> option, see {@link DataSourceBuilder#useCursorFetch(boolean)}, then rows are
+     * fetched by server side cursor in chunks of the specified size. Zero makes driver read the entire result set
+     * into memory.</p>
+     *
+     * @param fetchSize fetch size
+     */
+    public void setFetchSize(int fetchSize) {
+        if (fetchSize < 0 && fetchSize != STREAMING_FETCH_SIZE) {
+            throw new IllegalArgumentException("Fetch size must be >= 0 or Integer.MIN_VALUE");
+        }
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Returns fetch size of the streaming result sets, see {@link #setFetchSize(int)}.
+     *
+     * @return fetch size
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    /**
+     * Sets number of times transaction is retried after deadlock, see {@link #inTransaction(Function)}. Default value
+     * is 3, zero disables retries.
+     *
+     * @param retries number of retries
+     */
+    public void setTransactionRetries(int retries) {
+        if (retries < 0) {
+            throw new IllegalArgumentException("Number of transaction retries must be >= 0");
+        }
+        transactionRetries = retries;
+    }
+
+    /**
+     * Returns number of times transaction is retried after deadlock, see {@link #setTransactionRetries(int)}.
+     *
+     * @return number of retries
+     */
+    public int getTransactionRetries() {
+        return transactionRetries;
+    }
+
+    /**
+     * <p>Sets maximum number of prepared statements cached per connection. Zero disables the cache.</p>
+     * <p>Connections returned by {@link #getConnection()} keep statements of get, insert, update and delete
+     * operations prepared on them and reuse them for the same operations. Least recently used statements are closed
+     * when the cache is full, all statements are closed together with the connection. With server-side prepared
+     * statements this saves a round-trip per operation on long living or pooled connections.</p>
+     *
+     * @param size maximum number of cached statements per connection
+     */
+    public void setStatementCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Statement cache size must be >= 0");
+        }
+        this.statementCacheSize = size;
+    }
+
+    /**
+     * Returns maximum number of prepared statements cached per connection, see {@link #setStatementCacheSize(int)}.
+     *
+     * @return maximum number of cached statements, zero if cache is disabled
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * Returns number of statements taken from the statement cache of all connections returned by this client.
+     *
+     * @return number of cache hits
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits.sum();
+    }
+
+    /**
+     * Returns number of statements prepared by connections with statement cache because cache did not contain them.
+     *
+     * @return number of cache misses
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.sum();
+    }
+
+    /**
+     * Returns connection for the current data source. Connection caches prepared statements if statement cache is
+     * enabled, see {@link #setStatementCacheSize(int)}. Connections of {@link ConnectionPool} keep cached statements
+     * when returned to the pool.
      *
      * @return connection
      * @throws SQLException in case of SQL error
      */
     public Connection getConnection() throws SQLException {
-        return getDataSource().getConnection();
+        var connection = getDataSource().getConnection();
+        var cacheSize = statementCacheSize;
+        if (cacheSize == 0
+            || ConnectionPool.cacheStatements(connection, cacheSize, statementCacheHits, statementCacheMisses))
+        {
+            return connection;
+        }
+        return StatementCache.wrap(connection, cacheSize, statementCacheHits, statementCacheMisses);
+    }
+
+    /**
+     * Returns asynchronous view of this client that executes up to 64 operations at the same time.
+     *
+     * @return asynchronous client, must be closed when no longer needed
+     * @see #async(int)
+     */
+    public AsyncMySqlClient async() {
+        return async(DEFAULT_MAX_IN_FLIGHT);
+    }
+
+    /**
+     * Returns asynchronous view of this client. Operations of the view call methods of this client on virtual
+     * threads, or on daemon platform threads if runtime does not support virtual threads. Maximum number of
+     * operations in flight should not exceed maximum number of connections provided by the data source.
+     *
+     * @param maxInFlight maximum number of operations executed at the same time
+     * @return asynchronous client, must be closed when no longer needed
+     */
+    public AsyncMySqlClient async(int maxInFlight) {
+        return new AsyncMySqlClient(this, maxInFlight);
+    }
+
+    /**
+     * Executes action in the read-write transaction with default isolation level.
+     *
+     * @param <R>    type of the result
+     * @param action action
+     * @return result of the action
+     * @see #inTransaction(TransactionIsolation, boolean, Function)
+     */
+    public <R> R inTransaction(Function<TxContext, R> action) {
+        return inTransaction(null, false, action);
+    }
+
+    /**
+     * <p>Executes action in the transaction. All operations of the {@link TxContext} passed to the action use the
+     * same connection with auto-commit turned off. Transaction is committed when action returns and rolled back
+     * when it throws.</p>
+     * <p>Transaction that fails because of deadlock is rolled back and the action is called again on the same
+     * connection, up to {@link #getTransactionRetries()} times. Action must not have side effects outside of the
+     * database that cannot be repeated.</p>
+     * <p>Isolation level and read-only mode are set before the transaction starts. Auto-commit, isolation level and
+     * read-only mode are restored before connection is closed, thus connections of any pool can be reused by
+     * other code.</p>
+     *
+     * <pre>{@code
+     * client.inTransaction(tx -> {
+     *     tx.insert(100, books);
+     *     tx.update(author);
+     *     return null;
+     * });
+     * }</pre>
+     *
+     * @param <R>       type of the result
+     * @param isolation isolation level, null for the connection default
+     * @param readOnly  true for read-only transaction
+     * @param action    action
+     * @return result of the action
+     */
+    public <R> R inTransaction(TransactionIsolation isolation, boolean readOnly, Function<TxContext, R> action) {
+        Objects.requireNonNull(action);
+
+        try (var conn = getConnection()) {
+            var originalAutoCommit = conn.getAutoCommit();
+            var originalIsolation = conn.getTransactionIsolation();
+            var originalReadOnly = conn.isReadOnly();
+
+            Throwable failure = null;
+            try {
+                if (isolation != null) {
+                    conn.setTransactionIsolation(isolation.getLevel());
+                }
+                if (readOnly) {
+                    conn.setReadOnly(true);
+                }
+                conn.setAutoCommit(false);
+
+                var context = new TxContext(this, conn);
+                for (int attempt = 0; ; attempt++) {
+                    try {
+                        var result = action.apply(context);
+                        conn.commit();
+                        return result;
+                    } catch (Throwable ex) {
+                        rollback(conn, ex);
+                        if (attempt >= transactionRetries || !isDeadlock(ex)) {
+                            throw ex;
+                        }
+                    }
+                }
+            } catch (Throwable ex) {
+                failure = ex;
+                throw ex;
+            } finally {
+                try {
+                    if (originalAutoCommit && !conn.getAutoCommit()) {
+                        if (failure != null) {
+                            // Enabling auto-commit would commit the transaction if it was not rolled back
+                            conn.rollback();
+                        }
+                        conn.setAutoCommit(true);
+                    }
+                    if (readOnly && !originalReadOnly) {
+                        conn.setReadOnly(false);
+                    }
+                    if (isolation != null && isolation.getLevel() != originalIsolation) {
+                        conn.setTransactionIsolation(originalIsolation);
+                    }
+                } catch (SQLException ex) {
+                    if (failure == null) {
+                        //noinspection ThrowFromFinallyBlock
+                        throw ex;
+                    }
+                    failure.addSuppressed(ex);
+                }
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static void rollback(Connection conn, Throwable failure) {
+        try {
+            conn.rollback();
+        } catch (SQLException ex) {
+            failure.addSuppressed(ex);
+        }
+    }
+
+    /**
+     * Returns true if exception or one of its causes reports deadlock.
+     */
+    static boolean isDeadlock(Throwable ex) {
+        for (var cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlEx && (sqlEx.getErrorCode() == ER_LOCK_DEADLOCK
+                || SQL_STATE_SERIALIZATION_FAILURE.equals(sqlEx.getSQLState())))
+            {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -128,18 +492,34 @@ public class MySqlClient {
      * @return record
      */
     public <K, T extends TableRecord<K>> Optional<T> get(K id, Class<? extends T> clazz) {
-        try (var conn = getDataSource().getConnection()) {
-            if (!clazz.isAnnotationPresent(Table.class)) {
-                throw new IllegalStateException(NOT_ANNOTATED);
-            }
+        try (var conn = getConnection()) {
+            return get(conn, id, clazz);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
 
-            var ps = conn.prepareStatement(getSelectByIdSql(clazz));
+    /**
+     * Retrieves record from the database using record primary key.
+     *
+     * @param <K>   primary key type
+     * @param <T>   type of the record
+     * @param conn  connection
+     * @param id    record id
+     * @param clazz record class
+     * @return record
+     */
+    public <K, T extends TableRecord<K>> Optional<T> get(Connection conn, K id, Class<? extends T> clazz) {
+        try {
+            checkTableClass(clazz);
 
-            var primaryKey = findPrimaryKey(clazz);
-            setColumnToPreparedStatement(ps, 1, primaryKey.field, id);
+            try (var lease = StatementCache.lease(conn, getSelectByIdSql(clazz))) {
+                var ps = lease.statement();
+                setPrimaryKeyToPreparedStatement(ps, 1, clazz, id);
 
-            try (var set = ps.executeQuery()) {
-                return (set.next()) ? Optional.of(fromSQL(set, clazz)) : Optional.empty();
+                try (var set = ps.executeQuery()) {
+                    return (set.next()) ? Optional.of(fromSQL(set, clazz)) : Optional.empty();
+                }
             }
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
@@ -156,15 +536,15 @@ public class MySqlClient {
      */
     public <T extends TableRecord> List<T> getAll(Connection conn, Class<T> clazz) {
         try {
-            if (!clazz.isAnnotationPresent(Table.class)) {
-                throw new IllegalStateException(NOT_ANNOTATED);
-            }
+            checkTableClass(clazz);
 
-            var ps = conn.prepareStatement(getSelectAllSql(clazz));
-            try (var set = ps.executeQuery()) {
-                var result = new ArrayList<T>(set.getFetchSize());
+            var mapper = getRowMapper(clazz);
+            try (var lease = StatementCache.lease(conn, getSelectAllSql(clazz));
+                 var set = lease.statement().executeQuery())
+            {
+                var result = new ArrayList<T>();
                 while (set.next()) {
-                    result.add(fromSQL(set, clazz));
+                    result.add(mapper.map(set));
                 }
                 return result;
             }
@@ -181,7 +561,7 @@ public class MySqlClient {
      * @return list of records
      */
     public <T extends TableRecord> List<T> getAll(Class<T> clazz) {
-        try (var conn = getDataSource().getConnection()) {
+        try (var conn = getConnection()) {
             return getAll(conn, clazz);
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
@@ -199,14 +579,14 @@ public class MySqlClient {
      */
     public <K, T extends TableRecord<K>> void getAll(Connection conn, Class<T> clazz, Map<K, T> result) {
         try {
-            if (!clazz.isAnnotationPresent(Table.class)) {
-                throw new IllegalStateException(NOT_ANNOTATED);
-            }
+            checkTableClass(clazz);
 
-            var ps = conn.prepareStatement(getSelectAllSql(clazz));
-            try (var set = ps.executeQuery()) {
+            var mapper = getRowMapper(clazz);
+            try (var lease = StatementCache.lease(conn, getSelectAllSql(clazz));
+                 var set = lease.statement().executeQuery())
+            {
                 while (set.next()) {
-                    T r = fromSQL(set, clazz);
+                    T r = mapper.map(set);
                     result.put(r.getPrimaryKey(), r);
                 }
             }
@@ -224,168 +604,513 @@ public class MySqlClient {
      * @param result map to fill
      */
     public <K, T extends TableRecord<K>> void getAll(Class<T> clazz, Map<K, T> result) {
-        try (var conn = getDataSource().getConnection()) {
+        try (var conn = getConnection()) {
             getAll(conn, clazz, result);
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
     }
 
-    static Map<String, VarHandle> computeColumns(Class<? extends TableRecord> clazz) {
-        try {
-            var lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
-
-            var result = new HashMap<String, VarHandle>();
-            for (var field : clazz.getDeclaredFields()) {
-                var column = field.getAnnotation(Column.class);
-                if (column != null) {
-                    var handle = lookup.unreflectVarHandle(field);
-                    result.put(column.value(), handle);
-                }
-            }
-            return result;
-        } catch (IllegalAccessException ex) {
+    /**
+     * Retrieves record using record primary key. Only columns of the fetch profile are retrieved, the rest get
+     * default values: null, zero or false.
+     *
+     * @param <K>     primary key type
+     * @param <T>     type of the record
+     * @param id      record id
+     * @param clazz   record class
+     * @param profile fetch profile name
+     * @return record
+     * @see FetchProfile
+     */
+    public <K, T extends TableRecord<K>> Optional<T> get(K id, Class<? extends T> clazz, String profile) {
+        try (var conn = getConnection()) {
+            return get(conn, id, clazz, profile);
+        } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
     }
 
-    private void fromSQL(ResultSet set, TableRecord record, Map<String, VarHandle> columns) throws SQLException {
-        for (var entry : columns.entrySet()) {
-            var handle = entry.getValue();
-            var value = proxy.getFieldValue(entry.getKey(), handle.varType(), set);
+    /**
+     * Retrieves record using record primary key. Only columns of the fetch profile are retrieved, the rest get
+     * default values: null, zero or false.
+     *
+     * @param <K>     primary key type
+     * @param <T>     type of the record
+     * @param conn    connection
+     * @param id      record id
+     * @param clazz   record class
+     * @param profile fetch profile name
+     * @return record
+     * @see FetchProfile
+     */
+    public <K, T extends TableRecord<K>> Optional<T> get(Connection conn, K id, Class<? extends T> clazz,
+                                                         String profile)
+    {
+        var fetchProfile = TableMetadata.of(clazz).getFetchProfile(profile);
+        try (var lease = StatementCache.lease(conn, TableMetadata.of(clazz).getSelectByIdSql(fetchProfile))) {
+            var ps = lease.statement();
+            setPrimaryKeyToPreparedStatement(ps, 1, clazz, id);
 
-            switch (handle.varType().getName()) {
-                case "int" -> handle.set(record, value == null ? 0 : (int) value);
-                case "long" -> handle.set(record, value == null ? 0L : (long) value);
-                case "boolean" -> handle.set(record, value != null && (boolean) value);
-                default -> handle.set(record, value);
+            try (var set = ps.executeQuery()) {
+                return set.next() ? Optional.of(getRowMapper(clazz, fetchProfile).map(set)) : Optional.empty();
             }
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
         }
     }
 
-    private <T extends TableRecord> T fromSQL(ResultSet set, ConstructorHandle builder) {
+    /**
+     * Retrieves all records of the specified type. Only columns of the fetch profile are retrieved, the rest get
+     * default values: null, zero or false.
+     *
+     * @param <T>     type of the record
+     * @param conn    connection
+     * @param clazz   record class
+     * @param profile fetch profile name
+     * @return list of records
+     * @see FetchProfile
+     */
+    public <T extends TableRecord> List<T> getAll(Connection conn, Class<T> clazz, String profile) {
+        var fetchProfile = TableMetadata.of(clazz).getFetchProfile(profile);
         try {
-            var params = new ArrayList<>(builder.parameters.size());
-            for (ParameterHandle ph : builder.parameters) {
-                params.add(proxy.getFieldValue(ph.name, ph.type, set));
+            var mapper = getRowMapper(clazz, fetchProfile);
+            try (var lease = StatementCache.lease(conn, fetchProfile.selectAllSql());
+                 var set = lease.statement().executeQuery())
+            {
+                var result = new ArrayList<T>();
+                while (set.next()) {
+                    result.add(mapper.map(set));
+                }
+                return result;
             }
-
-            //noinspection unchecked
-            return (T) builder.handle.invokeWithArguments(params);
-        } catch (Throwable ex) {
+        } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
     }
 
-    <T extends TableRecord> T fromSQL(ResultSet set, Class<T> clazz) {
-        var builder = CONSTRUCTOR_MAP.computeIfAbsent(clazz, MySqlClient::cacheConstructorHandle);
+    /**
+     * Retrieves all records of the specified type. Only columns of the fetch profile are retrieved, the rest get
+     * default values: null, zero or false.
+     *
+     * @param <T>     type of the record
+     * @param clazz   record class
+     * @param profile fetch profile name
+     * @return list of records
+     * @see FetchProfile
+     */
+    public <T extends TableRecord> List<T> getAll(Class<T> clazz, String profile) {
+        try (var conn = getConnection()) {
+            return getAll(conn, clazz, profile);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
 
+    /**
+     * <p>Retrieves all rows of the table as projection records. Only columns of the projection are retrieved.</p>
+     * <p>Record component is mapped to the column specified by its {@link Column} annotation or to the column with
+     * the same name as the component. Component type must be compatible with the type of the table field.</p>
+     *
+     * @param <R>        type of the projection
+     * @param conn       connection
+     * @param table      table class
+     * @param projection projection record class
+     * @return list of projections
+     */
+    public <R extends Record> List<R> getAll(Connection conn, Class<? extends TableRecord> table,
+                                             Class<R> projection)
+    {
+        var fetchProfile = TableMetadata.of(table).getProjection(projection);
         try {
-            if (builder != null) {
-                return fromSQL(set, builder);
-            } else {
-                var columns = COLUMN_MAP.computeIfAbsent(clazz, MySqlClient::computeColumns);
-                if (columns.isEmpty()) {
-                    throw new IllegalStateException("Class " + clazz.getName() + " has no column annotations");
+            var invoker = PROJECTION_MAPPER_MAP.computeIfAbsent(new ProfileKey(table, projection),
+                k -> buildProjectionInvoker(projection, fetchProfile, getTableMapping(table)));
+            try (var lease = StatementCache.lease(conn, fetchProfile.selectAllSql());
+                 var set = lease.statement().executeQuery())
+            {
+                var result = new ArrayList<R>();
+                while (set.next()) {
+                    result.add(projection.cast(invokeProjection(invoker, set)));
                 }
-
-                T result = clazz.getDeclaredConstructor().newInstance();
-                fromSQL(set, result, columns);
                 return result;
             }
-        } catch (Exception ex) {
+        } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
     }
 
     /**
-     * This method creates table for the specified classes according to their annotations.
+     * Retrieves all rows of the table as projection records.
      *
-     * @param tables list of tables
+     * @param <R>        type of the projection
+     * @param table      table class
+     * @param projection projection record class
+     * @return list of projections
+     * @see #getAll(Connection, Class, Class)
      */
-    public void createTables(List<Class<? extends TableRecord>> tables) {
-        if (getDataSource() == null) {
-            throw new IllegalStateException("Database not opened");
+    public <R extends Record> List<R> getAll(Class<? extends TableRecord> table, Class<R> projection) {
+        try (var conn = getConnection()) {
+            return getAll(conn, table, projection);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
         }
+    }
 
-        try (var conn = getDataSource().getConnection()) {
-            createTables(conn, tables);
+    /**
+     * Defines fetch profile of the table class in addition to {@link FetchProfile} annotations. Defining the same
+     * profile again has no effect.
+     *
+     * @param clazz   table class
+     * @param name    profile name
+     * @param columns retrieved columns, primary key is always retrieved
+     * @throws IllegalArgumentException if column is unknown
+     * @throws IllegalStateException    if profile with the same name and different columns is already defined
+     */
+    public static void addFetchProfile(Class<? extends TableRecord> clazz, String name, String... columns) {
+        TableMetadata.of(clazz).addFetchProfile(name, List.of(columns));
+    }
+
+    /**
+     * Retrieves records with the specified primary keys.
+     *
+     * @param <K>   type of the primary key
+     * @param <T>   type of the record
+     * @param clazz record class
+     * @param ids   primary keys
+     * @return records by primary key
+     * @see #getAll(Connection, Class, Collection)
+     */
+    public <K, T extends TableRecord<K>> Map<K, T> getAll(Class<T> clazz, Collection<K> ids) {
+        try (var conn = getConnection()) {
+            return getAll(conn, clazz, ids);
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
     }
 
     /**
-     * This method creates table for the specified classes according to their annotations.
+     * <p>Retrieves records with the specified primary keys using provided connection. Keys that do not match any
+     * record are absent in the result.</p>
+     * <p>Records are selected by <code>SELECT ... WHERE pk IN (...)</code> statements, each one containing up to 1024
+     * keys. Larger sets of keys are inserted into the session temporary table which is then used to select records,
+     * the table is dropped afterwards.</p>
      *
-     * @param conn   connection
-     * @param tables list of tables
+     * @param <K>   type of the primary key
+     * @param <T>   type of the record
+     * @param conn  connection
+     * @param clazz record class
+     * @param ids   primary keys
+     * @return records by primary key
      */
-    public void createTables(Connection conn, List<Class<? extends TableRecord>> tables) {
-        try (var st = conn.createStatement()) {
-            // Step 1: drop tables in reverse order
-            for (int index = tables.size() - 1; index >= 0; index--) {
-                var cl = tables.get(index);
-                if (!cl.isAnnotationPresent(Table.class)) {
-                    throw new IllegalStateException(NOT_ANNOTATED);
-                }
+    public <K, T extends TableRecord<K>> Map<K, T> getAll(Connection conn, Class<T> clazz, Collection<K> ids) {
+        var metadata = TableMetadata.of(clazz);
+        // Duplicate keys would only make lists longer
+        var keys = new ArrayList<>(new LinkedHashSet<>(ids));
+        var result = new HashMap<K, T>(keys.size() * 4 / 3 + 1);
+        if (keys.isEmpty()) {
+            return result;
+        }
 
-                var table = cl.getAnnotation(Table.class);
-                st.executeUpdate("DROP TABLE IF EXISTS " + table.value());
+        try {
+            var mapper = getRowMapper(clazz);
+            if (keys.size() >= TEMPORARY_TABLE_THRESHOLD) {
+                getAllByTemporaryTable(conn, clazz, keys, mapper, result);
+                return result;
             }
 
-            // Step 2: create new tables in natural order
-            for (Class<?> cl : tables) {
-                var table = cl.getAnnotation(Table.class);
+            int start = 0;
+            while (start < keys.size()) {
+                var count = getInListChunkSize(keys.size() - start);
+                try (var lease = StatementCache.lease(conn, metadata.getSelectByIdsSql(count))) {
+                    var st = lease.statement();
+                    for (int i = 0; i < count; i++) {
+                        setPrimaryKeyToPreparedStatement(st, i + 1, clazz, keys.get(start + i));
+                    }
+                    try (var set = st.executeQuery()) {
+                        while (set.next()) {
+                            T r = mapper.map(set);
+                            result.put(r.getPrimaryKey(), r);
+                        }
+                    }
+                }
+                start += count;
+            }
+            return result;
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
 
-                try {
-                    var b = new StringBuilder("CREATE TABLE IF NOT EXISTS ")
-                        .append(table.value())
-                        .append(" (");
+    private <K, T extends TableRecord<K>> void getAllByTemporaryTable(Connection conn, Class<T> clazz, List<K> keys,
+                                                                     RowMapper<T> mapper, Map<K, T> result)
+        throws SQLException
+    {
+        var metadata = TableMetadata.of(clazz);
+        var table = metadata.getTemporaryKeyTable();
 
-                    var constraints = new ArrayList<String>();
-                    var indexed = new HashSet<Field>();
+        try (var st = conn.createStatement()) {
+            // Table may be left by the failed call on the same connection
+            st.executeUpdate(table.dropSql());
+            st.executeUpdate(table.createSql());
+        }
 
-                    boolean first = true;
-                    for (var field : cl.getDeclaredFields()) {
-                        if (field.isAnnotationPresent(Column.class)) {
-                            var column = field.getAnnotation(Column.class);
-                            var fName = column.value();
+        try {
+            int start = 0;
+            while (start < keys.size()) {
+                var count = getInListChunkSize(keys.size() - start);
+                try (var lease = StatementCache.lease(conn, metadata.getInsertTemporaryKeysSql(count))) {
+                    var st = lease.statement();
+                    for (int i = 0; i < count; i++) {
+                        setPrimaryKeyToPreparedStatement(st, i + 1, clazz, keys.get(start + i));
+                    }
+                    st.executeUpdate();
+                }
+                start += count;
+            }
 
-                            var getterType = field.getType();
-                            var typeName = getterType.isEnum() ?
-                                TYPE_ENUM : getterType.getTypeName();
+            try (var lease = StatementCache.lease(conn, table.selectSql());
+                 var set = lease.statement().executeQuery())
+            {
+                while (set.next()) {
+                    T r = mapper.map(set);
+                    result.put(r.getPrimaryKey(), r);
+                }
+            }
+        } finally {
+            try (var st = conn.createStatement()) {
+                st.executeUpdate(table.dropSql());
+            }
+        }
+    }
 
-                            if (!first) {
-                                b.append(",");
-                            }
-                            first = false;
+    /**
+     * Returns new query that selects records of the specified type, see {@link Query}.
+     *
+     * @param <T>   type of the record
+     * @param clazz record class
+     * @return query
+     */
+    public <T extends TableRecord> Query<T> query(Class<T> clazz) {
+        return new Query<>(this, clazz);
+    }
+
+    /**
+     * Returns writer of the query parameter compared with the column. Value is written the same way as the column
+     * value is in insert and update statements.
+     */
+    ColumnWriter<Object> getQueryWriter(Class<? extends TableRecord> clazz, String column) {
+        var metadata = TableMetadata.of(clazz);
+        var mapping = metadata.getMapping();
+        if (mapping != null) {
+            return (st, index, value) -> mapping.bindColumn(column, value, st, index);
+        }
+
+        var columnMetadata = metadata.getColumn(column);
+        return proxy.getObjectWriter(columnMetadata.type(), columnMetadata.column());
+    }
 
-                            b.append(fName).append(" ")
-                                .append(proxy.getColumnString(column, field.getAnnotation(PrimaryKey.class),
-                                    field.getAnnotation(ForeignKey.class), typeName, constraints));
+    /**
+     * <p>Returns lazy stream of all records of the specified type. Records are read from the forward-only, read-only
+     * result set while the stream is consumed, thus memory footprint does not depend on the table size, see
+     * {@link #setFetchSize(int)}. Stream must be closed to release the result set, e.g. by try-with-resources.
+     * Use {@link Stream#iterator()} to iterate over records.</p>
+     * <p>No other statement can be executed on the same connection until the stream is closed.</p>
+     *
+     * @param <T>   type of the record
+     * @param conn  connection
+     * @param clazz record class
+     * @return stream of records
+     */
+    public <T extends TableRecord> Stream<T> stream(Connection conn, Class<T> clazz) {
+        checkTableClass(clazz);
+        var mapper = getRowMapper(clazz);
 
-                            if (field.isAnnotationPresent(Index.class)) {
-                                indexed.add(field);
+        try {
+            var st = prepareStreamingStatement(conn, getSelectAllSql(clazz));
+            try {
+                var set = st.executeQuery();
+                var spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                    Spliterator.ORDERED | Spliterator.NONNULL)
+                {
+                    @Override
+                    public boolean tryAdvance(Consumer<? super T> action) {
+                        try {
+                            if (!set.next()) {
+                                return false;
                             }
+                            action.accept(mapper.map(set));
+                            return true;
+                        } catch (SQLException ex) {
+                            throw new RuntimeException(ex);
                         }
                     }
+                };
+                return StreamSupport.stream(spliterator, false).onClose(() -> {
+                    try {
+                        st.close();
+                    } catch (SQLException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                });
+            } catch (SQLException | RuntimeException ex) {
+                st.close();
+                throw ex;
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Prepares forward-only, read-only statement with fetch size set by {@link #setFetchSize(int)}. Statement
+     * occupies connection until closed, so it is never taken from the statement cache.
+     */
+    private PreparedStatement prepareStreamingStatement(Connection conn, String sql) throws SQLException {
+        var st = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        try {
+            st.setFetchSize(fetchSize);
+            return st;
+        } catch (SQLException ex) {
+            st.close();
+            throw ex;
+        }
+    }
 
-                    if (!constraints.isEmpty()) {
-                        b.append(",");
-                        b.append(String.join(",", constraints));
+    /**
+     * Returns lazy stream of all records of the specified type. Stream uses its own connection that is closed
+     * together with the stream.
+     *
+     * @param <T>   type of the record
+     * @param clazz record class
+     * @return stream of records
+     * @see #stream(Connection, Class)
+     */
+    public <T extends TableRecord> Stream<T> stream(Class<T> clazz) {
+        try {
+            var conn = getConnection();
+            try {
+                return stream(conn, clazz).onClose(() -> {
+                    try {
+                        conn.close();
+                    } catch (SQLException ex) {
+                        throw new RuntimeException(ex);
                     }
+                });
+            } catch (RuntimeException ex) {
+                conn.close();
+                throw ex;
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Performs action for each record of the specified type without loading all records into memory.
+     *
+     * @param <T>    type of the record
+     * @param conn   connection
+     * @param clazz  record class
+     * @param action action
+     * @see #stream(Connection, Class)
+     */
+    public <T extends TableRecord> void forEach(Connection conn, Class<T> clazz, Consumer<? super T> action) {
+        try (var records = stream(conn, clazz)) {
+            records.forEach(action);
+        }
+    }
+
+    /**
+     * Performs action for each record of the specified type without loading all records into memory.
+     *
+     * @param <T>    type of the record
+     * @param clazz  record class
+     * @param action action
+     * @see #stream(Connection, Class)
+     */
+    public <T extends TableRecord> void forEach(Class<T> clazz, Consumer<? super T> action) {
+        try (var conn = getConnection()) {
+            forEach(conn, clazz, action);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Retrieves page of records in ascending order of primary key.
+     *
+     * @param <K>      type of the primary key
+     * @param <T>      type of the record
+     * @param clazz    record class
+     * @param afterKey primary key of the last record of the previous page, null for the first page
+     * @param limit    maximum number of records
+     * @return list of records
+     * @see #page(Connection, Class, Object, int, SortOrder)
+     */
+    public <K, T extends TableRecord<K>> List<T> page(Class<T> clazz, K afterKey, int limit) {
+        return page(clazz, afterKey, limit, SortOrder.ASCENDING);
+    }
+
+    /**
+     * Retrieves page of records ordered by primary key.
+     *
+     * @param <K>      type of the primary key
+     * @param <T>      type of the record
+     * @param clazz    record class
+     * @param afterKey primary key of the last record of the previous page, null for the first page
+     * @param limit    maximum number of records
+     * @param order    sort order
+     * @return list of records
+     * @see #page(Connection, Class, Object, int, SortOrder)
+     */
+    public <K, T extends TableRecord<K>> List<T> page(Class<T> clazz, K afterKey, int limit, SortOrder order) {
+        try (var conn = getConnection()) {
+            return page(conn, clazz, afterKey, limit, order);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
 
-                    b.append(")");
+    /**
+     * <p>Retrieves page of records ordered by primary key. Page starts right after the specified key, i.e. records
+     * are selected by <code>WHERE pk &gt; ? ORDER BY pk LIMIT ?</code> statement, or <code>pk &lt; ?</code> in
+     * descending order. Unlike <code>LIMIT ... OFFSET</code> the cost of the page does not depend on its position
+     * as the primary key index is used to find the first record.</p>
+     * <p>Page that is shorter than the limit is the last one.</p>
+     *
+     * @param <K>      type of the primary key
+     * @param <T>      type of the record
+     * @param conn     connection
+     * @param clazz    record class
+     * @param afterKey primary key of the last record of the previous page, null for the first page
+     * @param limit    maximum number of records
+     * @param order    sort order
+     * @return list of records
+     */
+    public <K, T extends TableRecord<K>> List<T> page(Connection conn, Class<T> clazz, K afterKey, int limit,
+                                                      SortOrder order)
+    {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be >= 1");
+        }
 
-                    st.executeUpdate(b.toString());
+        try {
+            var mapper = getRowMapper(clazz);
+            var sql = TableMetadata.of(clazz).getPageSql(order, afterKey == null);
+            try (var lease = StatementCache.lease(conn, sql)) {
+                var ps = lease.statement();
+                var index = 1;
+                if (afterKey != null) {
+                    setPrimaryKeyToPreparedStatement(ps, index++, clazz, afterKey);
+                }
+                ps.setInt(index, limit);
 
-                    // Create indexes
-                    for (var field : indexed) {
-                        st.executeUpdate(proxy.buildIndex(table, field));
+                try (var set = ps.executeQuery()) {
+                    var result = new ArrayList<T>(limit);
+                    while (set.next()) {
+                        result.add(mapper.map(set));
                     }
-                } catch (SecurityException | SQLException ex) {
-                    throw new RuntimeException(ex);
+                    return result;
                 }
             }
         } catch (SQLException ex) {
@@ -393,314 +1118,1193 @@ public class MySqlClient {
         }
     }
 
-    String getSelectAllSql(Class<? extends TableRecord> recordClass) {
-        return selectAllSql.computeIfAbsent(recordClass, clazz -> {
-            var table = clazz.getAnnotation(Table.class);
-            if (table == null) {
-                throw new IllegalStateException(CLASS_NOT_ANNOTATED + clazz.getName());
-            }
+    /**
+     * Returns iterator over pages of records in ascending order of primary key.
+     *
+     * @param <K>   type of the primary key
+     * @param <T>   type of the record
+     * @param clazz record class
+     * @param limit maximum number of records per page
+     * @return iterator over pages
+     * @see #pages(Class, int, SortOrder)
+     */
+    public <K, T extends TableRecord<K>> Iterator<List<T>> pages(Class<T> clazz, int limit) {
+        return pages(clazz, limit, SortOrder.ASCENDING);
+    }
 
-            var columnString = Arrays.stream(clazz.getDeclaredFields())
-                .filter(field -> field.isAnnotationPresent(Column.class))
-                .map(proxy::getSelectColumnString)
-                .collect(Collectors.joining(","));
+    /**
+     * Returns iterator over pages of records ordered by primary key, see
+     * {@link #page(Connection, Class, Object, int, SortOrder)}. Each page is retrieved when requested using its own
+     * connection, thus no connection is held between pages. Iterator does not return empty pages.
+     *
+     * @param <K>   type of the primary key
+     * @param <T>   type of the record
+     * @param clazz record class
+     * @param limit maximum number of records per page
+     * @param order sort order
+     * @return iterator over pages
+     */
+    public <K, T extends TableRecord<K>> Iterator<List<T>> pages(Class<T> clazz, int limit, SortOrder order) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be >= 1");
+        }
+        checkTableClass(clazz);
+
+        return new Iterator<>() {
+            private List<T> next;
+            private K lastKey;
+            private boolean done;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null && !done) {
+                    var page = page(clazz, lastKey, limit, order);
+                    if (!page.isEmpty()) {
+                        next = page;
+                        lastKey = page.get(page.size() - 1).getPrimaryKey();
+                    }
+                    // Short page is the last one, no need to query the next one
+                    done = page.size() < limit;
+                }
+                return next != null;
+            }
 
-            if (columnString.isEmpty()) {
-                throw new IllegalStateException("No fields");
+            @Override
+            public List<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                var result = next;
+                next = null;
+                return result;
             }
+        };
+    }
 
-            return "SELECT " + columnString + " FROM " + table.value();
-        });
+    /**
+     * Retrieves all records of the specified tables in parallel, see {@link #loadAll(Collection, int)}. Number of
+     * connections does not exceed number of available processors.
+     *
+     * @param tables table classes
+     * @return lists of records by table class
+     */
+    public Map<Class<? extends TableRecord>, List<? extends TableRecord>> loadAll(
+        Collection<Class<? extends TableRecord>> tables)
+    {
+        return loadAll(tables, Runtime.getRuntime().availableProcessors());
     }
 
-    String getSelectByIdSql(Class<? extends TableRecord> recordClass) {
-        return selectByIdSql.computeIfAbsent(recordClass, clazz ->
-            getSelectAllSql(clazz) +
-                " WHERE " +
-                proxy.getWhereColumnString(findPrimaryKey(clazz).field) + "=?");
+    /**
+     * Retrieves all records of the specified tables in parallel without global read lock, see
+     * {@link #loadAll(Collection, int, boolean)}.
+     *
+     * @param tables      table classes
+     * @param parallelism maximum number of connections
+     * @return lists of records by table class, in the order of tables
+     */
+    public Map<Class<? extends TableRecord>, List<? extends TableRecord>> loadAll(
+        Collection<Class<? extends TableRecord>> tables, int parallelism)
+    {
+        return loadAll(tables, parallelism, false);
     }
 
-    private String getInsertSQL(TableRecord record) {
-        return insertSql.computeIfAbsent(record.getClass(), clazz -> {
-            var b = new StringBuilder("INSERT INTO ");
+    /**
+     * <p>Retrieves all records of the specified tables in parallel using up to the specified number of connections.
+     * Each connection loads tables one by one until all tables are loaded, thus total time is close to the time of
+     * the largest table rather than the sum of all tables. If data source is {@link ConnectionPool} number of
+     * connections does not exceed maximum pool size.</p>
+     * <p>Each connection reads its tables in a transaction started by
+     * <code>START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY</code> statement. Snapshots are taken one after
+     * another and may differ by the changes committed in between, e.g. a child record may be loaded without its
+     * parent.</p>
+     * <p>Exact snapshot makes all connections see the same state of the database. Snapshots are taken while the
+     * global read lock is held by <code>FLUSH TABLES WITH READ LOCK</code>, i.e. no changes can be committed between
+     * them. The lock is released as soon as all snapshots are taken, but it waits for running statements and blocks
+     * writes of all other sessions until then. It requires <code>RELOAD</code> privilege.</p>
+     *
+     * @param tables        table classes
+     * @param parallelism   maximum number of connections
+     * @param exactSnapshot true if all connections must see the same state of the database
+     * @return lists of records by table class, in the order of tables
+     */
+    public Map<Class<? extends TableRecord>, List<? extends TableRecord>> loadAll(
+        Collection<Class<? extends TableRecord>> tables, int parallelism, boolean exactSnapshot)
+    {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be >= 1");
+        }
+        if (tables.isEmpty()) {
+            return Map.of();
+        }
+        for (var clazz : tables) {
+            checkTableClass(clazz);
+        }
+
+        var queue = new ConcurrentLinkedQueue<>(tables);
+        var loaded = new ConcurrentHashMap<Class<? extends TableRecord>, List<? extends TableRecord>>();
+
+        var connectionCount = Math.min(parallelism, tables.size());
+        if (getDataSource() instanceof ConnectionPool pool) {
+            // Otherwise the last connection is never available
+            connectionCount = Math.min(connectionCount, pool.getMaxPoolSize());
+        }
 
-            var table = clazz.getAnnotation(Table.class);
-            if (table == null) {
-                throw new IllegalStateException("Class " + clazz.getName() + " is not properly annotated");
+        var connections = new ArrayList<Connection>();
+        try {
+            for (int i = 0; i < connectionCount; i++) {
+                connections.add(getConnection());
+            }
+            startSnapshot(connections, exactSnapshot);
+
+            try (var executor = async(connections.size())) {
+                var futures = connections.stream()
+                    .map(conn -> executor.submit(() -> {
+                        Class<? extends TableRecord> clazz;
+                        while ((clazz = queue.poll()) != null) {
+                            loaded.put(clazz, getAll(conn, clazz));
+                        }
+                        return null;
+                    }))
+                    .toList();
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
             }
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        } finally {
+            endSnapshot(connections);
+        }
 
-            b.append(table.value()).append(" (");
+        var result = new LinkedHashMap<Class<? extends TableRecord>, List<? extends TableRecord>>();
+        for (var clazz : tables) {
+            result.put(clazz, loaded.get(clazz));
+        }
+        return result;
+    }
 
-            int fCount = 0;
+    /**
+     * Starts read only transactions on all connections. Exact snapshots are taken at the same point in time.
+     */
+    private static void startSnapshot(List<Connection> connections, boolean exact) throws SQLException {
+        var coordinator = connections.get(0);
+        var locked = false;
+        if (exact) {
+            try (var st = coordinator.createStatement()) {
+                st.execute("FLUSH TABLES WITH READ LOCK");
+                locked = true;
+            }
+        }
 
-            var valueString = new StringBuilder();
-            try {
-                for (var field : clazz.getDeclaredFields()) {
-                    var column = field.getAnnotation(Column.class);
-                    if (column != null) {
-                        if (fCount != 0) {
-                            b.append(",");
-                            valueString.append(",");
-                        }
-                        b.append(column.value());
-                        valueString.append(proxy.getInsertColumnPattern(field));
-                        fCount++;
-                    }
+        try {
+            for (var conn : connections) {
+                // Driver must be aware of the transaction, pool rolls back only such transactions
+                conn.setAutoCommit(false);
+                try (var st = conn.createStatement()) {
+                    st.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY");
+                }
+            }
+        } finally {
+            if (locked) {
+                // Global read lock does not end transaction of the same connection
+                try (var st = coordinator.createStatement()) {
+                    st.execute("UNLOCK TABLES");
                 }
-            } catch (SecurityException ex) {
-                throw new RuntimeException(ex);
             }
+        }
+    }
 
-            if (fCount == 0) {
-                throw new IllegalStateException("No fields");
+    /**
+     * Ends read only transactions and closes connections.
+     */
+    private static void endSnapshot(List<Connection> connections) {
+        RuntimeException exception = null;
+        for (var conn : connections) {
+            try (conn) {
+                if (!conn.getAutoCommit()) {
+                    conn.rollback();
+                    conn.setAutoCommit(true);
+                }
+            } catch (SQLException ex) {
+                if (exception == null) {
+                    exception = new RuntimeException(ex);
+                } else {
+                    exception.addSuppressed(ex);
+                }
             }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
 
-            b.append(") VALUES (")
-                .append(valueString)
-                .append(")");
+    /**
+     * <p>Performs action for each record of the specified type reading partitions of the table in parallel. Range
+     * of the primary key values is split into the specified number of equal slices, each slice is read by
+     * <code>WHERE pk BETWEEN ? AND ?</code> statement using its own connection and thread. Rows are mapped on the
+     * same thread and passed to the action, thus action must be thread safe. Records are not ordered.</p>
+     * <p>Primary key must be of integer type. Slices are equal by key range, not by number of records, thus sparse
+     * keys may lead to uneven partitions.</p>
+     *
+     * @param <T>        type of the record
+     * @param clazz      record class
+     * @param partitions number of partitions, i.e. connections used at the same time
+     * @param action     thread safe action
+     * @return number of records
+     */
+    public <T extends TableRecord> long parallelScan(Class<T> clazz, int partitions, Consumer<? super T> action) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Number of partitions must be >= 1");
+        }
+        var metadata = TableMetadata.of(clazz);
+        if (!AUTO_INCREMENT_TYPES.contains(metadata.getPrimaryKeyType().getTypeName())) {
+            throw new IllegalStateException("Parallel scan requires integer primary key: " + clazz.getTypeName());
+        }
+        var mapper = getRowMapper(clazz);
+
+        List<long[]> ranges;
+        try (var conn = getConnection();
+             var st = conn.prepareStatement(metadata.getKeyRangeSql());
+             var set = st.executeQuery())
+        {
+            if (!set.next()) {
+                return 0;
+            }
+            var min = set.getLong(1);
+            if (set.wasNull()) {
+                // Empty table
+                return 0;
+            }
+            ranges = splitKeyRange(min, set.getLong(2), partitions);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
 
-            return b.toString();
-        });
+        var count = new LongAdder();
+        try (var executor = async(ranges.size())) {
+            var futures = ranges.stream()
+                .map(range -> executor.submit(() -> {
+                    try (var conn = getConnection();
+                         var st = prepareStreamingStatement(conn, metadata.getSelectByKeyRangeSql()))
+                    {
+                        st.setLong(1, range[0]);
+                        st.setLong(2, range[1]);
+                        try (var set = st.executeQuery()) {
+                            while (set.next()) {
+                                action.accept(mapper.map(set));
+                                count.increment();
+                            }
+                        }
+                        return null;
+                    } catch (SQLException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                }))
+                .toList();
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+        return count.sum();
     }
 
-    private String getUpdateSQL(TableRecord record) {
-        return updateSql.computeIfAbsent(record.getClass(), clazz -> {
-            var b = new StringBuilder("update ");
-
-            var table = clazz.getAnnotation(Table.class);
-            if (table == null) {
-                throw new IllegalStateException(NOT_ANNOTATED);
+    /**
+     * Splits range of keys into the specified number of slices of equal size. The last slice may be shorter.
+     *
+     * @param min        minimum key
+     * @param max        maximum key
+     * @param partitions maximum number of slices
+     * @return inclusive boundaries of slices
+     */
+    static List<long[]> splitKeyRange(long min, long max, int partitions) {
+        // Unsigned arithmetic, difference of two longs may not fit into long
+        var step = Long.divideUnsigned(max - min, partitions) + 1;
+
+        var result = new ArrayList<long[]>(partitions);
+        var low = min;
+        while (true) {
+            var high = Long.compareUnsigned(max - low, step - 1) <= 0 ? max : low + step - 1;
+            result.add(new long[]{low, high});
+            if (high == max) {
+                return result;
             }
+            low = high + 1;
+        }
+    }
+
+    /**
+     * Registers mapping generated at compile time. Mappings found by {@link ServiceLoader} are registered
+     * automatically. Metadata, mappers and binders already built for the class are discarded.
+     */
+    static void addTableMapping(TableMapping<?> mapping) {
+        var clazz = mapping.getTableClass();
+        TableMappings.MAP.put(clazz, mapping);
+        TableMetadata.invalidate(clazz);
+        ROW_MAPPER_MAP.remove(clazz);
+        COMPILED_MAPPER_MAP.remove(clazz);
+        STATEMENT_BINDER_MAP.remove(clazz);
+        PROFILE_ROW_MAPPER_MAP.keySet().removeIf(key -> key.clazz() == clazz);
+        PROJECTION_MAPPER_MAP.keySet().removeIf(key -> key.clazz() == clazz);
+    }
 
-            b.append(table.value()).append(" set ");
+    static TableMapping<?> getTableMapping(Class<?> clazz) {
+        return TableMappings.MAP.get(clazz);
+    }
 
-            int fCount = 0;
+    /**
+     * Returns mapping of the record class typed by the record.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends TableRecord> TableMapping<T> getRecordMapping(T record) {
+        return (TableMapping<T>) getTableMapping(record.getClass());
+    }
 
+    /**
+     * Collects mappings found by {@link ServiceLoader}. Provider that cannot be loaded or instantiated is skipped,
+     * its table class is then processed via reflection.
+     *
+     * @param providers service loader iterator
+     * @return mappings by table class
+     */
+    static Map<Class<?>, TableMapping<?>> loadTableMappings(Iterator<? extends TableMapping> providers) {
+        var result = new ConcurrentHashMap<Class<?>, TableMapping<?>>();
+        while (true) {
             try {
-                for (var field : record.getClass().getDeclaredFields()) {
-                    var column = field.getAnnotation(Column.class);
-                    if (column != null && field.getAnnotation(PrimaryKey.class) == null) {
-                        if (fCount != 0) {
-                            b.append(", ");
-                        }
-                        b.append(column.value())
-                            .append("=")
-                            .append(proxy.getUpdateColumnPattern(field));
-                        fCount++;
-                    }
+                if (!providers.hasNext()) {
+                    break;
                 }
-            } catch (SecurityException ex) {
-                throw new RuntimeException(ex);
+            } catch (ServiceConfigurationError ex) {
+                // Iterator cannot recover from broken configuration file
+                LOGGER.log(System.Logger.Level.WARNING, "Cannot load table mappings", ex);
+                break;
             }
 
-            if (fCount == 0) {
-                throw new IllegalStateException("No fields");
+            try {
+                TableMapping<?> mapping = providers.next();
+                result.put(mapping.getTableClass(), mapping);
+            } catch (ServiceConfigurationError ex) {
+                LOGGER.log(System.Logger.Level.WARNING, "Table mapping skipped", ex);
             }
+        }
+        return result;
+    }
 
-            var primaryKeyField = findPrimaryKey(clazz);
-            b.append(" WHERE ")
-                .append(proxy.getWhereColumnString(primaryKeyField.field))
-                .append("=?");
+    /**
+     * Fails if class is neither annotated nor mapped.
+     */
+    private static void checkTableClass(Class<? extends TableRecord> clazz) {
+        TableMetadata.of(clazz);
+    }
 
-            return b.toString();
-        });
+    static Map<String, VarHandle> computeColumns(Class<? extends TableRecord> clazz) {
+        var result = new HashMap<String, VarHandle>();
+        for (var column : TableMetadata.of(clazz).getColumns()) {
+            result.put(column.name(), column.handle());
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    <T extends TableRecord> RowMapper<T> getRowMapper(Class<T> clazz) {
+        if (compiled) {
+            var compiledMapper = getCompiledMapper(clazz);
+            if (compiledMapper.isPresent()) {
+                return (RowMapper<T>) compiledMapper.get();
+            }
+        }
+
+        return (RowMapper<T>) ROW_MAPPER_MAP.computeIfAbsent(clazz, this::computeRowMapper);
+    }
+
+    Optional<CompiledMapper<?>> getCompiledMapper(Class<? extends TableRecord> clazz) {
+        // Called for each bound record, avoid capturing lambda on the fast path
+        var compiledMapper = COMPILED_MAPPER_MAP.get(clazz);
+        return compiledMapper != null ? compiledMapper
+            : COMPILED_MAPPER_MAP.computeIfAbsent(clazz, this::computeCompiledMapper);
+    }
+
+    /**
+     * Returns column names in the order of the select list, see {@link #getSelectAllSql(Class)}.
+     */
+    static List<String> getColumnNames(Class<? extends TableRecord> clazz) {
+        return TableMetadata.of(clazz).getColumns().stream()
+            .map(TableMetadata.ColumnMetadata::name)
+            .toList();
+    }
+
+    /**
+     * Returns column names in the order of the update statement parameters, see {@link #getUpdateSQL(TableRecord)}.
+     * Update statement sets all columns except primary key, primary key goes to the WHERE clause.
+     */
+    static List<String> getUpdateColumnNames(Class<? extends TableRecord> clazz) {
+        return TableMetadata.of(clazz).getUpdateColumns().stream()
+            .map(TableMetadata.ColumnMetadata::name)
+            .toList();
+    }
+
+    /**
+     * Returns mapper of the result set that contains columns of the fetch profile.
+     */
+    @SuppressWarnings("unchecked")
+    <T extends TableRecord> RowMapper<T> getRowMapper(Class<T> clazz, FetchProfileMetadata profile) {
+        return (RowMapper<T>) PROFILE_ROW_MAPPER_MAP.computeIfAbsent(new ProfileKey(clazz, profile.name()),
+            k -> computeRowMapper(clazz, profile));
+    }
+
+    private RowMapper<?> computeRowMapper(Class<? extends TableRecord> clazz) {
+        var mapping = getTableMapping(clazz);
+        if (mapping != null) {
+            return mapping::map;
+        }
+
+        var builder = CONSTRUCTOR_MAP.computeIfAbsent(clazz, MySqlClient::cacheConstructorHandle);
+        if (builder != null) {
+            return new RowMapper.ConstructorRowMapper<>(builder.invoker);
+        }
+
+        // Columns are read by their position in the select list
+        var columns = TableMetadata.of(clazz).getColumns();
+        if (columns.isEmpty()) {
+            throw new IllegalStateException("Class " + clazz.getName() + " has no column annotations");
+        }
+        return buildFieldRowMapper(clazz, columns);
+    }
+
+    private RowMapper<?> computeRowMapper(Class<? extends TableRecord> clazz, FetchProfileMetadata profile) {
+        var mapping = getTableMapping(clazz);
+        if (mapping != null) {
+            // Profile statement selects NULL in place of the columns not retrieved
+            return mapping::map;
+        }
+
+        var builder = CONSTRUCTOR_MAP.computeIfAbsent(clazz, MySqlClient::cacheConstructorHandle);
+        if (builder != null) {
+            return new RowMapper.ConstructorRowMapper<>(buildInvoker(clazz, builder.handle, builder.parameters,
+                profile.columns(), true).asType(MethodType.methodType(TableRecord.class, ResultSet.class)));
+        }
+        return buildFieldRowMapper(clazz, profile.columns());
+    }
+
+    /**
+     * Builds mapper that creates record with no-arg constructor and sets the columns read by their position in the
+     * select list.
+     */
+    private RowMapper<?> buildFieldRowMapper(Class<? extends TableRecord> clazz,
+                                          List<TableMetadata.ColumnMetadata> columns)
+    {
+        var columnMappers = new RowMapper.ColumnMapper[columns.size()];
+        for (int i = 0; i < columnMappers.length; i++) {
+            columnMappers[i] = buildColumnMapper(i + 1, columns.get(i));
+        }
+
+        try {
+            var constructor = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup())
+                .unreflectConstructor(clazz.getDeclaredConstructor());
+            return new RowMapper.FieldRowMapper<>(constructor, columnMappers);
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private RowMapper.ColumnMapper buildColumnMapper(int index, TableMetadata.ColumnMetadata column) {
+        var handle = column.handle();
+        // Primitive values go directly from the result set into the field, NULL is read as zero or false
+        return switch (handle.varType().getName()) {
+            case "int" -> (set, record) -> handle.set(record, set.getInt(index));
+            case "long" -> (set, record) -> handle.set(record, set.getLong(index));
+            case "boolean" -> (set, record) -> handle.set(record, set.getBoolean(index));
+            default -> {
+                var reader = proxy.getReader(handle.varType(), column.column());
+                yield (set, record) -> handle.set(record, reader.read(set, index));
+            }
+        };
+    }
+
+    private Optional<CompiledMapper<?>> computeCompiledMapper(Class<? extends TableRecord> clazz) {
+        if (getTableMapping(clazz) != null) {
+            // Mapping generated at compile time is used instead
+            return Optional.empty();
+        }
+
+        var builder = CONSTRUCTOR_MAP.computeIfAbsent(clazz, MySqlClient::cacheConstructorHandle);
+        var mapper = builder != null ? builder.invoker : buildMapperHandle(clazz);
+        if (mapper == null) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(CompiledMapper.compile(mapper,
+                buildBinderHandle(clazz, getColumnNames(clazz)), buildBinderHandle(clazz, getUpdateColumnNames(clazz))));
+        } catch (IllegalStateException ex) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Builds handle of type <code>(ResultSet)TableRecord</code> that creates the record with no-arg constructor and
+     * sets all columns. Returns null if fields cannot be set.
+     */
+    MethodHandle buildMapperHandle(Class<? extends TableRecord> clazz) {
+        var columns = TableMetadata.of(clazz).getColumns();
+        if (columns.isEmpty()) {
+            throw new IllegalStateException("Class " + clazz.getName() + " has no column annotations");
+        }
+
+        // (record, set) -> record
+        var handle = MethodHandles.dropArguments(MethodHandles.identity(clazz), 1, ResultSet.class);
+        for (int i = columns.size() - 1; i >= 0; i--) {
+            var varHandle = columns.get(i).handle();
+            if (!varHandle.isAccessModeSupported(VarHandle.AccessMode.SET)) {
+                return null;
+            }
+
+            // (record, set) -> void
+            var setter = MethodHandles.filterArguments(varHandle.toMethodHandle(VarHandle.AccessMode.SET), 1,
+                proxy.getReaderHandle(varHandle.varType(), columns.get(i).column(), i + 1));
+            handle = MethodHandles.foldArguments(handle, setter);
+        }
+
+        try {
+            var constructor = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup())
+                .unreflectConstructor(clazz.getDeclaredConstructor());
+            return MethodHandles.foldArguments(handle, constructor)
+                .asType(MethodType.methodType(TableRecord.class, ResultSet.class));
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Builds handle of type <code>(TableRecord,PreparedStatement)void</code> that sets columns as statement
+     * parameters in the specified order.
+     */
+    MethodHandle buildBinderHandle(Class<? extends TableRecord> clazz, List<String> columnNames) {
+        var metadata = TableMetadata.of(clazz);
+
+        var type = MethodType.methodType(void.class, TableRecord.class, PreparedStatement.class);
+        var handle = MethodHandles.empty(type);
+        for (int i = columnNames.size() - 1; i >= 0; i--) {
+            var column = metadata.getColumn(columnNames.get(i));
+            var varHandle = column.handle();
+            var getter = varHandle.toMethodHandle(VarHandle.AccessMode.GET)
+                .asType(MethodType.methodType(varHandle.varType(), TableRecord.class));
+            // (st, record) -> void
+            var writer = MethodHandles.filterArguments(
+                proxy.getWriterHandle(varHandle.varType(), column.column(), i + 1), 1, getter);
+            handle = MethodHandles.foldArguments(handle, MethodHandles.permuteArguments(writer, type, 1, 0));
+        }
+        return handle;
+    }
+
+    StatementBinder getStatementBinder(Class<? extends TableRecord> clazz) {
+        // Called for each bound record, avoid capturing lambda on the fast path
+        var binder = STATEMENT_BINDER_MAP.get(clazz);
+        return binder != null ? binder : STATEMENT_BINDER_MAP.computeIfAbsent(clazz, this::computeStatementBinder);
+    }
+
+    private StatementBinder computeStatementBinder(Class<? extends TableRecord> clazz) {
+        var metadata = TableMetadata.of(clazz);
+        if (metadata.getColumns().isEmpty()) {
+            throw new IllegalStateException("Class " + clazz.getName() + " has no column annotations");
+        }
+
+        return new StatementBinder(
+            metadata.getColumns().stream()
+                .map(this::buildColumnBinder)
+                .toArray(StatementBinder.ColumnBinder[]::new),
+            metadata.getUpdateColumns().stream()
+                .map(this::buildColumnBinder)
+                .toArray(StatementBinder.ColumnBinder[]::new)
+        );
+    }
+
+    private StatementBinder.ColumnBinder buildColumnBinder(TableMetadata.ColumnMetadata column) {
+        var handle = column.handle();
+        // Primitive values go directly from the field into the statement
+        return switch (handle.varType().getName()) {
+            case "int" -> (st, index, record) -> st.setInt(index, (int) handle.get(record));
+            case "long" -> (st, index, record) -> st.setLong(index, (long) handle.get(record));
+            case "boolean" -> (st, index, record) -> st.setBoolean(index, (boolean) handle.get(record));
+            default -> {
+                var writer = proxy.getObjectWriter(handle.varType(), column.column());
+                yield (st, index, record) -> writer.write(st, index, handle.get(record));
+            }
+        };
+    }
+
+    <T extends TableRecord> T fromSQL(ResultSet set, Class<T> clazz) {
+        try {
+            return getRowMapper(clazz).map(set);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * This method creates table for the specified classes according to their annotations.
+     *
+     * @param tables list of tables
+     */
+    public void createTables(List<Class<? extends TableRecord>> tables) {
+        if (getDataSource() == null) {
+            throw new IllegalStateException("Database not opened");
+        }
+
+        try (var conn = getConnection()) {
+            createTables(conn, tables);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * This method creates table for the specified classes according to their annotations.
+     *
+     * @param conn   connection
+     * @param tables list of tables
+     */
+    public void createTables(Connection conn, List<Class<? extends TableRecord>> tables) {
+        try (var st = conn.createStatement()) {
+            // Step 1: drop tables in reverse order
+            for (int index = tables.size() - 1; index >= 0; index--) {
+                st.executeUpdate("DROP TABLE IF EXISTS " + TableMetadata.of(tables.get(index)).getTableName());
+            }
+
+            // Step 2: create new tables in natural order
+            for (var cl : tables) {
+                for (var sql : TableMetadata.of(cl).getCreateTableSql()) {
+                    st.executeUpdate(sql);
+                }
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    String getSelectAllSql(Class<? extends TableRecord> clazz) {
+        return TableMetadata.of(clazz).getSelectAllSql();
+    }
+
+    String getSelectByIdSql(Class<? extends TableRecord> clazz) {
+        return TableMetadata.of(clazz).getSelectByIdSql();
+    }
+
+    String getInsertSQL(TableRecord record) {
+        return TableMetadata.of(record.getClass()).getInsertSql();
+    }
+
+    String getUpdateSQL(TableRecord record) {
+        return TableMetadata.of(record.getClass()).getUpdateSql();
+    }
+
+    String getDeleteSQL(Class<? extends TableRecord> clazz) {
+        return TableMetadata.of(clazz).getDeleteSql();
+    }
+
+    private String getDeleteSQL(TableRecord record) {
+        return getDeleteSQL(record.getClass());
+    }
+
+    private void setPrimaryKeyToPreparedStatement(PreparedStatement st, int index,
+                                                  Class<? extends TableRecord> clazz, Object key) throws SQLException
+    {
+        var metadata = TableMetadata.of(clazz);
+        if (metadata.getMapping() != null) {
+            metadata.getMapping().bindPrimaryKey(key, st, index);
+        } else {
+            var primaryKey = metadata.getPrimaryKey();
+            proxy.getObjectWriter(primaryKey.type(), primaryKey.column()).write(st, index, key);
+        }
+    }
+
+    void setData(TableRecord record, PreparedStatement st, boolean update) {
+        try {
+            var mapping = getRecordMapping(record);
+            if (mapping != null) {
+                if (update) {
+                    mapping.bindUpdate(record, st);
+                } else {
+                    mapping.bindInsert(record, st);
+                }
+                return;
+            }
+
+            if (compiled) {
+                var compiledMapper = getCompiledMapper(record.getClass());
+                if (compiledMapper.isPresent()) {
+                    if (update) {
+                        compiledMapper.get().bindUpdate(record, st);
+                    } else {
+                        compiledMapper.get().bindInsert(record, st);
+                    }
+                    return;
+                }
+            }
+
+            var binder = getStatementBinder(record.getClass());
+            if (update) {
+                binder.bindUpdate(record, st);
+            } else {
+                binder.bindInsert(record, st);
+            }
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private StatementCache.Lease getPreparedStatement(TableRecord record, Connection conn, boolean update)
+        throws SQLException
+    {
+        String sql = (update) ? getUpdateSQL(record) : getInsertSQL(record);
+        var lease = StatementCache.lease(conn, sql);
+        setData(record, lease.statement(), update);
+        return lease;
+    }
+
+    private StatementCache.Lease getDeleteStatement(TableRecord record, Connection conn) throws SQLException {
+        var lease = StatementCache.lease(conn, getDeleteSQL(record));
+        setPrimaryKeyToPreparedStatement(lease.statement(), 1, record.getClass(), record.getPrimaryKey());
+        return lease;
+    }
+
+    private <K> StatementCache.Lease getDeleteStatement(K id, Class<? extends TableRecord<K>> clazz,
+                                                        Connection conn) throws SQLException
+    {
+        var lease = StatementCache.lease(conn, getDeleteSQL(clazz));
+        setPrimaryKeyToPreparedStatement(lease.statement(), 1, clazz, id);
+        return lease;
+    }
+
+    /**
+     * Pre-loads necessary information from the just opened database. This method must be called prior to any other
+     * database operations. Otherwise primary keys may be generated incorrectly.
+     *
+     * @param tables list of {@link TableRecord} types
+     */
+    public void preload(Collection<Class<? extends TableRecord>> tables) {
+        for (var clazz : tables) {
+            var metadata = TableMetadata.of(clazz);
+            var fieldTypeName = metadata.getPrimaryKeyType().getTypeName();
+
+            if (!metadata.isAutoIncrement() || !AUTO_INCREMENT_TYPES.contains(fieldTypeName)) {
+                continue;
+            }
+
+            Number maxValue = 0;
+
+            try (var conn = getConnection()) {
+                try (var st = conn.prepareStatement("SELECT MAX(" + metadata.getPrimaryKeyColumn() + ") FROM "
+                    + metadata.getTableName()); var rs = st.executeQuery())
+                {
+                    if (rs.next()) {
+                        maxValue = switch (fieldTypeName) {
+                            case TYPE_INT, TYPE_INTEGER -> rs.getInt(1);
+                            case TYPE_LONG, TYPE_LONG_PRIM -> rs.getLong(1);
+                            default -> 0;
+                        };
+                    }
+                }
+            } catch (SQLException ex) {
+                throw new RuntimeException(ex);
+            }
+
+            primaryKeys.put(clazz, maxValue);
+        }
+    }
+
+    /**
+     * Returns next available primary key value. This method is thread safe.
+     * Only numeric types (int, long, {@link Integer}, {@link Long}) are currently supported.
+     *
+     * @param <K>   primary key type
+     * @param clazz record class
+     * @return primary key value
+     */
+    public <K extends Number> K generatePrimaryKey(Class<? extends TableRecord<K>> clazz) {
+        var metadata = TableMetadata.of(clazz);
+        if (!metadata.isAutoIncrement()) {
+            throw new IllegalStateException("Primary key for class " + clazz + " is not set to auto increment");
+        }
+
+        return (K) primaryKeys.compute(clazz, (k, v) -> {
+            if (v instanceof Integer intValue) {
+                return intValue + 1;
+            } else if (v instanceof Long longValue) {
+                return longValue + 1;
+            } else {
+                return 1;
+            }
+        });
+    }
+
+    /**
+     * This method inserts new record with predefined id into the database. No attempt to generate
+     * new id is made. Calling code must ensure that predefined id is unique.
+     *
+     * @param record record
+     * @throws IllegalArgumentException if id of the record is 0
+     */
+    public void insert(TableRecord record) {
+        try (var conn = getConnection()) {
+            insert(conn, record);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * This method inserts new record with predefined id into the database. No attempt to generate
+     * new id is made. Calling code must ensure that predefined id is unique.
+     *
+     * @param conn   SQL connection
+     * @param record record
+     * @throws IllegalArgumentException if id of the record is 0
+     */
+    public void insert(Connection conn, TableRecord record) {
+        try (var lease = getPreparedStatement(record, conn, false)) {
+            lease.statement().executeUpdate();
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * <p>This method inserts multiple records with predefined id using batch insert. No attempt to generate
+     * new id is made. Calling code must ensure that predefined id is unique for all records.</p>
+     * <p>Supplied records are divided to batches of the specified size. To avoid memory issues size of the batch
+     * must be tuned appropriately.</p>
+     *
+     * @param size    size of the batch
+     * @param records list of records
+     * @param <T>     type of records
+     */
+    public <T extends TableRecord> void insert(int size, List<T> records) {
+        try (var conn = getConnection()) {
+            insert(conn, size, records);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * <p>This method inserts multiple records with predefined id using batch insert. No attempt to generate
+     * new id is made. Calling code must ensure that predefined id is unique for all records.</p>
+     * <p>Supplied records are divided to batches of the specified size. To avoid memory issues size of the batch
+     * must be tuned appropriately.</p>
+     *
+     * @param conn    SQL connection
+     * @param size    size of the batch
+     * @param records list of records
+     * @param <T>     type of records
+     */
+    public <T extends TableRecord> void insert(Connection conn, int size, List<T> records) {
+        insert(conn, size, records, InsertMode.INSERT);
+    }
+
+    /**
+     * Inserts new record or updates existing one with the same primary or unique key using
+     * <code>INSERT ... ON DUPLICATE KEY UPDATE</code> statement.
+     *
+     * @param record record
+     */
+    public void upsert(TableRecord record) {
+        try (var conn = getConnection()) {
+            upsert(conn, record);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Inserts new record or updates existing one with the same primary or unique key using
+     * <code>INSERT ... ON DUPLICATE KEY UPDATE</code> statement.
+     *
+     * @param conn   SQL connection
+     * @param record record
+     */
+    public void upsert(Connection conn, TableRecord record) {
+        insert(conn, record, InsertMode.UPSERT);
+    }
+
+    /**
+     * Inserts new records or updates existing ones with the same primary or unique key using batch of
+     * <code>INSERT ... ON DUPLICATE KEY UPDATE</code> statements. Statements contain multiple rows if multi-row insert
+     * is enabled, see {@link #setMultiRowInsert(boolean)}.
+     *
+     * @param size    size of the batch
+     * @param records list of records
+     * @param <T>     type of records
+     */
+    public <T extends TableRecord> void upsert(int size, List<T> records) {
+        try (var conn = getConnection()) {
+            upsert(conn, size, records);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Inserts new records or updates existing ones with the same primary or unique key using batch of
+     * <code>INSERT ... ON DUPLICATE KEY UPDATE</code> statements. Statements contain multiple rows if multi-row insert
+     * is enabled, see {@link #setMultiRowInsert(boolean)}.
+     *
+     * @param conn    SQL connection
+     * @param size    size of the batch
+     * @param records list of records
+     * @param <T>     type of records
+     */
+    public <T extends TableRecord> void upsert(Connection conn, int size, List<T> records) {
+        insert(conn, size, records, InsertMode.UPSERT);
+    }
+
+    /**
+     * Inserts new record using <code>INSERT IGNORE</code> statement. Record that duplicates existing primary or
+     * unique key is silently skipped.
+     *
+     * @param record record
+     */
+    public void insertIgnore(TableRecord record) {
+        try (var conn = getConnection()) {
+            insertIgnore(conn, record);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
     }
 
-    String getDeleteSQL(Class<? extends TableRecord> clazz) {
-        return deleteSql.computeIfAbsent(clazz, cl -> {
-            var b = new StringBuilder("DELETE FROM ");
-            var table = cl.getAnnotation(Table.class);
-            if (table == null) {
-                throw new IllegalStateException(NOT_ANNOTATED);
-            }
-            b.append(table.value());
+    /**
+     * Inserts new record using <code>INSERT IGNORE</code> statement. Record that duplicates existing primary or
+     * unique key is silently skipped.
+     *
+     * @param conn   SQL connection
+     * @param record record
+     */
+    public void insertIgnore(Connection conn, TableRecord record) {
+        insert(conn, record, InsertMode.IGNORE);
+    }
 
-            var primaryKeyField = findPrimaryKey(clazz);
-            b.append(" WHERE ")
-                .append(proxy.getWhereColumnString(primaryKeyField.field))
-                .append("=?");
+    /**
+     * Inserts new records using batch of <code>INSERT IGNORE</code> statements. Records that duplicate existing
+     * primary or unique keys are silently skipped.
+     *
+     * @param size    size of the batch
+     * @param records list of records
+     * @param <T>     type of records
+     */
+    public <T extends TableRecord> void insertIgnore(int size, List<T> records) {
+        try (var conn = getConnection()) {
+            insertIgnore(conn, size, records);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
 
-            return b.toString();
-        });
+    /**
+     * Inserts new records using batch of <code>INSERT IGNORE</code> statements. Records that duplicate existing
+     * primary or unique keys are silently skipped.
+     *
+     * @param conn    SQL connection
+     * @param size    size of the batch
+     * @param records list of records
+     * @param <T>     type of records
+     */
+    public <T extends TableRecord> void insertIgnore(Connection conn, int size, List<T> records) {
+        insert(conn, size, records, InsertMode.IGNORE);
     }
 
-    private String getDeleteSQL(TableRecord record) {
-        return getDeleteSQL(record.getClass());
+    private void insert(Connection conn, TableRecord record, InsertMode mode) {
+        var sql = TableMetadata.of(record.getClass()).getInsertSql(1, mode);
+        try (var lease = StatementCache.lease(conn, sql)) {
+            setData(record, lease.statement(), false);
+            lease.statement().executeUpdate();
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
     }
 
-    private void setColumnToPreparedStatement(TableRecord record, PreparedStatement st, int index, Field field,
-                                              VarHandle handle) throws SQLException
-    {
-        var fieldType = field.getType();
+    private <T extends TableRecord> void insert(Connection conn, int size, List<T> records, InsertMode mode) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Batch size must be >= 1");
+        }
 
-        Object value = handle.get(record);
-        var typeName = fieldType.isEnum() ? TYPE_ENUM : fieldType.getTypeName();
-        proxy.setFieldData(st, index, value, typeName);
-    }
+        if (records.isEmpty()) {
+            return;
+        }
 
-    private void setColumnToPreparedStatement(PreparedStatement st, int index, Field field,
-                                              Object value) throws SQLException
-    {
-        var fieldType = field.getType();
-        var typeName = fieldType.isEnum() ? TYPE_ENUM : fieldType.getTypeName();
-        proxy.setFieldData(st, index, value, typeName);
-    }
+        if (multiRowInsert) {
+            try {
+                insertMultiRow(conn, size, records, mode);
+            } catch (SQLException ex) {
+                throw new RuntimeException(ex);
+            }
+            return;
+        }
 
-    private void setData(TableRecord record, PreparedStatement st, boolean update) {
-        try {
-            int index = 1;
+        var sql = mode == InsertMode.INSERT ? getInsertSQL(records.get(0)) :
+            TableMetadata.of(records.get(0).getClass()).getInsertSql(1, mode);
 
-            var columns = COLUMN_MAP.computeIfAbsent(record.getClass(), MySqlClient::computeColumns);
+        try (var lease = StatementCache.lease(conn, sql)) {
+            var st = lease.statement();
+            int count = 0;
 
-            for (var field : record.getClass().getDeclaredFields()) {
-                if (field.isAnnotationPresent(Column.class)) {
-                    // if update skip ID at this point
-                    var fld = field.getAnnotation(Column.class);
-                    if (update && field.getAnnotation(PrimaryKey.class) != null) {
-                        continue;
-                    }
+            for (T r : records) {
+                setData(r, st, false);
+                st.addBatch();
 
-                    var handle = columns.get(fld.value());
-                    setColumnToPreparedStatement(record, st, index++, field, handle);
+                if (++count % size == 0) {
+                    st.executeBatch();
                 }
             }
 
-            if (update) {
-                var primaryKey = findPrimaryKey(record.getClass());
-                setColumnToPreparedStatement(record, st, index, primaryKey.field, primaryKey.handle);
-            }
-        } catch (Exception ex) {
+            st.executeBatch();
+        } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
     }
 
-    private PreparedStatement getPreparedStatement(TableRecord record, Connection conn, boolean update) throws SQLException {
-        String sql = (update) ? getUpdateSQL(record) : getInsertSQL(record);
-        PreparedStatement st = conn.prepareStatement(sql);
-        setData(record, st, update);
-        return st;
-    }
-
-    private PreparedStatement getDeleteStatement(TableRecord record, Connection conn) throws SQLException {
-        PreparedStatement st = conn.prepareStatement(getDeleteSQL(record));
-
-        var primaryKey = findPrimaryKey(record.getClass());
-        setColumnToPreparedStatement(record, st, 1, primaryKey.field, primaryKey.handle);
-        return st;
-    }
-
-    private <K> PreparedStatement getDeleteStatement(K id, Class<? extends TableRecord<K>> clazz, Connection conn) throws SQLException {
-        PreparedStatement st = conn.prepareStatement(getDeleteSQL(clazz));
-        var primaryKey = findPrimaryKey(clazz);
-        setColumnToPreparedStatement(st, 1, primaryKey.field, id);
-        return st;
-    }
-
     /**
-     * Pre-loads necessary information from the just opened database. This method must be called prior to any other
-     * database operations. Otherwise primary keys may be generated incorrectly.
-     *
-     * @param tables list of {@link TableRecord} types
+     * Inserts records by multi-row statements. Each statement gets as many records as fit into the batch size and
+     * estimated packet size. Number of rows of statements not limited by the batch size is rounded down to a power
+     * of two thus only a few distinct statements are prepared.
      */
-    public void preload(Collection<Class<? extends TableRecord>> tables) {
-        for (var clazz : tables) {
-            var table = clazz.getAnnotation(Table.class);
-            if (table == null) {
-                throw new IllegalStateException(CLASS_NOT_ANNOTATED + clazz.getTypeName());
-            }
-
-            var primaryKey = findPrimaryKey(clazz);
-            if (!primaryKey.autoIncrement()) {
-                continue;
+    private <T extends TableRecord> void insertMultiRow(Connection conn, int size, List<T> records, InsertMode mode)
+        throws SQLException
+    {
+        var clazz = records.get(0).getClass();
+        var metadata = TableMetadata.of(clazz);
+        var estimator = RowSizeEstimator.of(clazz);
+        var parameterCount = metadata.getInsertParameterCount();
+        var budget = maxInsertPacketSize;
+
+        var mapping = getTableMapping(clazz);
+        var binder = mapping == null && !(compiled && getCompiledMapper(clazz).isPresent()) ?
+            getStatementBinder(clazz) : null;
+
+        int start = 0;
+        while (start < records.size()) {
+            var limit = Math.min(size, records.size() - start);
+            int rows = 0;
+            long bytes = 0;
+            while (rows < limit) {
+                var rowSize = estimator.estimate(records.get(start + rows));
+                if (rows > 0 && bytes + rowSize > budget) {
+                    break;
+                }
+                bytes += rowSize;
+                rows++;
             }
-
-            var fieldTypeName = primaryKey.field.getType().getTypeName();
-            if (!AUTO_INCREMENT_TYPES.contains(fieldTypeName)) {
-                continue;
+            if (rows < size) {
+                rows = Integer.highestOneBit(rows);
             }
 
-            var pattern = proxy.getSelectColumnString(primaryKey.field);
-
-            Number maxValue = 0;
-
-            try (var conn = getDataSource().getConnection()) {
-                var st = conn.prepareStatement("SELECT MAX(" + pattern + ") FROM " + table.value());
-                try (var rs = st.executeQuery()) {
-                    if (rs.next()) {
-                        maxValue = switch (fieldTypeName) {
-                            case TYPE_INT, TYPE_INTEGER -> rs.getInt(1);
-                            case TYPE_LONG, TYPE_LONG_PRIM -> rs.getLong(1);
-                            default -> 0;
-                        };
+            try (var lease = StatementCache.lease(conn, metadata.getInsertSql(rows, mode))) {
+                var st = lease.statement();
+                if (binder != null) {
+                    for (int i = 0; i < rows; i++) {
+                        binder.bindInsert(records.get(start + i), st, i * parameterCount);
+                    }
+                } else {
+                    // Generated binders use fixed parameter indexes
+                    var offsetStatement = new OffsetStatement(st);
+                    for (int i = 0; i < rows; i++) {
+                        offsetStatement.setOffset(i * parameterCount);
+                        setData(records.get(start + i), offsetStatement.view(), false);
                     }
                 }
-            } catch (SQLException ex) {
-                throw new RuntimeException(ex);
+                st.executeUpdate();
             }
-
-            primaryKeys.put(clazz, maxValue);
+            start += rows;
         }
     }
 
     /**
-     * Returns next available primary key value. This method is thread safe.
-     * Only numeric types (int, long, {@link Integer}, {@link Long}) are currently supported.
+     * Loads records using <code>LOAD DATA LOCAL INFILE</code> statement.
      *
-     * @param <K>   primary key type
-     * @param clazz record class
-     * @return primary key value
+     * @param clazz   record class
+     * @param records records
+     * @param <T>     type of records
+     * @return number of loaded records
+     * @see #bulkLoad(Connection, Class, Stream)
      */
-    public <K extends Number> K generatePrimaryKey(Class<? extends TableRecord<K>> clazz) {
-        var primaryKey = findPrimaryKey(clazz);
-        if (!primaryKey.autoIncrement()) {
-            throw new IllegalStateException("Primary key for class " + clazz + " is not set to auto increment");
+    public <T extends TableRecord> long bulkLoad(Class<T> clazz, Stream<? extends T> records) {
+        try (var conn = getConnection()) {
+            return bulkLoad(conn, clazz, records);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
         }
+    }
 
-        return (K) primaryKeys.compute(clazz, (k, v) -> {
-            if (v instanceof Integer intValue) {
-                return intValue + 1;
-            } else if (v instanceof Long longValue) {
-                return longValue + 1;
-            } else {
-                return 1;
+    /**
+     * <p>Loads records using <code>LOAD DATA LOCAL INFILE</code> statement. Records are converted to the text format
+     * of the statement while the driver sends them to the server, no temporary file is created.</p>
+     * <p>This method requires MySQL Connector/J with <code>allowLoadLocalInfile</code> option enabled, see
+     * {@link DataSourceBuilder#allowLoadLocalInfile(boolean)}, and server with <code>local_infile</code> enabled.
+     * Server skips records that duplicate existing primary or unique keys.</p>
+     * <p>Stream of records is closed when this method returns.</p>
+     *
+     * @param conn    SQL connection
+     * @param clazz   record class
+     * @param records records
+     * @param <T>     type of records
+     * @return number of loaded records
+     */
+    public <T extends TableRecord> long bulkLoad(Connection conn, Class<T> clazz, Stream<? extends T> records) {
+        try (records) {
+            var metadata = TableMetadata.of(clazz);
+            var stream = new LocalInfileStream<>(records.iterator(), metadata.getInsertParameterCount(),
+                (record, st) -> setData(record, st, false));
+
+            try (var st = conn.createStatement()) {
+                setLocalInfileInputStream(st, stream);
+                return st.executeLargeUpdate(metadata.getLoadDataSql());
+            } catch (SQLException ex) {
+                var failure = stream.getFailure();
+                throw failure != null ? failure : new RuntimeException(ex);
             }
-        });
+        }
+    }
+
+    private static void setLocalInfileInputStream(Statement st, InputStream stream) throws SQLException {
+        try {
+            // Using reflection to avoid hard dependency on MySQL connector jar
+            var statementClass = Class.forName("com.mysql.cj.jdbc.JdbcStatement");
+            statementClass.getMethod("setLocalInfileInputStream", InputStream.class)
+                .invoke(st.unwrap(statementClass), stream);
+        } catch (ReflectiveOperationException ex) {
+            throw new SQLFeatureNotSupportedException("Bulk load requires MySQL Connector/J", ex);
+        }
     }
 
     /**
-     * This method inserts new record with predefined id into the database. No attempt to generate
-     * new id is made. Calling code must ensure that predefined id is unique.
+     * Updates record in the database. This method returns instance of the {@link TableRecord}, i.e. supplied object is
+     * not changed.
      *
      * @param record record
-     * @throws IllegalArgumentException if id of the record is 0
      */
-    public void insert(TableRecord record) {
-        try (var conn = getDataSource().getConnection()) {
-            insert(conn, record);
+    public void update(TableRecord record) {
+        try (var conn = getConnection()) {
+            update(conn, record);
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
     }
 
     /**
-     * This method inserts new record with predefined id into the database. No attempt to generate
-     * new id is made. Calling code must ensure that predefined id is unique.
+     * Updates record in the database. This method returns instance of the {@link TableRecord}, i.e. supplied object is
+     * not changed.
      *
      * @param conn   SQL connection
      * @param record record
-     * @throws IllegalArgumentException if id of the record is 0
      */
-    public void insert(Connection conn, TableRecord record) {
-        try (var st = getPreparedStatement(record, conn, false)) {
-            st.executeUpdate();
+    public void update(Connection conn, TableRecord record) {
+        try (var lease = getPreparedStatement(record, conn, true)) {
+            lease.statement().executeUpdate();
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
     }
 
     /**
-     * <p>This method inserts multiple records with predefined id using batch insert. No attempt to generate
-     * new id is made. Calling code must ensure that predefined id is unique for all records.</p>
+     * <p>Updates multiple records using batch update.</p>
      * <p>Supplied records are divided to batches of the specified size. To avoid memory issues size of the batch
      * must be tuned appropriately.</p>
      *
@@ -708,17 +2312,16 @@ public class MySqlClient {
      * @param records list of records
      * @param <T>     type of records
      */
-    public <T extends TableRecord> void insert(int size, List<T> records) {
+    public <T extends TableRecord> void update(int size, List<T> records) {
         try (var conn = getConnection()) {
-            insert(conn, size, records);
+            update(conn, size, records);
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
     }
 
     /**
-     * <p>This method inserts multiple records with predefined id using batch insert. No attempt to generate
-     * new id is made. Calling code must ensure that predefined id is unique for all records.</p>
+     * <p>Updates multiple records using batch update.</p>
      * <p>Supplied records are divided to batches of the specified size. To avoid memory issues size of the batch
      * must be tuned appropriately.</p>
      *
@@ -727,71 +2330,71 @@ public class MySqlClient {
      * @param records list of records
      * @param <T>     type of records
      */
-    public <T extends TableRecord> void insert(Connection conn, int size, List<T> records) {
+    public <T extends TableRecord> void update(Connection conn, int size, List<T> records) {
         if (size < 1) {
             throw new IllegalArgumentException("Batch size must be >= 1");
         }
 
-        if (!records.isEmpty()) {
-            var sql = getInsertSQL(records.get(0));
+        if (records.isEmpty()) {
+            return;
+        }
 
-            try (var st = conn.prepareStatement(sql)) {
-                int count = 0;
+        try (var lease = StatementCache.lease(conn, getUpdateSQL(records.get(0)))) {
+            var st = lease.statement();
+            int count = 0;
 
-                for (T r : records) {
-                    setData(r, st, false);
-                    st.addBatch();
+            for (T r : records) {
+                setData(r, st, true);
+                st.addBatch();
 
-                    if (++count % size == 0) {
-                        st.executeBatch();
-                    }
+                if (++count % size == 0) {
+                    st.executeBatch();
                 }
-
-                st.executeBatch();
-            } catch (SQLException ex) {
-                throw new RuntimeException(ex);
             }
+
+            st.executeBatch();
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
         }
     }
 
     /**
-     * Updates record in the database. This method returns instance of the {@link TableRecord}, i.e. supplied object is
-     * not changed.
+     * Deleted record from the database.
      *
-     * @param record record
+     * @param record record to delete
      */
-    public void update(TableRecord record) {
-        try (var conn = getDataSource().getConnection()) {
-            update(conn, record);
+    public void delete(TableRecord record) {
+        try (var conn = getConnection()) {
+            delete(conn, record);
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
     }
 
     /**
-     * Updates record in the database. This method returns instance of the {@link TableRecord}, i.e. supplied object is
-     * not changed.
+     * Deletes record from the database.
      *
-     * @param conn   SQL connection
-     * @param record record
+     * @param conn   connection
+     * @param record record to delete
      */
-    public void update(Connection conn, TableRecord record) {
-        try (var ps = getPreparedStatement(record, conn, true)) {
-            ps.executeUpdate();
+    public void delete(Connection conn, TableRecord record) {
+        try (var lease = getDeleteStatement(record, conn)) {
+            lease.statement().executeUpdate();
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
     }
 
-
     /**
-     * Deleted record from the database.
+     * Deletes record from the database.
      *
-     * @param record record to delete
+     * @param <K>   primary key type
+     * @param id    id of the record
+     * @param clazz record type
      */
-    public void delete(TableRecord record) {
-        try (var conn = getDataSource().getConnection(); var ps = getDeleteStatement(record, conn)) {
-            ps.executeUpdate();
+    public <K> void delete(K id, Class<? extends TableRecord<K>> clazz) {
+        try (var conn = getConnection()) {
+            delete(conn, id, clazz);
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
@@ -801,24 +2404,85 @@ public class MySqlClient {
      * Deletes record from the database.
      *
      * @param <K>   primary key type
+     * @param conn  connection
      * @param id    id of the record
      * @param clazz record type
      */
-    public <K> void delete(K id, Class<? extends TableRecord<K>> clazz) {
-        try (var conn = getDataSource().getConnection(); var ps = getDeleteStatement(id, clazz, conn)) {
-            ps.executeUpdate();
+    public <K> void delete(Connection conn, K id, Class<? extends TableRecord<K>> clazz) {
+        try (var lease = getDeleteStatement(id, clazz, conn)) {
+            lease.statement().executeUpdate();
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Deletes records with the specified primary keys.
+     *
+     * @param clazz record type
+     * @param ids   primary keys of the records
+     * @param <K>   primary key type
+     * @return number of deleted records
+     * @see #deleteAll(Connection, Class, Collection)
+     */
+    public <K> int deleteAll(Class<? extends TableRecord<K>> clazz, Collection<K> ids) {
+        try (var conn = getConnection()) {
+            return deleteAll(conn, clazz, ids);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Deletes records with the specified primary keys using provided connection. Records are deleted by
+     * <code>DELETE ... WHERE pk IN (...)</code> statements, each one containing up to 1024 keys.
+     *
+     * @param conn  SQL connection
+     * @param clazz record type
+     * @param ids   primary keys of the records
+     * @param <K>   primary key type
+     * @return number of deleted records
+     */
+    public <K> int deleteAll(Connection conn, Class<? extends TableRecord<K>> clazz, Collection<K> ids) {
+        var metadata = TableMetadata.of(clazz);
+        // Duplicate keys would only make lists longer
+        var keys = new ArrayList<>(new LinkedHashSet<>(ids));
+        int deleted = 0;
+
+        try {
+            int start = 0;
+            while (start < keys.size()) {
+                var count = getInListChunkSize(keys.size() - start);
+                try (var lease = StatementCache.lease(conn, metadata.getDeleteByIdsSql(count))) {
+                    var st = lease.statement();
+                    for (int i = 0; i < count; i++) {
+                        setPrimaryKeyToPreparedStatement(st, i + 1, clazz, keys.get(start + i));
+                    }
+                    deleted += st.executeUpdate();
+                }
+                start += count;
+            }
+            return deleted;
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
         }
     }
 
+    /**
+     * Returns number of keys of the next IN list. Lists shorter than maximum size are rounded down to a power of two
+     * thus statements are prepared for a few distinct sizes only.
+     */
+    static int getInListChunkSize(int remaining) {
+        return remaining >= MAX_IN_LIST_SIZE ? MAX_IN_LIST_SIZE : Integer.highestOneBit(remaining);
+    }
+
     /**
      * Deletes all records from table.
      *
      * @param table table
      */
     public void deleteAll(Class<? extends TableRecord> table) {
-        try (var connection = getDataSource().getConnection()) {
+        try (var connection = getConnection()) {
             deleteAll(connection, table);
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
@@ -843,7 +2507,7 @@ public class MySqlClient {
      * @param tables tables to truncate
      */
     public void truncate(List<Class<? extends TableRecord>> tables) {
-        try (var connection = getDataSource().getConnection()) {
+        try (var connection = getConnection()) {
             truncate(connection, tables);
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
@@ -881,7 +2545,7 @@ public class MySqlClient {
      * @param tables table classes
      */
     public void dropTables(List<Class<? extends TableRecord>> tables) {
-        try (var conn = getDataSource().getConnection()) {
+        try (var conn = getConnection()) {
             dropTables(conn, tables);
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
@@ -975,43 +2639,133 @@ public class MySqlClient {
         var lookup = MethodHandles.publicLookup();
         try {
             var handle = lookup.unreflectConstructor(constructor);
-            return new ConstructorHandle(handle, parameterHandles);
+            return new ConstructorHandle(handle, parameterHandles, buildInvoker(clazz, handle, parameterHandles));
         } catch (Exception ex) {
             throw new RuntimeException(ex);
         }
     }
 
+    private static MethodHandle buildInvoker(Class<? extends TableRecord> clazz, MethodHandle constructor,
+                                             List<ParameterHandle> parameters)
+    {
+        return buildInvoker(clazz, constructor, parameters, TableMetadata.of(clazz).getColumns(), false)
+            .asType(MethodType.methodType(TableRecord.class, ResultSet.class));
+    }
+
     /**
-     * This method returns field that represents primary key.
+     * Builds handle of type <code>(ResultSet)R</code> that reads constructor parameters from the columns of the
+     * select list.
      *
-     * @param recordClass table class
-     * @return primary key field
-     * @throws IllegalStateException if there is no primary key
+     * @param clazz         table class
+     * @param constructor   constructor handle
+     * @param parameters    constructor parameters
+     * @param selectColumns columns in the order of the select list
+     * @param defaults      if true, parameters of the columns not in the select list get null, zero or false,
+     *                      otherwise such parameters are not allowed
      */
-    static PrimaryKeyHandle findPrimaryKey(Class<? extends TableRecord> recordClass) {
-        return PRIMARY_KEY_HANDLE_MAP.computeIfAbsent(recordClass, clazz -> {
-            for (var field : clazz.getDeclaredFields()) {
-                var column = field.getAnnotation(Column.class);
-                if (column == null) {
-                    continue;
-                }
-                var primaryKey = field.getAnnotation(PrimaryKey.class);
-                if (primaryKey == null) {
-                    continue;
-                }
-
-                var columns = COLUMN_MAP.computeIfAbsent(clazz, MySqlClient::computeColumns);
-                return new PrimaryKeyHandle(field, columns.get(column.value()), primaryKey.isAutoIncrement());
+    private static MethodHandle buildInvoker(Class<?> clazz, MethodHandle constructor, List<ParameterHandle> parameters,
+                                             List<TableMetadata.ColumnMetadata> selectColumns, boolean defaults)
+    {
+        var proxy = new MySqlProxy();
+
+        // Columns are read by their position in the select list
+        var columnNames = selectColumns.stream().map(TableMetadata.ColumnMetadata::name).toList();
+
+        var readers = new MethodHandle[parameters.size()];
+        for (int i = 0; i < readers.length; i++) {
+            var ph = parameters.get(i);
+            var index = columnNames.indexOf(ph.name) + 1;
+            if (index != 0) {
+                readers[i] = proxy.getReaderHandle(ph.type, selectColumns.get(index - 1).column(), index);
+            } else if (defaults) {
+                readers[i] = MethodHandles.dropArguments(MethodHandles.zero(ph.type), 0, ResultSet.class);
+            } else {
+                throw new IllegalStateException("Class " + clazz.getName() + " has no column " + ph.name);
             }
+        }
 
-            throw new IllegalStateException("No primary key defined for " + clazz.getTypeName());
-        });
+        // (ResultSet, ..., ResultSet) -> (ResultSet)
+        var handle = MethodHandles.filterArguments(constructor, 0, readers);
+        return MethodHandles.permuteArguments(handle,
+            MethodType.methodType(handle.type().returnType(), ResultSet.class), new int[readers.length]);
+    }
+
+    /**
+     * Builds handle of type <code>(ResultSet)R</code> that reads constructor parameters by the mapping generated at
+     * compile time. Columns are read by their position in {@link TableMapping#getColumnNames()}.
+     *
+     * @param constructor constructor handle
+     * @param parameters  constructor parameters
+     * @param mapping     table mapping
+     */
+    private static MethodHandle buildInvoker(MethodHandle constructor, List<ParameterHandle> parameters,
+                                             TableMapping<?> mapping)
+    {
+        var proxy = new MySqlProxy();
+
+        var columnNames = mapping.getColumnNames();
+        var readers = new MethodHandle[parameters.size()];
+        for (int i = 0; i < readers.length; i++) {
+            var ph = parameters.get(i);
+            readers[i] = proxy.getReaderHandle(mapping, ph.name, ph.type, columnNames.indexOf(ph.name) + 1);
+        }
+
+        // (ResultSet, ..., ResultSet) -> (ResultSet)
+        var handle = MethodHandles.filterArguments(constructor, 0, readers);
+        return MethodHandles.permuteArguments(handle,
+            MethodType.methodType(handle.type().returnType(), ResultSet.class), new int[readers.length]);
+    }
+
+    /**
+     * Builds handle of type <code>(ResultSet)Object</code> that creates projection record with canonical
+     * constructor.
+     *
+     * @param projection projection record class
+     * @param profile    columns of the projection
+     * @param mapping    mapping of the table class or null if table class is processed via reflection
+     */
+    private static MethodHandle buildProjectionInvoker(Class<? extends Record> projection,
+                                                       FetchProfileMetadata profile, TableMapping<?> mapping)
+    {
+        var components = projection.getRecordComponents();
+        var parameters = new ArrayList<ParameterHandle>(components.length);
+        var types = new Class<?>[components.length];
+        for (int i = 0; i < components.length; i++) {
+            types[i] = components[i].getType();
+            parameters.add(new ParameterHandle(TableMetadata.getProjectionColumn(components[i]), types[i]));
+        }
+
+        try {
+            var constructor = MethodHandles.privateLookupIn(projection, MethodHandles.lookup())
+                .findConstructor(projection, MethodType.methodType(void.class, types));
+            var invoker = mapping != null ? buildInvoker(constructor, parameters, mapping)
+                : buildInvoker(projection, constructor, parameters, profile.columns(), false);
+            return invoker.asType(MethodType.methodType(Object.class, ResultSet.class));
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private static Object invokeProjection(MethodHandle invoker, ResultSet set) throws SQLException {
+        try {
+            return (Object) invoker.invokeExact(set);
+        } catch (SQLException | RuntimeException ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new RuntimeException(ex);
+        }
     }
 
     static <K> K getPrimaryKey(TableRecord<K> record) {
-        var primaryKey = findPrimaryKey(record.getClass());
+        var mapping = getRecordMapping(record);
+        if (mapping != null) {
+            @SuppressWarnings("unchecked")
+            var key = (K) mapping.getPrimaryKey(record);
+            return key;
+        }
+
         //noinspection unchecked
-        return (K) primaryKey.handle.get(record);
+        return (K) TableMetadata.of(record.getClass()).getPrimaryKey().handle().get(record);
     }
 
     /**
@@ -1056,7 +2810,7 @@ public class MySqlClient {
      * @return amount of rows
      */
     public int getTableSize(Class<? extends TableRecord> clazz) {
-        try (var conn = getDataSource().getConnection()) {
+        try (var conn = getConnection()) {
             return getTableSize(conn, clazz);
         } catch (SQLException ex) {
             throw new RuntimeException(ex);
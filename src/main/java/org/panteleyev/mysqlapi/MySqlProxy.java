@@ -5,25 +5,25 @@ package org.panteleyev.mysqlapi;
  * Licensed under the BSD license. See LICENSE file in the project root for full license information.
  */
 
+import org.panteleyev.mysqlapi.DataReaders.ColumnReader;
+import org.panteleyev.mysqlapi.DataWriters.ColumnWriter;
 import org.panteleyev.mysqlapi.annotations.Column;
 import org.panteleyev.mysqlapi.annotations.ForeignKey;
 import org.panteleyev.mysqlapi.annotations.Index;
 import org.panteleyev.mysqlapi.annotations.PrimaryKey;
 import org.panteleyev.mysqlapi.annotations.ReferenceOption;
 import org.panteleyev.mysqlapi.annotations.Table;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
-import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Types;
-import java.time.LocalDate;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.function.BiFunction;
 import static org.panteleyev.mysqlapi.DataReaders.BIG_DECIMAL_READER;
 import static org.panteleyev.mysqlapi.DataReaders.BOOL_READER;
 import static org.panteleyev.mysqlapi.DataReaders.BYTE_ARRAY_READER;
@@ -32,9 +32,10 @@ import static org.panteleyev.mysqlapi.DataReaders.INT_READER;
 import static org.panteleyev.mysqlapi.DataReaders.LOCAL_DATE_READER;
 import static org.panteleyev.mysqlapi.DataReaders.LONG_READER;
 import static org.panteleyev.mysqlapi.DataReaders.OBJECT_READER;
+import static org.panteleyev.mysqlapi.DataReaders.UUID_BINARY_READER;
 import static org.panteleyev.mysqlapi.DataReaders.UUID_STRING_READER;
+import static org.panteleyev.mysqlapi.DataReaders.UUID_SWAPPED_READER;
 import static org.panteleyev.mysqlapi.DataTypes.BAD_FIELD_TYPE;
-import static org.panteleyev.mysqlapi.DataTypes.FIELD_NOT_ANNOTATED;
 import static org.panteleyev.mysqlapi.DataTypes.TYPE_BIG_DECIMAL;
 import static org.panteleyev.mysqlapi.DataTypes.TYPE_BOOL;
 import static org.panteleyev.mysqlapi.DataTypes.TYPE_BOOLEAN;
@@ -48,9 +49,20 @@ import static org.panteleyev.mysqlapi.DataTypes.TYPE_LONG;
 import static org.panteleyev.mysqlapi.DataTypes.TYPE_LONG_PRIM;
 import static org.panteleyev.mysqlapi.DataTypes.TYPE_STRING;
 import static org.panteleyev.mysqlapi.DataTypes.TYPE_UUID;
+import static org.panteleyev.mysqlapi.DataWriters.BIG_DECIMAL_WRITER;
+import static org.panteleyev.mysqlapi.DataWriters.BOOLEAN_WRITER;
+import static org.panteleyev.mysqlapi.DataWriters.BYTE_ARRAY_WRITER;
+import static org.panteleyev.mysqlapi.DataWriters.DATE_WRITER;
+import static org.panteleyev.mysqlapi.DataWriters.INTEGER_WRITER;
+import static org.panteleyev.mysqlapi.DataWriters.LOCAL_DATE_WRITER;
+import static org.panteleyev.mysqlapi.DataWriters.LONG_WRITER;
+import static org.panteleyev.mysqlapi.DataWriters.STRING_WRITER;
+import static org.panteleyev.mysqlapi.DataWriters.UUID_BINARY_WRITER;
+import static org.panteleyev.mysqlapi.DataWriters.UUID_STRING_WRITER;
+import static org.panteleyev.mysqlapi.DataWriters.UUID_SWAPPED_WRITER;
 
 class MySqlProxy {
-    private static final Map<String, BiFunction<ResultSet, String, ?>> RESULT_SET_READERS = Map.ofEntries(
+    private static final Map<String, ColumnReader<?>> RESULT_SET_READERS = Map.ofEntries(
         Map.entry(TYPE_STRING, OBJECT_READER),
         Map.entry(TYPE_INTEGER, OBJECT_READER),
         Map.entry(TYPE_INT, INT_READER),
@@ -65,22 +77,166 @@ class MySqlProxy {
         Map.entry(TYPE_UUID, UUID_STRING_READER)
     );
 
-    Map<String, BiFunction<ResultSet, String, ?>> getReaderMap() {
+    private static final Map<String, ColumnWriter<?>> STATEMENT_WRITERS = Map.ofEntries(
+        Map.entry(TYPE_STRING, STRING_WRITER),
+        Map.entry(TYPE_UUID, UUID_STRING_WRITER),
+        Map.entry(TYPE_BOOL, BOOLEAN_WRITER),
+        Map.entry(TYPE_BOOLEAN, BOOLEAN_WRITER),
+        Map.entry(TYPE_INTEGER, INTEGER_WRITER),
+        Map.entry(TYPE_INT, INTEGER_WRITER),
+        Map.entry(TYPE_LONG, LONG_WRITER),
+        Map.entry(TYPE_LONG_PRIM, LONG_WRITER),
+        Map.entry(TYPE_DATE, DATE_WRITER),
+        Map.entry(TYPE_LOCAL_DATE, LOCAL_DATE_WRITER),
+        Map.entry(TYPE_BIG_DECIMAL, BIG_DECIMAL_WRITER),
+        Map.entry(TYPE_BYTE_ARRAY, BYTE_ARRAY_WRITER)
+    );
+
+    private static final MethodHandle READ_COLUMN;
+    private static final MethodHandle READ_MAPPED_COLUMN;
+    private static final MethodHandle WRITE_COLUMN;
+    private static final Map<String, MethodHandle> PRIMITIVE_READERS;
+    private static final Map<String, MethodHandle> PRIMITIVE_WRITERS;
+
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            READ_COLUMN = lookup.findVirtual(ColumnReader.class, "read",
+                MethodType.methodType(Object.class, ResultSet.class, int.class));
+            READ_MAPPED_COLUMN = lookup.findVirtual(TableMapping.class, "readColumn",
+                MethodType.methodType(Object.class, String.class, ResultSet.class, int.class));
+            WRITE_COLUMN = lookup.findVirtual(ColumnWriter.class, "write",
+                MethodType.methodType(void.class, PreparedStatement.class, int.class, Object.class));
+            PRIMITIVE_READERS = Map.of(
+                TYPE_INT, lookup.findVirtual(ResultSet.class, "getInt",
+                    MethodType.methodType(int.class, int.class)),
+                TYPE_LONG_PRIM, lookup.findVirtual(ResultSet.class, "getLong",
+                    MethodType.methodType(long.class, int.class)),
+                TYPE_BOOL, lookup.findVirtual(ResultSet.class, "getBoolean",
+                    MethodType.methodType(boolean.class, int.class))
+            );
+            PRIMITIVE_WRITERS = Map.of(
+                TYPE_INT, lookup.findVirtual(PreparedStatement.class, "setInt",
+                    MethodType.methodType(void.class, int.class, int.class)),
+                TYPE_LONG_PRIM, lookup.findVirtual(PreparedStatement.class, "setLong",
+                    MethodType.methodType(void.class, int.class, long.class)),
+                TYPE_BOOL, lookup.findVirtual(PreparedStatement.class, "setBoolean",
+                    MethodType.methodType(void.class, int.class, boolean.class))
+            );
+        } catch (ReflectiveOperationException ex) {
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    Map<String, ColumnReader<?>> getReaderMap() {
         return RESULT_SET_READERS;
     }
 
-    Object getFieldValue(String fieldName, Class typeClass, ResultSet set) throws SQLException {
+    ColumnReader<?> getReader(Class<?> typeClass) {
+        return getReader(typeClass, null);
+    }
+
+    /**
+     * Returns reader of the column. Enum columns are decoded according to {@link Column#enumStorage()}.
+     *
+     * @param typeClass field type
+     * @param column    column annotation, null means defaults
+     */
+    ColumnReader<?> getReader(Class<?> typeClass, Column column) {
         if (typeClass.isEnum()) {
-            var value = set.getObject(fieldName);
-            return value == null ? null : Enum.valueOf(typeClass, (String) value);
+            return EnumCodec.of(typeClass).getReader(column);
+        }
+
+        if (isBinaryUuid(typeClass, column)) {
+            return column.swapUuidTime() ? UUID_SWAPPED_READER : UUID_BINARY_READER;
         }
 
         var reader = getReaderMap().get(typeClass.getTypeName());
         if (reader == null) {
             throw new IllegalStateException(BAD_FIELD_TYPE + typeClass.getTypeName());
         }
+        return reader;
+    }
+
+    /**
+     * Returns method handle of type <code>(ResultSet)typeClass</code> that reads column with the specified index.
+     * Primitive columns are read without boxing.
+     */
+    MethodHandle getReaderHandle(Class<?> typeClass, Column column, int index) {
+        var reader = PRIMITIVE_READERS.get(typeClass.getTypeName());
+        if (reader == null) {
+            reader = READ_COLUMN.bindTo(getReader(typeClass, column));
+        }
 
-        return reader.apply(set, fieldName);
+        return MethodHandles.insertArguments(reader, 1, index)
+            .asType(MethodType.methodType(typeClass, ResultSet.class));
+    }
+
+    /**
+     * Returns handle of type <code>(ResultSet)typeClass</code> that reads column by the mapping generated at compile
+     * time. NULL value of the primitive type is read as zero or false.
+     *
+     * @param mapping   table mapping
+     * @param column    column name
+     * @param typeClass type of the value
+     * @param index     column index in the result set
+     */
+    MethodHandle getReaderHandle(TableMapping<?> mapping, String column, Class<?> typeClass, int index) {
+        // (ResultSet, int) -> Object
+        var reader = MethodHandles.insertArguments(READ_MAPPED_COLUMN, 0, mapping, column);
+        return MethodHandles.explicitCastArguments(MethodHandles.insertArguments(reader, 1, index),
+            MethodType.methodType(typeClass, ResultSet.class));
+    }
+
+    ColumnWriter<?> getWriter(Class<?> typeClass) {
+        return getWriter(typeClass, null);
+    }
+
+    /**
+     * Returns writer of the column. Enum columns are encoded according to {@link Column#enumStorage()}.
+     *
+     * @param typeClass field type
+     * @param column    column annotation, null means defaults
+     */
+    ColumnWriter<?> getWriter(Class<?> typeClass, Column column) {
+        if (typeClass.isEnum()) {
+            return EnumCodec.of(typeClass).getWriter(column);
+        }
+
+        if (isBinaryUuid(typeClass, column)) {
+            return column.swapUuidTime() ? UUID_SWAPPED_WRITER : UUID_BINARY_WRITER;
+        }
+
+        var writer = STATEMENT_WRITERS.get(typeClass.getTypeName());
+        if (writer == null) {
+            throw new IllegalStateException(BAD_FIELD_TYPE + typeClass.getTypeName());
+        }
+        return writer;
+    }
+
+    /**
+     * Returns writer of the column that accepts values of the field type.
+     *
+     * @param typeClass field type
+     * @param column    column annotation, null means defaults
+     */
+    @SuppressWarnings("unchecked")
+    ColumnWriter<Object> getObjectWriter(Class<?> typeClass, Column column) {
+        return (ColumnWriter<Object>) getWriter(typeClass, column);
+    }
+
+    /**
+     * Returns method handle of type <code>(PreparedStatement,typeClass)void</code> that sets statement parameter
+     * with the specified index. Primitive values are set without boxing.
+     */
+    MethodHandle getWriterHandle(Class<?> typeClass, Column column, int index) {
+        var writer = PRIMITIVE_WRITERS.get(typeClass.getTypeName());
+        if (writer == null) {
+            writer = WRITE_COLUMN.bindTo(getWriter(typeClass, column));
+        }
+
+        return MethodHandles.insertArguments(writer, 1, index)
+            .asType(MethodType.methodType(void.class, PreparedStatement.class, typeClass));
     }
 
     String buildForeignKey(Column column, ForeignKey key) {
@@ -116,9 +272,10 @@ class MySqlProxy {
         return fk.toString();
     }
 
-    String getColumnString(Column column, PrimaryKey primaryKey, ForeignKey foreignKey, String typeName,
+    String getColumnString(Column column, PrimaryKey primaryKey, ForeignKey foreignKey, Class<?> type,
                            List<String> constraints)
     {
+        var typeName = type.isEnum() ? TYPE_ENUM : type.getTypeName();
         var b = new StringBuilder();
 
         switch (typeName) {
@@ -132,9 +289,7 @@ class MySqlProxy {
                 }
                 break;
             case TYPE_ENUM:
-                b.append("VARCHAR(")
-                    .append(column.length())
-                    .append(")");
+                b.append(EnumCodec.of(type).getColumnType(column));
                 break;
             case TYPE_BOOL:
             case TYPE_BOOLEAN:
@@ -202,124 +357,11 @@ class MySqlProxy {
         }
     }
 
-    void setFieldData(PreparedStatement st, int index, Object value, String typeName) throws SQLException {
-        switch (typeName) {
-            case TYPE_STRING:
-                if (value == null) {
-                    st.setNull(index, Types.VARCHAR);
-                } else {
-                    st.setString(index, (String) value);
-                }
-                break;
-            case TYPE_UUID:
-                if (value == null) {
-                    st.setNull(index, Types.VARCHAR);
-                } else {
-                    st.setString(index, value.toString());
-                }
-                break;
-            case TYPE_BOOL:
-            case TYPE_BOOLEAN:
-                if (value == null) {
-                    st.setNull(index, Types.BOOLEAN);
-                } else {
-                    st.setBoolean(index, (Boolean) value);
-                }
-                break;
-            case TYPE_INTEGER:
-            case TYPE_INT:
-                if (value == null) {
-                    st.setNull(index, Types.INTEGER);
-                } else {
-                    st.setInt(index, (Integer) value);
-                }
-                break;
-            case TYPE_LONG:
-            case TYPE_LONG_PRIM:
-                if (value == null) {
-                    st.setNull(index, Types.INTEGER);
-                } else {
-                    st.setLong(index, (Long) value);
-                }
-                break;
-            case TYPE_DATE:
-                if (value == null) {
-                    st.setNull(index, Types.INTEGER);
-                } else {
-                    st.setLong(index, ((Date) value).getTime());
-                }
-                break;
-            case TYPE_LOCAL_DATE:
-                if (value == null) {
-                    st.setNull(index, Types.INTEGER);
-                } else {
-                    st.setLong(index, ((LocalDate) value).toEpochDay());
-                }
-                break;
-            case TYPE_BIG_DECIMAL:
-                if (value == null) {
-                    st.setNull(index, Types.DECIMAL);
-                } else {
-                    st.setBigDecimal(index, (BigDecimal) value);
-                }
-                break;
-            case TYPE_ENUM:
-                if (value == null) {
-                    st.setNull(index, Types.VARCHAR);
-                } else {
-                    st.setString(index, ((Enum) value).name());
-                }
-                break;
-            case TYPE_BYTE_ARRAY:
-                if (value == null) {
-                    st.setNull(index, Types.VARBINARY);
-                } else {
-                    st.setBytes(index, (byte[]) value);
-                }
-                break;
-            default:
-                throw new IllegalStateException(BAD_FIELD_TYPE + typeName);
-        }
-    }
-
-    String getSelectColumnString(Field field) {
-        var column = field.getAnnotation(Column.class);
-        Objects.requireNonNull(column, FIELD_NOT_ANNOTATED + field.getName());
-
-        if (field.getType().getTypeName().equals(TYPE_UUID) && column.storeUuidAsBinary()) {
-            return "BIN_TO_UUID(" + column.value() + ") AS " + column.value();
-        } else {
-            return column.value();
-        }
-    }
-
-    String getInsertColumnPattern(Field field) {
-        var column = field.getAnnotation(Column.class);
-        Objects.requireNonNull(column, FIELD_NOT_ANNOTATED + field.getName());
-
-        if (field.getType().getTypeName().equals(TYPE_UUID) && column.storeUuidAsBinary()) {
-            return "UUID_TO_BIN(?)";
-        } else {
-            return "?";
-        }
-    }
-
-    String getUpdateColumnPattern(Field field) {
-        return getInsertColumnPattern(field);
-    }
-
-    String getWhereColumnString(Field field) {
-        var column = field.getAnnotation(Column.class);
-        Objects.requireNonNull(column, FIELD_NOT_ANNOTATED + field.getName());
-
-        if (field.getType().getTypeName().equals(TYPE_UUID) && column.storeUuidAsBinary()) {
-            return "BIN_TO_UUID(" + column.value() + ")";
-        } else {
-            return column.value();
-        }
+    private static boolean isBinaryUuid(Class<?> typeClass, Column column) {
+        return column != null && column.storeUuidAsBinary() && typeClass.getTypeName().equals(TYPE_UUID);
     }
 
-    String buildIndex(Table table, Field field) {
+    String buildIndex(String tableName, Field field) {
         var column = field.getAnnotation(Column.class);
         var index = field.getAnnotation(Index.class);
 
@@ -331,7 +373,7 @@ class MySqlProxy {
         b.append("INDEX ")
             .append(index.value())
             .append(" ON ")
-            .append(table.value())
+            .append(tableName)
             .append(" (")
             .append(column.value())
             .append(")");
@@ -0,0 +1,54 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+
+/**
+ * Prepared statement view that shifts parameter indexes. Allows binders written for a single row statement to set
+ * parameters of the subsequent rows of the multi-row statement.
+ */
+final class OffsetStatement implements InvocationHandler {
+    private final PreparedStatement statement;
+    private final PreparedStatement view;
+    private int offset;
+
+    OffsetStatement(PreparedStatement statement) {
+        this.statement = statement;
+        view = (PreparedStatement) Proxy.newProxyInstance(OffsetStatement.class.getClassLoader(),
+            new Class<?>[]{PreparedStatement.class}, this);
+    }
+
+    /**
+     * Returns statement view with shifted parameter indexes.
+     */
+    PreparedStatement view() {
+        return view;
+    }
+
+    void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        // Parameter setters: setXxx(int parameterIndex, value, ...)
+        if (args != null && args.length >= 2 && method.getName().startsWith("set")
+            && method.getParameterTypes()[0] == int.class)
+        {
+            args[0] = (Integer) args[0] + offset;
+        }
+
+        try {
+            return method.invoke(statement, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
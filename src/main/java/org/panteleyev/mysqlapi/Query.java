@@ -0,0 +1,321 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.DataWriters.ColumnWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * <p>Query that selects records of the single table matching all specified conditions. Queries are created by
+ * {@link MySqlClient#query(Class)}.</p>
+ * <p>Columns are referred by their names, see {@link org.panteleyev.mysqlapi.annotations.Column#value()}. Values
+ * must be of the type of the corresponding field, they are bound as statement parameters the same way as values of
+ * inserted records. Statement depends only on the shape of the query, i.e. on columns, conditions and number of
+ * values in IN lists, thus statements are reused by queries of the same shape.</p>
+ *
+ * <pre>{@code
+ * var books = client.query(Book.class)
+ *     .equalTo("author_id", authorId)
+ *     .between("published", from, to)
+ *     .orderBy("title")
+ *     .limit(100)
+ *     .list();
+ * }</pre>
+ *
+ * @param <T> type of the record
+ */
+@SuppressWarnings("rawtypes")
+public final class Query<T extends TableRecord> {
+    private final MySqlClient client;
+    private final Class<T> clazz;
+    private final TableMetadata metadata;
+
+    private final List<String> conditions = new ArrayList<>();
+    private final List<String> orderBy = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+    private final List<ColumnWriter<Object>> writers = new ArrayList<>();
+    private int limit;
+
+    Query(MySqlClient client, Class<T> clazz) {
+        this.client = client;
+        this.clazz = clazz;
+        metadata = TableMetadata.of(clazz);
+    }
+
+    /**
+     * Adds condition <code>column = value</code>. Null value adds condition <code>column IS NULL</code>.
+     *
+     * @param column column name
+     * @param value  value
+     * @return {@code this}
+     */
+    public Query<T> equalTo(String column, Object value) {
+        return value == null ? isNull(column) : compare(column, "=?", value);
+    }
+
+    /**
+     * Adds condition <code>column &lt;&gt; value</code>. Null value adds condition <code>column IS NOT NULL</code>.
+     *
+     * @param column column name
+     * @param value  value
+     * @return {@code this}
+     */
+    public Query<T> notEqualTo(String column, Object value) {
+        return value == null ? isNotNull(column) : compare(column, "<>?", value);
+    }
+
+    /**
+     * Adds condition <code>column &gt; value</code>.
+     *
+     * @param column column name
+     * @param value  value
+     * @return {@code this}
+     */
+    public Query<T> greaterThan(String column, Object value) {
+        return compare(column, ">?", value);
+    }
+
+    /**
+     * Adds condition <code>column &gt;= value</code>.
+     *
+     * @param column column name
+     * @param value  value
+     * @return {@code this}
+     */
+    public Query<T> greaterOrEqual(String column, Object value) {
+        return compare(column, ">=?", value);
+    }
+
+    /**
+     * Adds condition <code>column &lt; value</code>.
+     *
+     * @param column column name
+     * @param value  value
+     * @return {@code this}
+     */
+    public Query<T> lessThan(String column, Object value) {
+        return compare(column, "<?", value);
+    }
+
+    /**
+     * Adds condition <code>column &lt;= value</code>.
+     *
+     * @param column column name
+     * @param value  value
+     * @return {@code this}
+     */
+    public Query<T> lessOrEqual(String column, Object value) {
+        return compare(column, "<=?", value);
+    }
+
+    /**
+     * Adds condition <code>column BETWEEN from AND to</code>, both boundaries are inclusive.
+     *
+     * @param column column name
+     * @param from   lower boundary
+     * @param to     upper boundary
+     * @return {@code this}
+     */
+    public Query<T> between(String column, Object from, Object to) {
+        metadata.checkQueryColumn(column);
+        conditions.add(column + " BETWEEN ? AND ?");
+        addValue(column, from);
+        addValue(column, to);
+        return this;
+    }
+
+    /**
+     * Adds condition <code>column IN (values)</code>. Empty collection matches no records. Number of values in the
+     * statement is rounded up to a power of two by repeating the last value, thus lists of different length share
+     * a few statements.
+     *
+     * @param column   column name
+     * @param inValues values
+     * @return {@code this}
+     */
+    public Query<T> in(String column, Collection<?> inValues) {
+        metadata.checkQueryColumn(column);
+        if (inValues.isEmpty()) {
+            conditions.add("FALSE");
+            return this;
+        }
+
+        var list = new ArrayList<Object>(inValues);
+        var size = list.size() == 1 ? 1 : Integer.highestOneBit(list.size() - 1) << 1;
+        var b = new StringBuilder(column.length() + 2 * size + 5).append(column).append(" IN (?");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                b.append(",?");
+            }
+            addValue(column, list.get(Math.min(i, list.size() - 1)));
+        }
+        conditions.add(b.append(')').toString());
+        return this;
+    }
+
+    /**
+     * Adds condition <code>column IS NULL</code>.
+     *
+     * @param column column name
+     * @return {@code this}
+     */
+    public Query<T> isNull(String column) {
+        conditions.add(metadata.checkQueryColumn(column) + " IS NULL");
+        return this;
+    }
+
+    /**
+     * Adds condition <code>column IS NOT NULL</code>.
+     *
+     * @param column column name
+     * @return {@code this}
+     */
+    public Query<T> isNotNull(String column) {
+        conditions.add(metadata.checkQueryColumn(column) + " IS NOT NULL");
+        return this;
+    }
+
+    /**
+     * Sorts records by column in ascending order. Records are sorted by columns in the order of calls.
+     *
+     * @param column column name
+     * @return {@code this}
+     */
+    public Query<T> orderBy(String column) {
+        return orderBy(column, SortOrder.ASCENDING);
+    }
+
+    /**
+     * Sorts records by column. Records are sorted by columns in the order of calls.
+     *
+     * @param column column name
+     * @param order  sort order
+     * @return {@code this}
+     */
+    public Query<T> orderBy(String column, SortOrder order) {
+        orderBy.add(metadata.checkQueryColumn(column) + " " + order.getSql());
+        return this;
+    }
+
+    /**
+     * Limits number of returned records.
+     *
+     * @param limit maximum number of records, zero means no limit
+     * @return {@code this}
+     */
+    public Query<T> limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Limit must be >= 0");
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    /**
+     * Retrieves records matching the query.
+     *
+     * @return list of records
+     */
+    public List<T> list() {
+        try (var conn = client.getConnection()) {
+            return list(conn);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Retrieves records matching the query using provided connection.
+     *
+     * @param conn connection
+     * @return list of records
+     */
+    public List<T> list(Connection conn) {
+        return execute(conn, limit);
+    }
+
+    /**
+     * Retrieves the first record matching the query.
+     *
+     * @return record
+     */
+    public Optional<T> first() {
+        try (var conn = client.getConnection()) {
+            return first(conn);
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Retrieves the first record matching the query using provided connection.
+     *
+     * @param conn connection
+     * @return record
+     */
+    public Optional<T> first(Connection conn) {
+        var result = execute(conn, 1);
+        return result.isEmpty() ? Optional.empty() : Optional.of(result.get(0));
+    }
+
+    /**
+     * Returns statement of the query with the specified limit.
+     */
+    String getSql(int limit) {
+        var b = new StringBuilder();
+        if (!conditions.isEmpty()) {
+            b.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        if (!orderBy.isEmpty()) {
+            b.append(" ORDER BY ").append(String.join(",", orderBy));
+        }
+        if (limit > 0) {
+            b.append(" LIMIT ?");
+        }
+        return metadata.getQuerySql(b.toString());
+    }
+
+    private List<T> execute(Connection conn, int limit) {
+        var mapper = client.getRowMapper(clazz);
+        try (var lease = StatementCache.lease(conn, getSql(limit))) {
+            var st = lease.statement();
+            int index = 1;
+            for (int i = 0; i < values.size(); i++) {
+                writers.get(i).write(st, index++, values.get(i));
+            }
+            if (limit > 0) {
+                st.setInt(index, limit);
+            }
+
+            try (var set = st.executeQuery()) {
+                var result = new ArrayList<T>();
+                while (set.next()) {
+                    result.add(mapper.map(set));
+                }
+                return result;
+            }
+        } catch (SQLException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    private Query<T> compare(String column, String operator, Object value) {
+        conditions.add(metadata.checkQueryColumn(column) + operator);
+        addValue(column, value);
+        return this;
+    }
+
+    private void addValue(String column, Object value) {
+        Objects.requireNonNull(value, "Value of " + column + " must not be null");
+        values.add(value);
+        writers.add(client.getQueryWriter(clazz, column));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import java.lang.invoke.MethodHandle;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of the result set to the record. Mappers are built once per table class so all
+ * type dependent decisions are made in advance. Columns are read by their position in the select list built
+ * by {@link MySqlClient#getSelectAllSql(Class)}, thus result set must be produced by that query.
+ *
+ * @param <T> type of the record
+ */
+@SuppressWarnings("rawtypes")
+interface RowMapper<T extends TableRecord> {
+    /**
+     * Reads single column of the current row into the record.
+     */
+    @FunctionalInterface
+    interface ColumnMapper {
+        void map(ResultSet set, Object record) throws SQLException;
+    }
+
+    /**
+     * Mapper for classes deserialized by direct field assignment.
+     */
+    record FieldRowMapper<T extends TableRecord>(MethodHandle constructor, ColumnMapper[] columns)
+        implements RowMapper<T>
+    {
+        @Override
+        public T map(ResultSet set) throws SQLException {
+            T record;
+            try {
+                //noinspection unchecked
+                record = (T) constructor.invoke();
+            } catch (Throwable ex) {
+                throw new RuntimeException(ex);
+            }
+
+            for (var column : columns) {
+                column.map(set, record);
+            }
+            return record;
+        }
+    }
+
+    /**
+     * Mapper for classes deserialized by constructor. Each row is mapped by a single invocation of
+     * {@link MySqlClient.ConstructorHandle#invoker()}.
+     */
+    record ConstructorRowMapper<T extends TableRecord>(MethodHandle invoker) implements RowMapper<T> {
+        @Override
+        public T map(ResultSet set) throws SQLException {
+            try {
+                @SuppressWarnings("unchecked")
+                var record = (T) (TableRecord) invoker.invokeExact(set);
+                return record;
+            } catch (SQLException | RuntimeException ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+    }
+
+    T map(ResultSet set) throws SQLException;
+}
@@ -0,0 +1,128 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.annotations.Column;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+
+/**
+ * <p>Estimates number of bytes a record takes in the text of the multi-row insert statement.</p>
+ * <p>Estimate is an upper bound for typical values: strings are counted as three bytes per character, binary values
+ * as two hex digits per byte. Columns of fixed size are counted once when estimator is built. Classes whose fields
+ * cannot be accessed, for example classes of the module not opened to this library, are estimated by number of
+ * columns only.</p>
+ */
+final class RowSizeEstimator {
+    // Row delimiters: "(", ")" and ","
+    private static final int ROW_OVERHEAD = 3;
+    // Value and "," delimiter
+    private static final int FIXED_COLUMN_SIZE = 25;
+    // Estimate of a column of unknown size
+    private static final int DEFAULT_COLUMN_SIZE = 256;
+    private static final int NULL_SIZE = 5;
+
+    private static final int STRING = 0;
+    private static final int BYTES = 1;
+    private static final int DECIMAL = 2;
+    private static final int ENUM = 3;
+
+    private static final ClassValue<RowSizeEstimator> ESTIMATORS = new ClassValue<>() {
+        @Override
+        protected RowSizeEstimator computeValue(Class<?> type) {
+            return new RowSizeEstimator(type);
+        }
+    };
+
+    private final int fixedSize;
+    private final VarHandle[] handles;
+    private final int[] kinds;
+
+    static RowSizeEstimator of(Class<?> clazz) {
+        return ESTIMATORS.get(clazz);
+    }
+
+    private RowSizeEstimator(Class<?> clazz) {
+        var handleList = new ArrayList<VarHandle>();
+        var kindList = new ArrayList<Integer>();
+        int fixed = ROW_OVERHEAD;
+        int columnCount = 0;
+
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+        } catch (IllegalAccessException ex) {
+            lookup = null;
+        }
+
+        for (var field : clazz.getDeclaredFields()) {
+            if (!field.isAnnotationPresent(Column.class)) {
+                continue;
+            }
+            columnCount++;
+
+            var type = field.getType();
+            int kind;
+            if (type == String.class) {
+                kind = STRING;
+            } else if (type == byte[].class) {
+                kind = BYTES;
+            } else if (type == BigDecimal.class) {
+                kind = DECIMAL;
+            } else if (type.isEnum()) {
+                kind = ENUM;
+            } else {
+                fixed += FIXED_COLUMN_SIZE;
+                continue;
+            }
+
+            if (lookup == null) {
+                fixed += DEFAULT_COLUMN_SIZE;
+                continue;
+            }
+            try {
+                handleList.add(lookup.unreflectVarHandle(field));
+                kindList.add(kind);
+            } catch (IllegalAccessException ex) {
+                fixed += DEFAULT_COLUMN_SIZE;
+            }
+        }
+
+        if (columnCount == 0) {
+            // Columns are not declared by fields, e.g. class is described by mapping only
+            fixed += DEFAULT_COLUMN_SIZE;
+        }
+
+        fixedSize = fixed;
+        handles = handleList.toArray(new VarHandle[0]);
+        kinds = kindList.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Returns estimated number of bytes of the record values.
+     *
+     * @param record record
+     * @return estimated size
+     */
+    int estimate(Object record) {
+        int size = fixedSize;
+        for (int i = 0; i < handles.length; i++) {
+            var value = (Object) handles[i].get(record);
+            if (value == null) {
+                size += NULL_SIZE;
+                continue;
+            }
+            size += switch (kinds[i]) {
+                case STRING -> 3 * ((String) value).length() + 3;
+                case BYTES -> 2 * ((byte[]) value).length + 4;
+                case DECIMAL -> ((BigDecimal) value).precision() + 4;
+                default -> ((Enum<?>) value).name().length() + 3;
+            };
+        }
+        return size;
+    }
+}
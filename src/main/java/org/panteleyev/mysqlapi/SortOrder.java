@@ -0,0 +1,35 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+/**
+ * Sort order of the retrieved records.
+ */
+public enum SortOrder {
+    /**
+     * Ascending order, <code>ASC</code>.
+     */
+    ASCENDING("ASC"),
+
+    /**
+     * Descending order, <code>DESC</code>.
+     */
+    DESCENDING("DESC");
+
+    private final String sql;
+
+    SortOrder(String sql) {
+        this.sql = sql;
+    }
+
+    /**
+     * Returns SQL keyword of the order.
+     *
+     * @return SQL keyword
+     */
+    public String getSql() {
+        return sql;
+    }
+}
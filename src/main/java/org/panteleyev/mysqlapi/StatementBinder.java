@@ -0,0 +1,50 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Sets column values of the record as statement parameters. Binders are built once per table class so all
+ * type dependent decisions are made in advance. Parameters are set in the order of the statements built by
+ * {@link MySqlClient#getInsertSQL(TableRecord)} and {@link MySqlClient#getUpdateSQL(TableRecord)}.
+ *
+ * @param insert binders of the insert statement parameters
+ * @param update binders of the update statement parameters, primary key is the last one
+ */
+record StatementBinder(ColumnBinder[] insert, ColumnBinder[] update) {
+    /**
+     * Reads single column of the record and sets it as statement parameter.
+     */
+    @FunctionalInterface
+    interface ColumnBinder {
+        void bind(PreparedStatement st, int index, Object record) throws SQLException;
+    }
+
+    void bindInsert(TableRecord<?> record, PreparedStatement st) throws SQLException {
+        bind(insert, record, st, 0);
+    }
+
+    /**
+     * Sets parameters of the record starting after the specified offset, i.e. parameters of the subsequent row of
+     * the multi-row insert statement.
+     */
+    void bindInsert(TableRecord<?> record, PreparedStatement st, int offset) throws SQLException {
+        bind(insert, record, st, offset);
+    }
+
+    void bindUpdate(TableRecord<?> record, PreparedStatement st) throws SQLException {
+        bind(update, record, st, 0);
+    }
+
+    private static void bind(ColumnBinder[] binders, TableRecord<?> record, PreparedStatement st, int offset)
+        throws SQLException
+    {
+        for (int i = 0; i < binders.length; i++) {
+            binders[i].bind(st, offset + i + 1, record);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>Bounded LRU cache of prepared statements of a single connection, keyed by SQL.</p>
+ * <p>Cache is attached to the connection proxy returned by {@link #wrap}. Statements are closed when evicted or
+ * when the connection is closed. Statement that is in use is never handed out twice: second request for the same
+ * SQL gets a new statement that is closed after use.</p>
+ * <p>Lock guards the map only, statements are prepared, cleared and closed outside of it. JDBC calls may go to the
+ * server and must not block other threads or pin virtual threads.</p>
+ */
+final class StatementCache implements InvocationHandler {
+    /**
+     * Statement obtained from the cache or directly from the connection. Closing the lease returns cached statement
+     * to the cache and closes other statements.
+     */
+    static final class Lease implements AutoCloseable {
+        private final PreparedStatement statement;
+        private final StatementCache cache;
+        private final String sql;
+
+        private Lease(PreparedStatement statement, StatementCache cache, String sql) {
+            this.statement = statement;
+            this.cache = cache;
+            this.sql = sql;
+        }
+
+        PreparedStatement statement() {
+            return statement;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            if (cache == null) {
+                statement.close();
+            } else {
+                cache.release(sql, statement);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final PreparedStatement statement;
+        private boolean leased;
+
+        Entry(PreparedStatement statement) {
+            this.statement = statement;
+        }
+    }
+
+    private final Connection connection;
+    private final int capacity;
+    private final Map<String, Entry> statements;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder totalHits;
+    private final LongAdder totalMisses;
+    private long hits;
+    private long misses;
+
+    private StatementCache(Connection connection, int capacity, LongAdder totalHits, LongAdder totalMisses) {
+        this.connection = connection;
+        this.capacity = capacity;
+        this.totalHits = totalHits;
+        this.totalMisses = totalMisses;
+        statements = new LinkedHashMap<>(capacity * 2, 0.75f, true);
+    }
+
+    /**
+     * Returns connection that caches statements prepared by {@link #lease(Connection, String)}.
+     *
+     * @param connection  connection
+     * @param capacity    maximum number of cached statements
+     * @param totalHits   counter of cache hits shared between connections
+     * @param totalMisses counter of cache misses shared between connections
+     * @return connection proxy
+     */
+    static Connection wrap(Connection connection, int capacity, LongAdder totalHits, LongAdder totalMisses) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Statement cache size must be >= 1");
+        }
+        return (Connection) Proxy.newProxyInstance(StatementCache.class.getClassLoader(),
+            new Class<?>[]{Connection.class}, new StatementCache(connection, capacity, totalHits, totalMisses));
+    }
+
+    /**
+     * Returns cache attached to the connection or to the physical connection of the pooled one.
+     *
+     * @param connection connection
+     * @return cache or null if connection is not returned by {@link #wrap}
+     */
+    static StatementCache of(Connection connection) {
+        if (connection == null || !Proxy.isProxyClass(connection.getClass())) {
+            return null;
+        }
+        var handler = Proxy.getInvocationHandler(connection);
+        if (handler instanceof StatementCache cache) {
+            return cache;
+        }
+        return handler instanceof ConnectionPool.Handle handle ? of(handle.delegate()) : null;
+    }
+
+    /**
+     * Returns prepared statement for the SQL. Statement is taken from the cache if connection has one.
+     *
+     * @param connection connection
+     * @param sql        SQL statement
+     * @return statement lease, must be closed after use
+     * @throws SQLException in case of SQL error
+     */
+    static Lease lease(Connection connection, String sql) throws SQLException {
+        var cache = of(connection);
+        return cache == null ? new Lease(connection.prepareStatement(sql), null, sql) : cache.lease(sql);
+    }
+
+    Lease lease(String sql) throws SQLException {
+        lock.lock();
+        try {
+            var entry = statements.get(sql);
+            if (entry != null && !entry.leased) {
+                hits++;
+                totalHits.increment();
+                entry.leased = true;
+                return new Lease(entry.statement, this, sql);
+            }
+            misses++;
+            totalMisses.increment();
+        } finally {
+            lock.unlock();
+        }
+
+        var statement = connection.prepareStatement(sql);
+        List<PreparedStatement> evicted;
+        lock.lock();
+        try {
+            if (statements.containsKey(sql)) {
+                // Statement is in use, this one is closed on release
+                return new Lease(statement, this, sql);
+            }
+
+            var newEntry = new Entry(statement);
+            newEntry.leased = true;
+            statements.put(sql, newEntry);
+            evicted = evict();
+        } finally {
+            lock.unlock();
+        }
+
+        var lease = new Lease(statement, this, sql);
+        try {
+            close(evicted);
+        } catch (SQLException ex) {
+            try {
+                lease.close();
+            } catch (SQLException closeException) {
+                ex.addSuppressed(closeException);
+            }
+            throw ex;
+        }
+        return lease;
+    }
+
+    private void release(String sql, PreparedStatement statement) throws SQLException {
+        try {
+            // Values of the previous lease, e.g. large blobs, must not be kept by the cache
+            statement.clearParameters();
+        } catch (SQLException ex) {
+            remove(sql, statement);
+            try {
+                statement.close();
+            } catch (SQLException closeException) {
+                ex.addSuppressed(closeException);
+            }
+            throw ex;
+        }
+
+        boolean cached;
+        lock.lock();
+        try {
+            var entry = statements.get(sql);
+            cached = entry != null && entry.statement == statement;
+            if (cached) {
+                entry.leased = false;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (!cached) {
+            // Evicted while in use or not cached at all
+            statement.close();
+        }
+    }
+
+    private void remove(String sql, PreparedStatement statement) {
+        lock.lock();
+        try {
+            var entry = statements.get(sql);
+            if (entry != null && entry.statement == statement) {
+                statements.remove(sql);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes eldest entries above capacity. Must be called under lock.
+     *
+     * @return statements to close, leased ones are closed on release
+     */
+    private List<PreparedStatement> evict() {
+        var evicted = new ArrayList<PreparedStatement>();
+        var iterator = statements.values().iterator();
+        while (statements.size() > capacity && iterator.hasNext()) {
+            var eldest = iterator.next();
+            iterator.remove();
+            if (!eldest.leased) {
+                evicted.add(eldest.statement);
+            }
+        }
+        return evicted;
+    }
+
+    long getHits() {
+        lock.lock();
+        try {
+            return hits;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getMisses() {
+        lock.lock();
+        try {
+            return misses;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return statements.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeAll() throws SQLException {
+        var closed = new ArrayList<PreparedStatement>();
+        lock.lock();
+        try {
+            for (var entry : statements.values()) {
+                closed.add(entry.statement);
+            }
+            statements.clear();
+        } finally {
+            lock.unlock();
+        }
+        close(closed);
+    }
+
+    private static void close(List<PreparedStatement> closed) throws SQLException {
+        SQLException exception = null;
+        for (var statement : closed) {
+            try {
+                statement.close();
+            } catch (SQLException ex) {
+                if (exception == null) {
+                    exception = ex;
+                } else {
+                    exception.addSuppressed(ex);
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "close":
+                if (method.getParameterCount() == 0) {
+                    try {
+                        closeAll();
+                    } finally {
+                        connection.close();
+                    }
+                    return null;
+                }
+                break;
+            case "equals":
+                if (method.getParameterCount() == 1) {
+                    return proxy == args[0];
+                }
+                break;
+            case "hashCode":
+                if (method.getParameterCount() == 0) {
+                    return System.identityHashCode(proxy);
+                }
+                break;
+        }
+
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getCause();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>Mapping of the table class generated at compile time by <code>java-api-for-mysql-processor</code>.</p>
+ * <p>{@link MySqlClient} discovers implementations by means of {@link java.util.ServiceLoader} and uses them instead
+ * of reflection for the corresponding table classes. Annotation processor registers generated classes in
+ * <code>META-INF/services</code>. Modular applications must declare them in <code>module-info.java</code>:</p>
+ * <pre><code>
+ * provides org.panteleyev.mysqlapi.TableMapping with org.example.Book_TableMapping;
+ * </code></pre>
+ *
+ * @param <T> type of the record
+ */
+@SuppressWarnings("rawtypes")
+public interface TableMapping<T extends TableRecord> {
+    /**
+     * Returns table class.
+     *
+     * @return table class
+     */
+    Class<T> getTableClass();
+
+    /**
+     * Returns table name.
+     *
+     * @return table name
+     */
+    String getTableName();
+
+    /**
+     * Returns name of the primary key column.
+     *
+     * @return primary key column or null if table does not have primary key
+     */
+    String getPrimaryKeyColumn();
+
+    /**
+     * Returns type of the primary key.
+     *
+     * @return primary key type or null if table does not have primary key
+     */
+    Class<?> getPrimaryKeyType();
+
+    /**
+     * Returns if primary key is auto-incremented.
+     *
+     * @return if primary key is auto-incremented
+     */
+    boolean isAutoIncrement();
+
+    /**
+     * Returns query that selects all columns. Row mapper expects columns in this order.
+     *
+     * @return SQL query
+     */
+    String getSelectAllSql();
+
+    /**
+     * Returns query that selects all columns of the record with the given primary key.
+     *
+     * @return SQL query
+     * @throws IllegalStateException if table does not have primary key
+     */
+    String getSelectByIdSql();
+
+    /**
+     * Returns insert statement.
+     *
+     * @return SQL statement
+     */
+    String getInsertSql();
+
+    /**
+     * Returns update statement.
+     *
+     * @return SQL statement
+     * @throws IllegalStateException if table does not have primary key
+     */
+    String getUpdateSql();
+
+    /**
+     * Returns delete statement.
+     *
+     * @return SQL statement
+     * @throws IllegalStateException if table does not have primary key
+     */
+    String getDeleteSql();
+
+    /**
+     * Returns statements that create table and its indexes.
+     *
+     * @return list of SQL statements
+     */
+    List<String> getCreateTableSql();
+
+    /**
+     * Returns names of the columns in the order of the select list and insert statement parameters.
+     *
+     * @return column names
+     */
+    List<String> getColumnNames();
+
+    /**
+     * Returns fetch profiles defined by <code>@FetchProfile</code> annotations of the table class.
+     *
+     * @return retrieved columns by profile name
+     */
+    Map<String, List<String>> getFetchProfiles();
+
+    /**
+     * Returns if column values are bound as bytes. This is true for byte arrays and UUIDs stored as binary.
+     *
+     * @param column column name
+     * @return if column is binary
+     */
+    boolean isBinaryColumn(String column);
+
+    /**
+     * Creates record from the current row of the result set produced by {@link #getSelectAllSql()}.
+     *
+     * @param set result set
+     * @return record
+     * @throws SQLException in case of SQL error
+     */
+    T map(ResultSet set) throws SQLException;
+
+    /**
+     * Reads column value from the result set. Value is converted the same way as the field value is in
+     * {@link #map(ResultSet)}.
+     *
+     * @param column column name
+     * @param set    result set
+     * @param index  column index in the result set
+     * @return column value, primitive values are boxed
+     * @throws SQLException             in case of SQL error
+     * @throws IllegalArgumentException if column is unknown
+     */
+    Object readColumn(String column, ResultSet set, int index) throws SQLException;
+
+    /**
+     * Sets parameters of the statement produced by {@link #getInsertSql()}.
+     *
+     * @param record record
+     * @param st     statement
+     * @throws SQLException in case of SQL error
+     */
+    void bindInsert(T record, PreparedStatement st) throws SQLException;
+
+    /**
+     * Sets parameters of the statement produced by {@link #getUpdateSql()}.
+     *
+     * @param record record
+     * @param st     statement
+     * @throws SQLException in case of SQL error
+     */
+    void bindUpdate(T record, PreparedStatement st) throws SQLException;
+
+    /**
+     * Sets column value as statement parameter. Value is converted the same way as the field value is in insert and
+     * update statements.
+     *
+     * @param column column name
+     * @param value  column value
+     * @param st     statement
+     * @param index  parameter index
+     * @throws SQLException             in case of SQL error
+     * @throws IllegalArgumentException if column is unknown
+     */
+    void bindColumn(String column, Object value, PreparedStatement st, int index) throws SQLException;
+
+    /**
+     * Sets primary key value as statement parameter.
+     *
+     * @param key   primary key value
+     * @param st    statement
+     * @param index parameter index
+     * @throws SQLException in case of SQL error
+     */
+    void bindPrimaryKey(Object key, PreparedStatement st, int index) throws SQLException;
+
+    /**
+     * Returns primary key value of the record.
+     *
+     * @param record record
+     * @return primary key value
+     * @throws IllegalStateException if table does not have primary key
+     */
+    Object getPrimaryKey(T record);
+}
@@ -0,0 +1,815 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.annotations.Column;
+import org.panteleyev.mysqlapi.annotations.FetchProfile;
+import org.panteleyev.mysqlapi.annotations.ForeignKey;
+import org.panteleyev.mysqlapi.annotations.Index;
+import org.panteleyev.mysqlapi.annotations.PrimaryKey;
+import org.panteleyev.mysqlapi.annotations.Table;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * <p>Immutable description of the table class: ordered columns, primary key, indexes and foreign keys together with
+ * all SQL statements derived from them.</p>
+ * <p>Metadata is built once per class from its annotations, or taken from {@link TableMapping} generated at compile
+ * time, and stored in a {@link ClassValue}. This is the only place where table classes are inspected by
+ * reflection.</p>
+ */
+final class TableMetadata {
+    /**
+     * Table column backed by the field of the table class.
+     *
+     * @param name       column name
+     * @param column     column annotation
+     * @param field      field
+     * @param handle     field handle
+     * @param primaryKey primary key annotation or null
+     */
+    record ColumnMetadata(String name, Column column, Field field, VarHandle handle, PrimaryKey primaryKey) {
+        Class<?> type() {
+            return field.getType();
+        }
+
+        /**
+         * Returns if column values are bound as bytes: byte arrays and UUIDs stored as binary.
+         */
+        boolean binary() {
+            return type() == byte[].class || (type() == UUID.class && column.storeUuidAsBinary());
+        }
+    }
+
+    /**
+     * Session temporary table that holds primary keys of the records to select.
+     *
+     * @param name      table name
+     * @param createSql statement that creates table with the single primary key column
+     * @param selectSql statement that selects records with primary keys found in the table
+     * @param dropSql   statement that drops the table
+     */
+    record TemporaryKeyTable(String name, String createSql, String selectSql, String dropSql) {
+    }
+
+    /**
+     * <p>Subset of columns retrieved together, either named fetch profile or columns of the projection record.</p>
+     * <p>Statements of the mapped classes select all columns in the order of {@link TableMapping#getColumnNames()}
+     * with NULL in place of the columns not retrieved. Rows are then read by the mapping itself.</p>
+     *
+     * @param name          profile name
+     * @param columns       retrieved columns in the order of the select list, empty for mapped classes
+     * @param columnNames   names of the retrieved columns in the table order, primary key is always included
+     * @param selectAllSql  statement that selects the columns of all records
+     * @param selectByIdSql statement that selects the columns of the record by primary key, null if table has no
+     *                      primary key
+     */
+    record FetchProfileMetadata(String name, List<ColumnMetadata> columns, List<String> columnNames,
+                                String selectAllSql, String selectByIdSql)
+    {
+    }
+
+    /**
+     * Kind of the insert statement.
+     */
+    enum InsertMode {
+        INSERT,
+        /** <code>INSERT IGNORE</code> */
+        IGNORE,
+        /** <code>INSERT ... ON DUPLICATE KEY UPDATE</code> */
+        UPSERT
+    }
+
+    private static final String NO_FIELDS = "No fields";
+    private static final String VALUES = " VALUES ";
+
+    private static final ClassValue<TableMetadata> METADATA = new ClassValue<>() {
+        @Override
+        protected TableMetadata computeValue(Class<?> type) {
+            var mapping = MySqlClient.getTableMapping(type);
+            return mapping != null ? new TableMetadata(mapping) : new TableMetadata(type);
+        }
+    };
+
+    private final Class<?> tableClass;
+    private final String tableName;
+    private final TableMapping<?> mapping;
+
+    private final List<String> columnNames;
+    private final List<ColumnMetadata> columns;
+    private final List<ColumnMetadata> updateColumns;
+    private final Map<String, ColumnMetadata> columnMap;
+    private final ColumnMetadata primaryKey;
+
+    private final String primaryKeyColumn;
+    private final Class<?> primaryKeyType;
+    private final boolean autoIncrement;
+
+    private final String selectAllSql;
+    private final String selectByIdSql;
+    private final String insertSql;
+    private final String updateSql;
+    private final String deleteSql;
+    private final List<String> createTableSql;
+    private final int insertParameterCount;
+
+    // Insert statements by mode and number of rows
+    private final List<Map<Integer, String>> insertSqlCache = List.of(
+        new ConcurrentHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    // Select and delete statements by number of primary keys in the IN list
+    private final Map<Integer, String> selectByIdsSql = new ConcurrentHashMap<>();
+    private final Map<Integer, String> deleteByIdsSql = new ConcurrentHashMap<>();
+    // Insert statements of the temporary key table by number of keys
+    private final Map<Integer, String> insertTemporaryKeysSql = new ConcurrentHashMap<>();
+    private TemporaryKeyTable temporaryKeyTable;
+    // Query statements by WHERE, ORDER BY and LIMIT clauses with parameter placeholders
+    private final Map<String, String> querySql = new ConcurrentHashMap<>();
+    // Keyset page statements by sort order, first page and the following pages
+    private final Map<SortOrder, String> firstPageSql = new ConcurrentHashMap<>();
+    private final Map<SortOrder, String> nextPageSql = new ConcurrentHashMap<>();
+    // Primary key range statements, computed on first use
+    private String keyRangeSql;
+    private String selectByKeyRangeSql;
+    // Fetch profiles by name and by projection record class
+    private final Map<String, FetchProfileMetadata> fetchProfiles = new ConcurrentHashMap<>();
+    private final Map<Class<?>, FetchProfileMetadata> projections = new ConcurrentHashMap<>();
+
+    /**
+     * Returns metadata of the table class.
+     *
+     * @param clazz table class
+     * @return metadata
+     * @throws IllegalStateException if class is not annotated by {@link Table} and has no mapping
+     */
+    static TableMetadata of(Class<?> clazz) {
+        return METADATA.get(clazz);
+    }
+
+    /**
+     * Discards metadata computed before mapping of the class was registered.
+     */
+    static void invalidate(Class<?> clazz) {
+        METADATA.remove(clazz);
+    }
+
+    private TableMetadata(TableMapping<?> mapping) {
+        this.mapping = mapping;
+        tableClass = mapping.getTableClass();
+        tableName = mapping.getTableName();
+
+        // Columns are handled by the mapping itself
+        columnNames = List.copyOf(mapping.getColumnNames());
+        columns = List.of();
+        updateColumns = List.of();
+        columnMap = Map.of();
+        primaryKey = null;
+
+        primaryKeyColumn = mapping.getPrimaryKeyColumn();
+        primaryKeyType = mapping.getPrimaryKeyType();
+        autoIncrement = mapping.isAutoIncrement();
+
+        selectAllSql = mapping.getSelectAllSql();
+        insertSql = mapping.getInsertSql();
+        selectByIdSql = primaryKeyColumn == null ? null : mapping.getSelectByIdSql();
+        updateSql = primaryKeyColumn == null ? null : mapping.getUpdateSql();
+        deleteSql = primaryKeyColumn == null ? null : mapping.getDeleteSql();
+        createTableSql = List.copyOf(mapping.getCreateTableSql());
+        insertParameterCount = countParameters(insertSql);
+
+        for (var profile : mapping.getFetchProfiles().entrySet()) {
+            addFetchProfile(profile.getKey(), profile.getValue());
+        }
+    }
+
+    private TableMetadata(Class<?> clazz) {
+        var table = clazz.getAnnotation(Table.class);
+        if (table == null) {
+            throw new IllegalStateException("Class " + clazz.getName() + " is not properly annotated");
+        }
+
+        mapping = null;
+        tableClass = clazz;
+        tableName = table.value();
+
+        var proxy = new MySqlProxy();
+
+        MethodHandles.Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(clazz, MethodHandles.lookup());
+        } catch (IllegalAccessException ex) {
+            throw new RuntimeException(ex);
+        }
+
+        var columnList = new ArrayList<ColumnMetadata>();
+        var columnDefinitions = new ArrayList<String>();
+        var constraints = new ArrayList<String>();
+        var indexes = new ArrayList<String>();
+        ColumnMetadata pk = null;
+
+        for (var field : clazz.getDeclaredFields()) {
+            var column = field.getAnnotation(Column.class);
+            if (column == null) {
+                continue;
+            }
+
+            VarHandle handle;
+            try {
+                handle = lookup.unreflectVarHandle(field);
+            } catch (IllegalAccessException ex) {
+                throw new RuntimeException(ex);
+            }
+
+            var primaryKeyAnnotation = field.getAnnotation(PrimaryKey.class);
+            var columnMetadata = new ColumnMetadata(column.value(), column, field, handle, primaryKeyAnnotation);
+            columnList.add(columnMetadata);
+            if (primaryKeyAnnotation != null && pk == null) {
+                pk = columnMetadata;
+            }
+
+            columnDefinitions.add(column.value() + " " + proxy.getColumnString(column, primaryKeyAnnotation,
+                field.getAnnotation(ForeignKey.class), field.getType(), constraints));
+
+            if (field.isAnnotationPresent(Index.class)) {
+                indexes.add(proxy.buildIndex(tableName, field));
+            }
+        }
+
+        columns = Collections.unmodifiableList(columnList);
+        columnNames = columns.stream().map(ColumnMetadata::name).toList();
+        primaryKey = pk;
+
+        var columnsByName = new LinkedHashMap<String, ColumnMetadata>();
+        for (var column : columns) {
+            columnsByName.put(column.name(), column);
+        }
+        columnMap = Collections.unmodifiableMap(columnsByName);
+
+        // Update statement sets all columns except primary key, primary key goes to the WHERE clause
+        var nonKeyColumns = columns.stream()
+            .filter(column -> column.primaryKey() == null)
+            .toList();
+        var update = new ArrayList<>(nonKeyColumns);
+        if (primaryKey != null) {
+            update.add(primaryKey);
+        }
+        updateColumns = Collections.unmodifiableList(update);
+
+        if (primaryKey != null) {
+            primaryKeyColumn = primaryKey.name();
+            primaryKeyType = primaryKey.type();
+            autoIncrement = primaryKey.primaryKey().isAutoIncrement();
+        } else {
+            primaryKeyColumn = null;
+            primaryKeyType = null;
+            autoIncrement = false;
+        }
+
+        // SQL statements
+        if (columns.isEmpty()) {
+            selectAllSql = null;
+            insertSql = null;
+        } else {
+            selectAllSql = "SELECT " + String.join(",", columnNames) + " FROM " + tableName;
+            insertSql = "INSERT INTO " + tableName + " ("
+                + String.join(",", columnNames)
+                + ") VALUES ("
+                + String.join(",", Collections.nCopies(columns.size(), "?"))
+                + ")";
+        }
+
+        if (primaryKey == null) {
+            selectByIdSql = null;
+            updateSql = null;
+            deleteSql = null;
+        } else {
+            var where = " WHERE " + primaryKey.name() + "=?";
+            selectByIdSql = selectAllSql == null ? null : selectAllSql + where;
+            updateSql = nonKeyColumns.isEmpty() ? null : "update " + tableName + " set "
+                + nonKeyColumns.stream()
+                .map(c -> c.name() + "=?")
+                .collect(Collectors.joining(", "))
+                + where;
+            deleteSql = "DELETE FROM " + tableName + where;
+        }
+
+        var ddl = new ArrayList<String>();
+        var b = new StringBuilder("CREATE TABLE IF NOT EXISTS ")
+            .append(tableName)
+            .append(" (")
+            .append(String.join(",", columnDefinitions));
+        if (!constraints.isEmpty()) {
+            b.append(",").append(String.join(",", constraints));
+        }
+        ddl.add(b.append(")").toString());
+        ddl.addAll(indexes);
+        createTableSql = List.copyOf(ddl);
+        insertParameterCount = countParameters(insertSql);
+
+        for (var profile : clazz.getAnnotationsByType(FetchProfile.class)) {
+            addFetchProfile(profile.value(), Arrays.asList(profile.columns()));
+        }
+    }
+
+    private static int countParameters(String sql) {
+        return sql == null ? 0 : (int) sql.chars().filter(c -> c == '?').count();
+    }
+
+    Class<?> getTableClass() {
+        return tableClass;
+    }
+
+    String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Returns mapping generated at compile time.
+     *
+     * @return mapping or null if table class is processed via reflection
+     */
+    TableMapping<?> getMapping() {
+        return mapping;
+    }
+
+    /**
+     * Returns columns in the order of the select list and insert statement parameters.
+     */
+    List<ColumnMetadata> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns columns in the order of the update statement parameters.
+     */
+    List<ColumnMetadata> getUpdateColumns() {
+        return updateColumns;
+    }
+
+    ColumnMetadata getColumn(String name) {
+        return columnMap.get(name);
+    }
+
+    /**
+     * Returns column names in the order of the select list and insert statement parameters. Names of the mapped
+     * classes are taken from the mapping.
+     */
+    List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    /**
+     * Checks that query refers to the existing column.
+     *
+     * @param name column name
+     * @return column name
+     * @throws IllegalArgumentException if column is unknown
+     */
+    String checkQueryColumn(String name) {
+        if (!columnMap.containsKey(name) && (mapping == null || !columnNames.contains(name))) {
+            throw new IllegalArgumentException("Unknown column " + name + " of " + tableClass.getTypeName());
+        }
+        return name;
+    }
+
+    /**
+     * Returns query statement that selects all columns with the specified clauses.
+     *
+     * @param clauses WHERE, ORDER BY and LIMIT clauses with parameter placeholders
+     * @return select statement
+     */
+    String getQuerySql(String clauses) {
+        return querySql.computeIfAbsent(clauses, c -> getSelectAllSql() + c);
+    }
+
+    /**
+     * Returns fetch profile defined by {@link FetchProfile} annotation or {@link #addFetchProfile(String, Collection)}.
+     *
+     * @param name profile name
+     * @return fetch profile
+     * @throws IllegalArgumentException if profile is not defined
+     */
+    FetchProfileMetadata getFetchProfile(String name) {
+        var profile = fetchProfiles.get(name);
+        if (profile == null) {
+            throw new IllegalArgumentException("Unknown fetch profile " + name + " of " + tableClass.getTypeName());
+        }
+        return profile;
+    }
+
+    /**
+     * Defines fetch profile. Defining the same profile again has no effect.
+     *
+     * @param name        profile name
+     * @param columnNames retrieved columns, primary key is added if missing
+     * @return fetch profile
+     * @throws IllegalArgumentException if column is unknown
+     * @throws IllegalStateException    if profile with the same name and different columns is already defined
+     */
+    FetchProfileMetadata addFetchProfile(String name, Collection<String> columnNames) {
+        var profile = buildFetchProfile(name, columnNames);
+        var existing = fetchProfiles.putIfAbsent(name, profile);
+        if (existing != null && !existing.columnNames().equals(profile.columnNames())) {
+            throw new IllegalStateException("Fetch profile " + name + " of " + tableClass.getTypeName()
+                + " is already defined");
+        }
+        return existing != null ? existing : profile;
+    }
+
+    /**
+     * Returns columns retrieved for the projection record. Record component is mapped to the column specified by
+     * its {@link Column} annotation or to the column with the same name as the component.
+     *
+     * @param projection projection record class
+     * @return fetch profile named after the projection class
+     * @throws IllegalArgumentException if class is not a record or component does not match any column
+     */
+    FetchProfileMetadata getProjection(Class<?> projection) {
+        return projections.computeIfAbsent(projection, p -> {
+            if (!p.isRecord()) {
+                throw new IllegalArgumentException("Projection " + p.getTypeName() + " is not a record");
+            }
+            return buildFetchProfile(p.getName(), Arrays.stream(p.getRecordComponents())
+                .map(TableMetadata::getProjectionColumn)
+                .toList());
+        });
+    }
+
+    /**
+     * Returns name of the column mapped to the projection record component.
+     */
+    static String getProjectionColumn(RecordComponent component) {
+        var column = component.getAnnotation(Column.class);
+        return column != null ? column.value() : component.getName();
+    }
+
+    private FetchProfileMetadata buildFetchProfile(String name, Collection<String> retrieved) {
+        if (columnNames.isEmpty()) {
+            throw new IllegalStateException("Fetch profiles require columns, " + tableClass.getTypeName()
+                + " has none");
+        }
+
+        var selected = new HashSet<String>();
+        for (var columnName : retrieved) {
+            if (!columnNames.contains(columnName)) {
+                throw new IllegalArgumentException("Unknown column " + columnName + " of "
+                    + tableClass.getTypeName());
+            }
+            selected.add(columnName);
+        }
+        if (primaryKeyColumn != null) {
+            selected.add(primaryKeyColumn);
+        }
+
+        var profileColumnNames = columnNames.stream()
+            .filter(selected::contains)
+            .toList();
+
+        List<ColumnMetadata> profileColumns;
+        String selectList;
+        String where;
+        if (mapping == null) {
+            profileColumns = columns.stream()
+                .filter(column -> selected.contains(column.name()))
+                .toList();
+            selectList = profileColumns.stream()
+                .map(ColumnMetadata::name)
+                .collect(Collectors.joining(","));
+            where = primaryKey == null ? null : primaryKey.name();
+        } else {
+            // Mapping reads all columns by their position
+            profileColumns = List.of();
+            selectList = columnNames.stream()
+                .map(column -> selected.contains(column) ? column : "NULL")
+                .collect(Collectors.joining(","));
+            where = primaryKeyColumn;
+        }
+
+        var selectSql = "SELECT " + selectList + " FROM " + tableName;
+        return new FetchProfileMetadata(name, profileColumns, profileColumnNames, selectSql,
+            where == null ? null : selectSql + " WHERE " + where + "=?");
+    }
+
+    /**
+     * Returns primary key column.
+     *
+     * @return primary key column
+     * @throws IllegalStateException if there is no primary key
+     */
+    ColumnMetadata getPrimaryKey() {
+        if (primaryKey == null) {
+            throw noPrimaryKey();
+        }
+        return primaryKey;
+    }
+
+    boolean hasPrimaryKey() {
+        return primaryKeyColumn != null;
+    }
+
+    /**
+     * Returns primary key expression suitable for the select list.
+     */
+    String getPrimaryKeyColumn() {
+        if (primaryKeyColumn == null) {
+            throw noPrimaryKey();
+        }
+        return primaryKeyColumn;
+    }
+
+    Class<?> getPrimaryKeyType() {
+        if (primaryKeyType == null) {
+            throw noPrimaryKey();
+        }
+        return primaryKeyType;
+    }
+
+    boolean isAutoIncrement() {
+        return autoIncrement;
+    }
+
+    String getSelectAllSql() {
+        return require(selectAllSql, NO_FIELDS);
+    }
+
+    String getSelectByIdSql() {
+        checkPrimaryKey();
+        return require(selectByIdSql, NO_FIELDS);
+    }
+
+    /**
+     * Returns statement that selects columns of the fetch profile by primary key.
+     */
+    String getSelectByIdSql(FetchProfileMetadata profile) {
+        checkPrimaryKey();
+        return profile.selectByIdSql();
+    }
+
+    String getInsertSql() {
+        return require(insertSql, NO_FIELDS);
+    }
+
+    /**
+     * Returns number of parameters of a single row of the insert statement.
+     */
+    int getInsertParameterCount() {
+        return insertParameterCount;
+    }
+
+    /**
+     * Returns insert statement with the specified number of rows.
+     */
+    String getInsertSql(int rows) {
+        return getInsertSql(rows, InsertMode.INSERT);
+    }
+
+    /**
+     * Returns insert statement of the specified kind with the specified number of rows.
+     */
+    String getInsertSql(int rows, InsertMode mode) {
+        if (rows == 1 && mode == InsertMode.INSERT) {
+            return getInsertSql();
+        }
+        return insertSqlCache.get(mode.ordinal()).computeIfAbsent(rows, r -> buildInsertSql(r, mode));
+    }
+
+    /**
+     * Returns names of the columns in the order of insert statement parameters.
+     */
+    List<String> getInsertColumnNames() {
+        // INSERT INTO table (a,b,c) VALUES
+        var sql = getInsertSql();
+        var valuesIndex = sql.lastIndexOf(VALUES);
+        return Arrays.stream(sql.substring(sql.indexOf('(') + 1, sql.lastIndexOf(')', valuesIndex)).split(","))
+            .map(String::trim)
+            .toList();
+    }
+
+    /**
+     * Returns if column values are bound as bytes.
+     *
+     * @param name column name
+     * @return if column is binary
+     */
+    boolean isBinaryColumn(String name) {
+        if (mapping != null) {
+            return mapping.isBinaryColumn(name);
+        }
+        var column = columnMap.get(name);
+        return column != null && column.binary();
+    }
+
+    /**
+     * Returns <code>LOAD DATA LOCAL INFILE</code> statement that reads columns in the order of insert statement
+     * parameters. Text is read as UTF-8. Binary values are read as hex strings into user variables and converted
+     * by <code>UNHEX()</code>, see {@link LocalInfileStream}.
+     */
+    String getLoadDataSql() {
+        var fields = new ArrayList<String>();
+        var assignments = new ArrayList<String>();
+        var names = getInsertColumnNames();
+        for (int i = 0; i < names.size(); i++) {
+            var name = names.get(i);
+            if (isBinaryColumn(name)) {
+                var variable = "@v" + (i + 1);
+                fields.add(variable);
+                assignments.add(name + "=UNHEX(" + variable + ")");
+            } else {
+                fields.add(name);
+            }
+        }
+
+        var sql = "LOAD DATA LOCAL INFILE 'stream' INTO TABLE " + tableName + " CHARACTER SET utf8mb4 ("
+            + String.join(",", fields) + ")";
+        return assignments.isEmpty() ? sql : sql + " SET " + String.join(",", assignments);
+    }
+
+    private String buildInsertSql(int rows, InsertMode mode) {
+        var sql = getInsertSql();
+        var valuesIndex = sql.lastIndexOf(VALUES) + VALUES.length();
+        var row = sql.substring(valuesIndex);
+
+        var b = new StringBuilder(valuesIndex + rows * (row.length() + 1));
+        if (mode == InsertMode.IGNORE) {
+            b.append("INSERT IGNORE").append(sql, "INSERT".length(), valuesIndex);
+        } else {
+            b.append(sql, 0, valuesIndex);
+        }
+        b.append(row);
+        for (int i = 1; i < rows; i++) {
+            b.append(',').append(row);
+        }
+
+        if (mode == InsertMode.UPSERT) {
+            var updates = getInsertColumnNames().stream()
+                .filter(name -> !name.equals(primaryKeyColumn))
+                .map(name -> name + "=VALUES(" + name + ")")
+                .collect(Collectors.joining(","));
+            if (updates.isEmpty()) {
+                // Nothing to update, keep existing row
+                updates = primaryKeyColumn + "=" + primaryKeyColumn;
+            }
+            b.append(" ON DUPLICATE KEY UPDATE ").append(updates);
+        }
+        return b.toString();
+    }
+
+    String getUpdateSql() {
+        checkPrimaryKey();
+        return require(updateSql, NO_FIELDS);
+    }
+
+    String getDeleteSql() {
+        checkPrimaryKey();
+        return deleteSql;
+    }
+
+    /**
+     * Returns statement that selects records with the specified number of primary keys.
+     */
+    String getSelectByIdsSql(int count) {
+        checkPrimaryKey();
+        return selectByIdsSql.computeIfAbsent(count,
+            c -> getSelectAllSql() + " WHERE " + primaryKeyColumn + " IN " + buildInList(c));
+    }
+
+    /**
+     * Returns statements of the temporary table that holds primary keys. Table has the same primary key column as
+     * this table.
+     */
+    TemporaryKeyTable getTemporaryKeyTable() {
+        checkPrimaryKey();
+        // Racy single-check, statements are immutable and may be built more than once
+        var table = temporaryKeyTable;
+        if (table == null) {
+            var name = "tmp_" + tableName + "_keys";
+            table = new TemporaryKeyTable(name,
+                "CREATE TEMPORARY TABLE " + name + " (PRIMARY KEY (" + primaryKeyColumn + ")) SELECT "
+                    + primaryKeyColumn + " FROM " + tableName + " LIMIT 0",
+                getSelectAllSql() + " WHERE " + primaryKeyColumn + " IN (SELECT " + primaryKeyColumn
+                    + " FROM " + name + ")",
+                "DROP TEMPORARY TABLE IF EXISTS " + name);
+            temporaryKeyTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * Returns statement that inserts the specified number of keys into the temporary key table.
+     */
+    String getInsertTemporaryKeysSql(int count) {
+        var name = getTemporaryKeyTable().name();
+        return insertTemporaryKeysSql.computeIfAbsent(count, c -> {
+            var b = new StringBuilder("INSERT INTO ").append(name).append(" (").append(primaryKeyColumn)
+                .append(") VALUES (?)");
+            for (int i = 1; i < c; i++) {
+                b.append(",(?)");
+            }
+            return b.toString();
+        });
+    }
+
+    /**
+     * Returns statement that deletes records with the specified number of primary keys.
+     */
+    String getDeleteByIdsSql(int count) {
+        checkPrimaryKey();
+        return deleteByIdsSql.computeIfAbsent(count,
+            c -> "DELETE FROM " + tableName + " WHERE " + primaryKeyColumn + " IN " + buildInList(c));
+    }
+
+    /**
+     * Returns statement that selects page of records ordered by primary key. Statement of the first page has single
+     * parameter, the limit. Statement of the following pages has two parameters: primary key of the last record of
+     * the previous page and the limit.
+     *
+     * @param order sort order
+     * @param first true for the first page
+     * @return select statement
+     */
+    String getPageSql(SortOrder order, boolean first) {
+        checkPrimaryKey();
+        if (first) {
+            return firstPageSql.computeIfAbsent(order, o -> getSelectAllSql() + buildPageOrderBy(o));
+        }
+        return nextPageSql.computeIfAbsent(order, o -> getSelectAllSql() + " WHERE " + primaryKeyColumn
+            + (o == SortOrder.ASCENDING ? ">?" : "<?") + buildPageOrderBy(o));
+    }
+
+    /**
+     * Returns statement that selects minimum and maximum values of the primary key.
+     */
+    String getKeyRangeSql() {
+        checkPrimaryKey();
+        // Racy single-check, statement is immutable and may be built more than once
+        var sql = keyRangeSql;
+        if (sql == null) {
+            sql = "SELECT MIN(" + primaryKeyColumn + "),MAX(" + primaryKeyColumn + ") FROM " + tableName;
+            keyRangeSql = sql;
+        }
+        return sql;
+    }
+
+    /**
+     * Returns statement that selects records with primary key between two parameters inclusive.
+     */
+    String getSelectByKeyRangeSql() {
+        checkPrimaryKey();
+        var sql = selectByKeyRangeSql;
+        if (sql == null) {
+            sql = getSelectAllSql() + " WHERE " + primaryKeyColumn + " BETWEEN ? AND ?";
+            selectByKeyRangeSql = sql;
+        }
+        return sql;
+    }
+
+    private String buildPageOrderBy(SortOrder order) {
+        return " ORDER BY " + primaryKeyColumn + " " + order.getSql() + " LIMIT ?";
+    }
+
+    private static String buildInList(int count) {
+        var b = new StringBuilder(2 * count + 1).append("(?");
+        for (int i = 1; i < count; i++) {
+            b.append(",?");
+        }
+        return b.append(')').toString();
+    }
+
+    /**
+     * Returns statements that create table and its indexes.
+     */
+    List<String> getCreateTableSql() {
+        return createTableSql;
+    }
+
+    private void checkPrimaryKey() {
+        if (!hasPrimaryKey()) {
+            throw noPrimaryKey();
+        }
+    }
+
+    private IllegalStateException noPrimaryKey() {
+        return new IllegalStateException("No primary key defined for " + tableClass.getTypeName());
+    }
+
+    private static String require(String sql, String message) {
+        if (sql == null) {
+            throw new IllegalStateException(message);
+        }
+        return sql;
+    }
+}
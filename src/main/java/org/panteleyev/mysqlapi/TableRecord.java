@@ -30,12 +30,7 @@ public interface TableRecord<K> {
      * @throws IllegalStateException if class is not annotated by {@link Table}.
      */
     static String getTableName(Class<? extends TableRecord> table) {
-        var annotation = table.getAnnotation(Table.class);
-        if (annotation != null) {
-            return annotation.value();
-        } else {
-            throw new IllegalStateException("Class " + table.getName() + "is not properly annotated");
-        }
+        return TableMetadata.of(table).getTableName();
     }
 
     /**
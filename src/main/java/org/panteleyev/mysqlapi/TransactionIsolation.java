@@ -0,0 +1,48 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import java.sql.Connection;
+
+/**
+ * Transaction isolation level, see {@link MySqlClient#inTransaction(TransactionIsolation, boolean,
+ * java.util.function.Function)}.
+ */
+public enum TransactionIsolation {
+    /**
+     * <code>READ UNCOMMITTED</code>
+     */
+    READ_UNCOMMITTED(Connection.TRANSACTION_READ_UNCOMMITTED),
+
+    /**
+     * <code>READ COMMITTED</code>
+     */
+    READ_COMMITTED(Connection.TRANSACTION_READ_COMMITTED),
+
+    /**
+     * <code>REPEATABLE READ</code>, InnoDB default.
+     */
+    REPEATABLE_READ(Connection.TRANSACTION_REPEATABLE_READ),
+
+    /**
+     * <code>SERIALIZABLE</code>
+     */
+    SERIALIZABLE(Connection.TRANSACTION_SERIALIZABLE);
+
+    private final int level;
+
+    TransactionIsolation(int level) {
+        this.level = level;
+    }
+
+    /**
+     * Returns JDBC isolation level, see {@link Connection#setTransactionIsolation(int)}.
+     *
+     * @return isolation level
+     */
+    public int getLevel() {
+        return level;
+    }
+}
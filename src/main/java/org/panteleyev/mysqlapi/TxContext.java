@@ -0,0 +1,354 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import java.sql.Connection;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * <p>Operations of {@link MySqlClient} bound to the connection of the transaction started by
+ * {@link MySqlClient#inTransaction(java.util.function.Function)}. All operations share the connection and its
+ * statement cache, changes are committed together when transaction completes.</p>
+ * <p>Context is valid only inside the transaction callback and must not be used by other threads. Statements that
+ * cause implicit commit, e.g. table creation, must not be executed through the connection of the context.</p>
+ */
+@SuppressWarnings("rawtypes")
+public final class TxContext {
+    private final MySqlClient client;
+    private final Connection conn;
+
+    TxContext(MySqlClient client, Connection conn) {
+        this.client = client;
+        this.conn = conn;
+    }
+
+    /**
+     * Returns client that started the transaction. Operations called on the client directly are executed outside of
+     * the transaction.
+     *
+     * @return client
+     */
+    public MySqlClient getClient() {
+        return client;
+    }
+
+    /**
+     * Returns connection of the transaction. Transaction is committed or rolled back by the client, connection must
+     * not be closed.
+     *
+     * @return connection
+     */
+    public Connection getConnection() {
+        return conn;
+    }
+
+    /**
+     * Retrieves record using record primary key.
+     *
+     * @param <K>   primary key type
+     * @param <T>   type of the record
+     * @param id    record id
+     * @param clazz record class
+     * @return record
+     * @see MySqlClient#get(Connection, Object, Class)
+     */
+    public <K, T extends TableRecord<K>> Optional<T> get(K id, Class<? extends T> clazz) {
+        return client.get(conn, id, clazz);
+    }
+
+    /**
+     * Retrieves record using record primary key and fetch profile.
+     *
+     * @param <K>     primary key type
+     * @param <T>     type of the record
+     * @param id      record id
+     * @param clazz   record class
+     * @param profile fetch profile name
+     * @return record
+     * @see MySqlClient#get(Connection, Object, Class, String)
+     */
+    public <K, T extends TableRecord<K>> Optional<T> get(K id, Class<? extends T> clazz, String profile) {
+        return client.get(conn, id, clazz, profile);
+    }
+
+    /**
+     * Retrieves all records of the specified type.
+     *
+     * @param <T>   type of the record
+     * @param clazz record class
+     * @return list of records
+     * @see MySqlClient#getAll(Connection, Class)
+     */
+    public <T extends TableRecord> List<T> getAll(Class<T> clazz) {
+        return client.getAll(conn, clazz);
+    }
+
+    /**
+     * Retrieves all records of the specified type and fills the map.
+     *
+     * @param <K>    type of the primary key
+     * @param <T>    type of the record
+     * @param clazz  record class
+     * @param result map to fill
+     * @see MySqlClient#getAll(Connection, Class, Map)
+     */
+    public <K, T extends TableRecord<K>> void getAll(Class<T> clazz, Map<K, T> result) {
+        client.getAll(conn, clazz, result);
+    }
+
+    /**
+     * Retrieves records with the specified primary keys.
+     *
+     * @param <K>   type of the primary key
+     * @param <T>   type of the record
+     * @param clazz record class
+     * @param ids   primary keys
+     * @return records by primary key
+     * @see MySqlClient#getAll(Connection, Class, Collection)
+     */
+    public <K, T extends TableRecord<K>> Map<K, T> getAll(Class<T> clazz, Collection<K> ids) {
+        return client.getAll(conn, clazz, ids);
+    }
+
+    /**
+     * Retrieves all records of the specified type using fetch profile.
+     *
+     * @param <T>     type of the record
+     * @param clazz   record class
+     * @param profile fetch profile name
+     * @return list of records
+     * @see MySqlClient#getAll(Connection, Class, String)
+     */
+    public <T extends TableRecord> List<T> getAll(Class<T> clazz, String profile) {
+        return client.getAll(conn, clazz, profile);
+    }
+
+    /**
+     * Retrieves all rows of the table as projection records.
+     *
+     * @param <R>        type of the projection
+     * @param table      table class
+     * @param projection projection record class
+     * @return list of projections
+     * @see MySqlClient#getAll(Connection, Class, Class)
+     */
+    public <R extends Record> List<R> getAll(Class<? extends TableRecord> table, Class<R> projection) {
+        return client.getAll(conn, table, projection);
+    }
+
+    /**
+     * Executes query.
+     *
+     * @param <T>   type of the record
+     * @param query query
+     * @return list of records
+     * @see Query#list(Connection)
+     */
+    public <T extends TableRecord> List<T> list(Query<T> query) {
+        return query.list(conn);
+    }
+
+    /**
+     * Executes query and returns the first record.
+     *
+     * @param <T>   type of the record
+     * @param query query
+     * @return first record
+     * @see Query#first(Connection)
+     */
+    public <T extends TableRecord> Optional<T> first(Query<T> query) {
+        return query.first(conn);
+    }
+
+    /**
+     * Passes all records of the specified type to the action one by one.
+     *
+     * @param <T>    type of the record
+     * @param clazz  record class
+     * @param action action
+     * @see MySqlClient#forEach(Connection, Class, Consumer)
+     */
+    public <T extends TableRecord> void forEach(Class<T> clazz, Consumer<? super T> action) {
+        client.forEach(conn, clazz, action);
+    }
+
+    /**
+     * Retrieves page of records ordered by primary key.
+     *
+     * @param <K>      type of the primary key
+     * @param <T>      type of the record
+     * @param clazz    record class
+     * @param afterKey primary key of the last record of the previous page, null for the first page
+     * @param limit    maximum number of records
+     * @param order    sort order
+     * @return page of records
+     * @see MySqlClient#page(Connection, Class, Object, int, SortOrder)
+     */
+    public <K, T extends TableRecord<K>> List<T> page(Class<T> clazz, K afterKey, int limit, SortOrder order) {
+        return client.page(conn, clazz, afterKey, limit, order);
+    }
+
+    /**
+     * Inserts record.
+     *
+     * @param record record
+     * @see MySqlClient#insert(Connection, TableRecord)
+     */
+    public void insert(TableRecord record) {
+        client.insert(conn, record);
+    }
+
+    /**
+     * Inserts multiple records using batches of the specified size.
+     *
+     * @param <T>     type of records
+     * @param size    size of the batch
+     * @param records list of records
+     * @see MySqlClient#insert(Connection, int, List)
+     */
+    public <T extends TableRecord> void insert(int size, List<T> records) {
+        client.insert(conn, size, records);
+    }
+
+    /**
+     * Inserts record or updates existing one with the same key.
+     *
+     * @param record record
+     * @see MySqlClient#upsert(Connection, TableRecord)
+     */
+    public void upsert(TableRecord record) {
+        client.upsert(conn, record);
+    }
+
+    /**
+     * Inserts or updates multiple records using batches of the specified size.
+     *
+     * @param <T>     type of records
+     * @param size    size of the batch
+     * @param records list of records
+     * @see MySqlClient#upsert(Connection, int, List)
+     */
+    public <T extends TableRecord> void upsert(int size, List<T> records) {
+        client.upsert(conn, size, records);
+    }
+
+    /**
+     * Inserts record unless record with the same key exists.
+     *
+     * @param record record
+     * @see MySqlClient#insertIgnore(Connection, TableRecord)
+     */
+    public void insertIgnore(TableRecord record) {
+        client.insertIgnore(conn, record);
+    }
+
+    /**
+     * Inserts multiple records skipping duplicates using batches of the specified size.
+     *
+     * @param <T>     type of records
+     * @param size    size of the batch
+     * @param records list of records
+     * @see MySqlClient#insertIgnore(Connection, int, List)
+     */
+    public <T extends TableRecord> void insertIgnore(int size, List<T> records) {
+        client.insertIgnore(conn, size, records);
+    }
+
+    /**
+     * Loads records using <code>LOAD DATA LOCAL INFILE</code>.
+     *
+     * @param <T>     type of records
+     * @param clazz   record class
+     * @param records records
+     * @return number of loaded records
+     * @see MySqlClient#bulkLoad(Connection, Class, Stream)
+     */
+    public <T extends TableRecord> long bulkLoad(Class<T> clazz, Stream<? extends T> records) {
+        return client.bulkLoad(conn, clazz, records);
+    }
+
+    /**
+     * Updates record.
+     *
+     * @param record record
+     * @see MySqlClient#update(Connection, TableRecord)
+     */
+    public void update(TableRecord record) {
+        client.update(conn, record);
+    }
+
+    /**
+     * Updates multiple records using batches of the specified size.
+     *
+     * @param <T>     type of records
+     * @param size    size of the batch
+     * @param records list of records
+     * @see MySqlClient#update(Connection, int, List)
+     */
+    public <T extends TableRecord> void update(int size, List<T> records) {
+        client.update(conn, size, records);
+    }
+
+    /**
+     * Deletes record.
+     *
+     * @param record record
+     * @see MySqlClient#delete(Connection, TableRecord)
+     */
+    public void delete(TableRecord record) {
+        client.delete(conn, record);
+    }
+
+    /**
+     * Deletes record by primary key.
+     *
+     * @param <K>   primary key type
+     * @param id    id of the record
+     * @param clazz record type
+     * @see MySqlClient#delete(Connection, Object, Class)
+     */
+    public <K> void delete(K id, Class<? extends TableRecord<K>> clazz) {
+        client.delete(conn, id, clazz);
+    }
+
+    /**
+     * Deletes records with the specified primary keys.
+     *
+     * @param <K>   primary key type
+     * @param clazz record type
+     * @param ids   primary keys
+     * @return number of deleted records
+     * @see MySqlClient#deleteAll(Connection, Class, Collection)
+     */
+    public <K> int deleteAll(Class<? extends TableRecord<K>> clazz, Collection<K> ids) {
+        return client.deleteAll(conn, clazz, ids);
+    }
+
+    /**
+     * Deletes all records of the table.
+     *
+     * @param table table class
+     * @see MySqlClient#deleteAll(Connection, Class)
+     */
+    public void deleteAll(Class<? extends TableRecord> table) {
+        client.deleteAll(conn, table);
+    }
+
+    /**
+     * Returns amount of rows in the specified table.
+     *
+     * @param clazz table class
+     * @return amount of rows
+     * @see MySqlClient#getTableSize(Connection, Class)
+     */
+    public int getTableSize(Class<? extends TableRecord> clazz) {
+        return client.getTableSize(conn, clazz);
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.UUID;
+
+/**
+ * <p>Converts UUID to and from 16 bytes of <code>BINARY(16)</code> column on the client side. Byte layout is the same
+ * as produced by MySQL <code>UUID_TO_BIN(uuid)</code>, or by <code>UUID_TO_BIN(uuid, 1)</code> when time parts are
+ * swapped.</p>
+ * <p>Swapped layout puts the high bits of the time-based UUID first thus values generated one after another are
+ * stored close to each other in the index.</p>
+ */
+final class UuidCodec {
+    static final int UUID_BYTES = 16;
+
+    private static final VarHandle LONG_HANDLE =
+        MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private UuidCodec() {
+    }
+
+    static byte[] toBytes(UUID uuid, boolean swapTime) {
+        var msb = uuid.getMostSignificantBits();
+        var bytes = new byte[UUID_BYTES];
+        LONG_HANDLE.set(bytes, 0, swapTime ? swap(msb) : msb);
+        LONG_HANDLE.set(bytes, 8, uuid.getLeastSignificantBits());
+        return bytes;
+    }
+
+    static UUID fromBytes(byte[] bytes, boolean swapTime) {
+        if (bytes.length != UUID_BYTES) {
+            throw new IllegalArgumentException("Binary UUID must be " + UUID_BYTES + " bytes long");
+        }
+        var msb = (long) LONG_HANDLE.get(bytes, 0);
+        return new UUID(swapTime ? unswap(msb) : msb, (long) LONG_HANDLE.get(bytes, 8));
+    }
+
+    /**
+     * Converts time_low-time_mid-time_hi to time_hi-time_mid-time_low.
+     */
+    static long swap(long msb) {
+        return (msb << 48) | ((msb >>> 16 & 0xFFFFL) << 32) | (msb >>> 32);
+    }
+
+    /**
+     * Converts time_hi-time_mid-time_low to time_low-time_mid-time_hi.
+     */
+    static long unswap(long msb) {
+        return (msb << 32) | ((msb >>> 32 & 0xFFFFL) << 16) | (msb >>> 48);
+    }
+}
@@ -86,10 +86,26 @@ public @interface Column {
      */
     boolean storeUuidAsBinary() default false;
 
+    /**
+     * Defines if time parts of binary UUID are swapped, the same way as MySQL <code>UUID_TO_BIN(uuid, 1)</code>
+     * does. Swapped time-based UUIDs are stored in index order. Applicable to UUID columns stored as binary only,
+     * ignored for other types.
+     *
+     * @return if swap time parts of binary UUID
+     */
+    boolean swapUuidTime() default false;
+
     /**
      * Defines if column should have unique constraint.
      *
      * @return if column is unique
      */
     boolean unique() default false;
+
+    /**
+     * Defines how enum values are stored. Applicable to enum data types only, ignored for other types.
+     *
+     * @return enum storage
+     */
+    EnumStorage enumStorage() default EnumStorage.NAME;
 }
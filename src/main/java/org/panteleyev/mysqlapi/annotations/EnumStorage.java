@@ -0,0 +1,29 @@
+package org.panteleyev.mysqlapi.annotations;
+
+/*
+ * Copyright (c) Petr Panteleyev. All rights reserved.
+ * Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+
+/**
+ * Defines how enum values are stored in the database.
+ * @see Column#enumStorage()
+ */
+public enum EnumStorage {
+    /**
+     * Constant name in <code>VARCHAR</code> column of {@link Column#length()}.
+     */
+    NAME,
+
+    /**
+     * Constant ordinal in <code>TINYINT</code> column. Enum must not have more than 128 constants. Constants must
+     * never be reordered or removed once data is stored.
+     */
+    ORDINAL,
+
+    /**
+     * Constant name in native <code>ENUM</code> column listing all constants in declaration order. Adding
+     * constants requires table alteration.
+     */
+    ENUM
+}
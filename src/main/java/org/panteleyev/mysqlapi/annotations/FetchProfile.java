@@ -0,0 +1,32 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.annotations;
+
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Defines named subset of table columns retrieved together. Primary key is always retrieved, fields of the columns
+ * not included in the profile keep their default values.
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+@Repeatable(FetchProfiles.class)
+public @interface FetchProfile {
+    /**
+     * Name of the profile.
+     * @return name of the profile
+     */
+    String value();
+
+    /**
+     * Names of the retrieved columns.
+     * @return column names
+     */
+    String[] columns();
+}
@@ -0,0 +1,23 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi.annotations;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Container of the repeated {@link FetchProfile} annotations.
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface FetchProfiles {
+    /**
+     * Fetch profiles.
+     * @return fetch profiles
+     */
+    FetchProfile[] value();
+}
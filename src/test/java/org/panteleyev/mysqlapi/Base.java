@@ -10,6 +10,7 @@ import org.panteleyev.mysqlapi.model.ImmutableRecord;
 import org.panteleyev.mysqlapi.model.ImmutableRecordWithPrimitives;
 import org.panteleyev.mysqlapi.model.RecordAsRecord;
 import org.panteleyev.mysqlapi.model.RecordWithAllTypes;
+import org.panteleyev.mysqlapi.model.RecordWithEnums;
 import org.panteleyev.mysqlapi.model.RecordWithOptionals;
 import org.panteleyev.mysqlapi.model.RecordWithPrimitives;
 import org.testng.SkipException;
@@ -28,6 +29,7 @@ public class Base {
     private MySqlClient dao;
 
     private DataSource dataSource;
+    private DataSourceBuilder dataSourceBuilder;
 
     private static final String TEST_DB_NAME = "TestDB";
 
@@ -39,6 +41,13 @@ public class Base {
         return dao;
     }
 
+    /**
+     * Returns builder of data sources connected to the test database.
+     */
+    protected DataSourceBuilder getDataSourceBuilder() {
+        return dataSourceBuilder;
+    }
+
     @BeforeClass
     public void setupMySQL() throws Exception {
         var dbName = System.getProperty("mysql.database", TEST_DB_NAME);
@@ -51,18 +60,20 @@ public class Base {
             throw new SkipException("Test config is not set");
         }
 
-        dataSource = new DataSourceBuilder()
+        dataSourceBuilder = new DataSourceBuilder()
             .host(host)
             .port(port)
             .user(user)
-            .password(password)
-            .build();
+            .password(password);
+        dataSource = dataSourceBuilder.build();
 
         try (var conn = dataSource.getConnection()) {
             var st = conn.createStatement();
             st.execute("CREATE DATABASE " + dbName);
             ((MysqlDataSource) dataSource).setDatabaseName(dbName);
+            dataSourceBuilder.name(dbName);
             var dao = new MySqlClient(dataSource);
+            dao.setCompiled(Boolean.getBoolean("mysql.compiled"));
             setDao(dao);
         } catch (SQLException ex) {
             throw new SkipException("Unable to create database", ex);
@@ -86,7 +97,8 @@ public class Base {
             {RecordWithPrimitives.class},
             {ImmutableRecordWithPrimitives.class},
             {ImmutableBinaryRecord.class},
-            {RecordAsRecord.class}
+            {RecordAsRecord.class},
+            {RecordWithEnums.class}
         };
     }
 
@@ -0,0 +1,111 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.model.RecordWithPrimitives;
+import org.testng.annotations.Test;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class TestAsyncMySqlClient {
+    private static final int MAX_IN_FLIGHT = 3;
+    private static final int RECORD_COUNT = 10;
+    private static final Random RANDOM = new Random(System.currentTimeMillis());
+
+    @Test
+    public void testInFlightLimit() throws Exception {
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+
+        try (var async = new MySqlClient().async(MAX_IN_FLIGHT)) {
+            assertEquals(async.getMaxInFlight(), MAX_IN_FLIGHT);
+
+            var futures = new ArrayList<CompletableFuture<Integer>>();
+            for (int i = 0; i < 20; i++) {
+                var value = i;
+                futures.add(async.submit(() -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(10);
+                    } catch (InterruptedException ex) {
+                        throw new RuntimeException(ex);
+                    }
+                    running.decrementAndGet();
+                    return value;
+                }));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(futures.get(i).get(10, TimeUnit.SECONDS).intValue(), i);
+            }
+        }
+
+        assertTrue(maxRunning.get() <= MAX_IN_FLIGHT);
+    }
+
+    @Test
+    public void testOperations() throws Exception {
+        var statement = mock(PreparedStatement.class);
+        var resultSet = mock(ResultSet.class);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        var conn = mock(Connection.class);
+        when(conn.prepareStatement(anyString())).thenReturn(statement);
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(conn);
+
+        try (var async = new MySqlClient(dataSource).async(MAX_IN_FLIGHT)) {
+            var records = new ArrayList<RecordWithPrimitives>();
+            var inserts = new ArrayList<CompletableFuture<Void>>();
+            for (int i = 0; i < RECORD_COUNT; i++) {
+                var record = RecordWithPrimitives.newRecord(i, RANDOM);
+                records.add(record);
+                inserts.add(async.insert(record));
+            }
+            CompletableFuture.allOf(inserts.toArray(new CompletableFuture<?>[0])).get(10, TimeUnit.SECONDS);
+            verify(statement, times(RECORD_COUNT)).executeUpdate();
+
+            async.delete(records.get(0)).get(10, TimeUnit.SECONDS);
+            verify(statement, times(RECORD_COUNT + 1)).executeUpdate();
+            assertTrue(async.get(records.get(0).getId(), RecordWithPrimitives.class).get(10, TimeUnit.SECONDS)
+                .isEmpty());
+        }
+        verify(conn, times(RECORD_COUNT + 2)).close();
+    }
+
+    @Test
+    public void testException() {
+        var exception = new IllegalStateException();
+        try (var async = new MySqlClient().async(MAX_IN_FLIGHT)) {
+            var future = async.submit(() -> {
+                throw exception;
+            });
+            var thrown = expectThrows(CompletionException.class, future::join);
+            assertSame(thrown.getCause(), exception);
+        }
+    }
+
+    @Test
+    public void testArguments() {
+        expectThrows(IllegalArgumentException.class, () -> new MySqlClient().async(0));
+    }
+}
@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import static org.testng.Assert.assertEquals;
@@ -87,6 +88,125 @@ public class TestBatchInsert extends Base {
         assertRecords(records, retrieved, map);
     }
 
+    @DataProvider
+    public Object[][] testMultiRowInsertDataProvider() {
+        return new Object[][]{
+            {100, 7, 1024 * 1024},
+            {100, 100, 1024 * 1024},
+            {100, 50, 1000},
+            {10, 10, 1}
+        };
+    }
+
+    @Test(dataProvider = "testMultiRowInsertDataProvider")
+    public void testMultiRowInsert(int count, int batchSize, int packetSize) {
+        var clazz = StringPrimaryKeyRecord.class;
+
+        getDao().createTables(Collections.singletonList(clazz));
+
+        var records = new ArrayList<StringPrimaryKeyRecord>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(new StringPrimaryKeyRecord(UUID.randomUUID().toString(), UUID.randomUUID().toString()));
+        }
+
+        getDao().setMultiRowInsert(true);
+        getDao().setMaxInsertPacketSize(packetSize);
+        try {
+            getDao().insert(batchSize, records);
+        } finally {
+            getDao().setMultiRowInsert(false);
+            getDao().setMaxInsertPacketSize(1024 * 1024);
+        }
+
+        var retrieved = getDao().getAll(clazz);
+        var map = new HashMap<String, StringPrimaryKeyRecord>();
+        getDao().getAll(clazz, map);
+
+        assertEquals(retrieved.size(), records.size());
+        assertRecords(records, retrieved, map);
+    }
+
+    @Test
+    public void testBatchUpdateAndDelete() {
+        var clazz = StringPrimaryKeyRecord.class;
+        var count = 1100;
+
+        getDao().createTables(Collections.singletonList(clazz));
+
+        var records = new ArrayList<StringPrimaryKeyRecord>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(new StringPrimaryKeyRecord(UUID.randomUUID().toString(), UUID.randomUUID().toString()));
+        }
+        getDao().insert(100, records);
+
+        // Update
+        var updated = new ArrayList<StringPrimaryKeyRecord>(count);
+        for (var r : records) {
+            updated.add(new StringPrimaryKeyRecord(r.getPrimaryKey(), UUID.randomUUID().toString()));
+        }
+        getDao().update(30, updated);
+
+        var map = new HashMap<String, StringPrimaryKeyRecord>();
+        getDao().getAll(clazz, map);
+        assertRecords(updated, getDao().getAll(clazz), map);
+
+        // Delete all except the first one, IN lists of 1024, 64, 8 and 3 keys
+        var ids = updated.stream().skip(1).map(StringPrimaryKeyRecord::getPrimaryKey).toList();
+        assertEquals(getDao().deleteAll(clazz, ids), count - 1);
+        assertEquals(getDao().deleteAll(clazz, ids), 0);
+        assertEquals(getDao().getAll(clazz), List.of(updated.get(0)));
+    }
+
+    @DataProvider
+    public Object[][] multiRowInsertProvider() {
+        return new Object[][]{{false}, {true}};
+    }
+
+    @Test(dataProvider = "multiRowInsertProvider")
+    public void testUpsertAndInsertIgnore(boolean multiRowInsert) {
+        var clazz = StringPrimaryKeyRecord.class;
+        var count = 50;
+
+        getDao().createTables(Collections.singletonList(clazz));
+
+        var records = new ArrayList<StringPrimaryKeyRecord>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(new StringPrimaryKeyRecord(UUID.randomUUID().toString(), UUID.randomUUID().toString()));
+        }
+        getDao().insert(10, records.subList(0, count / 2));
+
+        getDao().setMultiRowInsert(multiRowInsert);
+        try {
+            // Existing records are kept, new ones are inserted
+            var changed = new ArrayList<StringPrimaryKeyRecord>(count);
+            for (var r : records) {
+                changed.add(new StringPrimaryKeyRecord(r.getPrimaryKey(), UUID.randomUUID().toString()));
+            }
+            getDao().insertIgnore(7, changed);
+            var expected = new ArrayList<>(records.subList(0, count / 2));
+            expected.addAll(changed.subList(count / 2, count));
+            assertRecords(expected, getDao().getAll(clazz), getAllAsMap(clazz));
+
+            // All records are updated
+            getDao().upsert(7, changed);
+            assertRecords(changed, getDao().getAll(clazz), getAllAsMap(clazz));
+
+            var single = new StringPrimaryKeyRecord(records.get(0).getPrimaryKey(), "single");
+            getDao().upsert(single);
+            getDao().insertIgnore(new StringPrimaryKeyRecord(records.get(0).getPrimaryKey(), "ignored"));
+            assertEquals(getDao().get(single.getPrimaryKey(), clazz).orElseThrow(), single);
+            assertEquals(getDao().getTableSize(clazz), count);
+        } finally {
+            getDao().setMultiRowInsert(false);
+        }
+    }
+
+    private Map<String, StringPrimaryKeyRecord> getAllAsMap(Class<StringPrimaryKeyRecord> clazz) {
+        var map = new HashMap<String, StringPrimaryKeyRecord>();
+        getDao().getAll(clazz, map);
+        return map;
+    }
+
     private void assertRecords(Collection<? extends TableRecord> original,
                                Collection<? extends TableRecord> retrieved,
                                Map<?, ? extends TableRecord> map)
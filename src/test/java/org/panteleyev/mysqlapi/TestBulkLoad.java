@@ -0,0 +1,91 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.model.RecordWithJson;
+import org.panteleyev.mysqlapi.model.RecordWithUuid;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class TestBulkLoad extends Base {
+    private static final int RECORD_COUNT = 1000;
+
+    private MySqlClient client;
+
+    @BeforeClass(dependsOnMethods = "setupMySQL")
+    public void setupClient() {
+        client = new MySqlClient(getDataSourceBuilder().allowLoadLocalInfile(true).build());
+        client.setCompiled(getDao().isCompiled());
+    }
+
+    @Test(dataProvider = "recordClasses")
+    public void testBulkLoad(Class<? extends TableRecord<Integer>> clazz) throws Exception {
+        client.createTables(Collections.singletonList(clazz));
+        client.preload(Collections.singletonList(clazz));
+
+        var records = new ArrayList<TableRecord<Integer>>();
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            records.add(i % 10 == 0 ? givenNullRecord(clazz) : givenRandomRecord(clazz));
+        }
+
+        @SuppressWarnings("unchecked")
+        var loaded = client.bulkLoad((Class<TableRecord<Integer>>) clazz, records.stream());
+        assertEquals(loaded, RECORD_COUNT);
+        assertRecords(client.getAll(clazz), records);
+    }
+
+    @Test
+    public void testUuidAndJson() {
+        var classes = List.<Class<? extends TableRecord>>of(RecordWithUuid.class, RecordWithJson.class);
+        client.createTables(classes);
+
+        var uuids = IntStream.range(0, RECORD_COUNT)
+            .mapToObj(i -> new RecordWithUuid(i + 1, UUID.randomUUID(), i % 5 == 0 ? null : UUID.randomUUID()))
+            .toList();
+        assertEquals(client.bulkLoad(RecordWithUuid.class, uuids.stream()), RECORD_COUNT);
+        assertRecords(client.getAll(RecordWithUuid.class), uuids);
+
+        var json = IntStream.range(0, RECORD_COUNT)
+            .mapToObj(i -> new RecordWithJson(i + 1, "{\"text\": \"строка\\n\\ttab " + i + "\"}"))
+            .toList();
+        assertEquals(client.bulkLoad(RecordWithJson.class, json.stream()), RECORD_COUNT);
+        assertRecords(client.getAll(RecordWithJson.class), json);
+    }
+
+    @Test
+    public void testStreamClosed() {
+        client.createTables(List.of(RecordWithUuid.class));
+
+        var closed = new AtomicBoolean();
+        var records = Stream.of(new RecordWithUuid(1, UUID.randomUUID(), UUID.randomUUID()))
+            .onClose(() -> closed.set(true));
+        assertEquals(client.bulkLoad(RecordWithUuid.class, records), 1);
+        assertTrue(closed.get());
+    }
+
+    private static void assertRecords(List<? extends TableRecord<?>> retrieved, List<? extends TableRecord<?>> expected) {
+        assertEquals(retrieved.size(), expected.size());
+
+        // Some records do not implement hashCode() consistently with equals()
+        var map = new HashMap<Object, TableRecord<?>>();
+        for (var r : retrieved) {
+            map.put(r.getPrimaryKey(), r);
+        }
+        for (var r : expected) {
+            assertEquals(map.get(r.getPrimaryKey()), r);
+        }
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.model.RecordWithPrimitives;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class TestConnectionPool {
+    private static final int RECORD_COUNT = 10;
+    private static final Random RANDOM = new Random(System.currentTimeMillis());
+
+    private DataSource dataSource;
+    private List<Connection> physical;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        physical = Collections.synchronizedList(new ArrayList<>());
+        dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(a -> {
+            var conn = mock(Connection.class);
+            when(conn.getAutoCommit()).thenReturn(true);
+            when(conn.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_REPEATABLE_READ);
+            when(conn.isValid(anyInt())).thenReturn(true);
+            when(conn.prepareStatement(anyString())).thenAnswer(b -> mock(PreparedStatement.class));
+            physical.add(conn);
+            return conn;
+        });
+    }
+
+    private ConnectionPool newPool(int min, int max, Duration idleTimeout) {
+        return new ConnectionPool(dataSource, min, max, idleTimeout, Duration.ofMillis(100));
+    }
+
+    @Test
+    public void testReuse() throws Exception {
+        try (var pool = newPool(0, 2, Duration.ZERO)) {
+            var c1 = pool.getConnection();
+            assertEquals(pool.getActiveConnections(), 1);
+            c1.close();
+            c1.close();
+            assertTrue(c1.isClosed());
+            expectThrows(SQLNonTransientConnectionException.class, () -> c1.prepareStatement("SELECT 1"));
+
+            assertEquals(pool.getActiveConnections(), 0);
+            assertEquals(pool.getIdleConnections(), 1);
+
+            try (var c2 = pool.getConnection()) {
+                c2.prepareStatement("SELECT 1");
+            }
+
+            assertEquals(physical.size(), 1);
+            verify(physical.get(0), never()).close();
+            verify(physical.get(0)).prepareStatement("SELECT 1");
+            assertEquals(pool.getBorrowCount(), 2);
+            assertEquals(pool.getCreatedConnections(), 1);
+            assertEquals(pool.getTotalConnections(), 1);
+        }
+        verify(physical.get(0)).close();
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        try (var pool = newPool(0, 1, Duration.ZERO)) {
+            var c1 = pool.getConnection();
+            expectThrows(SQLTransientConnectionException.class, pool::getConnection);
+            assertEquals(pool.getTimeoutCount(), 1);
+
+            c1.close();
+            pool.getConnection().close();
+            assertEquals(physical.size(), 1);
+        }
+    }
+
+    @Test
+    public void testWaitForConnection() throws Exception {
+        try (var pool = new ConnectionPool(dataSource, 0, 1, Duration.ZERO, Duration.ofSeconds(10))) {
+            var c1 = pool.getConnection();
+            var started = new CountDownLatch(1);
+            var thread = new Thread(() -> {
+                started.countDown();
+                try (var c2 = pool.getConnection()) {
+                    assertNotNull(c2);
+                } catch (SQLException ex) {
+                    throw new RuntimeException(ex);
+                }
+            });
+            thread.start();
+            started.await();
+            while (pool.getWaitingThreads() == 0) {
+                Thread.sleep(1);
+            }
+
+            c1.close();
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+            assertFalse(thread.isAlive());
+            assertEquals(pool.getBorrowCount(), 2);
+            assertEquals(physical.size(), 1);
+            assertTrue(pool.getMaxWaitTime().toNanos() > 0);
+        }
+    }
+
+    @Test
+    public void testMoreBorrowersThanMaxSize() throws Exception {
+        var executor = Executors.newFixedThreadPool(8);
+        try (var pool = new ConnectionPool(dataSource, 0, 2, Duration.ZERO, Duration.ofSeconds(10))) {
+            var futures = new ArrayList<Future<?>>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        try (var conn = pool.getConnection()) {
+                            assertTrue(pool.getActiveConnections() <= 2);
+                            conn.prepareStatement("SELECT 1");
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (var future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+
+            assertEquals(pool.getBorrowCount(), 800);
+            assertEquals(pool.getTimeoutCount(), 0);
+            assertTrue(physical.size() <= 2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testWaitForCreatedConnection() throws Exception {
+        var connecting = new CountDownLatch(1);
+        var connected = new CountDownLatch(1);
+        var conn = mock(Connection.class);
+        when(conn.getAutoCommit()).thenReturn(true);
+        when(dataSource.getConnection()).thenAnswer(a -> {
+            connecting.countDown();
+            assertTrue(connected.await(10, TimeUnit.SECONDS));
+            return conn;
+        });
+
+        try (var pool = new ConnectionPool(dataSource, 1, 1, Duration.ZERO, Duration.ofSeconds(10))) {
+            // Housekeeper fills the pool while all permits are free
+            var housekeeper = new Thread(pool::maintain);
+            housekeeper.start();
+            assertTrue(connecting.await(10, TimeUnit.SECONDS));
+
+            var borrowed = new Connection[1];
+            var borrower = new Thread(() -> {
+                try {
+                    borrowed[0] = pool.getConnection();
+                } catch (SQLException ex) {
+                    throw new RuntimeException(ex);
+                }
+            });
+            borrower.start();
+
+            // Borrower parks instead of spinning
+            var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (borrower.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(borrower.getState(), Thread.State.TIMED_WAITING);
+            assertEquals(pool.getWaitingThreads(), 1);
+
+            connected.countDown();
+            borrower.join(TimeUnit.SECONDS.toMillis(10));
+            housekeeper.join(TimeUnit.SECONDS.toMillis(10));
+            assertFalse(borrower.isAlive());
+            assertNotNull(borrowed[0]);
+            assertEquals(pool.getCreatedConnections(), 1);
+            assertEquals(pool.getWaitingThreads(), 0);
+            borrowed[0].close();
+        }
+    }
+
+    @Test
+    public void testWaitForCreatedConnectionTimeout() throws Exception {
+        var connected = new CountDownLatch(1);
+        when(dataSource.getConnection()).thenAnswer(a -> {
+            assertTrue(connected.await(10, TimeUnit.SECONDS));
+            return mock(Connection.class);
+        });
+
+        try (var pool = newPool(1, 1, Duration.ZERO)) {
+            var housekeeper = new Thread(pool::maintain);
+            housekeeper.start();
+            while (pool.getTotalConnections() == 0) {
+                Thread.sleep(1);
+            }
+
+            expectThrows(SQLTransientConnectionException.class, pool::getConnection);
+            assertEquals(pool.getTimeoutCount(), 1);
+            connected.countDown();
+            housekeeper.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    @Test
+    public void testValidationOnBorrow() throws Exception {
+        try (var pool = newPool(0, 1, Duration.ZERO)) {
+            pool.getConnection().close();
+            when(physical.get(0).isValid(anyInt())).thenReturn(false);
+
+            // Validation is skipped for connections used recently
+            Thread.sleep(600);
+            pool.getConnection().close();
+
+            assertEquals(physical.size(), 2);
+            verify(physical.get(0)).close();
+            assertEquals(pool.getDestroyedConnections(), 1);
+        }
+    }
+
+    @Test
+    public void testBrokenConnection() throws Exception {
+        try (var pool = newPool(0, 1, Duration.ZERO)) {
+            var conn = pool.getConnection();
+            when(physical.get(0).prepareStatement("SELECT 1"))
+                .thenThrow(new SQLNonTransientConnectionException("Communications link failure", "08S01"));
+            expectThrows(SQLException.class, () -> conn.prepareStatement("SELECT 1"));
+            conn.close();
+
+            verify(physical.get(0)).close();
+            assertEquals(pool.getTotalConnections(), 0);
+        }
+    }
+
+    @Test
+    public void testReset() throws Exception {
+        try (var pool = newPool(0, 1, Duration.ZERO)) {
+            var conn = pool.getConnection();
+            var p = physical.get(0);
+
+            conn.setAutoCommit(false);
+            conn.setTransactionIsolation(Connection.TRANSACTION_SERIALIZABLE);
+            when(p.getAutoCommit()).thenReturn(false);
+            when(p.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_SERIALIZABLE);
+            conn.close();
+
+            verify(p).rollback();
+            verify(p).setAutoCommit(true);
+            verify(p).setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            verify(p, never()).close();
+        }
+    }
+
+    @Test
+    public void testIdleEviction() throws Exception {
+        try (var pool = newPool(1, 3, Duration.ofMillis(50))) {
+            var connections = List.of(pool.getConnection(), pool.getConnection(), pool.getConnection());
+            for (var conn : connections) {
+                conn.close();
+            }
+            assertEquals(pool.getIdleConnections(), 3);
+
+            Thread.sleep(100);
+            pool.maintain();
+
+            assertEquals(pool.getTotalConnections(), 1);
+            assertEquals(pool.getIdleConnections(), 1);
+            assertEquals(pool.getDestroyedConnections(), 2);
+        }
+    }
+
+    @Test
+    public void testMinimumSize() throws Exception {
+        try (var pool = newPool(2, 4, Duration.ZERO)) {
+            pool.maintain();
+            assertEquals(pool.getTotalConnections(), 2);
+            assertEquals(pool.getIdleConnections(), 2);
+
+            pool.getConnection().close();
+            assertEquals(physical.size(), 2);
+        }
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        var pool = newPool(0, 2, Duration.ZERO);
+        var c1 = pool.getConnection();
+        pool.getConnection().close();
+
+        pool.close();
+        verify(physical.get(1)).close();
+        verify(physical.get(0), never()).close();
+        expectThrows(SQLNonTransientConnectionException.class, pool::getConnection);
+
+        c1.close();
+        verify(physical.get(0)).close();
+        assertEquals(pool.getTotalConnections(), 0);
+    }
+
+    @Test
+    public void testStatementCache() throws Exception {
+        try (var pool = newPool(0, 1, Duration.ZERO)) {
+            var hits = new LongAdder();
+            var misses = new LongAdder();
+
+            for (int i = 0; i < 3; i++) {
+                try (var conn = pool.getConnection()) {
+                    assertTrue(ConnectionPool.cacheStatements(conn, 4, hits, misses));
+                    try (var lease = StatementCache.lease(conn, "SELECT 1")) {
+                        assertNotNull(lease.statement());
+                    }
+                }
+            }
+
+            // Statement survives returning connection to the pool
+            verify(physical.get(0), times(1)).prepareStatement("SELECT 1");
+            assertEquals(hits.sum(), 2);
+            assertEquals(misses.sum(), 1);
+        }
+        assertFalse(ConnectionPool.cacheStatements(mock(Connection.class), 4, new LongAdder(), new LongAdder()));
+    }
+
+    @Test
+    public void testClient() throws Exception {
+        try (var pool = newPool(0, 2, Duration.ZERO)) {
+            var client = new MySqlClient(pool);
+            client.setStatementCacheSize(4);
+
+            for (int i = 0; i < RECORD_COUNT; i++) {
+                var record = RecordWithPrimitives.newRecord(i, RANDOM);
+                client.insert(record);
+                client.update(record);
+            }
+
+            assertTrue(pool.getTotalConnections() <= 2);
+            assertEquals(pool.getActiveConnections(), 0);
+            assertEquals(pool.getBorrowCount(), 2 * RECORD_COUNT);
+            // Statements are prepared once per physical connection
+            assertTrue(client.getStatementCacheMisses() <= 2L * pool.getCreatedConnections());
+            assertEquals(client.getStatementCacheHits() + client.getStatementCacheMisses(), 2 * RECORD_COUNT);
+        }
+    }
+
+    @Test
+    public void testArguments() {
+        expectThrows(IllegalArgumentException.class, () -> newPool(0, 0, Duration.ZERO));
+        expectThrows(IllegalArgumentException.class, () -> newPool(2, 1, Duration.ZERO));
+        expectThrows(IllegalArgumentException.class, () -> newPool(0, 1, Duration.ofSeconds(-1)));
+        expectThrows(SQLFeatureNotSupportedException.class, () -> newPool(0, 1, Duration.ZERO).getConnection("a", "b"));
+    }
+}
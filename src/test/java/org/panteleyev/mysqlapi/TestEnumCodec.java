@@ -0,0 +1,88 @@
+package org.panteleyev.mysqlapi;
+
+/*
+ * Copyright (c) Petr Panteleyev. All rights reserved.
+ * Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+
+import org.panteleyev.mysqlapi.model.EnumType;
+import org.panteleyev.mysqlapi.model.RecordWithEnums;
+import org.testng.annotations.Test;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.List;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class TestEnumCodec {
+    private final EnumCodec<EnumType> codec = EnumCodec.of(EnumType.class);
+
+    @Test
+    public void testCached() {
+        assertSame(EnumCodec.of(EnumType.class), codec);
+    }
+
+    @Test
+    public void testNotEnum() {
+        expectThrows(IllegalArgumentException.class, () -> EnumCodec.of(String.class));
+    }
+
+    @Test
+    public void testDecode() {
+        for (var constant : EnumType.values()) {
+            assertSame(codec.decode(constant.name()), constant);
+            assertSame(codec.decode(constant.name().getBytes(StandardCharsets.US_ASCII)), constant);
+            assertSame(codec.fromOrdinal(constant.ordinal()), constant);
+        }
+
+        assertNull(codec.decode((String) null));
+        assertNull(codec.decode((byte[]) null));
+    }
+
+    @Test
+    public void testDecodeUnknown() {
+        var ex = expectThrows(IllegalArgumentException.class, () -> codec.decode("F4"));
+        assertEquals(ex.getMessage(), "No enum constant org.panteleyev.mysqlapi.model.EnumType.F4");
+        expectThrows(IllegalArgumentException.class, () -> codec.decode("F".getBytes(StandardCharsets.US_ASCII)));
+        expectThrows(IllegalArgumentException.class, () -> codec.fromOrdinal(EnumType.values().length));
+    }
+
+    @Test
+    public void testReadWrite() throws Exception {
+        var metadata = TableMetadata.of(RecordWithEnums.class);
+        var byName = metadata.getColumn("by_name").column();
+        var byOrdinal = metadata.getColumn("by_ordinal").column();
+
+        var set = mock(ResultSet.class);
+        when(set.getBytes(1)).thenReturn("F2".getBytes(StandardCharsets.US_ASCII));
+        when(set.getInt(2)).thenReturn(EnumType.F3.ordinal());
+        assertSame(codec.getReader(byName).read(set, 1), EnumType.F2);
+        assertSame(codec.getReader(byOrdinal).read(set, 2), EnumType.F3);
+
+        var st = mock(PreparedStatement.class);
+        codec.getWriter(byName).write(st, 1, EnumType.F1);
+        codec.getWriter(byOrdinal).write(st, 2, EnumType.F3);
+        codec.getWriter(byOrdinal).write(st, 3, null);
+        verify(st).setString(1, "F1");
+        verify(st).setInt(2, 2);
+        verify(st).setNull(3, Types.TINYINT);
+        verifyNoMoreInteractions(st);
+    }
+
+    @Test
+    public void testCreateTableSql() {
+        assertEquals(TableMetadata.of(RecordWithEnums.class).getCreateTableSql(), List.of(
+            "CREATE TABLE IF NOT EXISTS table_with_enums (id INTEGER PRIMARY KEY,by_name VARCHAR(255),"
+                + "by_ordinal TINYINT,native_enum ENUM('F1','F2','F3'))"
+        ));
+    }
+}
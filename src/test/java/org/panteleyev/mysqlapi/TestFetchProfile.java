@@ -0,0 +1,152 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.annotations.Column;
+import org.panteleyev.mysqlapi.model.EnumType;
+import org.panteleyev.mysqlapi.model.ImmutableRecordWithPrimitives;
+import org.panteleyev.mysqlapi.model.RecordAsRecord;
+import org.panteleyev.mysqlapi.model.RecordWithPrimitives;
+import org.testng.annotations.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class TestFetchProfile extends Base {
+    private static final int RECORD_COUNT = 50;
+
+    public record Summary(Integer id, @Column("a") String title, EnumType g) {
+    }
+
+    public record Value(@Column("a") int value) {
+    }
+
+    @Test
+    public void testFieldAssignment() {
+        var clazz = RecordWithPrimitives.class;
+        var records = insertRecords(clazz, RecordWithPrimitives::newRecord);
+
+        var result = sorted(getDao().getAll(clazz, "ac"), RecordWithPrimitives::getId);
+        assertEquals(result.size(), records.size());
+        for (int i = 0; i < records.size(); i++) {
+            var expected = records.get(i);
+            var actual = result.get(i);
+            assertEquals(actual.getId(), expected.getId());
+            assertEquals(actual.getA(), expected.getA());
+            assertFalse(actual.getB());
+            assertEquals(actual.getC(), expected.getC());
+        }
+
+        var expected = records.get(RECORD_COUNT / 2);
+        var actual = getDao().get(expected.getPrimaryKey(), clazz, "a").orElseThrow();
+        assertEquals(actual.getA(), expected.getA());
+        assertFalse(actual.getB());
+        assertEquals(actual.getC(), 0L);
+
+        assertTrue(getDao().get(RECORD_COUNT + 1, clazz, "a").isEmpty());
+        expectThrows(IllegalArgumentException.class, () -> getDao().getAll(clazz, "unknown"));
+    }
+
+    @Test
+    public void testConstructor() {
+        var clazz = ImmutableRecordWithPrimitives.class;
+        var records = insertRecords(clazz, ImmutableRecordWithPrimitives::newRecord);
+
+        var result = sorted(getDao().getAll(clazz, "ac"), ImmutableRecordWithPrimitives::getId);
+        assertEquals(result.size(), records.size());
+        for (int i = 0; i < records.size(); i++) {
+            var expected = records.get(i);
+            var actual = result.get(i);
+            assertEquals(actual.getId(), expected.getId());
+            assertEquals(actual.getA(), expected.getA());
+            assertFalse(actual.getB());
+            assertEquals(actual.getC(), expected.getC());
+        }
+    }
+
+    @Test
+    public void testRecord() {
+        var clazz = RecordAsRecord.class;
+        var records = insertRecords(clazz, RecordAsRecord::newRecord);
+
+        var result = sorted(getDao().getAll(clazz, "summary"), RecordAsRecord::id);
+        assertEquals(result.size(), records.size());
+        for (int i = 0; i < records.size(); i++) {
+            var expected = records.get(i);
+            var actual = result.get(i);
+            assertEquals(actual, new RecordAsRecord(expected.id(), expected.a(), null, null, null, null, null,
+                expected.g(), null));
+        }
+    }
+
+    @Test
+    public void testRuntimeProfile() {
+        var clazz = RecordWithPrimitives.class;
+        var records = insertRecords(clazz, RecordWithPrimitives::newRecord);
+
+        MySqlClient.addFetchProfile(clazz, "b_only", "b");
+        var result = sorted(getDao().getAll(clazz, "b_only"), RecordWithPrimitives::getId);
+        assertEquals(result.size(), records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(result.get(i).getB(), records.get(i).getB());
+            assertEquals(result.get(i).getA(), 0);
+        }
+
+        expectThrows(IllegalArgumentException.class, () -> MySqlClient.addFetchProfile(clazz, "x", "unknown"));
+    }
+
+    @Test
+    public void testProjection() {
+        var records = insertRecords(RecordAsRecord.class, RecordAsRecord::newRecord);
+
+        var result = sorted(getDao().getAll(RecordAsRecord.class, Summary.class), Summary::id);
+        assertEquals(result, records.stream().map(r -> new Summary(r.id(), r.a(), r.g())).toList());
+
+        var nullRecord = RecordAsRecord.newNullRecord(RECORD_COUNT + 1);
+        getDao().insert(nullRecord);
+        var nullSummary = getDao().getAll(RecordAsRecord.class, Summary.class).stream()
+            .filter(s -> s.id() == RECORD_COUNT + 1)
+            .findFirst()
+            .orElseThrow();
+        assertNull(nullSummary.title());
+        assertNull(nullSummary.g());
+
+        var primitives = insertRecords(RecordWithPrimitives.class, RecordWithPrimitives::newRecord);
+        var values = getDao().getAll(RecordWithPrimitives.class, Value.class).stream()
+            .map(Value::value)
+            .sorted()
+            .toList();
+        assertEquals(values, primitives.stream().map(RecordWithPrimitives::getA).sorted().toList());
+
+        expectThrows(IllegalArgumentException.class,
+            () -> getDao().getAll(RecordWithPrimitives.class, Summary.class));
+    }
+
+    private <T extends TableRecord> List<T> insertRecords(Class<T> clazz, BiFunction<Integer, Random, T> factory) {
+        getDao().createTables(Collections.singletonList(clazz));
+        getDao().truncate(Collections.singletonList(clazz));
+
+        var records = new ArrayList<T>(RECORD_COUNT);
+        for (int i = 1; i <= RECORD_COUNT; i++) {
+            records.add(factory.apply(i, RANDOM));
+        }
+        getDao().insert(RECORD_COUNT, records);
+        return records;
+    }
+
+    private static <T> List<T> sorted(List<T> list, Function<T, Integer> key) {
+        return list.stream().sorted(Comparator.comparing(key)).toList();
+    }
+}
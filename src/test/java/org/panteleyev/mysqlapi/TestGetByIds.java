@@ -0,0 +1,112 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.model.RecordWithPrimitives;
+import org.panteleyev.mysqlapi.model.UuidBinaryPrimaryKeyRecord;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class TestGetByIds extends Base {
+    private static final int RECORD_COUNT = 3000;
+
+    @DataProvider
+    public Object[][] testGetByIdsDataProvider() {
+        return new Object[][]{
+            {1, 0},
+            {100, 20},
+            {1500, 100},
+            // Temporary table
+            {RECORD_COUNT, MySqlClient.TEMPORARY_TABLE_THRESHOLD},
+        };
+    }
+
+    @Test(dataProvider = "testGetByIdsDataProvider")
+    public void testGetByIds(int existing, int missing) {
+        var clazz = RecordWithPrimitives.class;
+        getDao().createTables(Collections.singletonList(clazz));
+        getDao().preload(Collections.singletonList(clazz));
+
+        var records = new ArrayList<RecordWithPrimitives>(RECORD_COUNT);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            records.add(RecordWithPrimitives.newRecord(getDao().generatePrimaryKey(clazz), RANDOM));
+        }
+        getDao().insert(500, records);
+
+        var ids = new ArrayList<Integer>();
+        var expected = new HashMap<Integer, RecordWithPrimitives>();
+        for (int i = 0; i < existing; i++) {
+            var record = records.get(RANDOM.nextInt(RECORD_COUNT));
+            // Duplicates are expected
+            ids.add(record.getPrimaryKey());
+            expected.put(record.getPrimaryKey(), record);
+        }
+        for (int i = 0; i < missing; i++) {
+            ids.add(RECORD_COUNT + 1 + i);
+        }
+        Collections.shuffle(ids, RANDOM);
+
+        assertEquals(getDao().getAll(clazz, ids), expected);
+    }
+
+    @Test
+    public void testTemporaryTableIsDropped() throws Exception {
+        var clazz = RecordWithPrimitives.class;
+        getDao().createTables(Collections.singletonList(clazz));
+
+        var ids = new ArrayList<Integer>();
+        for (int i = 0; i < MySqlClient.TEMPORARY_TABLE_THRESHOLD; i++) {
+            ids.add(i + 1);
+        }
+
+        try (var conn = getDao().getConnection()) {
+            assertTrue(getDao().getAll(conn, clazz, ids).isEmpty());
+            // Second call on the same connection creates table again
+            assertTrue(getDao().getAll(conn, clazz, ids).isEmpty());
+        }
+    }
+
+    @Test
+    public void testBinaryUuid() {
+        var clazz = UuidBinaryPrimaryKeyRecord.class;
+        getDao().createTables(Collections.singletonList(clazz));
+
+        var records = new ArrayList<UuidBinaryPrimaryKeyRecord>();
+        for (int i = 0; i < 100; i++) {
+            records.add(new UuidBinaryPrimaryKeyRecord(UUID.randomUUID(), UUID.randomUUID().toString()));
+        }
+        getDao().insert(50, records);
+
+        var ids = new ArrayList<UUID>();
+        var expected = new HashMap<UUID, UuidBinaryPrimaryKeyRecord>();
+        for (var r : records.subList(0, 70)) {
+            ids.add(r.getPrimKey());
+            expected.put(r.getPrimKey(), r);
+        }
+
+        assertEquals(getDao().getAll(clazz, ids), expected);
+
+        // Temporary table
+        while (ids.size() < MySqlClient.TEMPORARY_TABLE_THRESHOLD) {
+            ids.add(UUID.randomUUID());
+        }
+        assertEquals(getDao().getAll(clazz, ids), expected);
+    }
+
+    @Test
+    public void testEmpty() {
+        Map<Integer, RecordWithPrimitives> result = getDao().getAll(RecordWithPrimitives.class, List.<Integer>of());
+        assertTrue(result.isEmpty());
+    }
+}
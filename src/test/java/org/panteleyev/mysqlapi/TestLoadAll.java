@@ -0,0 +1,92 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.model.ImmutableRecord;
+import org.panteleyev.mysqlapi.model.RecordWithAllTypes;
+import org.panteleyev.mysqlapi.model.RecordWithEnums;
+import org.panteleyev.mysqlapi.model.RecordWithPrimitives;
+import org.testng.annotations.Test;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import static org.testng.Assert.assertEquals;
+
+@Test
+public class TestLoadAll extends Base {
+    private static final int RECORD_COUNT = 200;
+
+    private static final List<Class<? extends TableRecord>> TABLES = List.of(
+        RecordWithAllTypes.class,
+        ImmutableRecord.class,
+        RecordWithPrimitives.class,
+        RecordWithEnums.class
+    );
+
+    @Test
+    public void testLoadAll() throws Exception {
+        getDao().createTables(TABLES);
+        getDao().preload(TABLES);
+
+        var expected = new HashMap<Class<? extends TableRecord>, List<TableRecord<Integer>>>();
+        for (var table : TABLES) {
+            @SuppressWarnings("unchecked")
+            var clazz = (Class<TableRecord<Integer>>) table;
+            var records = new ArrayList<TableRecord<Integer>>();
+            for (int i = 0; i < RECORD_COUNT; i++) {
+                records.add(givenRandomRecord(clazz));
+            }
+            getDao().insert(50, records);
+            expected.put(table, records);
+        }
+
+        for (var parallelism : new int[]{1, 3, 8}) {
+            for (var exactSnapshot : new boolean[]{false, true}) {
+                var result = getDao().loadAll(TABLES, parallelism, exactSnapshot);
+                assertEquals(new ArrayList<>(result.keySet()), TABLES);
+                for (var table : TABLES) {
+                    assertRecords(result.get(table), expected.get(table));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConnectionPool() throws Exception {
+        try (var pool = (ConnectionPool) getDataSourceBuilder().maxPoolSize(2).build()) {
+            var client = new MySqlClient(pool);
+            client.setCompiled(getDao().isCompiled());
+
+            var clazz = RecordWithPrimitives.class;
+            client.createTables(List.of(clazz, RecordWithEnums.class));
+            client.preload(List.of(clazz));
+            var record = RecordWithPrimitives.newRecord(client.generatePrimaryKey(clazz), RANDOM);
+            client.insert(record);
+
+            var result = client.loadAll(List.of(clazz, RecordWithEnums.class), 2);
+            assertEquals(result.get(clazz), List.of(record));
+            assertEquals(result.get(RecordWithEnums.class), List.of());
+
+            // Connections are returned to the pool without open transactions
+            try (var conn = pool.getConnection()) {
+                assertEquals(conn.getAutoCommit(), true);
+            }
+            client.delete(record);
+            assertEquals(client.getAll(clazz), List.of());
+        }
+    }
+
+    private static void assertRecords(List<? extends TableRecord> retrieved, List<? extends TableRecord<?>> expected) {
+        assertEquals(retrieved.size(), expected.size());
+
+        var map = new HashMap<Object, TableRecord>();
+        for (var r : retrieved) {
+            map.put(r.getPrimaryKey(), r);
+        }
+        for (var r : expected) {
+            assertEquals(map.get(r.getPrimaryKey()), r);
+        }
+    }
+}
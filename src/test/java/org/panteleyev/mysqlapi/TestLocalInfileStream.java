@@ -0,0 +1,60 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.model.RecordWithUuid;
+import org.testng.annotations.Test;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.UUID;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class TestLocalInfileStream {
+    private static final TableRecord<Integer> RECORD = new RecordWithUuid(1, UUID.randomUUID(), UUID.randomUUID());
+
+    @Test
+    public void testEncoding() throws Exception {
+        var stream = new LocalInfileStream<>(List.of(RECORD, RECORD).iterator(), 6, (record, st) -> {
+            try {
+                st.setString(1, "a\tb\nc\\d");
+                st.setNull(2, Types.VARCHAR);
+                st.setBytes(3, new byte[]{0, 'x', '\t', (byte) 0xFF});
+                st.setBoolean(4, true);
+                st.setBigDecimal(5, new BigDecimal("1E+3"));
+                st.setString(6, "ю");
+            } catch (SQLException ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+
+        var row = new StringBuilder()
+            .append("a\\tb\\nc\\\\d\t\\N\t007809FF\t1\t1000\t")
+            .append(new String("ю".getBytes(StandardCharsets.UTF_8), StandardCharsets.ISO_8859_1))
+            .append('\n')
+            .toString();
+        assertEquals(new String(stream.readAllBytes(), StandardCharsets.ISO_8859_1), row + row);
+        assertEquals(stream.getCount(), 2);
+        assertEquals(stream.read(), -1);
+    }
+
+    @Test
+    public void testFailure() {
+        var exception = new IllegalStateException();
+        var stream = new LocalInfileStream<>(List.of(RECORD).iterator(), 1, (record, st) -> {
+            throw exception;
+        });
+
+        var thrown = expectThrows(IOException.class, stream::readAllBytes);
+        assertSame(thrown.getCause(), exception);
+        assertSame(stream.getFailure(), exception);
+    }
+}
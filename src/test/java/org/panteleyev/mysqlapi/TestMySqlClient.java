@@ -6,6 +6,7 @@ package org.panteleyev.mysqlapi;
 
 import org.panteleyev.mysqlapi.answers.ResultSetBigDecimalAnswer;
 import org.panteleyev.mysqlapi.answers.ResultSetBooleanAnswer;
+import org.panteleyev.mysqlapi.answers.ResultSetBytesAnswer;
 import org.panteleyev.mysqlapi.answers.ResultSetIntAnswer;
 import org.panteleyev.mysqlapi.answers.ResultSetLongAnswer;
 import org.panteleyev.mysqlapi.answers.ResultSetObjectAnswer;
@@ -14,23 +15,48 @@ import org.panteleyev.mysqlapi.model.ImmutableRecord;
 import org.panteleyev.mysqlapi.model.RecordWithAllTypes;
 import org.panteleyev.mysqlapi.model.RecordWithJson;
 import org.panteleyev.mysqlapi.model.RecordWithOptionals;
+import org.panteleyev.mysqlapi.model.RecordWithPrimitives;
 import org.panteleyev.mysqlapi.model.RecordWithUuid;
 import org.panteleyev.mysqlapi.model.UuidBinaryPrimaryKeyRecord;
 import org.panteleyev.mysqlapi.model.UuidPrimaryKeyRecord;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
+import javax.sql.DataSource;
+import java.lang.invoke.MethodType;
 import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertThrows;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
 
 @Test
 public class TestMySqlClient {
@@ -60,11 +86,12 @@ public class TestMySqlClient {
             records[id - 1] = record;
 
             var rs = mock(ResultSet.class);
-            when(rs.getObject(anyString())).then(new ResultSetObjectAnswer(record));
-            when(rs.getLong(anyString())).then(new ResultSetLongAnswer(record));
-            when(rs.getInt(anyString())).then(new ResultSetIntAnswer(record));
-            when(rs.getBoolean(anyString())).then(new ResultSetBooleanAnswer(record));
-            when(rs.getBigDecimal(anyString())).then(new ResultSetBigDecimalAnswer(record));
+            when(rs.getObject(anyInt())).then(new ResultSetObjectAnswer(record));
+            when(rs.getLong(anyInt())).then(new ResultSetLongAnswer(record));
+            when(rs.getInt(anyInt())).then(new ResultSetIntAnswer(record));
+            when(rs.getBoolean(anyInt())).then(new ResultSetBooleanAnswer(record));
+            when(rs.getBigDecimal(anyInt())).then(new ResultSetBigDecimalAnswer(record));
+            when(rs.getBytes(anyInt())).then(new ResultSetBytesAnswer(record));
 
             resultSets[id - 1] = rs;
         }
@@ -80,12 +107,125 @@ public class TestMySqlClient {
         assertEquals(loadedRecords, records);
     }
 
+    @Test
+    public void testFromSQLMutable() throws Exception {
+        var dao = new MySqlClient();
+
+        for (int id = 1; id <= NUMBER_OF_RECORDS; id++) {
+            var record = RecordWithPrimitives.newRecord(id, RANDOM);
+
+            var rs = mock(ResultSet.class);
+            when(rs.getObject(anyInt())).then(new ResultSetObjectAnswer(record));
+            when(rs.getLong(anyInt())).then(new ResultSetLongAnswer(record));
+            when(rs.getInt(anyInt())).then(new ResultSetIntAnswer(record));
+            when(rs.getBoolean(anyInt())).then(new ResultSetBooleanAnswer(record));
+
+            assertEquals(dao.fromSQL(rs, RecordWithPrimitives.class), record);
+        }
+    }
+
+    @Test
+    public void testGetRowMapper() {
+        var dao = new MySqlClient();
+
+        var mapper = dao.getRowMapper(ImmutableRecord.class);
+        Assert.assertTrue(mapper instanceof RowMapper.ConstructorRowMapper);
+        assertSame(dao.getRowMapper(ImmutableRecord.class), mapper);
+        assertSame(new MySqlClient().getRowMapper(ImmutableRecord.class), mapper);
+
+        Assert.assertTrue(dao.getRowMapper(RecordWithAllTypes.class) instanceof RowMapper.FieldRowMapper);
+    }
+
+    @DataProvider(name = "testCompiledDataProvider")
+    public Object[][] testCompiledDataProvider() {
+        return new Object[][]{
+            {ImmutableRecord.class, (BiFunction<Integer, Random, TableRecord>) ImmutableRecord::newRecord},
+            {RecordWithAllTypes.class, (BiFunction<Integer, Random, TableRecord>) RecordWithAllTypes::newRecord},
+            {RecordWithPrimitives.class, (BiFunction<Integer, Random, TableRecord>) RecordWithPrimitives::newRecord},
+        };
+    }
+
+    @Test(dataProvider = "testCompiledDataProvider")
+    public void testFromSQLCompiled(Class<? extends TableRecord> clazz, BiFunction<Integer, Random, TableRecord> factory)
+        throws Exception
+    {
+        var dao = new MySqlClient();
+        dao.setCompiled(true);
+        Assert.assertTrue(dao.getRowMapper(clazz) instanceof CompiledMapper);
+
+        for (int id = 1; id <= NUMBER_OF_RECORDS; id++) {
+            var record = factory.apply(id, RANDOM);
+
+            var rs = mock(ResultSet.class);
+            when(rs.getObject(anyInt())).then(new ResultSetObjectAnswer(record));
+            when(rs.getLong(anyInt())).then(new ResultSetLongAnswer(record));
+            when(rs.getInt(anyInt())).then(new ResultSetIntAnswer(record));
+            when(rs.getBoolean(anyInt())).then(new ResultSetBooleanAnswer(record));
+            when(rs.getBigDecimal(anyInt())).then(new ResultSetBigDecimalAnswer(record));
+            when(rs.getBytes(anyInt())).then(new ResultSetBytesAnswer(record));
+
+            assertEquals(dao.fromSQL(rs, clazz), record);
+        }
+    }
+
+    @Test(dataProvider = "testCompiledDataProvider")
+    public void testSetDataCompiled(Class<? extends TableRecord> clazz, BiFunction<Integer, Random, TableRecord> factory) {
+        var reflective = new MySqlClient();
+        var compiled = new MySqlClient();
+        compiled.setCompiled(true);
+
+        for (var update : new boolean[]{false, true}) {
+            var record = factory.apply(RANDOM.nextInt(), RANDOM);
+
+            var expected = mock(PreparedStatement.class);
+            reflective.setData(record, expected, update);
+            var actual = mock(PreparedStatement.class);
+            compiled.setData(record, actual, update);
+
+            assertEquals(describeInvocations(actual), describeInvocations(expected));
+        }
+    }
+
+    @Test
+    public void testSetData() throws Exception {
+        var dao = new MySqlClient();
+        var record = RecordWithPrimitives.newRecord(RANDOM.nextInt(), RANDOM);
+
+        var insert = mock(PreparedStatement.class);
+        dao.setData(record, insert, false);
+        var inOrder = inOrder(insert);
+        inOrder.verify(insert).setInt(1, record.getId());
+        inOrder.verify(insert).setInt(2, record.getA());
+        inOrder.verify(insert).setBoolean(3, record.getB());
+        inOrder.verify(insert).setLong(4, record.getC());
+        verifyNoMoreInteractions(insert);
+
+        var update = mock(PreparedStatement.class);
+        dao.setData(record, update, true);
+        inOrder = inOrder(update);
+        inOrder.verify(update).setInt(1, record.getA());
+        inOrder.verify(update).setBoolean(2, record.getB());
+        inOrder.verify(update).setLong(3, record.getC());
+        inOrder.verify(update).setInt(4, record.getId());
+        verifyNoMoreInteractions(update);
+
+        assertSame(dao.getStatementBinder(RecordWithPrimitives.class),
+            dao.getStatementBinder(RecordWithPrimitives.class));
+    }
+
+    private static List<String> describeInvocations(Object mock) {
+        return mockingDetails(mock).getInvocations().stream()
+            .map(inv -> inv.getMethod().getName() + Arrays.toString(inv.getArguments()))
+            .toList();
+    }
+
     @Test
     public void testCacheConstructorHandle() {
         var constructorHandle = MySqlClient.cacheConstructorHandle(ImmutableRecord.class);
 
         Assert.assertNotNull(constructorHandle);
         Assert.assertNotNull(constructorHandle.handle());
+        assertEquals(constructorHandle.invoker().type(), MethodType.methodType(TableRecord.class, ResultSet.class));
 
         var parameters = constructorHandle.parameters();
 
@@ -125,7 +265,7 @@ public class TestMySqlClient {
             {RecordWithJson.class,
                 "SELECT id,json FROM table_with_json"},
             {RecordWithUuid.class,
-                "SELECT id,uuid,BIN_TO_UUID(uuidBinary) AS uuidBinary FROM table_with_uuid"},
+                "SELECT id,uuid,uuidBinary FROM table_with_uuid"},
             {RecordWithOptionals.class,
                 "SELECT id,a,b,c,d,e,f,g,h FROM optionals_table"},
         };
@@ -153,10 +293,9 @@ public class TestMySqlClient {
             {RecordWithJson.class,
                 "SELECT id,json FROM table_with_json WHERE id=?"},
             {RecordWithUuid.class,
-                "SELECT id,uuid,BIN_TO_UUID(uuidBinary) AS uuidBinary FROM table_with_uuid WHERE id=?"},
+                "SELECT id,uuid,uuidBinary FROM table_with_uuid WHERE id=?"},
             {UuidBinaryPrimaryKeyRecord.class,
-                "SELECT BIN_TO_UUID(prim_key) AS prim_key,value FROM uuid_binary_primary_key WHERE BIN_TO_UUID" +
-                    "(prim_key)=?"},
+                "SELECT prim_key,value FROM uuid_binary_primary_key WHERE prim_key=?"},
             {UuidPrimaryKeyRecord.class,
                 "SELECT prim_key,value FROM uuid_primary_key WHERE prim_key=?"},
         };
@@ -195,4 +334,288 @@ public class TestMySqlClient {
         assertSame(sql, sql2);
         assertEquals(sql, expected);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testStreamClosesStatement() throws Exception {
+        var set = mock(ResultSet.class);
+        when(set.next()).thenReturn(false);
+        var st = mock(PreparedStatement.class);
+        when(st.executeQuery()).thenReturn(set);
+        var conn = mock(Connection.class);
+        when(conn.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(st);
+
+        var dao = new MySqlClient();
+        try (var records = dao.stream(conn, RecordWithPrimitives.class)) {
+            verify(conn).prepareStatement(dao.getSelectAllSql(RecordWithPrimitives.class),
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            verify(st).setFetchSize(Integer.MIN_VALUE);
+            verify(set, never()).next();
+            verify(st, never()).close();
+
+            assertEquals(records.count(), 0L);
+        }
+        verify(st).close();
+    }
+
+    @Test
+    public void testDeleteAllDuplicateKeys() throws Exception {
+        var st = mock(PreparedStatement.class);
+        when(st.executeUpdate()).thenReturn(2);
+        var conn = mock(Connection.class);
+        when(conn.prepareStatement(anyString())).thenReturn(st);
+
+        var clazz = RecordWithPrimitives.class;
+        assertEquals(new MySqlClient().deleteAll(conn, clazz, List.of(1, 2, 1, 2, 1)), 2);
+        verify(conn).prepareStatement(TableMetadata.of(clazz).getDeleteByIdsSql(2));
+        verify(st).setInt(1, 1);
+        verify(st).setInt(2, 2);
+        verify(st).executeUpdate();
+    }
+
+    @Test
+    public void testFetchSize() {
+        var dao = new MySqlClient();
+        assertEquals(dao.getFetchSize(), Integer.MIN_VALUE);
+
+        dao.setFetchSize(100);
+        assertEquals(dao.getFetchSize(), 100);
+
+        dao.setFetchSize(0);
+        assertEquals(dao.getFetchSize(), 0);
+
+        assertThrows(IllegalArgumentException.class, () -> dao.setFetchSize(-1));
+    }
+
+    @DataProvider
+    public Object[][] testLoadAllSnapshotDataProvider() {
+        return new Object[][]{
+            {false, List.of(
+                "0: START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY",
+                "1: START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY"
+            )},
+            {true, List.of(
+                "0: FLUSH TABLES WITH READ LOCK",
+                "0: START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY",
+                "1: START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY",
+                "0: UNLOCK TABLES"
+            )},
+        };
+    }
+
+    @Test(dataProvider = "testLoadAllSnapshotDataProvider")
+    public void testLoadAllSnapshot(boolean exactSnapshot, List<String> expected) throws Exception {
+        var executed = Collections.synchronizedList(new ArrayList<String>());
+        var connections = new ArrayList<Connection>();
+        var dataSource = mockLoadAllDataSource(executed, connections);
+
+        var dao = new MySqlClient(dataSource);
+        var result = dao.loadAll(List.of(RecordWithPrimitives.class, RecordWithAllTypes.class, ImmutableRecord.class),
+            2, exactSnapshot);
+
+        assertEquals(new ArrayList<>(result.keySet()),
+            List.of(RecordWithPrimitives.class, RecordWithAllTypes.class, ImmutableRecord.class));
+        assertEquals(executed, expected);
+        assertEquals(connections.size(), 2);
+        for (var conn : connections) {
+            verify(conn).setAutoCommit(false);
+            verify(conn).close();
+        }
+    }
+
+    @Test
+    public void testLoadAllParallelismLimitedByPool() throws Exception {
+        var executed = Collections.synchronizedList(new ArrayList<String>());
+        var connections = new ArrayList<Connection>();
+        var dataSource = mockLoadAllDataSource(executed, connections);
+
+        try (var pool = new ConnectionPool(dataSource, 0, 2, Duration.ZERO, Duration.ofMillis(100))) {
+            var dao = new MySqlClient(pool);
+            var result = dao.loadAll(
+                List.of(RecordWithPrimitives.class, RecordWithAllTypes.class, ImmutableRecord.class), 8);
+
+            assertEquals(result.size(), 3);
+            assertEquals(connections.size(), 2);
+            assertEquals(pool.getBorrowCount(), 2);
+            assertEquals(pool.getTimeoutCount(), 0);
+        }
+    }
+
+    private static DataSource mockLoadAllDataSource(List<String> executed, List<Connection> connections)
+        throws SQLException
+    {
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> {
+            var index = connections.size();
+            var conn = mock(Connection.class);
+            var st = mock(Statement.class);
+            when(st.execute(anyString())).thenAnswer(i -> executed.add(index + ": " + i.getArgument(0)));
+            when(conn.createStatement()).thenReturn(st);
+            when(conn.prepareStatement(anyString())).thenAnswer(i -> {
+                var set = mock(ResultSet.class);
+                var ps = mock(PreparedStatement.class);
+                when(ps.executeQuery()).thenReturn(set);
+                return ps;
+            });
+            connections.add(conn);
+            return conn;
+        });
+        return dataSource;
+    }
+
+    @DataProvider
+    public Object[][] testSplitKeyRangeDataProvider() {
+        return new Object[][]{
+            {1, 10, 3, List.of(List.of(1L, 4L), List.of(5L, 8L), List.of(9L, 10L))},
+            {1, 12, 3, List.of(List.of(1L, 4L), List.of(5L, 8L), List.of(9L, 12L))},
+            {5, 5, 4, List.of(List.of(5L, 5L))},
+            {1, 3, 8, List.of(List.of(1L, 1L), List.of(2L, 2L), List.of(3L, 3L))},
+            {Long.MIN_VALUE, Long.MAX_VALUE, 1, List.of(List.of(Long.MIN_VALUE, Long.MAX_VALUE))},
+            {Long.MIN_VALUE, Long.MAX_VALUE, 2, List.of(List.of(Long.MIN_VALUE, -1L), List.of(0L, Long.MAX_VALUE))},
+        };
+    }
+
+    @Test(dataProvider = "testSplitKeyRangeDataProvider")
+    public void testSplitKeyRange(long min, long max, int partitions, List<List<Long>> expected) {
+        var ranges = MySqlClient.splitKeyRange(min, max, partitions).stream()
+            .map(r -> List.of(r[0], r[1]))
+            .toList();
+        assertEquals(ranges, expected);
+    }
+
+    private static DataSource mockTransactionDataSource(Connection conn) throws Exception {
+        when(conn.prepareStatement(anyString())).thenAnswer(i -> mock(PreparedStatement.class));
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(conn);
+        return dataSource;
+    }
+
+    @Test
+    public void testInTransactionCommit() throws Exception {
+        var conn = mock(Connection.class);
+        var dao = new MySqlClient(mockTransactionDataSource(conn));
+
+        var result = dao.inTransaction(TransactionIsolation.READ_COMMITTED, false, tx -> {
+            assertSame(tx.getConnection(), conn);
+            tx.delete(1, RecordWithPrimitives.class);
+            return "done";
+        });
+
+        assertEquals(result, "done");
+        var order = inOrder(conn);
+        order.verify(conn).setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        order.verify(conn).setAutoCommit(false);
+        order.verify(conn).prepareStatement("DELETE FROM primitives_table WHERE id=?");
+        order.verify(conn).commit();
+        order.verify(conn).close();
+        verify(conn, never()).rollback();
+        verify(conn, never()).setReadOnly(true);
+    }
+
+    @Test
+    public void testInTransactionRollback() throws Exception {
+        var conn = mock(Connection.class);
+        var dao = new MySqlClient(mockTransactionDataSource(conn));
+        var failure = new IllegalStateException();
+        var calls = new AtomicInteger();
+
+        var thrown = expectThrows(IllegalStateException.class, () -> dao.inTransaction(null, true, tx -> {
+            calls.incrementAndGet();
+            throw failure;
+        }));
+
+        assertSame(thrown, failure);
+        assertEquals(calls.get(), 1);
+        verify(conn).setReadOnly(true);
+        verify(conn).rollback();
+        verify(conn, never()).commit();
+        verify(conn).close();
+    }
+
+    @Test
+    public void testInTransactionRestoresSettings() throws Exception {
+        var conn = mock(Connection.class);
+        when(conn.getAutoCommit()).thenReturn(true, false);
+        when(conn.getTransactionIsolation()).thenReturn(Connection.TRANSACTION_REPEATABLE_READ);
+        var dao = new MySqlClient(mockTransactionDataSource(conn));
+
+        dao.inTransaction(TransactionIsolation.READ_COMMITTED, true, tx -> null);
+
+        var order = inOrder(conn);
+        order.verify(conn).setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        order.verify(conn).setReadOnly(true);
+        order.verify(conn).setAutoCommit(false);
+        order.verify(conn).commit();
+        order.verify(conn).setAutoCommit(true);
+        order.verify(conn).setReadOnly(false);
+        order.verify(conn).setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        order.verify(conn).close();
+        verify(conn, never()).rollback();
+    }
+
+    @Test
+    public void testInTransactionRestoresSettingsOnFailure() throws Exception {
+        var conn = mock(Connection.class);
+        when(conn.getAutoCommit()).thenReturn(true, false);
+        var rollbackFailure = new SQLException("Connection lost");
+        doThrow(rollbackFailure).when(conn).rollback();
+        var dao = new MySqlClient(mockTransactionDataSource(conn));
+        var failure = new IllegalStateException();
+
+        var thrown = expectThrows(IllegalStateException.class, () -> dao.inTransaction(tx -> {
+            throw failure;
+        }));
+
+        // Transaction that was not rolled back must not be committed by auto-commit
+        assertSame(thrown, failure);
+        var order = inOrder(conn);
+        order.verify(conn, times(2)).rollback();
+        order.verify(conn, never()).setAutoCommit(true);
+        order.verify(conn).close();
+        verify(conn, never()).commit();
+        assertEquals(List.of(thrown.getSuppressed()), List.of(rollbackFailure, rollbackFailure));
+    }
+
+    @Test
+    public void testInTransactionDeadlockRetry() throws Exception {
+        var conn = mock(Connection.class);
+        var dao = new MySqlClient(mockTransactionDataSource(conn));
+        var calls = new AtomicInteger();
+
+        var result = dao.inTransaction(tx -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new RuntimeException(new SQLException("Deadlock", "40001", MySqlClient.ER_LOCK_DEADLOCK));
+            }
+            return calls.get();
+        });
+
+        assertEquals(result.intValue(), 3);
+        verify(conn, times(2)).rollback();
+        verify(conn).commit();
+        verify(conn).close();
+    }
+
+    @Test
+    public void testInTransactionRetriesExhausted() throws Exception {
+        var conn = mock(Connection.class);
+        doThrow(new SQLException("Deadlock", "40001", MySqlClient.ER_LOCK_DEADLOCK)).when(conn).commit();
+        var dao = new MySqlClient(mockTransactionDataSource(conn));
+        dao.setTransactionRetries(1);
+        var calls = new AtomicInteger();
+
+        var thrown = expectThrows(RuntimeException.class, () -> dao.inTransaction(tx -> calls.incrementAndGet()));
+
+        assertTrue(MySqlClient.isDeadlock(thrown));
+        assertEquals(calls.get(), 2);
+        verify(conn, times(2)).rollback();
+        verify(conn).close();
+        expectThrows(IllegalArgumentException.class, () -> dao.setTransactionRetries(-1));
+    }
+
+    @Test
+    public void testIsDeadlock() {
+        assertTrue(MySqlClient.isDeadlock(new SQLException("Deadlock", "40001", MySqlClient.ER_LOCK_DEADLOCK)));
+        assertTrue(MySqlClient.isDeadlock(new RuntimeException(new SQLException("Serialization", "40001"))));
+        assertFalse(MySqlClient.isDeadlock(new RuntimeException(new SQLException("Duplicate", "23000", 1062))));
+        assertFalse(MySqlClient.isDeadlock(new IllegalStateException()));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.model.RecordWithPrimitives;
+import org.panteleyev.mysqlapi.model.StringPrimaryKeyRecord;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class TestPage extends Base {
+    @DataProvider
+    public Object[][] testPagesDataProvider() {
+        return new Object[][]{
+            {100, 7, SortOrder.ASCENDING},
+            {100, 10, SortOrder.ASCENDING},
+            {100, 7, SortOrder.DESCENDING},
+            {5, 10, SortOrder.DESCENDING},
+        };
+    }
+
+    @Test(dataProvider = "testPagesDataProvider")
+    public void testPages(int count, int limit, SortOrder order) {
+        var clazz = RecordWithPrimitives.class;
+        getDao().createTables(Collections.singletonList(clazz));
+        getDao().preload(Collections.singletonList(clazz));
+
+        var records = new ArrayList<RecordWithPrimitives>(count);
+        for (int i = 0; i < count; i++) {
+            records.add(RecordWithPrimitives.newRecord(getDao().generatePrimaryKey(clazz), RANDOM));
+        }
+        getDao().insert(50, records);
+
+        Comparator<RecordWithPrimitives> comparator = Comparator.comparing(RecordWithPrimitives::getPrimaryKey);
+        records.sort(order == SortOrder.ASCENDING ? comparator : comparator.reversed());
+
+        var retrieved = new ArrayList<RecordWithPrimitives>();
+        var pages = getDao().pages(clazz, limit, order);
+        while (pages.hasNext()) {
+            var page = pages.next();
+            assertFalse(page.isEmpty());
+            assertTrue(page.size() <= limit);
+            retrieved.addAll(page);
+        }
+        assertEquals(retrieved, records);
+
+        // Explicit keys
+        var firstPage = getDao().page(clazz, null, limit, order);
+        assertEquals(firstPage, records.subList(0, Math.min(limit, count)));
+        var lastKey = records.get(count - 1).getPrimaryKey();
+        assertTrue(getDao().page(clazz, lastKey, limit, order).isEmpty());
+    }
+
+    @Test
+    public void testStringPrimaryKey() {
+        var clazz = StringPrimaryKeyRecord.class;
+        getDao().createTables(Collections.singletonList(clazz));
+
+        var records = new ArrayList<StringPrimaryKeyRecord>();
+        for (int i = 0; i < 25; i++) {
+            records.add(new StringPrimaryKeyRecord(UUID.randomUUID().toString(), UUID.randomUUID().toString()));
+        }
+        getDao().insert(10, records);
+        records.sort(Comparator.comparing(StringPrimaryKeyRecord::getPrimaryKey));
+
+        var page = getDao().page(clazz, records.get(9).getPrimaryKey(), 10);
+        assertEquals(page, records.subList(10, 20));
+    }
+
+    @Test
+    public void testEmptyTable() {
+        var clazz = RecordWithPrimitives.class;
+        getDao().createTables(Collections.singletonList(clazz));
+
+        assertFalse(getDao().pages(clazz, 10).hasNext());
+        assertEquals(getDao().page(clazz, null, 10), List.of());
+    }
+}
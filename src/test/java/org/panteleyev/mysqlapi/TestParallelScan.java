@@ -0,0 +1,74 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.model.RecordWithPrimitives;
+import org.panteleyev.mysqlapi.model.StringPrimaryKeyRecord;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class TestParallelScan extends Base {
+    private static final int RECORD_COUNT = 1000;
+
+    @DataProvider
+    public Object[][] testParallelScanDataProvider() {
+        return new Object[][]{{1}, {4}, {7}};
+    }
+
+    @Test(dataProvider = "testParallelScanDataProvider")
+    public void testParallelScan(int partitions) {
+        var clazz = RecordWithPrimitives.class;
+        getDao().createTables(Collections.singletonList(clazz));
+        getDao().preload(Collections.singletonList(clazz));
+
+        var records = new ArrayList<RecordWithPrimitives>(RECORD_COUNT);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            records.add(RecordWithPrimitives.newRecord(getDao().generatePrimaryKey(clazz), RANDOM));
+        }
+        getDao().insert(100, records);
+
+        // Make keys sparse
+        var deleted = new ArrayList<Integer>();
+        for (int i = 0; i < RECORD_COUNT; i += 3) {
+            deleted.add(records.get(i).getPrimaryKey());
+        }
+        getDao().deleteAll(clazz, deleted);
+        var expected = new HashMap<Integer, RecordWithPrimitives>();
+        for (var r : records) {
+            expected.put(r.getPrimaryKey(), r);
+        }
+        deleted.forEach(expected::remove);
+
+        var scanned = new ConcurrentHashMap<Integer, RecordWithPrimitives>();
+        var count = getDao().parallelScan(clazz, partitions, r -> scanned.put(r.getPrimaryKey(), r));
+
+        assertEquals(count, expected.size());
+        assertEquals(scanned, expected);
+    }
+
+    @Test
+    public void testEmptyTable() {
+        var clazz = RecordWithPrimitives.class;
+        getDao().createTables(Collections.singletonList(clazz));
+
+        var scanned = Collections.synchronizedList(new ArrayList<RecordWithPrimitives>());
+        assertEquals(getDao().parallelScan(clazz, 4, scanned::add), 0L);
+        assertEquals(scanned, List.of());
+    }
+
+    @Test
+    public void testNonIntegerPrimaryKey() {
+        expectThrows(IllegalStateException.class,
+            () -> getDao().parallelScan(StringPrimaryKeyRecord.class, 4, r -> {}));
+    }
+}
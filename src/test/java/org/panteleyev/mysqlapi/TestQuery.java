@@ -0,0 +1,108 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.model.EnumType;
+import org.panteleyev.mysqlapi.model.RecordWithAllTypes;
+import org.panteleyev.mysqlapi.model.RecordWithEnums;
+import org.testng.annotations.Test;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.List;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class TestQuery {
+    private static final String SELECT_ALL =
+        "SELECT primary_key,a_field,b_field,c_field,d_field,e_field,f_field,g_field,h_field FROM all_types_table";
+
+    private final MySqlClient client = new MySqlClient();
+
+    @Test
+    public void testSql() {
+        var query = client.query(RecordWithAllTypes.class)
+            .equalTo("a_field", "a")
+            .equalTo("b_field", null)
+            .notEqualTo("c_field", true)
+            .between("e_field", 1L, 10L)
+            .greaterThan("f_field", 1)
+            .lessOrEqual("h_field", 2)
+            .isNotNull("d_field")
+            .orderBy("e_field", SortOrder.DESCENDING)
+            .orderBy("primary_key");
+
+        assertEquals(query.getSql(0), SELECT_ALL
+            + " WHERE a_field=? AND b_field IS NULL AND c_field<>? AND e_field BETWEEN ? AND ? AND f_field>?"
+            + " AND h_field<=? AND d_field IS NOT NULL ORDER BY e_field DESC,primary_key ASC");
+        assertEquals(query.getSql(10), query.getSql(0) + " LIMIT ?");
+        assertEquals(client.query(RecordWithAllTypes.class).getSql(0), SELECT_ALL);
+    }
+
+    @Test
+    public void testSqlIsCached() {
+        var sql = client.query(RecordWithAllTypes.class).equalTo("b_field", 1).limit(5).getSql(5);
+        var sql2 = client.query(RecordWithAllTypes.class).equalTo("b_field", 2).limit(7).getSql(7);
+        assertSame(sql, sql2);
+    }
+
+    @Test
+    public void testInList() {
+        assertEquals(client.query(RecordWithAllTypes.class).in("b_field", List.of(1)).getSql(0),
+            SELECT_ALL + " WHERE b_field IN (?)");
+        assertEquals(client.query(RecordWithAllTypes.class).in("b_field", List.of(1, 2, 3)).getSql(0),
+            SELECT_ALL + " WHERE b_field IN (?,?,?,?)");
+        assertEquals(client.query(RecordWithAllTypes.class).in("b_field", List.of(1, 2, 3, 4)).getSql(0),
+            SELECT_ALL + " WHERE b_field IN (?,?,?,?)");
+        assertEquals(client.query(RecordWithAllTypes.class).in("b_field", List.of()).getSql(0),
+            SELECT_ALL + " WHERE FALSE");
+    }
+
+    @Test
+    public void testBinding() throws Exception {
+        var set = mock(ResultSet.class);
+        var st = mock(PreparedStatement.class);
+        when(st.executeQuery()).thenReturn(set);
+        var conn = mock(Connection.class);
+        when(conn.prepareStatement(anyString())).thenReturn(st);
+
+        var result = client.query(RecordWithEnums.class)
+            .equalTo("by_name", EnumType.F2)
+            .equalTo("by_ordinal", EnumType.F3)
+            .in("id", List.of(1, 2, 3))
+            .limit(20)
+            .list(conn);
+
+        assertTrue(result.isEmpty());
+        verify(conn).prepareStatement("SELECT id,by_name,by_ordinal,native_enum FROM table_with_enums"
+            + " WHERE by_name=? AND by_ordinal=? AND id IN (?,?,?,?) LIMIT ?");
+        verify(st).setString(1, "F2");
+        verify(st).setInt(2, 2);
+        verify(st).setInt(3, 1);
+        verify(st).setInt(4, 2);
+        verify(st).setInt(5, 3);
+        verify(st).setInt(6, 3);
+        verify(st).setInt(7, 20);
+    }
+
+    @Test
+    public void testBadArguments() {
+        expectThrows(IllegalArgumentException.class,
+            () -> client.query(RecordWithAllTypes.class).equalTo("no_such_column", 1));
+        expectThrows(IllegalArgumentException.class,
+            () -> client.query(RecordWithAllTypes.class).orderBy("a_field; DROP TABLE all_types_table"));
+        expectThrows(NullPointerException.class,
+            () -> client.query(RecordWithAllTypes.class).greaterThan("b_field", null));
+        expectThrows(IllegalArgumentException.class,
+            () -> client.query(RecordWithAllTypes.class).limit(-1));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.model.EnumType;
+import org.panteleyev.mysqlapi.model.RecordWithEnums;
+import org.panteleyev.mysqlapi.model.RecordWithPrimitives;
+import org.testng.annotations.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test
+public class TestQueryRecords extends Base {
+    private static final int RECORD_COUNT = 300;
+
+    @Test
+    public void testQuery() {
+        var clazz = RecordWithPrimitives.class;
+        getDao().createTables(Collections.singletonList(clazz));
+        getDao().preload(Collections.singletonList(clazz));
+
+        var records = new ArrayList<RecordWithPrimitives>(RECORD_COUNT);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            records.add(RecordWithPrimitives.newRecord(getDao().generatePrimaryKey(clazz), RANDOM));
+        }
+        getDao().insert(100, records);
+
+        var byKey = Comparator.comparing(RecordWithPrimitives::getPrimaryKey);
+
+        // Range and order
+        var expected = records.stream()
+            .filter(r -> r.getPrimaryKey() > 50 && r.getPrimaryKey() <= 150)
+            .sorted(byKey.reversed())
+            .toList();
+        assertEquals(getDao().query(clazz)
+            .greaterThan("id", 50)
+            .lessOrEqual("id", 150)
+            .orderBy("id", SortOrder.DESCENDING)
+            .list(), expected);
+
+        // Limit
+        assertEquals(getDao().query(clazz)
+            .between("id", 51, 150)
+            .orderBy("id", SortOrder.DESCENDING)
+            .limit(10)
+            .list(), expected.subList(0, 10));
+
+        // IN list
+        var ids = Set.of(3, 5, 7, 11, 13);
+        expected = records.stream().filter(r -> ids.contains(r.getPrimaryKey())).sorted(byKey).toList();
+        assertEquals(getDao().query(clazz).in("id", ids).orderBy("id").list(), expected);
+
+        // Equality
+        var record = records.get(RANDOM.nextInt(RECORD_COUNT));
+        assertEquals(getDao().query(clazz).equalTo("id", record.getPrimaryKey()).first().orElseThrow(), record);
+        assertTrue(getDao().query(clazz).equalTo("id", RECORD_COUNT + 1).first().isEmpty());
+    }
+
+    @Test
+    public void testEnumsAndNulls() {
+        var clazz = RecordWithEnums.class;
+        getDao().createTables(Collections.singletonList(clazz));
+        getDao().preload(Collections.singletonList(clazz));
+
+        var records = new ArrayList<RecordWithEnums>(RECORD_COUNT);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            var id = getDao().generatePrimaryKey(clazz);
+            records.add(i % 5 == 0 ? RecordWithEnums.newNullRecord(id) : RecordWithEnums.newRecord(id, RANDOM));
+        }
+        getDao().insert(100, records);
+
+        for (var column : List.of("by_name", "by_ordinal", "native_enum")) {
+            var retrieved = getDao().query(clazz).equalTo(column, EnumType.F2).orderBy("id").list();
+            assertEquals(retrieved, records.stream().filter(r -> getValue(r, column) == EnumType.F2).toList());
+
+            retrieved = getDao().query(clazz).isNull(column).orderBy("id").list();
+            assertEquals(retrieved, records.stream().filter(r -> getValue(r, column) == null).toList());
+
+            retrieved = getDao().query(clazz).in(column, List.of(EnumType.F1, EnumType.F3)).orderBy("id").list();
+            assertEquals(retrieved, records.stream()
+                .filter(r -> Objects.equals(getValue(r, column), EnumType.F1)
+                    || Objects.equals(getValue(r, column), EnumType.F3))
+                .toList());
+        }
+    }
+
+    private static EnumType getValue(RecordWithEnums record, String column) {
+        return switch (column) {
+            case "by_name" -> record.getByName();
+            case "by_ordinal" -> record.getByOrdinal();
+            default -> record.getNativeEnum();
+        };
+    }
+}
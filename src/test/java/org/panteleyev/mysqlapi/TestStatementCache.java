@@ -0,0 +1,230 @@
+package org.panteleyev.mysqlapi;
+
+/*
+ * Copyright (c) Petr Panteleyev. All rights reserved.
+ * Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+
+import org.panteleyev.mysqlapi.model.RecordWithPrimitives;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class TestStatementCache {
+    private static final int RECORD_COUNT = 10;
+    private static final Random RANDOM = new Random(System.currentTimeMillis());
+
+    private Connection delegate;
+    private LongAdder hits;
+    private LongAdder misses;
+
+    @BeforeMethod
+    public void setup() throws Exception {
+        delegate = mock(Connection.class);
+        when(delegate.prepareStatement(anyString())).thenAnswer(a -> mock(PreparedStatement.class));
+        hits = new LongAdder();
+        misses = new LongAdder();
+    }
+
+    @Test
+    public void testHitsAndMisses() throws Exception {
+        var conn = StatementCache.wrap(delegate, 2, hits, misses);
+
+        PreparedStatement first;
+        try (var lease = StatementCache.lease(conn, "A")) {
+            first = lease.statement();
+        }
+        try (var lease = StatementCache.lease(conn, "A")) {
+            assertSame(lease.statement(), first);
+        }
+
+        verify(delegate, times(1)).prepareStatement("A");
+        verify(first, never()).close();
+        assertEquals(hits.sum(), 1);
+        assertEquals(misses.sum(), 1);
+
+        var cache = StatementCache.of(conn);
+        assertEquals(cache.getHits(), 1);
+        assertEquals(cache.getMisses(), 1);
+        assertEquals(cache.size(), 1);
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        var conn = StatementCache.wrap(delegate, 2, hits, misses);
+
+        var a = use(conn, "A");
+        var b = use(conn, "B");
+        // A becomes most recently used, B is evicted by C
+        assertSame(use(conn, "A"), a);
+        var c = use(conn, "C");
+
+        verify(b).close();
+        verify(a, never()).close();
+        verify(c, never()).close();
+        assertEquals(StatementCache.of(conn).size(), 2);
+    }
+
+    @Test
+    public void testEvictionOfLeasedStatement() throws Exception {
+        var conn = StatementCache.wrap(delegate, 1, hits, misses);
+
+        var lease = StatementCache.lease(conn, "A");
+        var b = use(conn, "B");
+        verify(lease.statement(), never()).close();
+
+        lease.close();
+        verify(lease.statement()).close();
+        verify(b, never()).close();
+    }
+
+    @Test
+    public void testLeasedStatementIsNotShared() throws Exception {
+        var conn = StatementCache.wrap(delegate, 2, hits, misses);
+
+        try (var outer = StatementCache.lease(conn, "A")) {
+            PreparedStatement inner;
+            try (var lease = StatementCache.lease(conn, "A")) {
+                inner = lease.statement();
+                assertNotSame(inner, outer.statement());
+            }
+            verify(inner).close();
+            verify(outer.statement(), never()).close();
+        }
+        assertEquals(misses.sum(), 2);
+        assertEquals(StatementCache.of(conn).size(), 1);
+    }
+
+    @Test
+    public void testConnectionClose() throws Exception {
+        var conn = StatementCache.wrap(delegate, 4, hits, misses);
+        var a = use(conn, "A");
+        var b = use(conn, "B");
+
+        conn.close();
+
+        verify(a).close();
+        verify(b).close();
+        verify(delegate).close();
+        assertEquals(StatementCache.of(conn).size(), 0);
+    }
+
+    @Test
+    public void testParametersClearedOnRelease() throws Exception {
+        var conn = StatementCache.wrap(delegate, 2, hits, misses);
+
+        var a = use(conn, "A");
+        var order = inOrder(a);
+        order.verify(a).clearParameters();
+        assertSame(use(conn, "A"), a);
+        order.verify(a).clearParameters();
+        verify(a, never()).close();
+    }
+
+    @Test
+    public void testClearParametersFailure() throws Exception {
+        var conn = StatementCache.wrap(delegate, 2, hits, misses);
+
+        var lease = StatementCache.lease(conn, "A");
+        doThrow(new SQLException("broken")).when(lease.statement()).clearParameters();
+        expectThrows(SQLException.class, lease::close);
+
+        // Statement is not returned to the cache
+        verify(lease.statement()).close();
+        assertEquals(StatementCache.of(conn).size(), 0);
+        assertNotSame(use(conn, "A"), lease.statement());
+    }
+
+    @Test
+    public void testPrepareOutsideOfLock() throws Exception {
+        var conn = StatementCache.wrap(delegate, 2, hits, misses);
+        var a = use(conn, "A");
+
+        var preparing = new CountDownLatch(1);
+        var prepared = new CountDownLatch(1);
+        when(delegate.prepareStatement("B")).thenAnswer(inv -> {
+            preparing.countDown();
+            assertTrue(prepared.await(10, TimeUnit.SECONDS));
+            return mock(PreparedStatement.class);
+        });
+        var slow = CompletableFuture.supplyAsync(() -> {
+            try {
+                return use(conn, "B");
+            } catch (Exception ex) {
+                throw new RuntimeException(ex);
+            }
+        });
+
+        // Cached statement is leased while the other one is being prepared
+        assertTrue(preparing.await(10, TimeUnit.SECONDS));
+        assertSame(use(conn, "A"), a);
+        prepared.countDown();
+        slow.get(10, TimeUnit.SECONDS);
+        assertEquals(StatementCache.of(conn).size(), 2);
+    }
+
+    @Test
+    public void testClientConnection() throws Exception {
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(delegate);
+        var client = new MySqlClient(dataSource);
+        client.setStatementCacheSize(4);
+
+        try (var conn = client.getConnection()) {
+            assertNotNull(StatementCache.of(conn));
+            for (int i = 0; i < RECORD_COUNT; i++) {
+                var record = RecordWithPrimitives.newRecord(i, RANDOM);
+                client.insert(conn, record);
+                client.update(conn, record);
+            }
+        }
+
+        // Every statement except the first insert and update is taken from the cache
+        verify(delegate, times(2)).prepareStatement(anyString());
+        verify(delegate).close();
+        assertEquals(client.getStatementCacheHits(), 2 * (RECORD_COUNT - 1));
+        assertEquals(client.getStatementCacheMisses(), 2);
+
+        client.setStatementCacheSize(0);
+        assertNull(StatementCache.of(client.getConnection()));
+    }
+
+    @Test
+    public void testNoCache() throws Exception {
+        assertNull(StatementCache.of(delegate));
+
+        var st = use(delegate, "A");
+        verify(st).close();
+        expectThrows(IllegalArgumentException.class, () -> StatementCache.wrap(delegate, 0, hits, misses));
+    }
+
+    private static PreparedStatement use(Connection conn, String sql) throws Exception {
+        try (var lease = StatementCache.lease(conn, sql)) {
+            return lease.statement();
+        }
+    }
+}
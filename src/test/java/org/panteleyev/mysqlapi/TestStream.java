@@ -0,0 +1,93 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.model.RecordWithPrimitives;
+import org.testng.annotations.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+@Test
+public class TestStream extends Base {
+    private static final int RECORD_COUNT = 500;
+
+    @Test(dataProvider = "recordClasses")
+    public void testStream(Class<? extends TableRecord<Integer>> clazz) throws Exception {
+        var records = givenRecords(clazz);
+
+        List<? extends TableRecord<Integer>> retrieved;
+        try (var stream = getDao().stream(clazz)) {
+            retrieved = stream.collect(Collectors.toList());
+        }
+        assertRecords(retrieved, records);
+
+        var consumed = new ArrayList<TableRecord<Integer>>();
+        getDao().forEach(clazz, consumed::add);
+        assertRecords(consumed, records);
+    }
+
+    @Test
+    public void testPartialStream() throws Exception {
+        var clazz = RecordWithPrimitives.class;
+        var records = givenRecords(clazz);
+
+        try (var conn = getDao().getConnection()) {
+            try (var stream = getDao().stream(conn, clazz)) {
+                var iterator = stream.iterator();
+                for (int i = 0; i < 10; i++) {
+                    iterator.next();
+                }
+            }
+
+            // Connection is usable after the stream is closed
+            assertRecords(getDao().getAll(conn, clazz), records);
+        }
+    }
+
+    @Test
+    public void testCursorFetch() throws Exception {
+        var client = new MySqlClient(getDataSourceBuilder().useCursorFetch(true).build());
+        client.setCompiled(getDao().isCompiled());
+        client.setFetchSize(7);
+
+        var clazz = RecordWithPrimitives.class;
+        var records = givenRecords(clazz);
+
+        try (var stream = client.stream(clazz)) {
+            assertRecords(stream.collect(Collectors.toList()), records);
+        }
+    }
+
+    private <T extends TableRecord<Integer>> List<T> givenRecords(Class<T> clazz) throws Exception {
+        getDao().createTables(Collections.singletonList(clazz));
+        getDao().preload(Collections.singletonList(clazz));
+
+        var records = new ArrayList<T>(RECORD_COUNT);
+        for (int i = 0; i < RECORD_COUNT; i++) {
+            records.add(i % 10 == 0 ? givenNullRecord(clazz) : givenRandomRecord(clazz));
+        }
+        getDao().insert(50, records);
+        return records;
+    }
+
+    private static void assertRecords(List<? extends TableRecord<?>> retrieved, List<? extends TableRecord<?>> expected) {
+        assertEquals(retrieved.size(), expected.size());
+
+        // Some records do not implement hashCode() consistently with equals()
+        var map = new HashMap<Object, TableRecord<?>>();
+        for (var r : retrieved) {
+            assertFalse(map.containsKey(r.getPrimaryKey()));
+            map.put(r.getPrimaryKey(), r);
+        }
+        for (var r : expected) {
+            assertEquals(map.get(r.getPrimaryKey()), r);
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package org.panteleyev.mysqlapi;
+
+/*
+ * Copyright (c) Petr Panteleyev. All rights reserved.
+ * Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+
+import org.panteleyev.mysqlapi.annotations.Column;
+import org.panteleyev.mysqlapi.annotations.PrimaryKey;
+import org.panteleyev.mysqlapi.annotations.Table;
+import org.panteleyev.mysqlapi.model.MappedRecord;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.Set;
+import java.util.stream.IntStream;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class TestTableMapping {
+    private static final String SELECT_ALL = "SELECT id,name FROM mapped";
+    private static final String SELECT_BY_ID = "SELECT id,name FROM mapped WHERE id=?";
+    private static final String INSERT = "INSERT INTO mapped (id,name) VALUES (?,?)";
+    private static final String UPDATE = "update mapped set name=? WHERE id=?";
+    private static final String DELETE = "DELETE FROM mapped WHERE id=?";
+    private static final String CREATE = "CREATE TABLE IF NOT EXISTS mapped (id INTEGER PRIMARY KEY,name VARCHAR(255))";
+
+    @SuppressWarnings("unchecked")
+    private final TableMapping<MappedRecord> mapping = mock(TableMapping.class);
+
+    @BeforeClass
+    public void setup() throws Exception {
+        when(mapping.getTableClass()).thenReturn(MappedRecord.class);
+        when(mapping.getTableName()).thenReturn("mapped");
+        when(mapping.getPrimaryKeyColumn()).thenReturn("id");
+        when((Object) mapping.getPrimaryKeyType()).thenReturn(Integer.class);
+        when(mapping.getSelectAllSql()).thenReturn(SELECT_ALL);
+        when(mapping.getSelectByIdSql()).thenReturn(SELECT_BY_ID);
+        when(mapping.getInsertSql()).thenReturn(INSERT);
+        when(mapping.getUpdateSql()).thenReturn(UPDATE);
+        when(mapping.getDeleteSql()).thenReturn(DELETE);
+        when(mapping.getCreateTableSql()).thenReturn(List.of(CREATE));
+        when(mapping.getColumnNames()).thenReturn(List.of("id", "name"));
+        when(mapping.getFetchProfiles()).thenReturn(Map.of("keys", List.of()));
+        when(mapping.map(any())).then(inv -> {
+            ResultSet set = inv.getArgument(0);
+            return new MappedRecord(set.getInt(1), set.getString(2));
+        });
+        when(mapping.readColumn(anyString(), any(), anyInt())).then(inv -> {
+            ResultSet set = inv.getArgument(1);
+            int index = inv.getArgument(2);
+            return inv.getArgument(0).equals("id") ? (Object) set.getInt(index) : set.getString(index);
+        });
+        when(mapping.getPrimaryKey(any())).then(inv -> ((MappedRecord) inv.getArgument(0)).getId());
+
+        MySqlClient.addTableMapping(mapping);
+    }
+
+    @Test
+    public void testGetAll() throws Exception {
+        var conn = mock(Connection.class);
+        var ps = mock(PreparedStatement.class);
+        var set = mock(ResultSet.class);
+        when(conn.prepareStatement(SELECT_ALL)).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(set);
+        when(set.next()).thenReturn(true, false);
+        when(set.getInt(1)).thenReturn(10);
+        when(set.getString(2)).thenReturn("name");
+
+        var result = new MySqlClient().getAll(conn, MappedRecord.class);
+        assertEquals(result.size(), 1);
+        assertEquals(result.get(0).getId(), 10);
+        assertEquals(result.get(0).getName(), "name");
+    }
+
+    @Test
+    public void testGetAllMap() throws Exception {
+        var conn = mock(Connection.class);
+        var ps = mock(PreparedStatement.class);
+        var set = mock(ResultSet.class);
+        when(conn.prepareStatement(SELECT_ALL)).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(set);
+        when(set.next()).thenReturn(true, false);
+        when(set.getInt(1)).thenReturn(20);
+
+        var result = new HashMap<Integer, MappedRecord>();
+        new MySqlClient().getAll(conn, MappedRecord.class, result);
+        assertEquals(result.keySet(), Set.of(20));
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        var conn = mock(Connection.class);
+        var ps = mock(PreparedStatement.class);
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(mock(ResultSet.class));
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(conn);
+
+        new MySqlClient(dataSource).get(30, MappedRecord.class);
+        verify(conn).prepareStatement(SELECT_BY_ID);
+        verify(mapping).bindPrimaryKey(30, ps, 1);
+    }
+
+    @Test
+    public void testInsertUpdateDelete() throws Exception {
+        var conn = mock(Connection.class);
+        var ps = mock(PreparedStatement.class);
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+
+        var dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(conn);
+        var client = new MySqlClient(dataSource);
+        var record = new MappedRecord(40, "name");
+
+        client.insert(conn, record);
+        verify(conn).prepareStatement(INSERT);
+        verify(mapping).bindInsert(record, ps);
+
+        client.update(conn, record);
+        verify(conn).prepareStatement(UPDATE);
+        verify(mapping).bindUpdate(record, ps);
+
+        client.delete(record);
+        verify(conn).prepareStatement(DELETE);
+        verify(mapping).bindPrimaryKey(40, ps, 1);
+    }
+
+    @Test
+    public void testMultiRowInsert() throws Exception {
+        var conn = mock(Connection.class);
+        var ps = mock(PreparedStatement.class);
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        doAnswer(inv -> {
+            MappedRecord record = inv.getArgument(0);
+            PreparedStatement st = inv.getArgument(1);
+            st.setInt(1, record.getId());
+            st.setString(2, record.getName());
+            return null;
+        }).when(mapping).bindInsert(any(), any());
+
+        var client = new MySqlClient();
+        client.setMultiRowInsert(true);
+        var records = IntStream.range(0, 5).mapToObj(i -> new MappedRecord(50 + i, "name" + i)).toList();
+        client.insert(conn, 4, records);
+
+        verify(conn).prepareStatement("INSERT INTO mapped (id,name) VALUES (?,?),(?,?),(?,?),(?,?)");
+        verify(conn).prepareStatement(INSERT);
+        verify(ps, times(2)).executeUpdate();
+        // Rows of the first statement are bound after each other
+        verify(ps).setInt(1, 50);
+        verify(ps).setString(2, "name0");
+        verify(ps).setInt(7, 53);
+        verify(ps).setString(8, "name3");
+        // Second statement contains the last row only
+        verify(ps).setInt(1, 54);
+    }
+
+    @Test
+    public void testUpsertAndInsertIgnore() throws Exception {
+        var conn = mock(Connection.class);
+        var ps = mock(PreparedStatement.class);
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        var client = new MySqlClient();
+        var record = new MappedRecord(60, "name");
+
+        client.upsert(conn, record);
+        verify(conn).prepareStatement(INSERT + " ON DUPLICATE KEY UPDATE name=VALUES(name)");
+
+        client.insertIgnore(conn, record);
+        verify(conn).prepareStatement("INSERT IGNORE INTO mapped (id,name) VALUES (?,?)");
+        verify(mapping, times(2)).bindInsert(record, ps);
+    }
+
+    @Test
+    public void testQuery() throws Exception {
+        var conn = mock(Connection.class);
+        var ps = mock(PreparedStatement.class);
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(mock(ResultSet.class));
+
+        new MySqlClient().query(MappedRecord.class)
+            .equalTo("name", "value")
+            .greaterThan("id", 70)
+            .list(conn);
+        verify(conn).prepareStatement(SELECT_ALL + " WHERE name=? AND id>?");
+        // Parameters are bound by the mapping with column options
+        verify(mapping).bindColumn("name", "value", ps, 1);
+        verify(mapping).bindColumn("id", 70, ps, 2);
+
+        expectThrows(IllegalArgumentException.class,
+            () -> new MySqlClient().query(MappedRecord.class).equalTo("unknown", 1));
+    }
+
+    public record NameProjection(String name) {
+    }
+
+    @Test
+    public void testFetchProfile() throws Exception {
+        var conn = mock(Connection.class);
+        var ps = mock(PreparedStatement.class);
+        var set = mock(ResultSet.class);
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(set);
+        when(set.next()).thenReturn(true, false);
+        when(set.getInt(1)).thenReturn(80);
+
+        // Columns not retrieved are selected as NULL, row is read by the mapping
+        var result = new MySqlClient().getAll(conn, MappedRecord.class, "keys");
+        verify(conn).prepareStatement("SELECT id,NULL FROM mapped");
+        assertEquals(result.get(0).getId(), 80);
+        assertNull(result.get(0).getName());
+
+        MySqlClient.addFetchProfile(MappedRecord.class, "names", "name");
+        expectThrows(IllegalArgumentException.class,
+            () -> MySqlClient.addFetchProfile(MappedRecord.class, "unknown", "unknown"));
+    }
+
+    @Test
+    public void testProjection() throws Exception {
+        var conn = mock(Connection.class);
+        var ps = mock(PreparedStatement.class);
+        var set = mock(ResultSet.class);
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(set);
+        when(set.next()).thenReturn(true, false);
+        when(set.getString(2)).thenReturn("projected");
+
+        var result = new MySqlClient().getAll(conn, MappedRecord.class, NameProjection.class);
+        verify(conn).prepareStatement(SELECT_ALL);
+        assertEquals(result, List.of(new NameProjection("projected")));
+    }
+
+    @Test
+    public void testCreateTables() throws Exception {
+        var conn = mock(Connection.class);
+        var st = mock(Statement.class);
+        when(conn.createStatement()).thenReturn(st);
+
+        new MySqlClient().createTables(conn, List.of(MappedRecord.class));
+        verify(st).executeUpdate("DROP TABLE IF EXISTS mapped");
+        verify(st).executeUpdate(CREATE);
+    }
+
+    @Table("replaced")
+    public static class ReplacedRecord implements TableRecord<Integer> {
+        @PrimaryKey
+        @Column("id")
+        private int id;
+        @Column("name")
+        private String name;
+
+        public ReplacedRecord() {
+        }
+
+        public ReplacedRecord(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    @Test
+    public void testMappingReplacesReflection() throws Exception {
+        var conn = mock(Connection.class);
+        var ps = mock(PreparedStatement.class);
+        var set = mock(ResultSet.class);
+        when(conn.prepareStatement(anyString())).thenReturn(ps);
+        when(ps.executeQuery()).thenReturn(set);
+        when(set.next()).thenReturn(true, false, true, false);
+        when(set.getObject(2)).thenReturn("reflected");
+
+        // Mapper and binder are built by reflection
+        var client = new MySqlClient();
+        var record = new ReplacedRecord(90, "name");
+        assertEquals(client.getAll(conn, ReplacedRecord.class).get(0).name, "reflected");
+        client.insert(conn, record);
+
+        @SuppressWarnings("unchecked")
+        TableMapping<ReplacedRecord> replacement = mock(TableMapping.class);
+        when(replacement.getTableClass()).thenReturn(ReplacedRecord.class);
+        when(replacement.getTableName()).thenReturn("replaced");
+        when(replacement.getSelectAllSql()).thenReturn("SELECT id,name FROM replaced");
+        when(replacement.getInsertSql()).thenReturn("INSERT INTO replaced (id,name) VALUES (?,?)");
+        when(replacement.getColumnNames()).thenReturn(List.of("id", "name"));
+        when(replacement.getCreateTableSql()).thenReturn(List.of());
+        when(replacement.getFetchProfiles()).thenReturn(Map.of());
+        when(replacement.map(any())).thenReturn(new ReplacedRecord(91, "mapped"));
+        MySqlClient.addTableMapping(replacement);
+
+        assertEquals(client.getAll(conn, ReplacedRecord.class).get(0).name, "mapped");
+        client.insert(conn, record);
+        verify(replacement).bindInsert(record, ps);
+    }
+
+    @Test
+    public void testGetTableMapping() {
+        assertSame(MySqlClient.getTableMapping(MappedRecord.class), mapping);
+    }
+
+    @Test
+    public void testBrokenProviderSkipped() {
+        @SuppressWarnings("unchecked")
+        Iterator<TableMapping> providers = mock(Iterator.class);
+        when(providers.hasNext()).thenReturn(true, true, false);
+        when(providers.next()).thenThrow(new ServiceConfigurationError("broken")).thenReturn(mapping);
+
+        assertEquals(MySqlClient.loadTableMappings(providers), Map.of(MappedRecord.class, mapping));
+    }
+
+    @Test
+    public void testBrokenConfiguration() {
+        @SuppressWarnings("unchecked")
+        Iterator<TableMapping> providers = mock(Iterator.class);
+        when(providers.hasNext()).thenThrow(new ServiceConfigurationError("broken"));
+
+        assertEquals(MySqlClient.loadTableMappings(providers), Map.of());
+    }
+}
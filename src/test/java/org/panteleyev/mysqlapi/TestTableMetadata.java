@@ -0,0 +1,230 @@
+package org.panteleyev.mysqlapi;
+
+/*
+ * Copyright (c) Petr Panteleyev. All rights reserved.
+ * Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+
+import org.panteleyev.mysqlapi.model.ChildTable;
+import org.panteleyev.mysqlapi.model.NoPrimaryKeyRecord;
+import org.panteleyev.mysqlapi.model.NotAnnotatedRecord;
+import org.panteleyev.mysqlapi.model.RecordAsRecord;
+import org.panteleyev.mysqlapi.model.RecordWithPrimitives;
+import org.panteleyev.mysqlapi.model.RecordWithUuid;
+import org.panteleyev.mysqlapi.model.UuidBinaryPrimaryKeyRecord;
+import org.panteleyev.mysqlapi.annotations.Column;
+import org.testng.annotations.Test;
+import java.util.List;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class TestTableMetadata {
+    @Test
+    public void testCached() {
+        assertSame(TableMetadata.of(RecordWithPrimitives.class), TableMetadata.of(RecordWithPrimitives.class));
+    }
+
+    @Test
+    public void testColumns() {
+        var metadata = TableMetadata.of(RecordWithPrimitives.class);
+
+        assertEquals(metadata.getTableName(), "primitives_table");
+        assertEquals(metadata.getColumns().stream().map(TableMetadata.ColumnMetadata::name).toList(),
+            List.of("id", "a", "b", "c"));
+        assertEquals(metadata.getUpdateColumns().stream().map(TableMetadata.ColumnMetadata::name).toList(),
+            List.of("a", "b", "c", "id"));
+        assertSame(metadata.getPrimaryKey(), metadata.getColumn("id"));
+        assertEquals(metadata.getPrimaryKeyType(), Integer.class);
+        assertTrue(metadata.isAutoIncrement());
+
+        assertEquals(metadata.getInsertSql(), "INSERT INTO primitives_table (id,a,b,c) VALUES (?,?,?,?)");
+        assertEquals(metadata.getUpdateSql(), "update primitives_table set a=?, b=?, c=? WHERE id=?");
+        assertEquals(metadata.getDeleteSql(), "DELETE FROM primitives_table WHERE id=?");
+    }
+
+    @Test
+    public void testMultiRowInsertSql() {
+        var metadata = TableMetadata.of(RecordWithPrimitives.class);
+
+        assertEquals(metadata.getInsertParameterCount(), 4);
+        assertSame(metadata.getInsertSql(1), metadata.getInsertSql());
+        assertEquals(metadata.getInsertSql(3),
+            "INSERT INTO primitives_table (id,a,b,c) VALUES (?,?,?,?),(?,?,?,?),(?,?,?,?)");
+        assertSame(metadata.getInsertSql(3), metadata.getInsertSql(3));
+    }
+
+    @Test
+    public void testUpsertSql() {
+        var metadata = TableMetadata.of(RecordWithPrimitives.class);
+
+        assertEquals(metadata.getInsertSql(1, TableMetadata.InsertMode.UPSERT),
+            "INSERT INTO primitives_table (id,a,b,c) VALUES (?,?,?,?)"
+                + " ON DUPLICATE KEY UPDATE a=VALUES(a),b=VALUES(b),c=VALUES(c)");
+        assertEquals(metadata.getInsertSql(2, TableMetadata.InsertMode.UPSERT),
+            "INSERT INTO primitives_table (id,a,b,c) VALUES (?,?,?,?),(?,?,?,?)"
+                + " ON DUPLICATE KEY UPDATE a=VALUES(a),b=VALUES(b),c=VALUES(c)");
+        assertEquals(metadata.getInsertSql(2, TableMetadata.InsertMode.IGNORE),
+            "INSERT IGNORE INTO primitives_table (id,a,b,c) VALUES (?,?,?,?),(?,?,?,?)");
+        assertSame(metadata.getInsertSql(1, TableMetadata.InsertMode.INSERT), metadata.getInsertSql());
+    }
+
+    @Test
+    public void testDeleteByIdsSql() {
+        var metadata = TableMetadata.of(RecordWithPrimitives.class);
+
+        assertEquals(metadata.getDeleteByIdsSql(1), "DELETE FROM primitives_table WHERE id IN (?)");
+        assertEquals(metadata.getDeleteByIdsSql(3), "DELETE FROM primitives_table WHERE id IN (?,?,?)");
+        assertSame(metadata.getDeleteByIdsSql(3), metadata.getDeleteByIdsSql(3));
+        expectThrows(IllegalStateException.class,
+            () -> TableMetadata.of(NoPrimaryKeyRecord.class).getDeleteByIdsSql(2));
+
+        assertEquals(metadata.getSelectByIdsSql(2), "SELECT id,a,b,c FROM primitives_table WHERE id IN (?,?)");
+        assertSame(metadata.getSelectByIdsSql(2), metadata.getSelectByIdsSql(2));
+
+        assertEquals(MySqlClient.getInListChunkSize(5000), MySqlClient.MAX_IN_LIST_SIZE);
+        assertEquals(MySqlClient.getInListChunkSize(100), 64);
+        assertEquals(MySqlClient.getInListChunkSize(1), 1);
+    }
+
+    @Test
+    public void testTemporaryKeyTable() {
+        var metadata = TableMetadata.of(RecordWithPrimitives.class);
+        var table = metadata.getTemporaryKeyTable();
+
+        assertEquals(table.createSql(), "CREATE TEMPORARY TABLE tmp_primitives_table_keys (PRIMARY KEY (id))"
+            + " SELECT id FROM primitives_table LIMIT 0");
+        assertEquals(table.selectSql(),
+            "SELECT id,a,b,c FROM primitives_table WHERE id IN (SELECT id FROM tmp_primitives_table_keys)");
+        assertEquals(table.dropSql(), "DROP TEMPORARY TABLE IF EXISTS tmp_primitives_table_keys");
+        assertEquals(metadata.getInsertTemporaryKeysSql(3),
+            "INSERT INTO tmp_primitives_table_keys (id) VALUES (?),(?),(?)");
+        assertSame(metadata.getTemporaryKeyTable(), table);
+    }
+
+    @Test
+    public void testPageSql() {
+        var metadata = TableMetadata.of(RecordWithPrimitives.class);
+
+        assertEquals(metadata.getPageSql(SortOrder.ASCENDING, true),
+            "SELECT id,a,b,c FROM primitives_table ORDER BY id ASC LIMIT ?");
+        assertEquals(metadata.getPageSql(SortOrder.ASCENDING, false),
+            "SELECT id,a,b,c FROM primitives_table WHERE id>? ORDER BY id ASC LIMIT ?");
+        assertEquals(metadata.getPageSql(SortOrder.DESCENDING, false),
+            "SELECT id,a,b,c FROM primitives_table WHERE id<? ORDER BY id DESC LIMIT ?");
+        assertSame(metadata.getPageSql(SortOrder.DESCENDING, true), metadata.getPageSql(SortOrder.DESCENDING, true));
+        assertEquals(metadata.getKeyRangeSql(), "SELECT MIN(id),MAX(id) FROM primitives_table");
+        assertEquals(metadata.getSelectByKeyRangeSql(),
+            "SELECT id,a,b,c FROM primitives_table WHERE id BETWEEN ? AND ?");
+        expectThrows(IllegalStateException.class,
+            () -> TableMetadata.of(NoPrimaryKeyRecord.class).getPageSql(SortOrder.ASCENDING, true));
+    }
+
+    @Test
+    public void testBinaryUuid() {
+        var metadata = TableMetadata.of(RecordWithUuid.class);
+
+        // Binary UUID is converted on the client side, columns are not wrapped by functions
+        assertEquals(metadata.getSelectAllSql(), "SELECT id,uuid,uuidBinary FROM table_with_uuid");
+        assertEquals(metadata.getInsertSql(), "INSERT INTO table_with_uuid (id,uuid,uuidBinary) VALUES (?,?,?)");
+        assertEquals(TableMetadata.of(UuidBinaryPrimaryKeyRecord.class).getDeleteSql(),
+            "DELETE FROM uuid_binary_primary_key WHERE prim_key=?");
+    }
+
+    @Test
+    public void testLoadDataSql() {
+        assertEquals(TableMetadata.of(RecordWithPrimitives.class).getLoadDataSql(),
+            "LOAD DATA LOCAL INFILE 'stream' INTO TABLE primitives_table CHARACTER SET utf8mb4 (id,a,b,c)");
+        // Binary values are sent as hex strings
+        assertEquals(TableMetadata.of(RecordWithUuid.class).getLoadDataSql(),
+            "LOAD DATA LOCAL INFILE 'stream' INTO TABLE table_with_uuid CHARACTER SET utf8mb4 (id,uuid,@v3)"
+                + " SET uuidBinary=UNHEX(@v3)");
+    }
+
+    @Test
+    public void testCreateTableSql() {
+        assertEquals(TableMetadata.of(ChildTable.class).getCreateTableSql(), List.of(
+            "CREATE TABLE IF NOT EXISTS child_table (id INTEGER PRIMARY KEY,"
+                + "null_value VARCHAR(255),cascade_value VARCHAR(255),restrict_value VARCHAR(255),"
+                + "no_action_value VARCHAR(255),none_value VARCHAR(255),"
+                + "FOREIGN KEY (null_value) REFERENCES parent_table(value) ON UPDATE SET NULL ON DELETE SET NULL,"
+                + "FOREIGN KEY (cascade_value) REFERENCES parent_table(value) ON UPDATE CASCADE ON DELETE CASCADE,"
+                + "FOREIGN KEY (restrict_value) REFERENCES parent_table(value) ON UPDATE RESTRICT ON DELETE RESTRICT,"
+                + "FOREIGN KEY (no_action_value) REFERENCES parent_table(value) ON UPDATE NO ACTION ON DELETE NO ACTION,"
+                + "FOREIGN KEY (none_value) REFERENCES parent_table(value))"
+        ));
+    }
+
+    @Test
+    public void testNoPrimaryKey() {
+        var metadata = TableMetadata.of(NoPrimaryKeyRecord.class);
+
+        assertFalse(metadata.hasPrimaryKey());
+        assertFalse(metadata.isAutoIncrement());
+        expectThrows(IllegalStateException.class, metadata::getPrimaryKey);
+        expectThrows(IllegalStateException.class, metadata::getSelectByIdSql);
+        expectThrows(IllegalStateException.class, metadata::getUpdateSql);
+        expectThrows(IllegalStateException.class, metadata::getDeleteSql);
+    }
+
+    @Test(expectedExceptions = {IllegalStateException.class})
+    public void testNotAnnotated() {
+        TableMetadata.of(NotAnnotatedRecord.class);
+    }
+
+    public record ValueProjection(@Column("a") int value, long c) {
+    }
+
+    public record UnknownColumnProjection(String unknown) {
+    }
+
+    @Test
+    public void testFetchProfile() {
+        var metadata = TableMetadata.of(RecordWithPrimitives.class);
+
+        // Primary key is added, columns follow the table order
+        var profile = metadata.getFetchProfile("ac");
+        assertEquals(profile.columns().stream().map(TableMetadata.ColumnMetadata::name).toList(),
+            List.of("id", "a", "c"));
+        assertEquals(profile.columnNames(), List.of("id", "a", "c"));
+        assertEquals(profile.selectAllSql(), "SELECT id,a,c FROM primitives_table");
+        assertEquals(metadata.getSelectByIdSql(profile), "SELECT id,a,c FROM primitives_table WHERE id=?");
+        assertSame(metadata.getFetchProfile("ac"), profile);
+
+        assertEquals(TableMetadata.of(RecordAsRecord.class).getFetchProfile("summary").selectAllSql(),
+            "SELECT id,a,g FROM record_as_record_table");
+
+        expectThrows(IllegalArgumentException.class, () -> metadata.getFetchProfile("unknown"));
+    }
+
+    @Test
+    public void testAddFetchProfile() {
+        var metadata = TableMetadata.of(RecordWithPrimitives.class);
+
+        var profile = metadata.addFetchProfile("runtime_b", List.of("b"));
+        assertEquals(profile.selectAllSql(), "SELECT id,b FROM primitives_table");
+        assertSame(metadata.getFetchProfile("runtime_b"), profile);
+        // Same definition is accepted
+        assertSame(metadata.addFetchProfile("runtime_b", List.of("b", "id")), profile);
+
+        expectThrows(IllegalStateException.class, () -> metadata.addFetchProfile("runtime_b", List.of("c")));
+        expectThrows(IllegalStateException.class, () -> metadata.addFetchProfile("a", List.of("b")));
+        expectThrows(IllegalArgumentException.class, () -> metadata.addFetchProfile("unknown", List.of("x")));
+    }
+
+    @Test
+    public void testProjection() {
+        var metadata = TableMetadata.of(RecordWithPrimitives.class);
+
+        var projection = metadata.getProjection(ValueProjection.class);
+        assertEquals(projection.selectAllSql(), "SELECT id,a,c FROM primitives_table");
+        assertSame(metadata.getProjection(ValueProjection.class), projection);
+
+        expectThrows(IllegalArgumentException.class, () -> metadata.getProjection(RecordWithPrimitives.class));
+        expectThrows(IllegalArgumentException.class,
+            () -> metadata.getProjection(UnknownColumnProjection.class));
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ Copyright (c) Petr Panteleyev. All rights reserved.
+ Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+package org.panteleyev.mysqlapi;
+
+import org.panteleyev.mysqlapi.model.RecordWithPrimitives;
+import org.testng.annotations.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class TestTransaction extends Base {
+    private static final int RECORD_COUNT = 100;
+
+    private void createTable() {
+        var clazz = RecordWithPrimitives.class;
+        getDao().createTables(Collections.singletonList(clazz));
+        getDao().truncate(Collections.singletonList(clazz));
+    }
+
+    @Test
+    public void testCommit() {
+        createTable();
+
+        var records = new ArrayList<RecordWithPrimitives>();
+        for (int i = 1; i <= RECORD_COUNT; i++) {
+            records.add(RecordWithPrimitives.newRecord(i, RANDOM));
+        }
+
+        var count = getDao().inTransaction(tx -> {
+            records.forEach(tx::insert);
+            tx.delete(1, RecordWithPrimitives.class);
+            // Changes are visible inside the transaction
+            return tx.getTableSize(RecordWithPrimitives.class);
+        });
+
+        assertEquals(count.intValue(), RECORD_COUNT - 1);
+        assertEquals(getDao().getTableSize(RecordWithPrimitives.class), RECORD_COUNT - 1);
+        assertEquals(getDao().get(2, RecordWithPrimitives.class).orElseThrow(), records.get(1));
+    }
+
+    @Test
+    public void testRollback() {
+        createTable();
+        getDao().insert(RecordWithPrimitives.newRecord(1, RANDOM));
+
+        expectThrows(IllegalStateException.class, () -> getDao().inTransaction(tx -> {
+            tx.insert(RecordWithPrimitives.newRecord(2, RANDOM));
+            tx.delete(1, RecordWithPrimitives.class);
+            throw new IllegalStateException();
+        }));
+
+        assertEquals(getDao().getTableSize(RecordWithPrimitives.class), 1);
+        assertTrue(getDao().get(1, RecordWithPrimitives.class).isPresent());
+    }
+
+    @Test
+    public void testReadOnly() {
+        createTable();
+
+        expectThrows(RuntimeException.class, () -> getDao().inTransaction(TransactionIsolation.READ_COMMITTED, true,
+            tx -> {
+                tx.insert(RecordWithPrimitives.newRecord(1, RANDOM));
+                return null;
+            }));
+        assertEquals(getDao().getTableSize(RecordWithPrimitives.class), 0);
+
+        // Connection settings do not leak into the next transaction
+        getDao().inTransaction(tx -> {
+            tx.insert(RecordWithPrimitives.newRecord(1, RANDOM));
+            return null;
+        });
+        assertEquals(getDao().getTableSize(RecordWithPrimitives.class), 1);
+    }
+
+    @Test
+    public void testDeadlockRetry() throws Exception {
+        createTable();
+        var first = RecordWithPrimitives.newRecord(1, RANDOM);
+        var second = RecordWithPrimitives.newRecord(2, RANDOM);
+        getDao().insert(first);
+        getDao().insert(second);
+
+        // Each transaction locks one row and then the row locked by the other one
+        var latch = new CountDownLatch(2);
+        var calls = new AtomicInteger();
+        var futures = new ArrayList<CompletableFuture<Void>>();
+        for (var order : new RecordWithPrimitives[][]{{first, second}, {second, first}}) {
+            futures.add(CompletableFuture.runAsync(() -> getDao().inTransaction(tx -> {
+                calls.incrementAndGet();
+                tx.update(order[0]);
+                latch.countDown();
+                try {
+                    latch.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    throw new RuntimeException(ex);
+                }
+                tx.update(order[1]);
+                return null;
+            })));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        assertTrue(calls.get() >= 3);
+    }
+}
@@ -0,0 +1,79 @@
+package org.panteleyev.mysqlapi;
+
+/*
+ * Copyright (c) Petr Panteleyev. All rights reserved.
+ * Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+
+import org.panteleyev.mysqlapi.model.RecordWithUuid;
+import org.testng.annotations.Test;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.UUID;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.expectThrows;
+
+@Test
+public class TestUuidCodec {
+    // Example from MySQL manual for UUID_TO_BIN()
+    private static final UUID UUID_VALUE = UUID.fromString("6ccd780c-baba-1026-9564-5b8c656024db");
+    private static final String BINARY = "6CCD780CBABA102695645B8C656024DB";
+    private static final String SWAPPED = "1026BABA6CCD780C95645B8C656024DB";
+
+    @Test
+    public void testToBytes() {
+        assertEquals(toHex(UuidCodec.toBytes(UUID_VALUE, false)), BINARY);
+        assertEquals(toHex(UuidCodec.toBytes(UUID_VALUE, true)), SWAPPED);
+    }
+
+    @Test
+    public void testFromBytes() {
+        assertEquals(UuidCodec.fromBytes(fromHex(BINARY), false), UUID_VALUE);
+        assertEquals(UuidCodec.fromBytes(fromHex(SWAPPED), true), UUID_VALUE);
+        expectThrows(IllegalArgumentException.class, () -> UuidCodec.fromBytes(new byte[15], false));
+    }
+
+    @Test
+    public void testRoundTrip() {
+        for (int i = 0; i < 100; i++) {
+            var uuid = UUID.randomUUID();
+            assertEquals(UuidCodec.fromBytes(UuidCodec.toBytes(uuid, false), false), uuid);
+            assertEquals(UuidCodec.fromBytes(UuidCodec.toBytes(uuid, true), true), uuid);
+        }
+    }
+
+    @Test
+    public void testReadWrite() throws Exception {
+        var column = TableMetadata.of(RecordWithUuid.class).getColumn("uuidBinary").column();
+        var proxy = new MySqlProxy();
+
+        var set = mock(ResultSet.class);
+        when(set.getBytes(1)).thenReturn(fromHex(BINARY));
+        assertEquals(proxy.getReader(UUID.class, column).read(set, 1), UUID_VALUE);
+
+        var st = mock(PreparedStatement.class);
+        @SuppressWarnings("unchecked")
+        var writer = (DataWriters.ColumnWriter<UUID>) proxy.getWriter(UUID.class, column);
+        writer.write(st, 1, UUID_VALUE);
+        verify(st).setBytes(1, fromHex(BINARY));
+    }
+
+    private static String toHex(byte[] bytes) {
+        var b = new StringBuilder();
+        for (var x : bytes) {
+            b.append(String.format("%02X", x));
+        }
+        return b.toString();
+    }
+
+    private static byte[] fromHex(String hex) {
+        var bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(i * 2, i * 2 + 2), 16);
+        }
+        return bytes;
+    }
+}
@@ -5,6 +5,7 @@ package org.panteleyev.mysqlapi;
  * Licensed under the BSD license. See LICENSE file in the project root for full license information.
  */
 
+import org.panteleyev.mysqlapi.model.UuidBinaryPrimaryKeyRecord;
 import org.panteleyev.mysqlapi.model.UuidPrimaryKeyRecord;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -71,4 +72,24 @@ public class TestUuidPrimaryKey extends Base {
         var deleted = getDao().get(id, UuidPrimaryKeyRecord.class);
         assertTrue(deleted.isEmpty());
     }
+
+    @Test
+    public void testBinaryUuidPrimaryKey() {
+        getDao().createTables(Collections.singletonList(UuidBinaryPrimaryKeyRecord.class));
+
+        var id = UUID.randomUUID();
+        var record = new UuidBinaryPrimaryKeyRecord(id, UUID.randomUUID().toString());
+
+        getDao().insert(record);
+        getDao().get(id, UuidBinaryPrimaryKeyRecord.class)
+            .ifPresentOrElse(retrieved -> assertEquals(retrieved, record), Assert::fail);
+
+        var newValue = UUID.randomUUID().toString();
+        getDao().update(new UuidBinaryPrimaryKeyRecord(id, newValue));
+        getDao().get(id, UuidBinaryPrimaryKeyRecord.class)
+            .ifPresentOrElse(updated -> assertEquals(updated.getValue(), newValue), Assert::fail);
+
+        getDao().delete(id, UuidBinaryPrimaryKeyRecord.class);
+        assertTrue(getDao().get(id, UuidBinaryPrimaryKeyRecord.class).isEmpty());
+    }
 }
@@ -5,16 +5,24 @@ package org.panteleyev.mysqlapi.answers;
  * Licensed under the BSD license. See LICENSE file in the project root for full license information.
  */
 
+import org.panteleyev.mysqlapi.annotations.Column;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 abstract class ResultSetAnswer {
     private final Map<String, Object> valueMap = new HashMap<>();
+    // Column positions in the select list
+    private final List<String> columns = new ArrayList<>();
 
     ResultSetAnswer(Object object) {
         for (Field field : object.getClass().getDeclaredFields()) {
             field.setAccessible(true);
+            if (field.isAnnotationPresent(Column.class)) {
+                columns.add(field.getName());
+            }
 
             try {
                 valueMap.put(field.getName(), field.get(object));
@@ -24,7 +32,11 @@ abstract class ResultSetAnswer {
         }
     }
 
-    Object getValue(String fieldName) {
-        return valueMap.get(fieldName);
+    Object getValue(Object column) {
+        if (column instanceof Integer index) {
+            return valueMap.get(columns.get(index - 1));
+        } else {
+            return valueMap.get(column);
+        }
     }
 }
@@ -0,0 +1,29 @@
+package org.panteleyev.mysqlapi.answers;
+
+/*
+ * Copyright (c) Petr Panteleyev. All rights reserved.
+ * Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import java.nio.charset.StandardCharsets;
+
+public class ResultSetBytesAnswer extends ResultSetAnswer implements Answer<byte[]> {
+    public ResultSetBytesAnswer(Object object) {
+        super(object);
+    }
+
+    @Override
+    public byte[] answer(InvocationOnMock inv) {
+        Object result = getValue(inv.getArguments()[0]);
+
+        if (result instanceof Enum<?> enm) {
+            return enm.name().getBytes(StandardCharsets.UTF_8);
+        } else if (result instanceof String str) {
+            return str.getBytes(StandardCharsets.UTF_8);
+        } else {
+            return (byte[]) result;
+        }
+    }
+}
@@ -17,8 +17,7 @@ public class ResultSetLongAnswer extends ResultSetAnswer implements Answer<Long>
 
     @Override
     public Long answer(InvocationOnMock inv) {
-        String fieldName = (String) inv.getArguments()[0];
-        Object result = getValue(fieldName);
+        Object result = getValue(inv.getArguments()[0]);
 
         if (result instanceof LocalDate localDate) {
             return localDate.toEpochDay();
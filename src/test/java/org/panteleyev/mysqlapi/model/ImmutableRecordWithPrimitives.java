@@ -7,12 +7,14 @@ package org.panteleyev.mysqlapi.model;
 
 import org.panteleyev.mysqlapi.TableRecord;
 import org.panteleyev.mysqlapi.annotations.Column;
+import org.panteleyev.mysqlapi.annotations.FetchProfile;
 import org.panteleyev.mysqlapi.annotations.PrimaryKey;
 import org.panteleyev.mysqlapi.annotations.RecordBuilder;
 import org.panteleyev.mysqlapi.annotations.Table;
 import java.util.Objects;
 import java.util.Random;
 
+@FetchProfile(value = "ac", columns = {"a", "c"})
 @Table("immutable_primitives_table")
 public class ImmutableRecordWithPrimitives implements TableRecord {
     @PrimaryKey
@@ -0,0 +1,29 @@
+package org.panteleyev.mysqlapi.model;
+
+/*
+ * Copyright (c) Petr Panteleyev. All rights reserved.
+ * Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+
+import org.panteleyev.mysqlapi.TableRecord;
+
+/**
+ * Record without annotations. Its mapping is registered explicitly.
+ */
+public class MappedRecord implements TableRecord<Integer> {
+    private final int id;
+    private final String name;
+
+    public MappedRecord(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -6,6 +6,7 @@ package org.panteleyev.mysqlapi.model;
 
 import org.panteleyev.mysqlapi.TableRecord;
 import org.panteleyev.mysqlapi.annotations.Column;
+import org.panteleyev.mysqlapi.annotations.FetchProfile;
 import org.panteleyev.mysqlapi.annotations.PrimaryKey;
 import org.panteleyev.mysqlapi.annotations.Table;
 import java.math.BigDecimal;
@@ -15,6 +16,7 @@ import java.util.Date;
 import java.util.Random;
 import java.util.UUID;
 
+@FetchProfile(value = "summary", columns = {"a", "g"})
 @Table("record_as_record_table")
 public record RecordAsRecord(
     @PrimaryKey
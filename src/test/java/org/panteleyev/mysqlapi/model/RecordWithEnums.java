@@ -0,0 +1,89 @@
+package org.panteleyev.mysqlapi.model;
+
+/*
+ * Copyright (c) Petr Panteleyev. All rights reserved.
+ * Licensed under the BSD license. See LICENSE file in the project root for full license information.
+ */
+
+import org.panteleyev.mysqlapi.TableRecord;
+import org.panteleyev.mysqlapi.annotations.Column;
+import org.panteleyev.mysqlapi.annotations.EnumStorage;
+import org.panteleyev.mysqlapi.annotations.PrimaryKey;
+import org.panteleyev.mysqlapi.annotations.Table;
+import java.util.Objects;
+import java.util.Random;
+
+@Table("table_with_enums")
+public class RecordWithEnums implements TableRecord<Integer> {
+    @PrimaryKey
+    @Column(Column.ID)
+    private Integer id;
+
+    @Column("by_name")
+    private EnumType byName;
+    @Column(value = "by_ordinal", enumStorage = EnumStorage.ORDINAL)
+    private EnumType byOrdinal;
+    @Column(value = "native_enum", enumStorage = EnumStorage.ENUM)
+    private EnumType nativeEnum;
+
+    public RecordWithEnums() {
+    }
+
+    public RecordWithEnums(Integer id, EnumType byName, EnumType byOrdinal, EnumType nativeEnum) {
+        this.id = id;
+        this.byName = byName;
+        this.byOrdinal = byOrdinal;
+        this.nativeEnum = nativeEnum;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public EnumType getByName() {
+        return byName;
+    }
+
+    public EnumType getByOrdinal() {
+        return byOrdinal;
+    }
+
+    public EnumType getNativeEnum() {
+        return nativeEnum;
+    }
+
+    public static RecordWithEnums newRecord(Integer id, Random random) {
+        var values = EnumType.values();
+        return new RecordWithEnums(
+            id,
+            values[random.nextInt(values.length)],
+            values[random.nextInt(values.length)],
+            values[random.nextInt(values.length)]
+        );
+    }
+
+    public static RecordWithEnums newNullRecord(Integer id) {
+        return new RecordWithEnums(id, null, null, null);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o instanceof RecordWithEnums that) {
+            return Objects.equals(this.id, that.id)
+                && this.byName == that.byName
+                && this.byOrdinal == that.byOrdinal
+                && this.nativeEnum == that.nativeEnum;
+        } else {
+            return false;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, byName, byOrdinal, nativeEnum);
+    }
+}
@@ -7,11 +7,14 @@ package org.panteleyev.mysqlapi.model;
 
 import org.panteleyev.mysqlapi.TableRecord;
 import org.panteleyev.mysqlapi.annotations.Column;
+import org.panteleyev.mysqlapi.annotations.FetchProfile;
 import org.panteleyev.mysqlapi.annotations.PrimaryKey;
 import org.panteleyev.mysqlapi.annotations.Table;
 import java.util.Objects;
 import java.util.Random;
 
+@FetchProfile(value = "a", columns = "a")
+@FetchProfile(value = "ac", columns = {"c", "a"})
 @Table("primitives_table")
 public class RecordWithPrimitives implements TableRecord<Integer> {
     @PrimaryKey